@@ -1,44 +1,133 @@
 package com.ibra.apigateway.config;
 
+import com.ibra.apigateway.filter.ConcurrencyLimitFilter;
 import com.ibra.apigateway.filter.JwtAuthFilter;
+import com.ibra.apigateway.filter.RateLimitFilter;
+import com.ibra.apigateway.filter.ResponseCacheFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class GatewayConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final ResponseCacheFilter responseCacheFilter;
+    private final Duration restaurantsCacheTtl;
+    private final Duration menuItemsCacheTtl;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final Environment environment;
 
-    public GatewayConfig(JwtAuthFilter jwtAuthFilter) {
+    public GatewayConfig(JwtAuthFilter jwtAuthFilter,
+                         ResponseCacheFilter responseCacheFilter,
+                         RateLimitFilter rateLimitFilter,
+                         ConcurrencyLimitFilter concurrencyLimitFilter,
+                         Environment environment,
+                         @Value("${gateway.response-cache.restaurants-ttl:30s}") Duration restaurantsCacheTtl,
+                         @Value("${gateway.response-cache.menu-items-ttl:30s}") Duration menuItemsCacheTtl) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.responseCacheFilter = responseCacheFilter;
+        this.restaurantsCacheTtl = restaurantsCacheTtl;
+        this.menuItemsCacheTtl = menuItemsCacheTtl;
+        this.rateLimitFilter = rateLimitFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.environment = environment;
+    }
+
+    /**
+     * Token bucket limit per client for a route, overridable with
+     * {@code gateway.rate-limit.routes.<name>.capacity} and {@code .replenish-per-second}.
+     */
+    private RateLimitFilter.Config rateLimit(String name, long capacity, double replenishPerSecond) {
+        String prefix = "gateway.rate-limit.routes." + name + ".";
+        return new RateLimitFilter.Config()
+                .setName(name)
+                .setCapacity(environment.getProperty(prefix + "capacity", Long.class, capacity))
+                .setReplenishPerSecond(environment.getProperty(prefix + "replenish-per-second", Double.class, replenishPerSecond));
+    }
+
+    /**
+     * Adaptive concurrency limit shared by all routes to one downstream service. The latency threshold is
+     * overridable with {@code gateway.concurrency.routes.<name>.latency-threshold}.
+     */
+    private ConcurrencyLimitFilter.Config concurrencyLimit(String name, Duration latencyThreshold) {
+        return new ConcurrencyLimitFilter.Config()
+                .setName(name)
+                .setLatencyThreshold(environment.getProperty(
+                        "gateway.concurrency.routes." + name + ".latency-threshold", Duration.class, latencyThreshold));
+    }
+
+    private ConcurrencyLimitFilter.Config restaurantServiceConcurrency() {
+        return concurrencyLimit("restaurant-service", Duration.ofMillis(300))
+                .setLowPriorityRoutes(Map.of("GET", List.of(
+                        "/api/restaurants/search",
+                        "/api/restaurants/nearby",
+                        "/api/menu-items/restaurants/{restaurantId:\\d+}/search",
+                        "/api/search/**")));
+    }
+
+    private ConcurrencyLimitFilter.Config orderServiceConcurrency() {
+        return concurrencyLimit("order-service", Duration.ofMillis(500))
+                .setCriticalRoutes(Map.of("POST", List.of("/api/orders")))
+                .setLowPriorityRoutes(Map.of("GET", List.of("/api/orders/stats/**", "/api/v2/orders/stats/**")));
     }
 
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
-                // Auth service routes (public)
+                // Auth service routes; register, login, refresh and the JWKS are public, the rest need a live token
                 .route("auth-service", r -> r
                         .path("/auth/**")
+                        .filters(f -> f
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                .filter(rateLimitFilter.apply(rateLimit("auth", 10, 1))))
                         .uri("lb://auth-service"))
 
                 // Restaurant service routes (protected)
                 .route("restaurant-service", r -> r
                         .path("/api/restaurants/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthFilter.Config())))
+                        .filters(f -> f
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config().setTtl(restaurantsCacheTtl)))
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                .filter(rateLimitFilter.apply(rateLimit("restaurants", 50, 20)))
+                                .filter(concurrencyLimitFilter.apply(restaurantServiceConcurrency())))
                         .uri("lb://restaurant-service"))
 
                 .route("menu-item-service", r -> r
                         .path("/api/menu-items/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthFilter.Config())))
+                        .filters(f -> f
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config().setTtl(menuItemsCacheTtl)))
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                .filter(rateLimitFilter.apply(rateLimit("menu-items", 50, 20)))
+                                .filter(concurrencyLimitFilter.apply(restaurantServiceConcurrency())))
+                        .uri("lb://restaurant-service"))
+
+                // Restaurant and menu search (public reads)
+                .route("search-service", r -> r
+                        .path("/api/search/**")
+                        .filters(f -> f
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                .filter(rateLimitFilter.apply(rateLimit("search", 30, 10)))
+                                .filter(concurrencyLimitFilter.apply(restaurantServiceConcurrency())))
                         .uri("lb://restaurant-service"))
 
                 // Order service routes (protected)
                 .route("order-service", r -> r
-                        .path("/api/orders/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthFilter.Config())))
+                        .path("/api/orders/**", "/api/v2/orders/**")
+                        .filters(f -> f
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                // Restaurant dashboards poll order lists; keep one client from saturating order-service
+                                .filter(rateLimitFilter.apply(rateLimit("orders", 20, 5)))
+                                .filter(concurrencyLimitFilter.apply(orderServiceConcurrency())))
                         .uri("lb://order-service"))
 
 
@@ -46,7 +135,9 @@ public class GatewayConfig {
                 // Admin routes (protected)
                 .route("admin-routes", r -> r
                         .path("/admin/**")
-                        .filters(f -> f.filter(jwtAuthFilter.apply(new JwtAuthFilter.Config())))
+                        .filters(f -> f
+                                .filter(jwtAuthFilter.apply(new JwtAuthFilter.Config()))
+                                .filter(rateLimitFilter.apply(rateLimit("admin", 20, 5))))
                         .uri("lb://auth-service"))
 
                 .build();
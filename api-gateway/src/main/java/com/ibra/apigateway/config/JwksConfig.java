@@ -0,0 +1,43 @@
+package com.ibra.apigateway.config;
+
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+
+@Configuration
+public class JwksConfig {
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Verification keys from auth-service, refreshed in the background.
+     * The fetch blocks, which is fine because it only runs on the locator's own refresh thread.
+     * While {@code jwt.secret} is set, HS-signed tokens issued before the switch to EC keys are still accepted;
+     * it is empty by default, and then tokens without a key ID are rejected.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwksKeyLocator jwksKeyLocator(WebClient.Builder webClientBuilder,
+                                         ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                         @Value("${jwt.jwks.uri:http://auth-service/auth/.well-known/jwks.json}") String jwksUri,
+                                         @Value("${jwt.jwks.refresh-interval-ms:60000}") long refreshIntervalMs,
+                                         @Value("${jwt.secret:}") String legacySecret) {
+        WebClient webClient = webClientBuilder.clone()
+                .filter(loadBalancerFunction)
+                .build();
+        SecretKey legacyKey = legacySecret.isBlank() ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(legacySecret));
+
+        return new JwksKeyLocator(
+                () -> webClient.get().uri(jwksUri).retrieve().bodyToMono(String.class).block(FETCH_TIMEOUT),
+                Duration.ofMillis(refreshIntervalMs),
+                Duration.ofSeconds(5),
+                legacyKey);
+    }
+}
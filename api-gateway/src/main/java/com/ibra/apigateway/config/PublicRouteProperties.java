@@ -0,0 +1,27 @@
+package com.ibra.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints that bypass JWT validation, keyed by HTTP method.
+ * See {@link com.ibra.apigateway.filter.PublicRouteMatcher} for the pattern syntax.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway")
+public class PublicRouteProperties {
+
+    private Map<String, List<String>> publicRoutes = new LinkedHashMap<>();
+
+    public Map<String, List<String>> getPublicRoutes() {
+        return publicRoutes;
+    }
+
+    public void setPublicRoutes(Map<String, List<String>> publicRoutes) {
+        this.publicRoutes = publicRoutes;
+    }
+}
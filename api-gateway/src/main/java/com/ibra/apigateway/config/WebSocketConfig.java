@@ -0,0 +1,41 @@
+package com.ibra.apigateway.config;
+
+import com.ibra.apigateway.filter.JwtAuthFilter;
+import com.ibra.apigateway.websocket.JwtHandshakeWebSocketService;
+import com.ibra.apigateway.websocket.OrderUpdatesWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+
+import java.util.Map;
+
+/**
+ * WebSocket push channel served by the gateway itself.
+ * Clients connect to {@code /ws/updates} with their JWT and receive live order and kitchen updates.
+ */
+@Configuration
+public class WebSocketConfig implements WebFluxConfigurer {
+
+    public static final String UPDATES_PATH = "/ws/updates";
+
+    private final JwtAuthFilter jwtAuthFilter;
+
+    public WebSocketConfig(JwtAuthFilter jwtAuthFilter) {
+        this.jwtAuthFilter = jwtAuthFilter;
+    }
+
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(OrderUpdatesWebSocketHandler orderUpdatesWebSocketHandler) {
+        // Ordered ahead of the gateway's RoutePredicateHandlerMapping so the upgrade is handled locally
+        return new SimpleUrlHandlerMapping(Map.of(UPDATES_PATH, orderUpdatesWebSocketHandler), Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public WebSocketService getWebSocketService() {
+        return new JwtHandshakeWebSocketService(jwtAuthFilter);
+    }
+}
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -57,6 +58,16 @@ public class GatewayExceptionHandler implements ErrorWebExceptionHandler {
             httpStatus = HttpStatus.BAD_REQUEST;
             errorMessage = ex.getMessage();
             logger.warn("BusinessException caught at Gateway: {}", ex.getMessage());
+        } else if (ex instanceof RateLimitExceededException rateLimitExceeded) {
+            httpStatus = HttpStatus.TOO_MANY_REQUESTS;
+            errorMessage = ex.getMessage();
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitExceeded.getRetryAfterSeconds()));
+            logger.debug("RateLimitExceededException caught at Gateway: {}", ex.getMessage());
+        } else if (ex instanceof ServiceOverloadedException overloaded) {
+            httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+            errorMessage = ex.getMessage();
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()));
+            logger.debug("ServiceOverloadedException caught at Gateway: {}", ex.getMessage());
         } else if (ex instanceof ExpiredJwtException) { // Specific JWT expiration
             httpStatus = HttpStatus.UNAUTHORIZED;
             errorMessage = "JWT token has expired. Please log in again.";
@@ -0,0 +1,18 @@
+package com.ibra.apigateway.exception;
+
+/**
+ * Thrown when a request is shed because the downstream service is at its concurrency limit.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ibra.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes.
+ * <p>
+ * A lookup derives its bit positions from the two halves of the hash (Kirsch-Mitzenmacher double hashing), so it
+ * costs a handful of array reads and no allocation. Bits live in an {@link AtomicLongArray}, which lets one writer
+ * add entries while other threads read without locking. Entries cannot be removed; callers rebuild instead.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    private BloomFilter(int bitCount, int hashCount, int capacity) {
+        this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * A filter that answers with at most {@code falsePositiveRate} wrong positives while it holds no more than
+     * {@code expectedEntries} entries.
+     */
+    static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("Expected entries must be positive: " + expectedEntries);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int bitCount = (int) Math.min(Integer.MAX_VALUE, Math.max(64, bits));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * LN2));
+        return new BloomFilter(bitCount, hashCount, expectedEntries);
+    }
+
+    /**
+     * Number of entries the filter was sized for.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    void put(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            int index = bit >>> 6;
+            long word;
+            do {
+                word = words.get(index);
+            } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars of {@code value}, finished with the MurmurHash3 mixer so that both halves are
+     * usable as independent hashes.
+     */
+    static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long hash(long value) {
+        return mix(value * 0x9e3779b97f4a7c15L);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,232 @@
+package com.ibra.apigateway.filter;
+
+import com.ibra.apigateway.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive limit on the number of requests in flight to a downstream service.
+ * <p>
+ * The limit follows AIMD: while at least half of it is in use, every response within the latency threshold raises
+ * it by {@code 1/limit} (about one per round of requests), while a slow response, 5xx or error cuts it by the
+ * backoff ratio, at most once per threshold period. Requests above the limit are shed with 503 before they can queue inside the service. Lower priority
+ * requests may only use part of the limit, so search and stats are shed first and order placement last.
+ * Routes with the same limiter name share one limit.
+ */
+@Component
+public class ConcurrencyLimitFilter extends AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${gateway.concurrency.min-limit:5}") int minLimit,
+                                  @Value("${gateway.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${gateway.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Request priorities and the share of the limit each may use.
+     */
+    public enum Priority {
+        CRITICAL(1.0),
+        NORMAL(0.8),
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    public static class Config {
+
+        private String name = "default";
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private Map<String, List<String>> criticalRoutes = new LinkedHashMap<>();
+        private Map<String, List<String>> lowPriorityRoutes = new LinkedHashMap<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public Config setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        public Map<String, List<String>> getCriticalRoutes() {
+            return criticalRoutes;
+        }
+
+        /**
+         * Requests shed last, keyed by HTTP method; see {@link PublicRouteMatcher} for the pattern syntax.
+         */
+        public Config setCriticalRoutes(Map<String, List<String>> criticalRoutes) {
+            this.criticalRoutes = criticalRoutes;
+            return this;
+        }
+
+        public Map<String, List<String>> getLowPriorityRoutes() {
+            return lowPriorityRoutes;
+        }
+
+        /**
+         * Requests shed first, keyed by HTTP method; see {@link PublicRouteMatcher} for the pattern syntax.
+         */
+        public Config setLowPriorityRoutes(Map<String, List<String>> lowPriorityRoutes) {
+            this.lowPriorityRoutes = lowPriorityRoutes;
+            return this;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Limiter limiter = limiters.computeIfAbsent(config.getName(),
+                name -> new Limiter(name, config.getLatencyThreshold()));
+        PublicRouteMatcher criticalRoutes = PublicRouteMatcher.compile(config.getCriticalRoutes());
+        PublicRouteMatcher lowPriorityRoutes = PublicRouteMatcher.compile(config.getLowPriorityRoutes());
+        Map<Priority, Counter> shedCounters = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            shedCounters.put(priority, Counter.builder("gateway.concurrency.shed")
+                    .description("Requests rejected because the downstream concurrency limit was reached")
+                    .tag("limiter", config.getName())
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getURI().getPath();
+            Priority priority = criticalRoutes.matches(request.getMethod(), path) ? Priority.CRITICAL
+                    : lowPriorityRoutes.matches(request.getMethod(), path) ? Priority.LOW
+                    : Priority.NORMAL;
+
+            if (!limiter.tryAcquire(priority)) {
+                shedCounters.get(priority).increment();
+                logger.debug("Shedding {} {} ({}): limiter '{}' at {} in flight", request.getMethod(), path,
+                        priority, config.getName(), limiter.inFlight());
+                return Mono.error(new ServiceOverloadedException("Service is busy. Please retry shortly.", 1));
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean failed = status != null && status.is5xxServerError();
+                        limiter.release(System.nanoTime() - start, failed || signal == SignalType.ON_ERROR);
+                    });
+        };
+    }
+
+    /**
+     * The shared state of one named limit.
+     */
+    final class Limiter {
+
+        private final long latencyThresholdNanos;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // Double bits of the current limit, updated with CAS
+        private final AtomicLong limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+        Limiter(String name, Duration latencyThreshold) {
+            this.latencyThresholdNanos = latencyThreshold.toNanos();
+            Gauge.builder("gateway.concurrency.limit", this, Limiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("limiter", name)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in-flight", inFlight, AtomicInteger::get)
+                    .description("Requests currently in flight to the downstream service")
+                    .tag("limiter", name)
+                    .register(meterRegistry);
+        }
+
+        boolean tryAcquire(Priority priority) {
+            int allowed = Math.max(1, (int) (limit() * priority.share));
+            while (true) {
+                int current = inFlight.get();
+                if (current >= allowed) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long latencyNanos, boolean failed) {
+            int inFlightBefore = inFlight.getAndDecrement();
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                long now = System.nanoTime();
+                long last = lastDecrease.get();
+                // One cut per threshold period, so a burst of slow responses from one episode is not counted many times
+                if (now - last >= latencyThresholdNanos && lastDecrease.compareAndSet(last, now)) {
+                    update(limit -> Math.max(minLimit, limit * backoffRatio));
+                }
+            } else if (inFlightBefore * 2 >= limit()) {
+                // Only grow while the limit is actually being used, otherwise an idle period inflates it
+                update(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+            }
+        }
+
+        double limit() {
+            return Double.longBitsToDouble(limitBits.get());
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+
+        private void update(DoubleUnaryOperator function) {
+            limitBits.updateAndGet(bits -> Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(bits))));
+        }
+    }
+
+    Limiter limiter(String name) {
+        return limiters.get(name);
+    }
+}
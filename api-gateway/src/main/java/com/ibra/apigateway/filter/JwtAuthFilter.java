@@ -1,13 +1,21 @@
 package com.ibra.apigateway.filter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ibra.apigateway.config.PublicRouteProperties;
+import com.ibra.dto.TokenRevokedEvent;
 import com.ibra.exception.BusinessException;
 import com.ibra.exception.UnauthorizedException;
+import com.ibra.security.identity.IdentitySigner;
+import com.ibra.security.jwt.JwksKeyLocator;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,29 +28,131 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends AbstractGatewayFilterFactory<JwtAuthFilter.Config> {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Upper bound for tokens that carry no exp claim
+    private static final long MAX_CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(15);
 
-    public JwtAuthFilter() {
+    // Headers set by setIdentityHeaders; on public routes no client-supplied copy reaches a service
+    private static final List<String> IDENTITY_HEADERS = List.of("X-User-Id", "X-User-Email", "X-User-Role", IdentitySigner.HEADER);
+
+    /**
+     * Exchange attribute holding the authenticated user id. Unlike the X-User-Id header it cannot be supplied by the client.
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthFilter.class.getName() + ".userId";
+
+    // Parser is immutable and thread-safe, so it is built once; keys are looked up by kid from the auth-service JWKS
+    private final JwtParser jwtParser;
+
+    // Endpoints that bypass JWT validation, compiled from gateway.public-routes
+    private final PublicRouteMatcher publicRoutes;
+
+    // Validated tokens keyed by the SHA-256 of the token, each entry evicted when its token expires
+    private final Cache<ByteBuffer, VerifiedToken> claimsCache;
+
+    private final TokenRevocationList revocationList;
+
+    // Signs the X-User-Identity header for downstream services; null when internal.secret is not set
+    private final IdentitySigner identitySigner;
+
+    public JwtAuthFilter(JwksKeyLocator jwksKeyLocator,
+                         @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize,
+                         MeterRegistry meterRegistry,
+                         PublicRouteProperties publicRouteProperties,
+                         TokenRevocationList revocationList,
+                         @Value("${internal.secret:}") String internalSecret,
+                         @Value("${internal.identity.max-age:60s}") Duration identityMaxAge) {
         super(Config.class);
+        this.revocationList = revocationList;
+        this.identitySigner = IdentitySigner.forSecret(internalSecret, identityMaxAge);
+        this.publicRoutes = PublicRouteMatcher.compile(publicRouteProperties.getPublicRoutes());
+        this.jwtParser = Jwts.parser().keyLocator(jwksKeyLocator).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "gateway.jwt.claims");
     }
 
     public static class Config {
         // Put the configuration properties
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     * Tokens seen before are answered from the claims cache without re-running the signature check.
+     * Throws the underlying jjwt exception when the token is not valid, and {@link UnauthorizedException}
+     * when it has been revoked.
+     */
+    public Claims validateToken(String token) {
+        VerifiedToken verified = claimsCache.get(hash(token), key -> VerifiedToken.of(jwtParser.parseSignedClaims(token).getPayload()));
+        // Checked on every use, cached or not, since a token can be revoked after it was first seen
+        if (revocationList.isRevoked(verified.jti(), verified.userId(), verified.issuedAtMillis())) {
+            throw new UnauthorizedException("Token has been revoked");
+        }
+        return verified.claims();
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private boolean isPublic(ServerHttpRequest request) {
+        return publicRoutes.matches(request.getMethod(), request.getURI().getPath());
+    }
+
+    /**
+     * Validates the JWT presented on a WebSocket upgrade request.
+     * Browsers cannot set an Authorization header on the handshake, so the token
+     * may also be passed as the {@code access_token} query parameter.
+     */
+    public Claims authenticateHandshake(ServerHttpRequest request) {
+        String token = null;
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            token = authHeader.substring(7);
+        } else {
+            token = request.getQueryParams().getFirst("access_token");
+        }
+
+        if (token == null || token.isBlank()) {
+            logger.warn("Missing JWT token for WebSocket handshake: {}", request.getURI().getPath());
+            throw new UnauthorizedException("Missing JWT token for WebSocket handshake");
+        }
+        return validateToken(token);
+    }
+
+    /**
+     * Sets the headers that tell downstream services who the caller is, replacing any the client sent.
+     * The gateway also uses this for the calls it makes on a user's behalf.
+     */
+    public void setIdentityHeaders(HttpHeaders headers, Long userId, String email, String role) {
+        headers.set("X-User-Id", userId.toString());
+        headers.set("X-User-Email", email);
+        headers.set("X-User-Role", role);
+        if (identitySigner != null) {
+            headers.set(IdentitySigner.HEADER, identitySigner.sign(userId, email, role));
+        } else {
+            headers.remove(IdentitySigner.HEADER);
+        }
     }
 
     @Override
@@ -52,45 +162,13 @@ public class JwtAuthFilter extends AbstractGatewayFilterFactory<JwtAuthFilter.Co
             String path = request.getURI().getPath();
             String method = request.getMethod().name();
 
-            // Define truly public endpoints, specifying method where necessary
-            // These endpoints will bypass JWT validation
-            final List<String> PUBLIC_GET_ENDPOINTS = List.of(
-                    "/api/restaurants",             // GET /api/restaurants (get all active)
-                    "/api/restaurants/search",      // GET /api/restaurants/search
-                    "/api/restaurants/owner/",      // GET /api/restaurants/owner/{ownerId}
-                    "/api/menu-items/restaurants/", // GET /api/menu-items/restaurants/{restaurantId}/...
-                    "/api/menu-items/"              // GET /api/menu-items/{id} or /api/menu-items (if applicable)
-            );
-
-            final List<String> PUBLIC_POST_ENDPOINTS = List.of(
-                    "/auth/register",
-                    "/auth/login",
-                    "/auth/health"
-            );
-
-            // Predicate to determine if a request is public and should bypass JWT validation
-            Predicate<ServerHttpRequest> isPublic = r -> {
-                String currentPath = r.getURI().getPath();
-                String currentMethod = r.getMethod().name();
-
-                // Check for public GET endpoints
-                if ("GET".equals(currentMethod)) {
-                    if (PUBLIC_GET_ENDPOINTS.stream().anyMatch(publicPath -> currentPath.startsWith(publicPath))) {
-                        return true;
-                    }
-                }
-                // Check for public POST endpoints
-                else if ("POST".equals(currentMethod)) {
-                    if (PUBLIC_POST_ENDPOINTS.stream().anyMatch(publicPath -> currentPath.startsWith(publicPath))) {
-                        return true;
-                    }
-                }
-                return false;
-            };
-
-
-            if (isPublic.test(request)) {
+            if (isPublic(request)) {
                 logger.debug("Bypassing JWT validation for public endpoint: {} {}", method, path);
+                // Only the gateway may vouch for a caller
+                if (IDENTITY_HEADERS.stream().anyMatch(request.getHeaders()::containsKey)) {
+                    ServerHttpRequest stripped = request.mutate().headers(headers -> IDENTITY_HEADERS.forEach(headers::remove)).build();
+                    return chain.filter(exchange.mutate().request(stripped).build());
+                }
                 return chain.filter(exchange);
             }
 
@@ -111,22 +189,22 @@ public class JwtAuthFilter extends AbstractGatewayFilterFactory<JwtAuthFilter.Co
 
             try {
                 // Validate JWT token
-                Claims claims = Jwts.parser()
-                        .verifyWith(getKey())
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload();
+                Claims claims = validateToken(token);
 
                 // Add user information to request headers for downstream services
-                ServerHttpRequest modifiedRequest = request.mutate()
-                        .header("X-User-Id", claims.get("id", Long.class).toString())
-                        .header("X-User-Email", claims.get("email", String.class))
-                        .header("X-User-Role", claims.get("role", String.class))
-                        .build();
+                Long userId = claims.get("id", Long.class);
+                String email = claims.get("email", String.class);
+                String role = claims.get("role", String.class);
+                ServerHttpRequest.Builder modifiedRequest = request.mutate()
+                        .headers(headers -> setIdentityHeaders(headers, userId, email, role));
 
+                exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
                 logger.debug("JWT validated. Propagating headers for user ID: {} to {}", claims.get("id"), path);
-                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+                return chain.filter(exchange.mutate().request(modifiedRequest.build()).build());
 
+            } catch (UnauthorizedException e) {
+                logger.warn("Revoked JWT token for {}", path);
+                return Mono.error(e);
             } catch (ExpiredJwtException e) {
                 logger.warn("Expired JWT token for {}: {}", path, e.getMessage());
                 return Mono.error(e); // Let GlobalExceptionHandler handle this
@@ -139,4 +217,52 @@ public class JwtAuthFilter extends AbstractGatewayFilterFactory<JwtAuthFilter.Co
             }
         };
     }
+
+    /**
+     * Claims of a verified token, with the fields the revocation check needs read out once, so that check does
+     * not have to convert or box them on every request.
+     */
+    private record VerifiedToken(Claims claims, String jti, long userId, long issuedAtMillis) {
+
+        static VerifiedToken of(Claims claims) {
+            Long userId = claims.get("id", Long.class);
+            return new VerifiedToken(claims, claims.getId(), userId != null ? userId : -1, issuedAtMillis(claims));
+        }
+
+        // Tokens issued before the millisecond claim was added only have iat, in whole seconds
+        private static long issuedAtMillis(Claims claims) {
+            Long issuedAtMillis = claims.get(TokenRevokedEvent.ISSUED_AT_MILLIS_CLAIM, Long.class);
+            if (issuedAtMillis != null) {
+                return issuedAtMillis;
+            }
+            Date issuedAt = claims.getIssuedAt();
+            return issuedAt != null ? issuedAt.getTime() : 0;
+        }
+    }
+
+    /**
+     * Expires each cached entry at the exp claim of its token.
+     */
+    private static class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken verified, long currentTime) {
+            Date expiration = verified.claims().getExpiration();
+            if (expiration == null) {
+                return MAX_CACHE_TTL_NANOS;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,223 @@
+package com.ibra.apigateway.filter;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable table of public (unauthenticated) routes, compiled once into one path trie per HTTP method.
+ * <p>
+ * Supported patterns:
+ * <ul>
+ *     <li>{@code /api/restaurants/search} - exact match</li>
+ *     <li>{@code /api/restaurants/{id}} - template, {@code {name}} matches exactly one non-empty segment</li>
+ *     <li>{@code /api/restaurants/{id:\d+}} - template restricted to a numeric segment</li>
+ *     <li>{@code /auth/**} - prefix, matches the path itself and everything below it</li>
+ * </ul>
+ * Matching walks the request path once by index and does not allocate.
+ */
+public final class PublicRouteMatcher {
+
+    private static final String PREFIX_SUFFIX = "/**";
+
+    private final Map<HttpMethod, Node> rootsByMethod;
+
+    private PublicRouteMatcher(Map<HttpMethod, Node> rootsByMethod) {
+        this.rootsByMethod = rootsByMethod;
+    }
+
+    /**
+     * Compiles a table of HTTP method name to path patterns.
+     *
+     * @throws IllegalArgumentException if a pattern is malformed
+     */
+    public static PublicRouteMatcher compile(Map<String, List<String>> patternsByMethod) {
+        Map<HttpMethod, Node> roots = new HashMap<>();
+        patternsByMethod.forEach((method, patterns) -> {
+            Node root = roots.computeIfAbsent(HttpMethod.valueOf(method.toUpperCase(Locale.ROOT)), m -> new Node());
+            for (String pattern : patterns) {
+                insert(root, pattern.trim());
+            }
+        });
+        roots.values().forEach(Node::freeze);
+        return new PublicRouteMatcher(Map.copyOf(roots));
+    }
+
+    public boolean matches(HttpMethod method, String path) {
+        Node root = rootsByMethod.get(method);
+        if (root == null || path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        // Never treat dot segments as public, "/auth/../api/orders" must not ride on a public prefix
+        if (hasDotSegment(path)) {
+            return false;
+        }
+        if (path.length() == 1) {
+            return root.exactTerminal || root.prefixTerminal;
+        }
+        return match(root, path, 0);
+    }
+
+    // A "." or ".." segment; names that merely start with a dot, such as ".well-known", are fine
+    private static boolean hasDotSegment(String path) {
+        for (int dot = path.indexOf("/."); dot >= 0; dot = path.indexOf("/.", dot + 1)) {
+            int end = dot + 2;
+            if (end < path.length() && path.charAt(end) == '.') {
+                end++;
+            }
+            if (end == path.length() || path.charAt(end) == '/') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void insert(Node root, String pattern) {
+        if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("Public route pattern must start with '/': " + pattern);
+        }
+
+        boolean prefix = pattern.endsWith(PREFIX_SUFFIX);
+        String path = prefix ? pattern.substring(0, pattern.length() - PREFIX_SUFFIX.length()) : pattern;
+
+        Node node = root;
+        if (!path.isEmpty() && !path.equals("/")) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = node.child(segment, pattern);
+            }
+        }
+
+        if (prefix) {
+            node.prefixTerminal = true;
+        } else {
+            node.exactTerminal = true;
+        }
+    }
+
+    /**
+     * {@code pos} always points at a '/' (or the end of the path) that follows the segment consumed by {@code node}.
+     */
+    private static boolean match(Node node, String path, int pos) {
+        if (node.prefixTerminal) {
+            return true;
+        }
+        if (pos == path.length()) {
+            return node.exactTerminal;
+        }
+
+        int start = pos + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (end == start) {
+            return false;
+        }
+
+        // Literal segments are unique per node, so at most one can match
+        int literal = findLiteral(node.literalChildren, path, start, end);
+        if (literal >= 0 && match(node.literalNodes[literal], path, end)) {
+            return true;
+        }
+        if (node.numericParam != null && isNumeric(path, start, end) && match(node.numericParam, path, end)) {
+            return true;
+        }
+        return node.anyParam != null && match(node.anyParam, path, end);
+    }
+
+    // Binary search of the sorted literals for path[start, end), comparing in place
+    private static int findLiteral(String[] literals, String path, int start, int end) {
+        int low = 0;
+        int high = literals.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareSegment(literals[mid], path, start, end);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Same order as String.compareTo, which Arrays.sort used for the literals
+    private static int compareSegment(String literal, String path, int start, int end) {
+        int length = Math.min(literal.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            int diff = literal.charAt(i) - path.charAt(start + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return literal.length() - (end - start);
+    }
+
+    private static boolean isNumeric(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private String[] literalChildren = new String[0];
+        private Node[] literalNodes = new Node[0];
+        private Node numericParam;
+        private Node anyParam;
+        private boolean exactTerminal;
+        private boolean prefixTerminal;
+
+        private Node child(String segment, String pattern) {
+            if (segment.isEmpty() || segment.contains("*")) {
+                throw new IllegalArgumentException("Invalid segment '" + segment + "' in public route pattern: " + pattern);
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                int colon = segment.indexOf(':');
+                if (colon < 0) {
+                    if (anyParam == null) {
+                        anyParam = new Node();
+                    }
+                    return anyParam;
+                }
+                String constraint = segment.substring(colon + 1, segment.length() - 1);
+                if (!constraint.equals("\\d+")) {
+                    throw new IllegalArgumentException("Only the \\d+ constraint is supported in public route pattern: " + pattern);
+                }
+                if (numericParam == null) {
+                    numericParam = new Node();
+                }
+                return numericParam;
+            }
+            return literals.computeIfAbsent(segment, s -> new Node());
+        }
+
+        // Flattens the literal children into sorted parallel arrays so matching can binary search them in place
+        private void freeze() {
+            literalChildren = literals.keySet().toArray(new String[0]);
+            Arrays.sort(literalChildren);
+            literalNodes = new Node[literalChildren.length];
+            for (int i = 0; i < literalChildren.length; i++) {
+                literalNodes[i] = literals.get(literalChildren[i]);
+                literalNodes[i].freeze();
+            }
+            if (numericParam != null) {
+                numericParam.freeze();
+            }
+            if (anyParam != null) {
+                anyParam.freeze();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ibra.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibra.apigateway.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token bucket rate limiting.
+ * <p>
+ * Clients are identified by the user id authenticated by {@link JwtAuthFilter}, so this filter must be declared
+ * after it on a route; anonymous requests are keyed by remote address. Buckets are kept in memory per route and
+ * evicted once idle. With {@code gateway.rate-limit.cluster-aware} enabled, each instance enforces its share of
+ * the configured limit, based on how many gateway instances are registered in discovery.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final MeterRegistry meterRegistry;
+    private final DiscoveryClient discoveryClient;
+    private final String applicationName;
+    private final boolean clusterAware;
+    private final long maxKeys;
+    private final Duration idleTimeout;
+
+    // Number of gateway instances sharing the configured limits
+    private volatile int clusterSize = 1;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           DiscoveryClient discoveryClient,
+                           @Value("${spring.application.name:api-gateway}") String applicationName,
+                           @Value("${gateway.rate-limit.cluster-aware:false}") boolean clusterAware,
+                           @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${gateway.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.discoveryClient = discoveryClient;
+        this.applicationName = applicationName;
+        this.clusterAware = clusterAware;
+        this.maxKeys = maxKeys;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public static class Config {
+
+        private String name = "default";
+        private long capacity = 20;
+        private double replenishPerSecond = 10;
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public Config setCapacity(long capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public double getReplenishPerSecond() {
+            return replenishPerSecond;
+        }
+
+        public Config setReplenishPerSecond(double replenishPerSecond) {
+            this.replenishPerSecond = replenishPerSecond;
+            return this;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Counter rejected = Counter.builder("gateway.rate-limit.rejected")
+                .description("Requests rejected because the client exceeded its rate limit")
+                .tag("limit", config.getName())
+                .register(meterRegistry);
+        long nanosPerToken = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / config.getReplenishPerSecond()));
+
+        return (exchange, chain) -> {
+            String clientKey = clientKey(exchange);
+            TokenBucket bucket = buckets.get(clientKey, key -> new TokenBucket());
+            int instances = clusterSize;
+            long result = bucket.tryTake(System.nanoTime(),
+                    Math.max(1, config.getCapacity() / instances), nanosPerToken * instances);
+
+            if (result < 0) {
+                rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + 999_999_999L));
+                logger.debug("Rate limit '{}' exceeded for {} on {}", config.getName(), clientKey,
+                        exchange.getRequest().getURI().getPath());
+                return Mono.error(new RateLimitExceededException(
+                        "Too many requests. Please retry after " + retryAfterSeconds + " second(s).", retryAfterSeconds));
+            }
+
+            exchange.getResponse().getHeaders().set(REMAINING_HEADER, Long.toString(result));
+            return chain.filter(exchange);
+        };
+    }
+
+    /**
+     * Recomputes this instance's share of the limits whenever the discovery client refreshes its registry.
+     */
+    @EventListener(HeartbeatEvent.class)
+    public void refreshClusterSize() {
+        if (!clusterAware) {
+            return;
+        }
+        try {
+            int instances = Math.max(1, discoveryClient.getInstances(applicationName).size());
+            if (instances != clusterSize) {
+                logger.info("Scaling rate limits for {} gateway instance(s)", instances);
+                clusterSize = instances;
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read gateway instances from discovery, keeping cluster size {}: {}", clusterSize, e.getMessage());
+        }
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        Long userId = exchange.getAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + (remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString());
+    }
+}
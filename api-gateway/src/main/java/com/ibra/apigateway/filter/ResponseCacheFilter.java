@@ -0,0 +1,338 @@
+package com.ibra.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache for the public, read-mostly catalog endpoints.
+ * <p>
+ * Only successful GET responses of the catalog paths below are cached. Entries live for the route TTL,
+ * shortened by an upstream {@code Cache-Control: max-age}, and are never stored when upstream says
+ * {@code no-store}, {@code no-cache} or {@code private}. Every cached response carries an ETag, so clients
+ * revalidating with {@code If-None-Match} get a 304 without a body. Concurrent misses on the same key are
+ * coalesced into one upstream call. Entries are purged when restaurant-service publishes a catalog change.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final String RESTAURANTS_PATH = "/api/restaurants";
+    private static final String RESTAURANT_PATH_PREFIX = "/api/restaurants/";
+    private static final String MENU_PATH_PREFIX = "/api/menu-items/restaurants/";
+
+    private static final PublicRouteMatcher CACHEABLE_PATHS = PublicRouteMatcher.compile(Map.of("GET", List.of(
+            RESTAURANTS_PATH,
+            RESTAURANT_PATH_PREFIX + "{id:\\d+}",
+            MENU_PATH_PREFIX + "{restaurantId:\\d+}"
+    )));
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final Cache<String, CachedResponse> cache;
+
+    // Upstream calls currently filling a key; followers wait on the leader's result instead of calling upstream
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    // Bumped on every purge so a response fetched before the purge is not stored after it
+    private final AtomicLong purgeGeneration = new AtomicLong();
+
+    private final Counter coalescedCounter;
+
+    public ResponseCacheFilter(@Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                               MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.body().length + key.length())
+                .expireAfter(new ResponseExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response.cache");
+        this.coalescedCounter = Counter.builder("gateway.response.cache.coalesced")
+                .description("Requests served by waiting on an in-flight upstream call for the same key")
+                .register(meterRegistry);
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public Config setTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes the upstream body
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!CACHEABLE_PATHS.matches(request.getMethod(), request.getURI().getPath())) {
+                return chain.filter(exchange);
+            }
+
+            List<String> requestCacheControl = request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL);
+            if (hasDirective(requestCacheControl, "no-store")) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            boolean revalidate = hasDirective(requestCacheControl, "no-cache");
+
+            if (!revalidate) {
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached != null && !cached.isExpired()) {
+                    return writeCached(exchange, cached, "HIT");
+                }
+            }
+
+            CompletableFuture<CachedResponse> result = new CompletableFuture<>();
+            if (!revalidate) {
+                CompletableFuture<CachedResponse> leader = inFlight.putIfAbsent(key, result);
+                if (leader != null) {
+                    coalescedCounter.increment();
+                    return Mono.fromFuture(leader, true)
+                            .flatMap(response -> writeCached(exchange, response, "HIT"))
+                            .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+                }
+            }
+
+            long generation = purgeGeneration.get();
+            ServerHttpResponse capturing = new CapturingResponse(exchange, key, config.getTtl(), generation, result);
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doFinally(signal -> {
+                        // Upstream errors or non-cacheable responses release the followers to go upstream themselves
+                        result.complete(null);
+                        inFlight.remove(key, result);
+                    });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /**
+     * Drops cached catalog entries for a restaurant, or everything when {@code restaurantId} is null.
+     */
+    public void purgeRestaurant(Long restaurantId) {
+        purgeGeneration.incrementAndGet();
+        if (restaurantId == null) {
+            cache.invalidateAll();
+            return;
+        }
+
+        String restaurantPath = RESTAURANT_PATH_PREFIX + restaurantId;
+        String menuPath = MENU_PATH_PREFIX + restaurantId;
+        cache.asMap().keySet().removeIf(key -> {
+            String path = pathOf(key);
+            return path.equals(RESTAURANTS_PATH) || path.equals(restaurantPath) || path.equals(menuPath);
+        });
+        logger.debug("Purged cached catalog responses for restaurant ID: {}", restaurantId);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.setCacheControl("public, max-age=" + cached.remainingSeconds());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (etagMatches(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean etagMatches(ServerHttpRequest request, String etag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getPath();
+        return query == null ? path : path + "?" + query;
+    }
+
+    private static String pathOf(String key) {
+        int queryStart = key.indexOf('?');
+        return queryStart < 0 ? key : key.substring(0, queryStart);
+    }
+
+    private static boolean hasDirective(List<String> cacheControl, String directive) {
+        for (String value : cacheControl) {
+            for (String part : value.split(",")) {
+                if (part.trim().toLowerCase(Locale.ROOT).equals(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The TTL for an upstream response, or {@code null} when it must not be cached.
+     */
+    private static Duration effectiveTtl(HttpHeaders headers, Duration routeTtl) {
+        Duration ttl = routeTtl;
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String part : value.split(",")) {
+                String directive = part.trim().toLowerCase(Locale.ROOT);
+                if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                    return null;
+                }
+                if (directive.startsWith("max-age=")) {
+                    try {
+                        Duration maxAge = Duration.ofSeconds(Long.parseLong(directive.substring("max-age=".length())));
+                        ttl = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    /**
+     * Buffers the upstream body of a cache miss, stores it and hands it to the waiting followers.
+     */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Duration routeTtl;
+        private final long generation;
+        private final CompletableFuture<CachedResponse> result;
+
+        CapturingResponse(ServerWebExchange exchange, String key, Duration routeTtl, long generation,
+                          CompletableFuture<CachedResponse> result) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.generation = generation;
+            this.result = result;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            Duration ttl = effectiveTtl(getHeaders(), routeTtl);
+            if (status == null || status.value() != HttpStatus.OK.value() || ttl == null) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                CachedResponse cached = CachedResponse.of(status, getHeaders(), bytes, ttl);
+                if (purgeGeneration.get() == generation) {
+                    cache.put(key, cached);
+                }
+                result.complete(cached);
+                return writeCached(exchange, cached, "MISS");
+            });
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                                  long expiresAtMillis) {
+
+        static CachedResponse of(HttpStatusCode status, HttpHeaders upstreamHeaders, byte[] body, Duration ttl) {
+            HttpHeaders headers = new HttpHeaders();
+            copy(upstreamHeaders, headers, HttpHeaders.CONTENT_TYPE);
+            copy(upstreamHeaders, headers, HttpHeaders.CONTENT_ENCODING);
+            copy(upstreamHeaders, headers, HttpHeaders.VARY);
+
+            String etag = upstreamHeaders.getETag() != null
+                    ? upstreamHeaders.getETag()
+                    : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, etag,
+                    System.currentTimeMillis() + ttl.toMillis());
+        }
+
+        private static void copy(HttpHeaders from, HttpHeaders to, String name) {
+            List<String> values = from.get(name);
+            if (values != null) {
+                to.put(name, List.copyOf(values));
+            }
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        long remainingSeconds() {
+            return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(expiresAtMillis - System.currentTimeMillis()));
+        }
+    }
+
+    private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, response.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ibra.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for a single client.
+ * <p>
+ * Implemented as a virtual scheduling (GCRA) bucket: instead of a token count and a refill timestamp it keeps
+ * one "theoretical arrival time", so a take is a single CAS with no allocation. The limits are passed on every
+ * call, which lets the caller rescale them (e.g. by gateway instance count) without touching existing buckets.
+ */
+final class TokenBucket {
+
+    // Time at which the bucket would be full again; MIN_VALUE means never used, System.nanoTime() may be negative
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes one token.
+     *
+     * @param now                   current {@link System#nanoTime()}
+     * @param capacity              bucket size, i.e. the allowed burst
+     * @param nanosPerToken         refill interval of a single token
+     * @return the tokens left after this take (&gt;= 0), or the negated nanos until a token is available when empty
+     */
+    long tryTake(long now, long capacity, long nanosPerToken) {
+        long burstNanos = capacity * nanosPerToken;
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + nanosPerToken;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                return -(backlog - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return (burstNanos - backlog) / nanosPerToken;
+            }
+        }
+    }
+}
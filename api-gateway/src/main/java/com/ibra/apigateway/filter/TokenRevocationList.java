@@ -0,0 +1,151 @@
+package com.ibra.apigateway.filter;
+
+import com.ibra.dto.TokenRevokedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Access tokens revoked by auth-service before their expiry, as seen by this gateway instance.
+ * <p>
+ * Revocations are held exactly, by {@code jti} for single tokens and by user id for "everything issued before"
+ * revocations, behind a {@link BloomFilter} over both. Nearly every token was never revoked, and for those a check
+ * is a few bit reads with no locking and no allocation; the exact maps are only consulted on a filter hit.
+ * <p>
+ * An entry is only needed until the tokens it covers expire. Expired entries are dropped, and the filter rebuilt,
+ * at most every {@code jwt.revocation.purge-interval} while revocations come in, or sooner once the filter holds more
+ * entries than it was sized for. Revocations published while this instance was down are not replayed; access tokens
+ * are short-lived, which bounds that gap.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long purgeIntervalMillis;
+    private final LongSupplier clock;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    // Writers take this lock; readers only read the volatile filter and the concurrent maps
+    private final Object writeLock = new Object();
+    private volatile BloomFilter filter;
+    private long nextPurgeAtMillis;
+
+    private final Counter falsePositives;
+
+    @Autowired
+    public TokenRevocationList(@Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                               @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${jwt.revocation.purge-interval:1m}") Duration purgeInterval,
+                               MeterRegistry meterRegistry) {
+        this(expectedEntries, falsePositiveRate, purgeInterval, meterRegistry, System::currentTimeMillis);
+    }
+
+    TokenRevocationList(int expectedEntries, double falsePositiveRate, Duration purgeInterval,
+                        MeterRegistry meterRegistry, LongSupplier clock) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+        this.clock = clock;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+        this.nextPurgeAtMillis = clock.getAsLong() + purgeIntervalMillis;
+        Gauge.builder("gateway.jwt.revocations", this, TokenRevocationList::size)
+                .description("Revoked tokens and users held by this gateway instance")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("gateway.jwt.revocations.filter.false-positives")
+                .description("Revocation checks that passed the Bloom filter but matched no revocation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a token with the given claims has been revoked.
+     *
+     * @param jti              the jti claim, or {@code null} for tokens issued without one
+     * @param userId           the id claim
+     * @param issuedAtMillis   the issue time in epoch millis, see {@link TokenRevokedEvent#ISSUED_AT_MILLIS_CLAIM}
+     */
+    public boolean isRevoked(String jti, long userId, long issuedAtMillis) {
+        BloomFilter current = filter;
+        if (jti != null && current.mightContain(BloomFilter.hash(jti))) {
+            if (revokedTokens.containsKey(jti)) {
+                return true;
+            }
+            falsePositives.increment();
+        }
+        if (current.mightContain(BloomFilter.hash(userId))) {
+            UserRevocation revocation = revokedUsers.get(userId);
+            if (revocation != null) {
+                return issuedAtMillis < revocation.notBeforeMillis();
+            }
+            falsePositives.increment();
+        }
+        return false;
+    }
+
+    public void revoke(TokenRevokedEvent event) {
+        if (event.getExpiresAt() == null) {
+            logger.warn("Ignoring token revocation without expiry for user: {}", event.getUserId());
+            return;
+        }
+        long expiresAtMillis = event.getExpiresAt().toEpochMilli();
+        synchronized (writeLock) {
+            long now = clock.getAsLong();
+            if (expiresAtMillis <= now) {
+                return;
+            }
+            if (event.getJti() != null) {
+                revokedTokens.merge(event.getJti(), expiresAtMillis, Math::max);
+                filter.put(BloomFilter.hash(event.getJti()));
+            } else if (event.getUserId() != null && event.getNotBefore() != null) {
+                revokedUsers.merge(event.getUserId(),
+                        new UserRevocation(event.getNotBefore().toEpochMilli(), expiresAtMillis), UserRevocation::latest);
+                filter.put(BloomFilter.hash(event.getUserId()));
+            } else {
+                logger.warn("Ignoring token revocation with neither jti nor user: {}", event);
+                return;
+            }
+            if (now >= nextPurgeAtMillis || size() > filter.capacity()) {
+                purge(now);
+            }
+        }
+    }
+
+    int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    private void purge(long now) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAtMillis() <= now);
+
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedEntries, size() * 2), falsePositiveRate);
+        revokedTokens.keySet().forEach(jti -> rebuilt.put(BloomFilter.hash(jti)));
+        revokedUsers.keySet().forEach(userId -> rebuilt.put(BloomFilter.hash(userId)));
+        filter = rebuilt;
+        nextPurgeAtMillis = now + purgeIntervalMillis;
+        logger.debug("Rebuilt token revocation filter with {} entries", size());
+    }
+
+    private record UserRevocation(long notBeforeMillis, long expiresAtMillis) {
+
+        UserRevocation latest(UserRevocation other) {
+            return new UserRevocation(Math.max(notBeforeMillis, other.notBeforeMillis),
+                    Math.max(expiresAtMillis, other.expiresAtMillis));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ibra.apigateway.rabbitmq;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.apigateway.websocket.OrderUpdatesWebSocketHandler;
+import com.ibra.apigateway.websocket.WebSocketSessionRegistry;
+import com.ibra.dto.OrderPlacedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans order events out to the WebSocket clients connected to this gateway instance.
+ * Each instance binds its own anonymous, auto-delete queue to the order exchange, so every
+ * instance sees every event and can deliver to whichever clients it holds.
+ */
+@Component
+public class OrderUpdateListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderUpdateListener.class);
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final ObjectMapper objectMapper;
+
+    public OrderUpdateListener(WebSocketSessionRegistry sessionRegistry, ObjectMapper objectMapper) {
+        this.sessionRegistry = sessionRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "${app.rabbitmq.order-exchange-name:order.exchange}", type = ExchangeTypes.TOPIC),
+            key = "${app.rabbitmq.push-routing-key:order.#}"))
+    public void handleOrderEvent(OrderPlacedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize order event {} for order: {}", event.getEventType(), event.getOrderId(), e);
+            return;
+        }
+
+        int delivered = sessionRegistry.publish(OrderUpdatesWebSocketHandler.customerTopic(event.getCustomerId()), payload)
+                + sessionRegistry.publish(OrderUpdatesWebSocketHandler.restaurantTopic(event.getRestaurantId()), payload)
+                + sessionRegistry.publish(WebSocketSessionRegistry.ALL_TOPIC, payload);
+
+        logger.debug("Pushed {} for order: {} to {} WebSocket session(s)", event.getEventType(), event.getOrderId(), delivered);
+    }
+}
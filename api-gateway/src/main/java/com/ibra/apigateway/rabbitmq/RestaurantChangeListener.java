@@ -0,0 +1,37 @@
+package com.ibra.apigateway.rabbitmq;
+
+import com.ibra.apigateway.filter.ResponseCacheFilter;
+import com.ibra.dto.RestaurantChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges cached catalog responses when restaurant-service reports a change.
+ * Like {@link OrderUpdateListener}, every gateway instance binds its own anonymous queue so each local cache is purged.
+ */
+@Component
+public class RestaurantChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantChangeListener.class);
+
+    private final ResponseCacheFilter responseCacheFilter;
+
+    public RestaurantChangeListener(ResponseCacheFilter responseCacheFilter) {
+        this.responseCacheFilter = responseCacheFilter;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "${app.rabbitmq.restaurant-exchange-name:restaurant.exchange}", type = ExchangeTypes.TOPIC),
+            key = "${app.rabbitmq.restaurant-routing-key-changed:restaurant.changed}"))
+    public void handleRestaurantChanged(RestaurantChangedEvent event) {
+        responseCacheFilter.purgeRestaurant(event.getRestaurantId());
+        logger.debug("Purged cached catalog responses for restaurant: {} after {}", event.getRestaurantId(), event.getEventType());
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibra.apigateway.rabbitmq;
+
+import com.ibra.apigateway.filter.TokenRevocationList;
+import com.ibra.dto.TokenRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds token revocations from auth-service into this instance's {@link TokenRevocationList}.
+ * Like {@link OrderUpdateListener}, every gateway instance binds its own anonymous queue so each one sees every revocation.
+ */
+@Component
+public class TokenRevocationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public TokenRevocationListener(TokenRevocationList tokenRevocationList) {
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "${app.rabbitmq.auth-exchange-name:auth.exchange}", type = ExchangeTypes.TOPIC),
+            key = "${app.rabbitmq.token-revoked-routing-key:auth.token.revoked}"))
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        tokenRevocationList.revoke(event);
+        logger.debug("Recorded token revocation ({}) for user: {}, jti: {}", event.getReason(), event.getUserId(), event.getJti());
+    }
+}
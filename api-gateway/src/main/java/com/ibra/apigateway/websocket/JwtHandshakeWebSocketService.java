@@ -0,0 +1,58 @@
+package com.ibra.apigateway.websocket;
+
+import com.ibra.apigateway.filter.JwtAuthFilter;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rejects WebSocket upgrades that do not carry a valid JWT and hands the authenticated
+ * user's id, role and email to the session as attributes.
+ */
+public class JwtHandshakeWebSocketService extends HandshakeWebSocketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtHandshakeWebSocketService.class);
+
+    public static final String USER_ID_ATTR = "bytebites.ws.userId";
+    public static final String USER_ROLE_ATTR = "bytebites.ws.userRole";
+    public static final String USER_EMAIL_ATTR = "bytebites.ws.userEmail";
+
+    private final JwtAuthFilter jwtAuthFilter;
+
+    public JwtHandshakeWebSocketService(JwtAuthFilter jwtAuthFilter) {
+        this.jwtAuthFilter = jwtAuthFilter;
+    }
+
+    @Override
+    public Mono<Void> handleRequest(ServerWebExchange exchange, WebSocketHandler handler) {
+        Claims claims;
+        try {
+            claims = jwtAuthFilter.authenticateHandshake(exchange.getRequest());
+        } catch (Exception e) {
+            logger.warn("Rejected WebSocket handshake for {}: {}", exchange.getRequest().getURI().getPath(), e.getMessage());
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        // The base class only copies WebSession attributes, and the gateway keeps no WebSession
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(USER_ID_ATTR, claims.get("id", Long.class));
+        attributes.put(USER_ROLE_ATTR, claims.get("role", String.class));
+        String email = claims.get("email", String.class);
+        if (email != null) {
+            attributes.put(USER_EMAIL_ATTR, email);
+        }
+        return super.handleRequest(exchange, session -> {
+            session.getAttributes().putAll(attributes);
+            return handler.handle(session);
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.ibra.apigateway.websocket;
+
+import com.ibra.apigateway.filter.JwtAuthFilter;
+import com.ibra.dto.ApiResponse;
+import com.ibra.dto.RestaurantPageDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams live order updates to connected clients.
+ * Customers receive updates for their own orders, restaurant owners receive the kitchen feed
+ * for every restaurant they own and admins receive everything.
+ * <p>
+ * Each session buffers at most {@code gateway.websocket.send-buffer} undelivered messages; a client that falls
+ * further behind is disconnected by {@link WebSocketSessionRegistry} and has to reconnect.
+ */
+@Component
+public class OrderUpdatesWebSocketHandler implements WebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderUpdatesWebSocketHandler.class);
+
+    private static final ParameterizedTypeReference<ApiResponse<RestaurantPageDTO>> RESTAURANT_PAGE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    // Largest page restaurant-service serves
+    private static final int OWNER_RESTAURANTS_PAGE_SIZE = 100;
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final WebClient restaurantWebClient;
+    private final JwtAuthFilter jwtAuthFilter;
+    private final int sendBufferSize;
+
+    public OrderUpdatesWebSocketHandler(WebSocketSessionRegistry sessionRegistry, WebClient.Builder webClientBuilder,
+                                        ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                        JwtAuthFilter jwtAuthFilter,
+                                        @Value("${gateway.websocket.send-buffer:256}") int sendBufferSize) {
+        this.sessionRegistry = sessionRegistry;
+        this.jwtAuthFilter = jwtAuthFilter;
+        this.sendBufferSize = sendBufferSize;
+        this.restaurantWebClient = webClientBuilder.clone()
+                .baseUrl("http://restaurant-service")
+                .filter(loadBalancerFunction)
+                .build();
+    }
+
+    public static String customerTopic(Long customerId) {
+        return "customer:" + customerId;
+    }
+
+    public static String restaurantTopic(Long restaurantId) {
+        return "restaurant:" + restaurantId;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Long userId = (Long) session.getAttributes().get(JwtHandshakeWebSocketService.USER_ID_ATTR);
+        String role = (String) session.getAttributes().get(JwtHandshakeWebSocketService.USER_ROLE_ATTR);
+        String email = (String) session.getAttributes().get(JwtHandshakeWebSocketService.USER_EMAIL_ATTR);
+
+        return resolveTopics(userId, email, role).onErrorResume(e -> {
+            // An owner without their kitchen feed would wait for orders that never show up
+            logger.error("Closing WebSocket session {}: could not resolve restaurants for owner ID: {}: {}",
+                    session.getId(), userId, e.getMessage());
+            return session.close(CloseStatus.SERVER_ERROR.withReason("Could not resolve restaurants")).then(Mono.empty());
+        }).flatMap(topics -> {
+            Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(sendBufferSize).get());
+            sessionRegistry.register(topics, sink);
+            logger.info("WebSocket session {} opened for user ID: {} with role: {}", session.getId(), userId, role);
+
+            // Inbound frames are ignored; the session ends when either direction completes.
+            Mono<Void> inbound = session.receive().then();
+            Mono<Void> outbound = session.send(sink.asFlux().map(session::textMessage));
+
+            return Mono.firstWithSignal(inbound, outbound)
+                    .doFinally(signal -> {
+                        sessionRegistry.unregister(topics, sink);
+                        logger.info("WebSocket session {} closed for user ID: {}", session.getId(), userId);
+                    });
+        });
+    }
+
+    private Mono<List<String>> resolveTopics(Long userId, String email, String role) {
+        if ("ADMIN".equals(role)) {
+            return Mono.just(List.of(WebSocketSessionRegistry.ALL_TOPIC));
+        }
+        if ("RESTAURANT_OWNER".equals(role)) {
+            return ownerRestaurantsPage(userId, email, role, null)
+                    .expand(page -> page.isHasNext()
+                            ? ownerRestaurantsPage(userId, email, role, page.getNextCursor())
+                            : Mono.empty())
+                    .flatMapIterable(RestaurantPageDTO::getContent)
+                    .map(restaurant -> restaurantTopic(restaurant.getId()))
+                    .collectList();
+        }
+        return Mono.just(List.of(customerTopic(userId)));
+    }
+
+    private Mono<RestaurantPageDTO> ownerRestaurantsPage(Long userId, String email, String role, String cursor) {
+        return restaurantWebClient.get()
+                .uri(uri -> uri.path("/api/restaurants/owner/{ownerId}")
+                        .queryParam("size", OWNER_RESTAURANTS_PAGE_SIZE)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build(userId))
+                // On the owner's behalf, as restaurant-service only answers authenticated callers
+                .headers(headers -> jwtAuthFilter.setIdentityHeaders(headers, userId, email, role))
+                .retrieve()
+                .bodyToMono(RESTAURANT_PAGE_TYPE)
+                .mapNotNull(ApiResponse::getData);
+    }
+}
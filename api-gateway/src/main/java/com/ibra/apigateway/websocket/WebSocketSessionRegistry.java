@@ -0,0 +1,98 @@
+package com.ibra.apigateway.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the WebSocket sessions connected to this gateway instance, indexed by topic
+ * (e.g. {@code customer:42} or {@code restaurant:7}).
+ * Every gateway instance receives every order event from RabbitMQ, so publishing here only has
+ * to reach the sessions that are connected locally. Session sinks are expected to have bounded buffers.
+ */
+@Component
+public class WebSocketSessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketSessionRegistry.class);
+
+    public static final String ALL_TOPIC = "all";
+
+    private static final long CONTENTION_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ConcurrentHashMap<String, Set<Sinks.Many<String>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.websocket.connections", connections, AtomicInteger::get)
+                .description("WebSocket sessions connected to this gateway instance")
+                .register(meterRegistry);
+    }
+
+    public void register(Collection<String> topics, Sinks.Many<String> sink) {
+        for (String topic : topics) {
+            subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(sink);
+        }
+        connections.incrementAndGet();
+        logger.debug("WebSocket session registered for topics: {}", topics);
+    }
+
+    public void unregister(Collection<String> topics, Sinks.Many<String> sink) {
+        for (String topic : topics) {
+            subscribers.computeIfPresent(topic, (key, sinks) -> {
+                sinks.remove(sink);
+                return sinks.isEmpty() ? null : sinks;
+            });
+        }
+        connections.decrementAndGet();
+        logger.debug("WebSocket session unregistered for topics: {}", topics);
+    }
+
+    /**
+     * Pushes the message to every local session subscribed to the topic.
+     * @return the number of sessions the message was delivered to.
+     */
+    public int publish(String topic, String message) {
+        Set<Sinks.Many<String>> sinks = subscribers.get(topic);
+        if (sinks == null) {
+            return 0;
+        }
+        int delivered = 0;
+        for (Sinks.Many<String> sink : sinks) {
+            Sinks.EmitResult result = emit(sink, message);
+            if (result.isSuccess()) {
+                delivered++;
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // The client stopped reading; disconnect it rather than have it silently miss updates
+                logger.warn("Disconnecting WebSocket session on topic {} whose send buffer is full", topic);
+                sink.tryEmitError(new IllegalStateException("WebSocket send buffer full"));
+            } else {
+                logger.warn("Dropping WebSocket message for topic {}: {}", topic, result);
+            }
+        }
+        return delivered;
+    }
+
+    // Spins while another thread is publishing to the same session, for at most CONTENTION_TIMEOUT_NANOS
+    private static Sinks.EmitResult emit(Sinks.Many<String> sink, String message) {
+        long deadline = System.nanoTime() + CONTENTION_TIMEOUT_NANOS;
+        Sinks.EmitResult result;
+        while ((result = sink.tryEmitNext(message)) == Sinks.EmitResult.FAIL_NON_SERIALIZED
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return result;
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+}
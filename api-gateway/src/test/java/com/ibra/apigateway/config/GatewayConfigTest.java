@@ -1,63 +1,196 @@
-//package com.ibra.apigateway.config;
-//
-//import com.ibra.apigateway.config.GatewayConfig;
-//import com.ibra.apigateway.filter.JwtAuthFilter;
-//import org.junit.jupiter.api.Test;
-//import org.junit.jupiter.api.extension.ExtendWith;
-//import org.mockito.InjectMocks;
-//import org.mockito.Mock;
-//import org.mockito.junit.jupiter.MockitoExtension;
-//import org.springframework.cloud.gateway.route.Route;
-//import org.springframework.cloud.gateway.route.RouteLocator;
-//import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
-//import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder.Builder;
-//import org.springframework.test.util.ReflectionTestUtils;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//import static org.mockito.ArgumentMatchers.any;
-//import static org.mockito.Mockito.*;
-//
-//@ExtendWith(MockitoExtension.class)
-//class GatewayConfigTest {
-//
-//    @Mock
-//    private JwtAuthFilter jwtAuthFilter;
-//
-//    @InjectMocks
-//    private GatewayConfig gatewayConfig;
-//
-//    @Test
-//    void testRouteLocatorCreation() {
-//        // Given
-//        RouteLocatorBuilder builder = mock(RouteLocatorBuilder.class);
-//        Builder routeBuilder = mock(Builder.class);
-//        RouteLocator expectedRouteLocator = mock(RouteLocator.class);
-//
-//        when(builder.routes()).thenReturn(routeBuilder);
-//        when(routeBuilder.route(any(String.class), any())).thenReturn(routeBuilder);
-//        when(routeBuilder.build()).thenReturn(expectedRouteLocator);
-//
-//        // When
-//        RouteLocator result = gatewayConfig.customRouteLocator(builder);
-//
-//        // Then
-//        assertNotNull(result);
-//        verify(builder).routes();
-//        verify(routeBuilder, times(5)).route(any(String.class), any()); // 5 routes defined
-//        verify(routeBuilder).build();
-//    }
-//
-//    @Test
-//    void testJwtAuthFilterDependencyInjection() {
-//        // Given
-//        JwtAuthFilter mockFilter = mock(JwtAuthFilter.class);
-//
-//        // When
-//        ReflectionTestUtils.setField(gatewayConfig, "jwtAuthFilter", mockFilter);
-//
-//        // Then
-//        JwtAuthFilter injectedFilter = (JwtAuthFilter) ReflectionTestUtils.getField(gatewayConfig, "jwtAuthFilter");
-//        assertNotNull(injectedFilter);
-//        assertEquals(mockFilter, injectedFilter);
-//    }
-//}
\ No newline at end of file
+package com.ibra.apigateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.apigateway.exception.GatewayExceptionHandler;
+import com.ibra.apigateway.filter.ConcurrencyLimitFilter;
+import com.ibra.apigateway.filter.JwtAuthFilter;
+import com.ibra.apigateway.filter.RateLimitFilter;
+import com.ibra.apigateway.filter.ResponseCacheFilter;
+import com.ibra.apigateway.filter.TokenRevocationList;
+import com.ibra.dto.TokenRevokedEvent;
+import com.ibra.security.identity.IdentitySigner;
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The routes from {@link GatewayConfig} with the public routes from application.yaml, run filter by filter
+ * against a captured downstream request.
+ */
+class GatewayConfigTest {
+
+    private static final String KEY_ID = "key-1";
+    private static final String INTERNAL_SECRET = "internal-secret-shared-with-the-services";
+
+    private final KeyPair signingKey = Jwts.SIG.ES256.keyPair().build();
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+    private JwksKeyLocator keyLocator;
+    private TokenRevocationList revocationList;
+    private GenericApplicationContext context;
+    private List<Route> routes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String jwks = new ObjectMapper().writeValueAsString(Map.of("keys", List.of(
+                Jwks.builder().key((ECPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+        keyLocator = new JwksKeyLocator(() -> jwks, Duration.ofMinutes(1), Duration.ofMinutes(1), null);
+        assertTrue(keyLocator.refresh());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        revocationList = new TokenRevocationList(100, 0.01, Duration.ofMinutes(1), meterRegistry);
+        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter(keyLocator, 100, meterRegistry, applicationPublicRoutes(),
+                revocationList, INTERNAL_SECRET, Duration.ofSeconds(60));
+        RateLimitFilter rateLimitFilter = new RateLimitFilter(meterRegistry, mock(DiscoveryClient.class), "api-gateway",
+                false, 1000, Duration.ofMinutes(1));
+        // Response caching and concurrency limits play no part in who gets through
+        ResponseCacheFilter responseCacheFilter = mock(ResponseCacheFilter.class);
+        when(responseCacheFilter.apply(any(ResponseCacheFilter.Config.class))).thenReturn((exchange, chain) -> chain.filter(exchange));
+        ConcurrencyLimitFilter concurrencyLimitFilter = mock(ConcurrencyLimitFilter.class);
+        when(concurrencyLimitFilter.apply(any(ConcurrencyLimitFilter.Config.class))).thenReturn((exchange, chain) -> chain.filter(exchange));
+
+        GatewayConfig gatewayConfig = new GatewayConfig(jwtAuthFilter, responseCacheFilter, rateLimitFilter,
+                concurrencyLimitFilter, new MockEnvironment(), Duration.ofSeconds(30), Duration.ofSeconds(30));
+        context = new GenericApplicationContext();
+        context.registerBean(PathRoutePredicateFactory.class);
+        context.refresh();
+        RouteLocator routeLocator = gatewayConfig.customRouteLocator(new RouteLocatorBuilder(context));
+        routes = routeLocator.getRoutes().collectList().block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+        keyLocator.close();
+    }
+
+    @Test
+    void authRoute_RejectsRevokedTokenOnRoleChange() {
+        String token = token("jti-1", "ADMIN");
+        revocationList.revoke(new TokenRevokedEvent("jti-1", 1L, null, Instant.now().plusSeconds(60), "logout"));
+
+        ServerWebExchange exchange = send(MockServerHttpRequest.patch("/auth/users/5/role")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"role\":\"ADMIN\"}"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void authRoute_SignsIdentityOfLiveToken() {
+        ServerWebExchange exchange = send(MockServerHttpRequest.patch("/auth/users/5/role")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("jti-2", "ADMIN"))
+                .build());
+
+        assertNull(exchange.getResponse().getStatusCode());
+        String identity = forwarded.get().getHeaders().getFirst(IdentitySigner.HEADER);
+        assertEquals("ADMIN", new IdentitySigner(INTERNAL_SECRET, Duration.ofSeconds(60)).verify(identity).role());
+    }
+
+    @Test
+    void authRoute_KeepsSignInAndKeysPublic() {
+        for (MockServerHttpRequest.BaseBuilder<?> request : List.of(
+                MockServerHttpRequest.post("/auth/register"),
+                MockServerHttpRequest.post("/auth/login"),
+                MockServerHttpRequest.post("/auth/refresh"),
+                MockServerHttpRequest.get("/auth/.well-known/jwks.json"))) {
+            send(request.header(IdentitySigner.HEADER, "1;0;ADMIN;.forged")
+                    .header("X-User-Id", "1")
+                    .header("X-User-Email", "admin@example.com")
+                    .build());
+
+            assertNotNull(forwarded.get(), "not forwarded");
+            assertFalse(forwarded.get().getHeaders().containsKey(IdentitySigner.HEADER));
+            assertFalse(forwarded.get().getHeaders().containsKey("X-User-Id"));
+            assertFalse(forwarded.get().getHeaders().containsKey("X-User-Email"));
+        }
+
+        send(MockServerHttpRequest.get("/auth/profile").build());
+        assertNull(forwarded.get());
+    }
+
+    // Runs the matching route's filters in order and lets the gateway's exception handler answer failures
+    private ServerWebExchange send(MockServerHttpRequest request) {
+        forwarded.set(null);
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = routes.stream()
+                .filter(candidate -> Boolean.TRUE.equals(Mono.from(candidate.getPredicate().apply(exchange)).block()))
+                .findFirst()
+                .orElseThrow();
+        chain(route.getFilters(), 0).filter(exchange)
+                .onErrorResume(error -> new GatewayExceptionHandler(new ObjectMapper()).handle(exchange, error))
+                .block();
+        return exchange;
+    }
+
+    private GatewayFilterChain chain(List<GatewayFilter> filters, int index) {
+        return exchange -> {
+            if (index == filters.size()) {
+                forwarded.set(exchange.getRequest());
+                return Mono.empty();
+            }
+            return filters.get(index).filter(exchange, chain(filters, index + 1));
+        };
+    }
+
+    private String token(String jti, String role) {
+        return Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .id(jti)
+                .subject("1")
+                .claim("id", 1L)
+                .claim("email", "admin@example.com")
+                .claim("role", role)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(signingKey.getPrivate())
+                .compact();
+    }
+
+    private static PublicRouteProperties applicationPublicRoutes() throws Exception {
+        Binder binder = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yaml"))));
+        return binder.bind("gateway", PublicRouteProperties.class).get();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ibra.apigateway.filter;
+
+import com.ibra.apigateway.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+    private GatewayFilter filter;
+    private Sinks.Empty<Void> upstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(meterRegistry, 10, 2, 100, 0.5);
+        filter = concurrencyLimitFilter.apply(new ConcurrencyLimitFilter.Config()
+                .setName("order-service")
+                .setLatencyThreshold(Duration.ofMillis(100))
+                .setCriticalRoutes(Map.of("POST", List.of("/api/orders")))
+                .setLowPriorityRoutes(Map.of("GET", List.of("/api/orders/stats/**"))));
+        upstream = Sinks.empty();
+    }
+
+    @Test
+    void shedsLowPriorityBeforeCriticalRequests() {
+        for (int i = 0; i < 5; i++) {
+            hold(MockServerHttpRequest.get("/api/orders/stats/customer"));
+        }
+        assertThrows(ServiceOverloadedException.class,
+                () -> filter.filter(exchange(MockServerHttpRequest.get("/api/orders/stats/customer")), chain()).block());
+
+        for (int i = 0; i < 3; i++) {
+            hold(MockServerHttpRequest.get("/api/orders/1"));
+        }
+        assertThrows(ServiceOverloadedException.class,
+                () -> filter.filter(exchange(MockServerHttpRequest.get("/api/orders/1")), chain()).block());
+
+        hold(MockServerHttpRequest.post("/api/orders"));
+        hold(MockServerHttpRequest.post("/api/orders"));
+        assertThrows(ServiceOverloadedException.class,
+                () -> filter.filter(exchange(MockServerHttpRequest.post("/api/orders")), chain()).block());
+
+        assertEquals(10.0, meterRegistry.get("gateway.concurrency.in-flight").tag("limiter", "order-service").gauge().value());
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.shed").tag("priority", "LOW").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.shed").tag("priority", "CRITICAL").counter().count());
+
+        upstream.tryEmitEmpty();
+        assertEquals(0.0, meterRegistry.get("gateway.concurrency.in-flight").tag("limiter", "order-service").gauge().value());
+    }
+
+    @Test
+    void serverErrorsCutTheLimitAndFastResponsesGrowIt() throws InterruptedException {
+        ConcurrencyLimitFilter.Limiter limiter = concurrencyLimitFilter.limiter("order-service");
+        Thread.sleep(150); // let the first decrease period pass
+
+        MockServerWebExchange failing = exchange(MockServerHttpRequest.get("/api/orders/1"));
+        filter.filter(failing, exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        }).block();
+        assertEquals(5.0, limiter.limit());
+
+        for (int i = 0; i < 3; i++) {
+            hold(MockServerHttpRequest.get("/api/orders/1"));
+        }
+        upstream.tryEmitEmpty();
+        assertTrue(limiter.limit() > 5.0);
+    }
+
+    private void hold(MockServerHttpRequest.BaseBuilder<?> request) {
+        filter.filter(exchange(request), chain()).subscribe();
+    }
+
+    private GatewayFilterChain chain() {
+        return exchange -> upstream.asMono();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
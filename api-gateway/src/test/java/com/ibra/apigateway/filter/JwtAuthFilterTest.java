@@ -0,0 +1,216 @@
+package com.ibra.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.apigateway.config.PublicRouteProperties;
+import com.ibra.dto.TokenRevokedEvent;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.IdentitySigner;
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthFilterTest {
+
+    private static final String KEY_ID = "key-1";
+    private static final String LEGACY_SECRET = "dGhpc0lzQVZlcnlMb25nU2VjcmV0S2V5Rm9yVGVzdGluZ1B1cnBvc2VzT25seTEyMzQ1Njc4OTA=";
+    private static final String INTERNAL_SECRET = "internal-secret-shared-with-the-services";
+
+    private final KeyPair signingKey = Jwts.SIG.ES256.keyPair().build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwksKeyLocator keyLocator;
+    private TokenRevocationList revocationList;
+    private JwtAuthFilter jwtAuthFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String jwks = new ObjectMapper().writeValueAsString(Map.of("keys", List.of(
+                Jwks.builder().key((ECPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+
+        keyLocator = new JwksKeyLocator(() -> jwks, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_SECRET)));
+        assertTrue(keyLocator.refresh());
+
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = new TokenRevocationList(100, 0.01, Duration.ofMinutes(1), meterRegistry);
+        PublicRouteProperties publicRoutes = new PublicRouteProperties();
+        publicRoutes.setPublicRoutes(Map.of("GET", List.of("/api/restaurants")));
+        jwtAuthFilter = new JwtAuthFilter(keyLocator, 100, meterRegistry, publicRoutes, revocationList,
+                INTERNAL_SECRET, Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyLocator.close();
+    }
+
+    @Test
+    void validateToken_RepeatedTokenIsServedFromCache() {
+        String token = claims(60_000).header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+
+        Claims first = jwtAuthFilter.validateToken(token);
+        Claims second = jwtAuthFilter.validateToken(token);
+
+        assertEquals("1", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "gateway.jwt.claims")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void validateToken_InvalidTokensAreRejectedAndNotCached() {
+        KeyPair otherKey = Jwts.SIG.ES256.keyPair().build();
+        String expired = claims(-1_000).header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        String forged = claims(60_000).header().keyId(KEY_ID).and().signWith(otherKey.getPrivate()).compact();
+        String unknownKey = claims(60_000).header().keyId("key-2").and().signWith(otherKey.getPrivate()).compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtAuthFilter.validateToken(expired));
+        assertThrows(SignatureException.class, () -> jwtAuthFilter.validateToken(forged));
+        assertThrows(SignatureException.class, () -> jwtAuthFilter.validateToken(forged));
+        assertThrows(UnsupportedJwtException.class, () -> jwtAuthFilter.validateToken(unknownKey));
+        assertEquals(0.0, meterRegistry.get("cache.size").tag("cache", "gateway.jwt.claims").gauge().value());
+    }
+
+    @Test
+    void validateToken_LegacyHmacTokenWithoutKeyIdIsAccepted() {
+        String token = claims(60_000).signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_SECRET))).compact();
+
+        assertEquals("CUSTOMER", jwtAuthFilter.validateToken(token).get("role", String.class));
+    }
+
+    @Test
+    void validateToken_LegacyHmacTokenIsRejectedWithoutLegacySecret() throws Exception {
+        String jwks = new ObjectMapper().writeValueAsString(Map.of("keys", List.of(
+                Jwks.builder().key((ECPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+        try (JwksKeyLocator withoutLegacyKey = new JwksKeyLocator(() -> jwks, Duration.ofMinutes(1), Duration.ofMinutes(1), null)) {
+            assertTrue(withoutLegacyKey.refresh());
+            JwtAuthFilter filter = new JwtAuthFilter(withoutLegacyKey, 100, meterRegistry, new PublicRouteProperties(),
+                    revocationList, INTERNAL_SECRET, Duration.ofSeconds(60));
+            String token = claims(60_000).signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_SECRET))).compact();
+
+            assertThrows(UnsupportedJwtException.class, () -> filter.validateToken(token));
+        }
+    }
+
+    @Test
+    void validateToken_RevokedTokenIsRejectedEvenWhenCached() {
+        String token = claims(60_000).id("jti-1").header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        String other = claims(60_000).id("jti-2").header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        jwtAuthFilter.validateToken(token);
+
+        revocationList.revoke(new TokenRevokedEvent("jti-1", 1L, null, Instant.now().plusSeconds(60), "logout"));
+
+        assertThrows(UnauthorizedException.class, () -> jwtAuthFilter.validateToken(token));
+        assertEquals("1", jwtAuthFilter.validateToken(other).getSubject());
+    }
+
+    @Test
+    void validateToken_TokensIssuedBeforeUserRevocationAreRejected() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 10_000);
+        String older = claims(60_000).issuedAt(issuedAt).header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+
+        revocationList.revoke(new TokenRevokedEvent(null, 1L, Instant.now().minusSeconds(5),
+                Instant.now().plusSeconds(60), "role-change"));
+
+        assertThrows(UnauthorizedException.class, () -> jwtAuthFilter.validateToken(older));
+        String newer = claims(60_000).header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        assertEquals("1", jwtAuthFilter.validateToken(newer).getSubject());
+    }
+
+    @Test
+    void validateToken_UserRevocationComparesIssueTimeInMillis() {
+        long second = System.currentTimeMillis() / 1000 * 1000;
+        String before = claims(60_000).issuedAt(new Date(second)).claim(TokenRevokedEvent.ISSUED_AT_MILLIS_CLAIM, second + 100)
+                .header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        String after = claims(60_000).issuedAt(new Date(second)).claim(TokenRevokedEvent.ISSUED_AT_MILLIS_CLAIM, second + 900)
+                .header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+
+        revocationList.revoke(new TokenRevokedEvent(null, 1L, Instant.ofEpochMilli(second + 500),
+                Instant.now().plusSeconds(60), "role-change"));
+
+        // Same iat second, told apart by the millisecond claim
+        assertThrows(UnauthorizedException.class, () -> jwtAuthFilter.validateToken(before));
+        assertEquals("1", jwtAuthFilter.validateToken(after).getSubject());
+    }
+
+    @Test
+    void apply_SignsIdentityForDownstreamServices() {
+        String token = claims(60_000).header().keyId(KEY_ID).and().signWith(signingKey.getPrivate()).compact();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(IdentitySigner.HEADER, "99;0;ADMIN;.forged"));
+        AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+        jwtAuthFilter.apply(new JwtAuthFilter.Config()).filter(exchange, capture(forwarded)).block();
+
+        List<String> identities = forwarded.get().getHeaders().get(IdentitySigner.HEADER);
+        assertEquals(1, identities.size());
+        AuthenticatedUser user = new IdentitySigner(INTERNAL_SECRET, Duration.ofSeconds(60)).verify(identities.get(0));
+        assertEquals(1L, user.userId());
+        assertEquals("user@example.com", user.email());
+        assertEquals("CUSTOMER", user.role());
+    }
+
+    @Test
+    void apply_DropsClientSuppliedIdentityOnPublicRoutes() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurants")
+                .header(IdentitySigner.HEADER, "99;0;ADMIN;.forged")
+                .header("X-User-Id", "99")
+                .header("X-User-Email", "admin@example.com")
+                .header("X-User-Role", "ADMIN"));
+        AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+        jwtAuthFilter.apply(new JwtAuthFilter.Config()).filter(exchange, capture(forwarded)).block();
+
+        assertFalse(forwarded.get().getHeaders().containsKey(IdentitySigner.HEADER));
+        assertFalse(forwarded.get().getHeaders().containsKey("X-User-Id"));
+        assertFalse(forwarded.get().getHeaders().containsKey("X-User-Email"));
+        assertFalse(forwarded.get().getHeaders().containsKey("X-User-Role"));
+    }
+
+    private static GatewayFilterChain capture(AtomicReference<ServerHttpRequest> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange.getRequest());
+            return Mono.empty();
+        };
+    }
+
+    private static JwtBuilder claims(long ttlMillis) {
+        return Jwts.builder()
+                .subject("1")
+                .claim("id", 1L)
+                .claim("email", "user@example.com")
+                .claim("role", "CUSTOMER")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ttlMillis));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ibra.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicRouteMatcherTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicRouteMatcherTest.class);
+
+    // The public routes in application.yaml
+    private static final Map<String, List<String>> GATEWAY_ROUTES = Map.of(
+            "GET", List.of(
+                    "/api/restaurants",
+                    "/api/restaurants/search",
+                    "/api/restaurants/nearby",
+                    "/api/restaurants/{id:\\d+}",
+                    "/api/restaurants/owner/{ownerId:\\d+}",
+                    "/api/menu-items/{id:\\d+}",
+                    "/api/menu-items/restaurants/{restaurantId:\\d+}",
+                    "/api/menu-items/restaurants/{restaurantId:\\d+}/category",
+                    "/api/menu-items/restaurants/{restaurantId:\\d+}/search",
+                    "/api/menu-items/restaurants/{restaurantId:\\d+}/snapshot",
+                    "/api/menu-items/restaurants/{restaurantId:\\d+}/snapshot/{version:\\d+}",
+                    "/api/search/**",
+                    "/auth/health",
+                    "/auth/.well-known/jwks.json"),
+            "POST", List.of("/auth/register", "/auth/login", "/auth/refresh", "/auth/health"));
+
+    // The prefix lists JwtAuthFilter checked before the table was compiled
+    private static final Map<HttpMethod, List<String>> STARTS_WITH_PREFIXES = Map.of(
+            HttpMethod.GET, List.of("/api/restaurants", "/api/restaurants/search", "/api/restaurants/owner/",
+                    "/api/menu-items/restaurants/", "/api/menu-items/"),
+            HttpMethod.POST, List.of("/auth/register", "/auth/login", "/auth/health"));
+
+    // A mix of public and authenticated requests, most of them behind authentication as in production
+    private static final List<Map.Entry<HttpMethod, String>> REQUESTS = List.of(
+            Map.entry(HttpMethod.GET, "/api/restaurants"),
+            Map.entry(HttpMethod.GET, "/api/restaurants/42"),
+            Map.entry(HttpMethod.GET, "/api/menu-items/restaurants/7/category"),
+            Map.entry(HttpMethod.GET, "/api/search/menu-items"),
+            Map.entry(HttpMethod.POST, "/auth/login"),
+            Map.entry(HttpMethod.GET, "/api/orders/123"),
+            Map.entry(HttpMethod.GET, "/api/orders/customer/5"),
+            Map.entry(HttpMethod.POST, "/api/orders"),
+            Map.entry(HttpMethod.PUT, "/api/orders/123/status"),
+            Map.entry(HttpMethod.GET, "/api/restaurants/my-restaurants"),
+            Map.entry(HttpMethod.PATCH, "/auth/users/5/role"),
+            Map.entry(HttpMethod.GET, "/api/notifications/user/5"));
+
+    private final PublicRouteMatcher matcher = PublicRouteMatcher.compile(Map.of(
+            "GET", List.of(
+                    "/api/restaurants",
+                    "/api/restaurants/search",
+                    "/api/restaurants/{id:\\d+}",
+                    "/api/menu-items/{id:\\d+}",
+                    "/api/menu-items/restaurants/{restaurantId}/category",
+                    "/docs/**"),
+            "post", List.of("/auth/login")));
+
+    @Test
+    void matches_ExactRoutes() {
+        assertTrue(matcher.matches(HttpMethod.GET, "/api/restaurants"));
+        assertTrue(matcher.matches(HttpMethod.GET, "/api/restaurants/search"));
+        assertTrue(matcher.matches(HttpMethod.POST, "/auth/login"));
+
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/restaurants/"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/restaurants/search/extra"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api"));
+    }
+
+    @Test
+    void matches_IsKeyedByMethod() {
+        assertFalse(matcher.matches(HttpMethod.POST, "/api/restaurants"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/auth/login"));
+        assertFalse(matcher.matches(HttpMethod.DELETE, "/api/restaurants/1"));
+    }
+
+    @Test
+    void matches_TemplateSegments() {
+        assertTrue(matcher.matches(HttpMethod.GET, "/api/restaurants/42"));
+        assertTrue(matcher.matches(HttpMethod.GET, "/api/menu-items/restaurants/abc/category"));
+
+        // Numeric templates must not expose the owner-only endpoints next to them
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/restaurants/my-restaurants"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/restaurants/admin/all"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/menu-items/restaurants"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/menu-items/restaurants//category"));
+    }
+
+    @Test
+    void matches_PrefixRoutes() {
+        assertTrue(matcher.matches(HttpMethod.GET, "/docs"));
+        assertTrue(matcher.matches(HttpMethod.GET, "/docs/index.html"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/docsx"));
+    }
+
+    @Test
+    void matches_RejectsDotSegments() {
+        assertFalse(matcher.matches(HttpMethod.GET, "/docs/../api/orders"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/api/restaurants/./search"));
+        assertFalse(matcher.matches(HttpMethod.GET, "/docs/.."));
+        assertFalse(matcher.matches(HttpMethod.GET, "/docs/."));
+
+        // Only whole "." and ".." segments are dot segments
+        assertTrue(matcher.matches(HttpMethod.GET, "/docs/.well-known/jwks.json"));
+        assertTrue(matcher.matches(HttpMethod.GET, "/docs/..hidden"));
+    }
+
+    @Test
+    void compile_RejectsMalformedPatterns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PublicRouteMatcher.compile(Map.of("GET", List.of("api/restaurants"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> PublicRouteMatcher.compile(Map.of("GET", List.of("/api/*/items"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> PublicRouteMatcher.compile(Map.of("GET", List.of("/api/{id:[a-z]+}"))));
+    }
+
+    /**
+     * Time per request of the compiled table against the {@code startsWith} scan it replaced, over a mix of public
+     * and authenticated requests: with the gateway's routes, and with {@code EXTRA_ROUTES} more routes per method,
+     * where the scan has to try every prefix before letting an authenticated request through. Not part of the
+     * regular build; run with
+     * {@code mvn test -pl api-gateway -am -Dtest=PublicRouteMatcherTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkMatchesAgainstStartsWith() {
+        int extraRoutes = 100;
+        Map<String, List<String>> largerRoutes = new HashMap<>();
+        GATEWAY_ROUTES.forEach((method, patterns) -> largerRoutes.put(method, new ArrayList<>(patterns)));
+        Map<HttpMethod, List<String>> largerPrefixes = new HashMap<>(STARTS_WITH_PREFIXES);
+        largerPrefixes.replaceAll((method, prefixes) -> new ArrayList<>(prefixes));
+        for (int i = 0; i < extraRoutes; i++) {
+            largerRoutes.get("GET").add("/api/catalog-" + i + "/items/{id:\\d+}");
+            largerRoutes.get("POST").add("/auth/flow-" + i);
+            largerPrefixes.get(HttpMethod.GET).add("/api/catalog-" + i + "/items/");
+            largerPrefixes.get(HttpMethod.POST).add("/auth/flow-" + i);
+        }
+
+        double[] gateway = compare(PublicRouteMatcher.compile(GATEWAY_ROUTES), STARTS_WITH_PREFIXES);
+        double[] larger = compare(PublicRouteMatcher.compile(largerRoutes), largerPrefixes);
+
+        logger.info("Public route check, gateway routes: compiled table {} ns/request, startsWith scan {} ns/request (x{})",
+                String.format("%.1f", gateway[0]), String.format("%.1f", gateway[1]), String.format("%.1f", gateway[1] / gateway[0]));
+        logger.info("Public route check, {} more routes per method: compiled table {} ns/request, startsWith scan {} ns/request (x{})",
+                extraRoutes, String.format("%.1f", larger[0]), String.format("%.1f", larger[1]), String.format("%.1f", larger[1] / larger[0]));
+        // A handful of prefixes is as cheap to scan as the trie is to walk; the trie must not grow with the table
+        assertTrue(gateway[0] < 2 * gateway[1], "compiled table " + gateway[0] + " ns/request, startsWith " + gateway[1] + " ns/request");
+        assertTrue(larger[0] < larger[1], "compiled table " + larger[0] + " ns/request, startsWith " + larger[1] + " ns/request");
+    }
+
+    // Nanoseconds per request for the compiled table and for the startsWith scan
+    private static double[] compare(PublicRouteMatcher compiled, Map<HttpMethod, List<String>> prefixes) {
+        int iterations = 2_000_000;
+        // Warm up both until the JIT has compiled them
+        for (int round = 0; round < 3; round++) {
+            time(compiled::matches, iterations);
+            time((method, path) -> isPublicByStartsWith(prefixes, method, path), iterations);
+        }
+        return new double[] {
+                time(compiled::matches, iterations),
+                time((method, path) -> isPublicByStartsWith(prefixes, method, path), iterations)
+        };
+    }
+
+    private static double time(BiPredicate<HttpMethod, String> isPublic, int iterations) {
+        int publicRequests = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Map.Entry<HttpMethod, String> request = REQUESTS.get(i % REQUESTS.size());
+            if (isPublic.test(request.getKey(), request.getValue())) {
+                publicRequests++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        // Keeps the loop from being optimized away
+        assertTrue(publicRequests > 0);
+        return (double) elapsed / iterations;
+    }
+
+    private static boolean isPublicByStartsWith(Map<HttpMethod, List<String>> prefixes, HttpMethod method, String path) {
+        List<String> candidates = prefixes.get(method);
+        return candidates != null && candidates.stream().anyMatch(path::startsWith);
+    }
+}
@@ -0,0 +1,156 @@
+package com.ibra.apigateway.filter;
+
+import com.ibra.apigateway.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilterTest.class);
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    private SimpleMeterRegistry meterRegistry;
+    private DiscoveryClient discoveryClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        discoveryClient = mock(DiscoveryClient.class);
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceBucketIsEmpty() {
+        GatewayFilter filter = filter(false).apply(new RateLimitFilter.Config().setName("orders").setCapacity(2).setReplenishPerSecond(0.5));
+
+        MockServerWebExchange first = fromIp("10.0.0.1");
+        filter.filter(first, chain).block();
+        assertEquals("1", first.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        filter.filter(fromIp("10.0.0.1"), chain).block();
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> filter.filter(fromIp("10.0.0.1"), chain).block());
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("gateway.rate-limit.rejected").tag("limit", "orders").counter().count());
+    }
+
+    @Test
+    void authenticatedUsersAreLimitedIndependentlyOfTheirAddress() {
+        GatewayFilter filter = filter(false).apply(new RateLimitFilter.Config().setCapacity(1).setReplenishPerSecond(1));
+
+        filter.filter(fromUser(7L, "10.0.0.1"), chain).block();
+        filter.filter(fromUser(8L, "10.0.0.1"), chain).block();
+        filter.filter(fromIp("10.0.0.1"), chain).block();
+
+        assertThrows(RateLimitExceededException.class, () -> filter.filter(fromUser(7L, "10.0.0.2"), chain).block());
+    }
+
+    @Test
+    void clusterAwareLimitIsSharedBetweenInstances() {
+        ServiceInstance instance = mock(ServiceInstance.class);
+        when(discoveryClient.getInstances("api-gateway")).thenReturn(Collections.nCopies(2, instance));
+        RateLimitFilter rateLimitFilter = filter(true);
+        rateLimitFilter.refreshClusterSize();
+        GatewayFilter filter = rateLimitFilter.apply(new RateLimitFilter.Config().setCapacity(4).setReplenishPerSecond(1));
+
+        filter.filter(fromIp("10.0.0.1"), chain).block();
+        filter.filter(fromIp("10.0.0.1"), chain).block();
+
+        assertThrows(RateLimitExceededException.class, () -> filter.filter(fromIp("10.0.0.1"), chain).block());
+    }
+
+    /**
+     * Nanoseconds per request through the filter from many threads, with every thread its own client and with all
+     * of them on one client, where they contend for the same bucket. Not part of the regular build; run with
+     * {@code mvn test -pl api-gateway -am -Dtest=RateLimitFilterTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkFilterUnderContention() throws Exception {
+        int threads = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        int requestsPerThread = 1_000_000;
+        // A limit no thread can exhaust, so only the cost of the check is measured
+        GatewayFilter filter = filter(false).apply(new RateLimitFilter.Config().setName("benchmark")
+                .setCapacity(1_000_000_000L).setReplenishPerSecond(1_000_000_000));
+        IntFunction<MockServerWebExchange> ownClient = thread -> fromUser((long) thread, "10.0.0.1");
+        IntFunction<MockServerWebExchange> sharedClient = thread -> fromUser(1L, "10.0.0.1");
+
+        // Warm up until the JIT has compiled the filter
+        for (int round = 0; round < 3; round++) {
+            nanosPerRequest(filter, ownClient, threads, requestsPerThread / 10);
+            nanosPerRequest(filter, sharedClient, threads, requestsPerThread / 10);
+        }
+        double ownClients = nanosPerRequest(filter, ownClient, threads, requestsPerThread);
+        double oneClient = nanosPerRequest(filter, sharedClient, threads, requestsPerThread);
+
+        logger.info("Rate limit check, {} threads: own clients {} ns/request, one client {} ns/request",
+                threads, String.format("%.1f", ownClients), String.format("%.1f", oneClient));
+        assertEquals(0.0, meterRegistry.get("gateway.rate-limit.rejected").tag("limit", "benchmark").counter().count());
+        // Threads on one client share a bucket, not a lock, so they must not queue behind each other
+        assertTrue(oneClient < 2 * ownClients, "one client " + oneClient + " ns/request, own clients " + ownClients + " ns/request");
+    }
+
+    // Wall-clock nanoseconds per request across all threads, each thread reusing one exchange
+    private double nanosPerRequest(GatewayFilter filter, IntFunction<MockServerWebExchange> exchangeForThread,
+                                   int threads, int requestsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                MockServerWebExchange exchange = exchangeForThread.apply(t);
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        // The bucket is checked when the filter is applied, before the Mono is subscribed
+                        filter.filter(exchange, chain);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            return (double) (System.nanoTime() - start) / ((long) threads * requestsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RateLimitFilter filter(boolean clusterAware) {
+        return new RateLimitFilter(meterRegistry, discoveryClient, "api-gateway", clusterAware, 1000, Duration.ofMinutes(1));
+    }
+
+    private static MockServerWebExchange fromIp(String ip) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/restaurant/1")
+                .remoteAddress(new InetSocketAddress(ip, 40000)));
+    }
+
+    private static MockServerWebExchange fromUser(Long userId, String ip) {
+        MockServerWebExchange exchange = fromIp(ip);
+        exchange.getAttributes().put(JwtAuthFilter.USER_ID_ATTRIBUTE, userId);
+        return exchange;
+    }
+}
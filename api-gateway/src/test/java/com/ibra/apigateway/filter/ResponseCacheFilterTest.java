@@ -0,0 +1,124 @@
+package com.ibra.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"success\":true,\"data\":[]}";
+
+    private ResponseCacheFilter responseCacheFilter;
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+    private String upstreamCacheControl;
+
+    @BeforeEach
+    void setUp() {
+        responseCacheFilter = new ResponseCacheFilter(1024 * 1024, new SimpleMeterRegistry());
+        filter = responseCacheFilter.apply(new ResponseCacheFilter.Config().setTtl(Duration.ofSeconds(30)));
+        upstreamCalls = new AtomicInteger();
+        upstreamCacheControl = null;
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() {
+        MockServerWebExchange first = get("/api/restaurants");
+        MockServerWebExchange second = get("/api/restaurants");
+
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() {
+        String etag = get("/api/restaurants/1").getResponse().getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurants/1").ifNoneMatch(etag));
+        filter.filter(exchange, upstream()).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void upstreamNoStoreIsNotCached() {
+        upstreamCacheControl = "no-cache, no-store, max-age=0, must-revalidate";
+
+        get("/api/menu-items/restaurants/1");
+        get("/api/menu-items/restaurants/1");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void nonCatalogPathsPassThrough() {
+        MockServerWebExchange exchange = get("/api/restaurants/my-restaurants");
+        get("/api/restaurants/my-restaurants");
+
+        assertNull(exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void purgeRestaurantDropsItsEntriesAndTheListing() {
+        get("/api/restaurants");
+        get("/api/restaurants/1");
+        get("/api/restaurants/2");
+        get("/api/menu-items/restaurants/1");
+
+        responseCacheFilter.purgeRestaurant(1L);
+
+        assertEquals("MISS", cacheStatus(get("/api/restaurants")));
+        assertEquals("MISS", cacheStatus(get("/api/restaurants/1")));
+        assertEquals("MISS", cacheStatus(get("/api/menu-items/restaurants/1")));
+        assertEquals("HIT", cacheStatus(get("/api/restaurants/2")));
+    }
+
+    private MockServerWebExchange get(String path) {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(path));
+        filter.filter(exchange, upstream()).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String cacheStatus(MockServerWebExchange exchange) {
+        return exchange.getResponse().getHeaders().getFirst("X-Cache");
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (upstreamCacheControl != null) {
+                response.getHeaders().set(HttpHeaders.CACHE_CONTROL, upstreamCacheControl);
+            }
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+}
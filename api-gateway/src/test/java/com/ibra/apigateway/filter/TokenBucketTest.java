@@ -0,0 +1,141 @@
+package com.ibra.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketTest.class);
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket();
+        long now = -5 * SECOND; // nanoTime may be negative
+
+        assertEquals(2, bucket.tryTake(now, 3, SECOND));
+        assertEquals(1, bucket.tryTake(now, 3, SECOND));
+        assertEquals(0, bucket.tryTake(now, 3, SECOND));
+
+        long rejected = bucket.tryTake(now, 3, SECOND);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND, -rejected);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            bucket.tryTake(now, 3, SECOND);
+        }
+
+        assertTrue(bucket.tryTake(now + SECOND / 2, 3, SECOND) < 0);
+        assertEquals(0, bucket.tryTake(now + SECOND, 3, SECOND));
+        assertEquals(2, bucket.tryTake(now + 10 * SECOND, 3, SECOND));
+    }
+
+    /**
+     * Nanoseconds per take for one client hammered by many threads at once, the worst case for the CAS loop,
+     * against a token count and refill timestamp guarded by a lock. Not part of the regular build; run with
+     * {@code mvn test -pl api-gateway -am -Dtest=TokenBucketTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTryTakeUnderContention() throws Exception {
+        int threads = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        int takesPerThread = 2_000_000;
+        // A limit no thread can exhaust, so every take goes through the whole update
+        long capacity = 1_000_000_000L;
+        long nanosPerToken = 1;
+
+        TokenBucket bucket = new TokenBucket();
+        LockingTokenBucket lockingBucket = new LockingTokenBucket();
+        TakeLoop casTakes = () -> bucket.tryTake(System.nanoTime(), capacity, nanosPerToken);
+        TakeLoop lockingTakes = () -> lockingBucket.tryTake(System.nanoTime(), capacity, nanosPerToken);
+
+        // Warm up both until the JIT has compiled them
+        for (int round = 0; round < 3; round++) {
+            nanosPerTake(casTakes, threads, takesPerThread / 10);
+            nanosPerTake(lockingTakes, threads, takesPerThread / 10);
+        }
+        double casSingle = nanosPerTake(casTakes, 1, takesPerThread);
+        double lockingSingle = nanosPerTake(lockingTakes, 1, takesPerThread);
+        double casContended = nanosPerTake(casTakes, threads, takesPerThread);
+        double lockingContended = nanosPerTake(lockingTakes, threads, takesPerThread);
+
+        logger.info("Token bucket take, 1 thread: CAS {} ns, lock {} ns; {} threads on one client: CAS {} ns, lock {} ns (x{})",
+                String.format("%.1f", casSingle), String.format("%.1f", lockingSingle), threads,
+                String.format("%.1f", casContended), String.format("%.1f", lockingContended),
+                String.format("%.1f", lockingContended / casContended));
+        assertTrue(casContended < lockingContended,
+                "CAS " + casContended + " ns/take, lock " + lockingContended + " ns/take with " + threads + " threads");
+    }
+
+    @FunctionalInterface
+    private interface TakeLoop {
+        long take();
+    }
+
+    // Wall-clock nanoseconds per take across all threads
+    private static double nanosPerTake(TakeLoop loop, int threads, int takesPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long allowed = 0;
+                    for (int i = 0; i < takesPerThread; i++) {
+                        if (loop.take() >= 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            long allowed = 0;
+            for (Future<Long> result : results) {
+                allowed += result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            assertEquals((long) threads * takesPerThread, allowed);
+            return (double) elapsed / ((long) threads * takesPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The usual token count refilled from the elapsed time, which needs both fields updated together
+    private static final class LockingTokenBucket {
+
+        private double tokens = -1;
+        private long lastRefill;
+
+        synchronized long tryTake(long now, long capacity, long nanosPerToken) {
+            if (tokens < 0) {
+                tokens = capacity;
+                lastRefill = now;
+            }
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+            if (tokens < 1) {
+                return -(long) ((1 - tokens) * nanosPerToken);
+            }
+            tokens--;
+            return (long) tokens;
+        }
+    }
+}
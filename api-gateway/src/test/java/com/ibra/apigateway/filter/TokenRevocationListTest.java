@@ -0,0 +1,128 @@
+package com.ibra.apigateway.filter;
+
+import com.ibra.dto.TokenRevokedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = new TokenRevocationList(100, 0.01, Duration.ofMinutes(1), meterRegistry, now::get);
+    }
+
+    @Test
+    void revokedJtiIsRejected_OtherTokensOfTheUserAreNot() {
+        revocationList.revoke(tokenRevocation("jti-1", 60_000));
+
+        assertTrue(revocationList.isRevoked("jti-1", 7L, now.get()));
+        assertFalse(revocationList.isRevoked("jti-2", 7L, now.get()));
+        assertFalse(revocationList.isRevoked(null, 7L, now.get()));
+    }
+
+    @Test
+    void userRevocationCoversTokensIssuedBeforeNotBefore() {
+        long notBeforeMillis = now.get() + 1;
+        revocationList.revoke(new TokenRevokedEvent(null, 7L, Instant.ofEpochMilli(notBeforeMillis),
+                Instant.ofEpochMilli(now.get() + 60_000), "role-change"));
+
+        assertTrue(revocationList.isRevoked("jti-1", 7L, notBeforeMillis - 1));
+        assertTrue(revocationList.isRevoked(null, 7L, notBeforeMillis - 1));
+        // A token issued a millisecond later, within the same second, is not covered
+        assertFalse(revocationList.isRevoked("jti-2", 7L, notBeforeMillis));
+        assertFalse(revocationList.isRevoked("jti-1", 8L, notBeforeMillis - 1));
+    }
+
+    @Test
+    void laterUserRevocationWins() {
+        long first = now.get();
+        revocationList.revoke(new TokenRevokedEvent(null, 7L, Instant.ofEpochMilli(first + 10_000),
+                Instant.ofEpochMilli(now.get() + 60_000), "role-change"));
+        revocationList.revoke(new TokenRevokedEvent(null, 7L, Instant.ofEpochMilli(first),
+                Instant.ofEpochMilli(now.get() + 60_000), "logout"));
+
+        assertTrue(revocationList.isRevoked(null, 7L, first + 5_000));
+    }
+
+    @Test
+    void alreadyExpiredRevocationsAreIgnored() {
+        revocationList.revoke(tokenRevocation("jti-1", -1));
+
+        assertFalse(revocationList.isRevoked("jti-1", 7L, now.get()));
+        assertEquals(0, revocationList.size());
+    }
+
+    @Test
+    void expiredEntriesArePurgedOnceDue() {
+        revocationList.revoke(tokenRevocation("short", 30_000));
+        revocationList.revoke(tokenRevocation("long", 600_000));
+        assertEquals(2, revocationList.size());
+
+        now.addAndGet(61_000);
+        revocationList.revoke(tokenRevocation("new", 600_000));
+
+        assertEquals(2, revocationList.size());
+        assertFalse(revocationList.isRevoked("short", 7L, now.get()));
+        assertTrue(revocationList.isRevoked("long", 7L, now.get()));
+        assertTrue(revocationList.isRevoked("new", 7L, now.get()));
+        assertEquals(2.0, meterRegistry.get("gateway.jwt.revocations").gauge().value());
+    }
+
+    @Test
+    void growingPastCapacityRebuildsTheFilterWithoutLosingEntries() {
+        for (int i = 0; i < 500; i++) {
+            revocationList.revoke(tokenRevocation("jti-" + i, 600_000));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(revocationList.isRevoked("jti-" + i, 7L, now.get()));
+        }
+        // Filter false positives are settled by the exact lookup
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(revocationList.isRevoked("valid-" + i, 7L, now.get()));
+        }
+    }
+
+    @Test
+    void checkingATokenThatWasNeverRevokedDoesNotAllocate() {
+        for (int i = 0; i < 1_000; i++) {
+            revocationList.revoke(tokenRevocation("jti-" + i, 600_000));
+        }
+        String jti = "b7d3f0a2-5c61-4c0e-9d0e-3f1d2b8c6a51";
+        long issuedAt = now.get();
+        // Warm up so the measurement sees compiled code
+        for (int i = 0; i < 200_000; i++) {
+            revocationList.isRevoked(jti, 123_456L, issuedAt);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        boolean revoked = false;
+        for (int i = 0; i < 100_000; i++) {
+            revoked |= revocationList.isRevoked(jti, 123_456L, issuedAt);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertFalse(revoked);
+        // Even one small object per check would be well over a megabyte
+        assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    private TokenRevokedEvent tokenRevocation(String jti, long ttlMillis) {
+        return new TokenRevokedEvent(jti, 7L, null, Instant.ofEpochMilli(now.get() + ttlMillis), "logout");
+    }
+}
@@ -0,0 +1,198 @@
+package com.ibra.apigateway.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.apigateway.config.PublicRouteProperties;
+import com.ibra.apigateway.filter.JwtAuthFilter;
+import com.ibra.apigateway.filter.TokenRevocationList;
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.Disposable;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The /ws/updates channel end to end: the JWT handshake, {@link OrderUpdatesWebSocketHandler} and
+ * {@link WebSocketSessionRegistry} on a local Netty server, with real WebSocket clients.
+ */
+class OrderUpdatesWebSocketHandlerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderUpdatesWebSocketHandlerTest.class);
+
+    private static final String KEY_ID = "key-1";
+
+    private final KeyPair signingKey = Jwts.SIG.ES256.keyPair().build();
+    private final List<Disposable> sessions = new ArrayList<>();
+
+    private JwksKeyLocator keyLocator;
+    private WebSocketSessionRegistry registry;
+    private DisposableServer server;
+    private ConnectionProvider connections;
+    private ReactorNettyWebSocketClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String jwks = new ObjectMapper().writeValueAsString(Map.of("keys", List.of(
+                Jwks.builder().key((ECPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+        keyLocator = new JwksKeyLocator(() -> jwks, Duration.ofMinutes(1), Duration.ofMinutes(1), null);
+        assertTrue(keyLocator.refresh());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter(keyLocator, 100, meterRegistry, new PublicRouteProperties(),
+                new TokenRevocationList(100, 0.01, Duration.ofMinutes(1), meterRegistry), "", Duration.ofSeconds(60));
+        registry = new WebSocketSessionRegistry(meterRegistry);
+        OrderUpdatesWebSocketHandler handler = new OrderUpdatesWebSocketHandler(registry, WebClient.builder(),
+                mock(ReactorLoadBalancerExchangeFilterFunction.class), jwtAuthFilter, 256);
+        JwtHandshakeWebSocketService handshake = new JwtHandshakeWebSocketService(jwtAuthFilter);
+
+        HttpHandler httpHandler = WebHttpHandlerBuilder.webHandler(exchange -> handshake.handleRequest(exchange, handler)).build();
+        server = HttpServer.create().host("localhost").port(0).handle(new ReactorHttpHandlerAdapter(httpHandler)).bindNow();
+        // One connection per session, as with real clients
+        connections = ConnectionProvider.newConnection();
+        client = new ReactorNettyWebSocketClient(HttpClient.create(connections));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(Disposable::dispose);
+        server.disposeNow();
+        connections.dispose();
+        keyLocator.close();
+    }
+
+    @Test
+    void customerReceivesOnlyUpdatesForOwnOrders() throws Exception {
+        BlockingQueue<String> customer42 = new LinkedBlockingQueue<>();
+        BlockingQueue<String> customer43 = new LinkedBlockingQueue<>();
+        connect(token(42L, "CUSTOMER"), customer42::add);
+        connect(token(43L, "CUSTOMER"), customer43::add);
+        awaitConnections(2);
+
+        assertEquals(1, registry.publish(OrderUpdatesWebSocketHandler.customerTopic(42L), "order-1-confirmed"));
+
+        assertEquals("order-1-confirmed", customer42.poll(5, TimeUnit.SECONDS));
+        assertNull(customer43.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void handshakeWithoutTokenIsRejected() {
+        assertThrows(Exception.class, () -> client.execute(updatesUri(), session -> session.receive().then())
+                .block(Duration.ofSeconds(5)));
+        assertEquals(0, registry.getConnectionCount());
+    }
+
+    /**
+     * How many sessions one gateway instance holds open, and how long a message published to all of them takes to
+     * reach each one. Clients run in the same JVM, which also has to hold their end of every connection. Not part
+     * of the regular build; run with
+     * {@code mvn test -pl api-gateway -am -Dtest=OrderUpdatesWebSocketHandlerTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false},
+     * and {@code -Dbenchmark.websocket.sessions=<n>} for another session count.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSessionsAndFanOutLatency() throws Exception {
+        int sessionCount = Integer.getInteger("benchmark.websocket.sessions", 5000);
+        int rounds = 20;
+        // Admins subscribe to every update, so one publish fans out to every session
+        String token = token(1L, "ADMIN");
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        Consumer<String> recordLatency = message -> latencies.add(System.nanoTime() - Long.parseLong(message));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sessionCount; i++) {
+            connect(token, recordLatency);
+        }
+        awaitConnections(sessionCount);
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (int round = 0; round < rounds; round++) {
+            registry.publish(WebSocketSessionRegistry.ALL_TOPIC, Long.toString(System.nanoTime()));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (latencies.size() < (long) (round + 1) * sessionCount && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        Thread.sleep(1000);
+        int sustained = registry.getConnectionCount();
+
+        long[] sorted = latencies.stream().mapToLong(TimeUnit.NANOSECONDS::toMicros).sorted().toArray();
+        assertEquals(sessionCount, sustained);
+        assertEquals((long) rounds * sessionCount, sorted.length);
+        logger.info("{} sessions opened in {} ms, {} still connected; fan-out to all over {} rounds: "
+                        + "{} of {} delivered, p50 {} us, p99 {} us, max {} us",
+                sessionCount, connectMillis, sustained, rounds, sorted.length, (long) rounds * sessionCount,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1]);
+    }
+
+    private void connect(String token, Consumer<String> onMessage) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        sessions.add(client.execute(updatesUri(), headers, session -> session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .doOnNext(onMessage)
+                        .then())
+                .subscribe(null, error -> logger.debug("WebSocket client session failed: {}", error.getMessage())));
+    }
+
+    private void awaitConnections(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (registry.getConnectionCount() < expected) {
+            assertTrue(System.nanoTime() < deadline, registry.getConnectionCount() + " of " + expected + " sessions connected");
+            Thread.sleep(10);
+        }
+    }
+
+    private URI updatesUri() {
+        return URI.create("ws://localhost:" + server.port() + "/ws/updates");
+    }
+
+    private String token(Long userId, String role) {
+        return Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .subject(userId.toString())
+                .claim("id", userId)
+                .claim("role", role)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 600_000))
+                .signWith(signingKey.getPrivate())
+                .compact();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
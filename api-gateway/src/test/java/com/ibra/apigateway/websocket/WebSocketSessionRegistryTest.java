@@ -0,0 +1,72 @@
+package com.ibra.apigateway.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketSessionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new WebSocketSessionRegistry(meterRegistry);
+    }
+
+    @Test
+    void publish_DeliversOnlyToSubscribedTopic() {
+        Sinks.Many<String> customerSink = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<String> kitchenSink = Sinks.many().unicast().onBackpressureBuffer();
+        registry.register(List.of("customer:1"), customerSink);
+        registry.register(List.of("restaurant:7"), kitchenSink);
+
+        assertEquals(1, registry.publish("customer:1", "order-update"));
+        customerSink.tryEmitComplete();
+        kitchenSink.tryEmitComplete();
+
+        StepVerifier.create(customerSink.asFlux()).expectNext("order-update").verifyComplete();
+        StepVerifier.create(kitchenSink.asFlux()).verifyComplete();
+    }
+
+    @Test
+    void unregister_StopsDeliveryAndUpdatesConnectionGauge() {
+        Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+        registry.register(List.of("customer:1", WebSocketSessionRegistry.ALL_TOPIC), sink);
+        assertEquals(1, meterRegistry.get("gateway.websocket.connections").gauge().value());
+
+        registry.unregister(List.of("customer:1", WebSocketSessionRegistry.ALL_TOPIC), sink);
+
+        assertEquals(0, registry.publish("customer:1", "order-update"));
+        assertEquals(0, registry.publish(WebSocketSessionRegistry.ALL_TOPIC, "order-update"));
+        assertEquals(0, registry.getConnectionCount());
+    }
+
+    @Test
+    void publish_DisconnectsSessionWhoseBufferIsFull() {
+        Sinks.Many<String> slowSink = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(16).get());
+        registry.register(List.of("restaurant:7"), slowSink);
+        AtomicInteger delivered = new AtomicInteger();
+
+        // A connected client that stops reading
+        StepVerifier.create(slowSink.asFlux(), 0)
+                .then(() -> {
+                    while (registry.publish("restaurant:7", "order-update") == 1) {
+                        assertTrue(delivered.incrementAndGet() <= 1024, "buffer never filled up");
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(message -> true)
+                .verifyErrorMessage("WebSocket send buffer full");
+        assertEquals(16, delivered.get());
+    }
+}
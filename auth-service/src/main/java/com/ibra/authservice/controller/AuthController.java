@@ -2,16 +2,28 @@ package com.ibra.authservice.controller;
 
 import com.ibra.authservice.dto.AuthResponse;
 import com.ibra.authservice.dto.LoginRequest;
+import com.ibra.authservice.dto.RefreshTokenRequest;
 import com.ibra.authservice.dto.RegisterRequest;
+import com.ibra.authservice.dto.RoleChangeRequest;
+import com.ibra.authservice.dto.UserProfileDTO;
+import com.ibra.authservice.security.PasswordHashingBusyException;
 import com.ibra.authservice.service.AuthService;
 import com.ibra.dto.ApiResponse;
+import com.ibra.dto.ErrorResponse;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUser;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,10 +51,33 @@ public class AuthController {
             return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", authResponse));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        AuthResponse authResponse = authService.refresh(refreshTokenRequest);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Token refreshed", authResponse));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                      @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new UnauthorizedException("Invalid Authorization header format");
+        }
+        authService.logout(authorization.substring(7), refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Logged out", null));
+    }
+
+    @PatchMapping("/users/{userId}/role")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ApiResponse<UserProfileDTO>> changeRole(@PathVariable Long userId,
+                                                                  @Valid @RequestBody RoleChangeRequest roleChangeRequest) {
+        UserProfileDTO profile = authService.changeRole(userId, roleChangeRequest.getRole());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Role updated", profile));
+    }
+
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserProfile(@RequestHeader("X-User-Id") String userId,
-                                                                           @RequestHeader("X-User-Email") String userEmail) {
-        Map<String, Object> profile = authService.getUserProfile(userEmail);
+    public ResponseEntity<ApiResponse<UserProfileDTO>> getUserProfile(@CurrentUser AuthenticatedUser user) {
+        UserProfileDTO profile = authService.getUserProfile(user.email());
         return ResponseEntity.ok(new ApiResponse<>(true, "User profile fetched successfully", profile));
     }
 
@@ -50,4 +85,19 @@ public class AuthController {
     public ResponseEntity<ApiResponse<Map<String, String>>> health() {
         return ResponseEntity.ok(authService.getHealthStatus());
     }
+
+    // The password hashing pool is saturated; ask the client to come back rather than queue without bound
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
 }
@@ -0,0 +1,32 @@
+package com.ibra.authservice.controller;
+
+import com.ibra.authservice.security.JwtKeyManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the token verification keys as a standard JWKS document (not wrapped in ApiResponse).
+ */
+@RestController
+@RequestMapping("/auth/.well-known")
+public class JwksController {
+
+    private final JwtKeyManager jwtKeyManager;
+
+    public JwksController(JwtKeyManager jwtKeyManager) {
+        this.jwtKeyManager = jwtKeyManager;
+    }
+
+    @GetMapping(value = "/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyManager.getJwksJson());
+    }
+}
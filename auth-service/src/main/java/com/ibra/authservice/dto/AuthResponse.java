@@ -10,14 +10,16 @@ import lombok.Setter;
 public class AuthResponse {
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
     private Long id;
     private String email;
     private String firstName;
     private String lastName;
     private UserRole role;
 
-    public AuthResponse(String token, Long id, String email, String firstName, String lastName, UserRole role) {
+    public AuthResponse(String token, String refreshToken, Long id, String email, String firstName, String lastName, UserRole role) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.email = email;
         this.firstName = firstName;
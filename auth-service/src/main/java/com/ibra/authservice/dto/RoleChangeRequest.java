@@ -0,0 +1,18 @@
+package com.ibra.authservice.dto;
+
+import com.ibra.authservice.enums.UserRole;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoleChangeRequest {
+
+    @NotNull(message = "Role is required")
+    private UserRole role;
+}
@@ -0,0 +1,22 @@
+package com.ibra.authservice.dto;
+
+import com.ibra.authservice.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserProfileDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private UserRole role;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,123 @@
+package com.ibra.authservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * EC key pair used to sign access tokens. Stored so that every auth-service instance
+ * signs with and publishes the same keys.
+ */
+@Entity
+@Table(name = "signing_keys")
+public class SigningKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "key_id", nullable = false, unique = true)
+    private String keyId;
+
+    // Base64 encoded X.509 SubjectPublicKeyInfo
+    @Column(name = "public_key", nullable = false, length = 1024)
+    private String publicKey;
+
+    // PKCS#8 PrivateKeyInfo encrypted with the key encryption key, see SigningKeyCipher
+    @Column(name = "private_key", nullable = false, length = 1024)
+    private String privateKey;
+
+    // One more than the newest key's; unique, so when instances rotate at the same time only one key is created.
+    // Null for keys created before generations were introduced
+    @Column(name = "generation", unique = true)
+    private Long generation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Published in the JWKS from creation, used for signing only from this point on
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+
+    // Dropped from the JWKS once no token signed with it can still be valid
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public SigningKey() {
+    }
+
+    public SigningKey(String keyId, String publicKey, String privateKey, Long generation, LocalDateTime createdAt,
+                      LocalDateTime activatesAt, LocalDateTime expiresAt) {
+        this.keyId = keyId;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.generation = generation;
+        this.createdAt = createdAt;
+        this.activatesAt = activatesAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Long generation) {
+        this.generation = generation;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getActivatesAt() {
+        return activatesAt;
+    }
+
+    public void setActivatesAt(LocalDateTime activatesAt) {
+        this.activatesAt = activatesAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ibra.authservice.rabbitmq;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${app.rabbitmq.auth-exchange-name:auth.exchange}")
+    private String authExchangeName;
+
+    @Value("${app.rabbitmq.token-revoked-routing-key:auth.token.revoked}")
+    private String tokenRevokedRoutingKey;
+
+    @Bean
+    public TopicExchange authExchange() {
+        // Exchange this service publishes token revocations to; every gateway instance binds its own queue
+        return new TopicExchange(authExchangeName);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        return rabbitTemplate;
+    }
+
+    public String getAuthExchangeName() {
+        return authExchangeName;
+    }
+
+    public String getTokenRevokedRoutingKey() {
+        return tokenRevokedRoutingKey;
+    }
+}
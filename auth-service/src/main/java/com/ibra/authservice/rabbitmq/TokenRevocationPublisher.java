@@ -0,0 +1,49 @@
+package com.ibra.authservice.rabbitmq;
+
+import com.ibra.dto.TokenRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class TokenRevocationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQConfig rabbitMQConfig;
+
+    public TokenRevocationPublisher(RabbitTemplate rabbitTemplate, RabbitMQConfig rabbitMQConfig) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.rabbitMQConfig = rabbitMQConfig;
+    }
+
+    /**
+     * Publishes a revocation. Inside a transaction it is sent only after commit, so a rolled back role change
+     * does not log anyone out.
+     */
+    public void publish(TokenRevokedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(TokenRevokedEvent event) {
+        try {
+            logger.info("Publishing token revocation ({}) for user ID: {}, jti: {}", event.getReason(), event.getUserId(), event.getJti());
+            rabbitTemplate.convertAndSend(rabbitMQConfig.getAuthExchangeName(), rabbitMQConfig.getTokenRevokedRoutingKey(), event);
+        } catch (Exception e) {
+            logger.error("Failed to publish token revocation for user ID: {}", event.getUserId(), e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ibra.authservice.repository;
+
+import com.ibra.authservice.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, Long> {
+    List<SigningKey> findByExpiresAtAfterOrderByActivatesAtDesc(LocalDateTime now);
+
+    @Transactional
+    long deleteByExpiresAtBefore(LocalDateTime now);
+}
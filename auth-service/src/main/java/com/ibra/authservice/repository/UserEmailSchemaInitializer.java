@@ -0,0 +1,66 @@
+package com.ibra.authservice.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Makes emails unique regardless of case. Accounts registered before emails were normalized are lowercased, then a
+ * unique index on {@code lower(email)} is added so that no two accounts can differ only in case. The tables are
+ * managed by Hibernate, so this runs once the application context is up, and it is idempotent so it can run on
+ * every start.
+ * <p>
+ * Accounts whose emails differ only in case cannot be merged automatically. They are left as they are and logged,
+ * and the index is not created until they have been resolved.
+ */
+@Component
+public class UserEmailSchemaInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailSchemaInitializer.class);
+
+    private static final String INDEX = "idx_users_email_lower";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserEmailSchemaInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            logger.warn("Skipping case-insensitive email index, {} is not PostgreSQL", product);
+            return;
+        }
+
+        int lowercased = jdbcTemplate.update(
+                "UPDATE users u SET email = lower(trim(u.email)) "
+                        + "WHERE u.email <> lower(trim(u.email)) "
+                        + "AND NOT EXISTS (SELECT 1 FROM users o WHERE o.id <> u.id "
+                        + "AND lower(trim(o.email)) = lower(trim(u.email)))");
+        if (lowercased > 0) {
+            logger.info("Lowercased {} stored emails", lowercased);
+        }
+
+        Integer conflicts = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM users GROUP BY lower(trim(email)) HAVING count(*) > 1) c",
+                Integer.class);
+        if (conflicts != null && conflicts > 0) {
+            logger.error("Not creating {}: {} emails belong to several accounts that differ only in case; "
+                    + "merge or rename them", INDEX, conflicts);
+            return;
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX + " ON users (lower(email))");
+    }
+}
@@ -1,13 +1,37 @@
 package com.ibra.authservice.repository;
 
 
+import com.ibra.authservice.dto.UserProfileDTO;
 import com.ibra.authservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    @Query("SELECT new com.ibra.authservice.dto.UserProfileDTO(u.id, u.firstName, u.lastName, u.email, u.role, u.createdAt) "
+            + "FROM User u WHERE u.email = :email")
+    Optional<UserProfileDTO> findProfileByEmail(@Param("email") String email);
+
+    // One round trip; the unique indexes on email and lower(email) decide between concurrent registrations, see
+    // UserEmailSchemaInitializer. Returns 0 if taken.
+    @Modifying
+    @Query(value = "INSERT INTO users (first_name, last_name, email, password, role, created_at, updated_at, "
+            + "enabled, account_non_expired, account_non_locked, credentials_non_expired) "
+            + "VALUES (:firstName, :lastName, :email, :password, :role, :now, :now, TRUE, TRUE, TRUE, TRUE) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("firstName") String firstName, @Param("lastName") String lastName,
+                       @Param("email") String email, @Param("password") String password,
+                       @Param("role") String role, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
 }
@@ -0,0 +1,19 @@
+package com.ibra.authservice.security;
+
+import com.ibra.security.jwt.JwksKeyLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JwksConfig {
+
+    // Lets the shared HeaderBasedAuthFilter verify bearer tokens against this service's own keys
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwksKeyLocator jwksKeyLocator(JwtKeyManager jwtKeyManager,
+                                         @Value("${jwt.jwks.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        return new JwksKeyLocator(jwtKeyManager::getJwksJson, Duration.ofMillis(refreshIntervalMs), Duration.ofSeconds(5), null);
+    }
+}
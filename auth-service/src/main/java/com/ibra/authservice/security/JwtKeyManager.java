@@ -0,0 +1,214 @@
+package com.ibra.authservice.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.authservice.entity.SigningKey;
+import com.ibra.authservice.repository.SigningKeyRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Owns the rotating EC (P-256) keys used to sign access tokens.
+ * <p>
+ * A new key is generated once the newest key is older than the rotation interval. It is published in the
+ * JWKS immediately but only used for signing after the activation delay, which gives the gateway and services
+ * time to pick it up in their background refresh. Keys stay published until every token they signed has expired.
+ * <p>
+ * Private keys are stored encrypted by {@link SigningKeyCipher}. Every key gets the next generation number, which
+ * the table keeps unique: when several instances decide to create a key at once, only the first insert succeeds and
+ * the others pick that key up on reload.
+ */
+@Component
+public class JwtKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SigningKeyCipher signingKeyCipher;
+    private final ObjectMapper objectMapper;
+    private final long rotationIntervalMs;
+    private final long activationDelayMs;
+    private final long jwtExpirationMs;
+
+    // Immutable snapshot, replaced as a whole on every reload
+    private volatile KeySet keySet = new KeySet(List.of(), Map.of(), "{\"keys\":[]}");
+
+    public JwtKeyManager(SigningKeyRepository signingKeyRepository,
+                         SigningKeyCipher signingKeyCipher,
+                         ObjectMapper objectMapper,
+                         @Value("${jwt.keys.rotation-interval-ms:604800000}") long rotationIntervalMs,
+                         @Value("${jwt.keys.activation-delay-ms:600000}") long activationDelayMs,
+                         @Value("${jwt.expiration}") long jwtExpirationMs) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.signingKeyCipher = signingKeyCipher;
+        this.objectMapper = objectMapper;
+        this.rotationIntervalMs = rotationIntervalMs;
+        this.activationDelayMs = activationDelayMs;
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
+
+    @PostConstruct
+    public void init() {
+        rotateIfDue();
+    }
+
+    /**
+     * Drops expired keys, creates the next key when rotation is due and reloads the snapshot.
+     * Also picks up keys created by other auth-service instances.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.check-interval-ms:60000}", initialDelayString = "${jwt.keys.check-interval-ms:60000}")
+    public void rotateIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        signingKeyRepository.deleteByExpiresAtBefore(now);
+
+        List<SigningKey> keys = signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(now);
+        encryptPlaintextKeys(keys);
+        LocalDateTime newestCreatedAt = keys.stream()
+                .map(SigningKey::getCreatedAt)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        long nextGeneration = keys.stream()
+                .map(SigningKey::getGeneration)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(0L) + 1;
+
+        if (newestCreatedAt == null) {
+            // Nothing to sign with yet, so the first key is active immediately
+            createKey(nextGeneration, now, now);
+            keys = signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(now);
+        } else if (!newestCreatedAt.plus(rotationIntervalMs, ChronoUnit.MILLIS).isAfter(now)) {
+            createKey(nextGeneration, now, now.plus(activationDelayMs, ChronoUnit.MILLIS));
+            keys = signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(now);
+        }
+
+        keySet = buildKeySet(keys);
+    }
+
+    /**
+     * The newest key whose activation time has passed.
+     */
+    public ActiveKey currentSigningKey() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ActiveKey> keys = keySet.keys();
+        for (ActiveKey key : keys) {
+            if (!key.activatesAt().isAfter(now)) {
+                return key;
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No JWT signing key available");
+        }
+        // Only pending keys left (e.g. clock skew between instances), sign with the oldest one
+        return keys.get(keys.size() - 1);
+    }
+
+    public PublicKey getPublicKey(String keyId) {
+        return keyId != null ? keySet.publicKeysById().get(keyId) : null;
+    }
+
+    /**
+     * The JWKS document for all published keys, serialized once per reload.
+     */
+    public String getJwksJson() {
+        return keySet.jwksJson();
+    }
+
+    private void createKey(long generation, LocalDateTime now, LocalDateTime activatesAt) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        String keyId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = activatesAt
+                .plus(rotationIntervalMs, ChronoUnit.MILLIS)
+                .plus(jwtExpirationMs, ChronoUnit.MILLIS);
+        SigningKey signingKey = new SigningKey(
+                keyId,
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                signingKeyCipher.encrypt(keyId, keyPair.getPrivate().getEncoded()),
+                generation,
+                now,
+                activatesAt,
+                expiresAt);
+        try {
+            signingKeyRepository.save(signingKey);
+            logger.info("Generated JWT signing key {} (generation {}) active from {}", keyId, generation, activatesAt);
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Another instance created JWT signing key generation {} first, using that one", generation);
+        }
+    }
+
+    // Keys stored before encryption was introduced; they expire on their own, but should not sit in plaintext until then
+    private void encryptPlaintextKeys(List<SigningKey> keys) {
+        for (SigningKey signingKey : keys) {
+            if (signingKeyCipher.isEncrypted(signingKey.getPrivateKey())) {
+                continue;
+            }
+            signingKey.setPrivateKey(signingKeyCipher.encrypt(signingKey.getKeyId(),
+                    Base64.getDecoder().decode(signingKey.getPrivateKey())));
+            signingKeyRepository.save(signingKey);
+            logger.info("Encrypted stored JWT signing key {}", signingKey.getKeyId());
+        }
+    }
+
+    private KeySet buildKeySet(List<SigningKey> signingKeys) {
+        List<ActiveKey> keys = new ArrayList<>();
+        Map<String, PublicKey> publicKeysById = new HashMap<>();
+        List<PublicJwk<?>> jwks = new ArrayList<>();
+
+        for (SigningKey signingKey : signingKeys) {
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                PublicKey publicKey = keyFactory.generatePublic(
+                        new X509EncodedKeySpec(Base64.getDecoder().decode(signingKey.getPublicKey())));
+                PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(
+                        signingKeyCipher.decrypt(signingKey.getKeyId(), signingKey.getPrivateKey())));
+
+                keys.add(new ActiveKey(signingKey.getKeyId(), privateKey, signingKey.getActivatesAt()));
+                publicKeysById.put(signingKey.getKeyId(), publicKey);
+                jwks.add(Jwks.builder().key((ECPublicKey) publicKey).id(signingKey.getKeyId()).publicKeyUse("sig").build());
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                logger.error("Skipping unreadable JWT signing key {}: {}", signingKey.getKeyId(), e.getMessage());
+            }
+        }
+
+        try {
+            String jwksJson = objectMapper.writeValueAsString(Map.of("keys", jwks));
+            return new KeySet(List.copyOf(keys), Map.copyOf(publicKeysById), jwksJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize JWKS", e);
+        }
+    }
+
+    public record ActiveKey(String keyId, PrivateKey privateKey, LocalDateTime activatesAt) {
+    }
+
+    // Keys ordered newest activation first
+    private record KeySet(List<ActiveKey> keys, Map<String, PublicKey> publicKeysById, String jwksJson) {
+    }
+}
@@ -2,31 +2,34 @@ package com.ibra.authservice.security;
 
 
 import com.ibra.authservice.entity.User;
+import com.ibra.dto.TokenRevokedEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeyManager jwtKeyManager;
+    private final long jwtExpirationMs;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    // Verifies against any published key, selected by the kid header
+    private final JwtParser jwtParser;
 
-
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtils(JwtKeyManager jwtKeyManager, @Value("${jwt.expiration}") long jwtExpirationMs) {
+        this.jwtKeyManager = jwtKeyManager;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(header -> header instanceof JwsHeader jwsHeader ? jwtKeyManager.getPublicKey(jwsHeader.getKeyId()) : null)
+                .build();
     }
 
 
@@ -42,19 +45,22 @@ public class JwtUtils {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        JwtKeyManager.ActiveKey signingKey = jwtKeyManager.currentSigningKey();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
                 .claims(claims)
+                .claim(TokenRevokedEvent.ISSUED_AT_MILLIS_CLAIM, now)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(signingKey.privateKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -0,0 +1,11 @@
+package com.ibra.authservice.security;
+
+/**
+ * Thrown when a password cannot be hashed or checked because the hashing pool is saturated.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,9 @@ package com.ibra.authservice.security;
 import com.ibra.security.filter.HeaderBasedAuthFilter;
 import com.ibra.security.handler.JwtAccessDeniedHandler;
 import com.ibra.security.handler.JwtAuthenticationEntryPoint;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,11 +16,16 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired; // Autowire the shared filter
 
+import java.time.Duration;
+import java.util.Map;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -42,7 +50,8 @@ public class SecurityConfig {
                 .cors(withDefaults())
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(request -> request
-                        .requestMatchers("/auth/register", "/auth/login", "/auth/health", "/h2-console").permitAll()
+                        .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/auth/health", "/h2-console").permitAll()
+                        .requestMatchers("/auth/.well-known/jwks.json").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(headerBasedAuthFilter, BasicAuthenticationFilter.class)
@@ -53,9 +62,27 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Hashes new passwords with {@code app.security.password.encoder} and checks existing ones with whichever
+     * encoder their {id} prefix names. Hashes from before the prefix was used are plain BCrypt. Stored hashes
+     * using another encoder or a lower cost are rehashed on the next successful login, see
+     * {@link CustomUserDetailService#updatePassword}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.encoder:bcrypt}") String encoderId,
+            @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.security.password.hashing-threads:0}") int hashingThreads,
+            @Value("${app.security.password.hashing-queue-capacity:256}") int hashingQueueCapacity,
+            @Value("${app.security.password.hashing-timeout:5s}") Duration hashingTimeout,
+            MeterRegistry meterRegistry) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity, hashingTimeout, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,86 @@
+package com.ibra.authservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts the signing keys' private halves before they are stored, with AES-256-GCM under the key encryption key
+ * in {@code jwt.keys.encryption-key} (base64, 32 bytes). The key id is bound in as associated data, so an encrypted
+ * key copied onto another row does not decrypt.
+ * <p>
+ * Stored values look like {@code v1:<base64 of iv and ciphertext>}; values without the prefix are plaintext keys
+ * written before encryption was introduced.
+ */
+@Component
+public class SigningKeyCipher {
+
+    static final String PREFIX = "v1:";
+
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec keyEncryptionKey;
+    private final SecureRandom random = new SecureRandom();
+
+    public SigningKeyCipher(@Value("${jwt.keys.encryption-key:}") String keyEncryptionKey) {
+        if (keyEncryptionKey == null || keyEncryptionKey.isBlank()) {
+            throw new IllegalStateException("jwt.keys.encryption-key must be set to encrypt JWT signing keys at rest");
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(keyEncryptionKey.trim());
+        if (keyBytes.length != KEY_BYTES) {
+            throw new IllegalStateException("jwt.keys.encryption-key must be " + KEY_BYTES + " bytes, base64 encoded");
+        }
+        this.keyEncryptionKey = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public String encrypt(String keyId, byte[] privateKey) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, keyId, iv);
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            ByteBuffer stored = ByteBuffer.allocate(IV_BYTES + ciphertext.length).put(iv).put(ciphertext);
+            return PREFIX + Base64.getEncoder().encodeToString(stored.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt JWT signing key " + keyId, e);
+        }
+    }
+
+    /**
+     * The private key held by a stored value; throws when it was encrypted under another key or tampered with.
+     */
+    public byte[] decrypt(String keyId, String stored) throws GeneralSecurityException {
+        if (!isEncrypted(stored)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        byte[] decoded = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        if (decoded.length <= IV_BYTES) {
+            throw new GeneralSecurityException("Encrypted JWT signing key " + keyId + " is truncated");
+        }
+        Cipher cipher = cipher(Cipher.DECRYPT_MODE, keyId, Arrays.copyOf(decoded, IV_BYTES));
+        return cipher.doFinal(decoded, IV_BYTES, decoded.length - IV_BYTES);
+    }
+
+    public boolean isEncrypted(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    private Cipher cipher(int mode, String keyId, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(mode, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+}
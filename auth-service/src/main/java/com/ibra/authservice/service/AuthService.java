@@ -2,13 +2,20 @@ package com.ibra.authservice.service;
 
 import com.ibra.authservice.dto.AuthResponse;
 import com.ibra.authservice.dto.LoginRequest;
+import com.ibra.authservice.dto.RefreshTokenRequest;
 import com.ibra.authservice.dto.RegisterRequest;
+import com.ibra.authservice.dto.UserProfileDTO;
 import com.ibra.authservice.entity.User;
+import com.ibra.authservice.enums.UserRole;
 import com.ibra.authservice.repository.UserRepository;
 import com.ibra.authservice.security.JwtUtils;
 import com.ibra.dto.ApiResponse;
 import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.exception.UnauthorizedException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,10 +23,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 public class AuthService {
@@ -28,30 +36,40 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Autowired
-    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtils jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtils jwtUtil,
+                       RefreshTokenService refreshTokenService, UserCache userCache, TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.userCache = userCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
+    @Transactional
     public void registerUser(RegisterRequest registerRequest) {
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new BusinessException("Email is already taken!");
-        }
+        String email = UserCache.normalize(registerRequest.getEmail());
+        UserRole role = registerRequest.getRole() != null ? registerRequest.getRole() : UserRole.CUSTOMER;
 
-        // Create new user
-        User user = new User(
+        // Insert and duplicate check in one statement, decided by the unique constraints on email
+        int inserted = userRepository.insertIfAbsent(
                 registerRequest.getFirstName(),
                 registerRequest.getLastName(),
-                registerRequest.getEmail(),
+                email,
                 passwordEncoder.encode(registerRequest.getPassword()),
-                registerRequest.getRole()
+                role.name(),
+                LocalDateTime.now()
         );
-
-        userRepository.save(user);
+        if (inserted == 0) {
+            throw new BusinessException("Email is already taken!");
+        }
+        userCache.evict(email);
     }
 
     public AuthResponse loginUser(LoginRequest loginRequest) throws AuthenticationException {
@@ -65,10 +83,61 @@ public class AuthService {
         );
 
         User user = (User) authentication.getPrincipal(); // Assuming User entity implements UserDetails
-        String token = jwtUtil.generateToken(user);
+        return authResponse(user, refreshTokenService.issue(user));
+    }
+
+    /**
+     * Issues a new access token and rotates the refresh token. The password is not involved, so this is the
+     * cheap way for clients to stay logged in.
+     */
+    public AuthResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        return authResponse(rotation.user(), rotation.refreshToken());
+    }
 
+    /**
+     * Revokes the presented access token and, when given, the refresh token family it was issued with.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(accessToken);
+        } catch (ExpiredJwtException e) {
+            // Already unusable, nothing to revoke
+            claims = null;
+        } catch (JwtException e) {
+            throw new UnauthorizedException("Invalid access token");
+        }
+        if (claims != null) {
+            tokenRevocationService.revokeToken(claims, "logout");
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    /**
+     * Changes the role of a user. Tokens issued before carry the old role, so they are revoked; the user's next
+     * refresh picks up the new role.
+     */
+    @Transactional
+    public UserProfileDTO changeRole(Long userId, UserRole role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        if (user.getRole() != role) {
+            user.setRole(role);
+            userRepository.save(user);
+            userCache.evict(user.getEmail());
+            tokenRevocationService.revokeAllForUser(userId, "role-change");
+        }
+        return new UserProfileDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getCreatedAt());
+    }
+
+    private AuthResponse authResponse(User user, String refreshToken) {
         return new AuthResponse(
-                token,
+                jwtUtil.generateToken(user),
+                refreshToken,
                 user.getId(),
                 user.getEmail(),
                 user.getFirstName(),
@@ -77,21 +146,9 @@ public class AuthService {
         );
     }
 
-    public Map<String, Object> getUserProfile(String userEmail) { // Changed return type to Map directly
-        Optional<User> userOptional = userRepository.findByEmail(userEmail);
-
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            Map<String, Object> profile = new HashMap<>();
-            profile.put("id", user.getId());
-            profile.put("firstName", user.getFirstName());
-            profile.put("lastName", user.getLastName());
-            profile.put("email", user.getEmail());
-            profile.put("role", user.getRole());
-            profile.put("createdAt", user.getCreatedAt());
-            return profile;
-        }
-        throw new ResourceNotFoundException("User profile not found with email: " + userEmail);
+    public UserProfileDTO getUserProfile(String userEmail) {
+        return userCache.findProfileByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User profile not found with email: " + userEmail));
     }
 
     public ApiResponse<Map<String, String>> getHealthStatus() {
@@ -0,0 +1,146 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.entity.RefreshToken;
+import com.ibra.authservice.entity.User;
+import com.ibra.authservice.repository.RefreshTokenRepository;
+import com.ibra.authservice.repository.UserRepository;
+import com.ibra.exception.UnauthorizedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, so that clients renew short-lived access tokens without sending the password
+ * again and paying for its hash.
+ * <p>
+ * Refresh tokens are 256 random bits, so a single SHA-256 is enough to store them safely and looking one up costs
+ * an index probe. Every refresh consumes the presented token and returns a new one from the same family; a token
+ * presented twice revokes its family and the user's access tokens, which logs out both the thief and the legitimate
+ * client.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration expiration;
+    private final int purgeBatchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               TokenRevocationService tokenRevocationService,
+                               @Value("${app.security.refresh-token.expiration:14d}") Duration expiration,
+                               @Value("${app.security.refresh-token.purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.expiration = expiration;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Starts a new token family for a user who just logged in and returns its first token.
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(UUID.randomUUID().toString(), user.getId(), LocalDateTime.now());
+    }
+
+    /**
+     * Exchanges a refresh token for the next one in its family.
+     *
+     * @throws UnauthorizedException if the token is unknown, expired or was already used
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+        if (!refreshToken.getExpiresAt().isAfter(now)) {
+            throw new UnauthorizedException("Refresh token has expired");
+        }
+        if (refreshToken.getUsedAt() != null || refreshTokenRepository.markUsed(refreshToken.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+            logger.warn("Refresh token reuse detected for user {}, revoked {} tokens of its family",
+                    refreshToken.getUserId(), revoked);
+            // Whoever copied the refresh token may also hold access tokens issued from it
+            tokenRevocationService.revokeAllForUser(refreshToken.getUserId(), "refresh-token-reuse");
+            throw new UnauthorizedException("Refresh token has already been used");
+        }
+
+        User user = userRepository.findById(refreshToken.getUserId())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> {
+                    refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId());
+                    return new UnauthorizedException("User is no longer active");
+                });
+
+        return new Rotation(user, create(refreshToken.getFamilyId(), user.getId(), now));
+    }
+
+    /**
+     * Revokes the family of the given token, if it still exists. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(refreshToken -> refreshTokenRepository.deleteByFamilyId(refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Deletes expired tokens in batches of {@code app.security.refresh-token.purge-batch-size} rows.
+     */
+    @Scheduled(fixedDelayString = "${app.security.refresh-token.purge-interval-ms:3600000}",
+            initialDelayString = "${app.security.refresh-token.purge-interval-ms:3600000}")
+    public long purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    private String create(String familyId, Long userId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, userId, now.plus(expiration)));
+        return rawToken;
+    }
+
+    static byte[] hash(String rawToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.rabbitmq.TokenRevocationPublisher;
+import com.ibra.dto.TokenRevokedEvent;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Revokes access tokens before they expire by telling every gateway instance to stop accepting them.
+ * Nothing is stored here: a revocation only has to outlive the tokens it covers, which the gateways track.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationPublisher tokenRevocationPublisher;
+    private final long jwtExpirationMs;
+
+    public TokenRevocationService(TokenRevocationPublisher tokenRevocationPublisher,
+                                  @Value("${jwt.expiration}") long jwtExpirationMs) {
+        this.tokenRevocationPublisher = tokenRevocationPublisher;
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
+
+    /**
+     * Revokes the token the given claims were read from. Tokens issued before tokens carried a jti cannot be told
+     * apart, so for those every token of the user is revoked.
+     */
+    public void revokeToken(Claims claims, String reason) {
+        Long userId = claims.get("id", Long.class);
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            logger.info("Token of user {} has no jti, revoking all of the user's tokens instead", userId);
+            revokeAllForUser(userId, reason);
+            return;
+        }
+        tokenRevocationPublisher.publish(new TokenRevokedEvent(
+                claims.getId(), userId, null, claims.getExpiration().toInstant(), reason));
+    }
+
+    /**
+     * Revokes every token of the user issued up to now.
+     */
+    public void revokeAllForUser(Long userId, String reason) {
+        // Compared against the millisecond issue time, so only tokens issued in this very millisecond are at doubt
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.MILLIS).plusMillis(1);
+        tokenRevocationPublisher.publish(new TokenRevokedEvent(
+                null, userId, notBefore, notBefore.plusMillis(jwtExpirationMs), reason));
+    }
+}
@@ -0,0 +1,142 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.dto.UserProfileDTO;
+import com.ibra.authservice.entity.User;
+import com.ibra.authservice.enums.UserRole;
+import com.ibra.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users by email, so that logins and profile reads do not query the database every time.
+ * <p>
+ * Entries are keyed by the normalized email, held in a bounded LRU map and dropped after {@code
+ * app.security.user-cache.ttl}, which bounds how long a change made through another instance can go unnoticed.
+ * Writes made through this instance call {@link #evict}. Entries are immutable copies; every read gets its own
+ * detached {@link User}, so callers cannot change what other threads see.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<String, CachedUser> users;
+
+    // Bumped by every eviction, so a load that raced with a write is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.security.user-cache.max-size:10000}") int maxSize,
+                     @Value("${app.security.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.users = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Emails are compared case-insensitively and without surrounding whitespace.
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        String key = normalize(email);
+        CachedUser cached = cached(key);
+        if (cached == null) {
+            long evictionsBefore = evictions.get();
+            Optional<User> loaded = load(key, email);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            cached = CachedUser.of(loaded.get(), System.currentTimeMillis());
+            if (evictions.get() == evictionsBefore) {
+                users.put(key, cached);
+            }
+        }
+        return Optional.of(cached.toUser());
+    }
+
+    /**
+     * The profile of a user. Served from the cache when the user is there, otherwise read as a projection without
+     * loading the entity, and not cached.
+     */
+    public Optional<UserProfileDTO> findProfileByEmail(String email) {
+        String key = normalize(email);
+        CachedUser cached = cached(key);
+        if (cached != null) {
+            return Optional.of(cached.toProfile());
+        }
+        Optional<UserProfileDTO> profile = userRepository.findProfileByEmail(key);
+        if (profile.isEmpty() && !key.equals(email)) {
+            profile = userRepository.findProfileByEmail(email);
+        }
+        return profile;
+    }
+
+    public void evict(String email) {
+        evictions.incrementAndGet();
+        users.remove(normalize(email));
+    }
+
+    private CachedUser cached(String key) {
+        CachedUser cached = users.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() > ttlMillis) {
+            users.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    // Accounts registered before emails were normalized may be stored with their original case
+    private Optional<User> load(String key, String email) {
+        Optional<User> user = userRepository.findByEmail(key);
+        if (user.isEmpty() && !key.equals(email)) {
+            user = userRepository.findByEmail(email);
+        }
+        return user;
+    }
+
+    private record CachedUser(Long id, String firstName, String lastName, String email, String password,
+                              UserRole role, LocalDateTime createdAt, LocalDateTime updatedAt, boolean enabled,
+                              boolean accountNonExpired, boolean accountNonLocked, boolean credentialsNonExpired,
+                              long loadedAtMillis) {
+
+        static CachedUser of(User user, long loadedAtMillis) {
+            return new CachedUser(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                    user.getPassword(), user.getRole(), user.getCreatedAt(), user.getUpdatedAt(), user.isEnabled(),
+                    user.isAccountNonExpired(), user.isAccountNonLocked(), user.isCredentialsNonExpired(),
+                    loadedAtMillis);
+        }
+
+        User toUser() {
+            User user = new User(firstName, lastName, email, password, role);
+            user.setId(id);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setEnabled(enabled);
+            user.setAccountNonExpired(accountNonExpired);
+            user.setAccountNonLocked(accountNonLocked);
+            user.setCredentialsNonExpired(credentialsNonExpired);
+            return user;
+        }
+
+        UserProfileDTO toProfile() {
+            return new UserProfileDTO(id, firstName, lastName, email, role, createdAt);
+        }
+    }
+}
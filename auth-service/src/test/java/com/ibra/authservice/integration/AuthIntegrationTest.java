@@ -85,7 +85,8 @@ class AuthIntegrationTest {
         // 3. Get user profile (simulating gateway headers)
         mockMvc.perform(get("/auth/profile")
                         .header("X-User-Id", "1")
-                        .header("X-User-Email", "jane@example.com"))
+                        .header("X-User-Email", "jane@example.com")
+                        .header("X-User-Role", "CUSTOMER"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("jane@example.com"))
                 .andExpect(jsonPath("$.firstName").value("Jane"))
@@ -161,7 +162,8 @@ class AuthIntegrationTest {
         // Get profile with correct headers
         mockMvc.perform(get("/auth/profile")
                         .header("X-User-Id", savedUser.getId().toString())
-                        .header("X-User-Email", "profile@example.com"))
+                        .header("X-User-Email", "profile@example.com")
+                        .header("X-User-Role", "CUSTOMER"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("profile@example.com"))
                 .andExpect(jsonPath("$.firstName").value("Profile"))
@@ -0,0 +1,172 @@
+package com.ibra.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoderTest.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AutoCloseable> toClose = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : toClose) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void legacyHashesMatchAndAreUpgraded() {
+        PasswordEncoder encoder = configured(4);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertFalse(encoder.matches("wrong", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String current = encoder.encode("secret");
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("secret", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void raisingTheCostMarksOlderHashesForUpgrade() {
+        String cheap = configured(4).encode("secret");
+
+        PasswordEncoder stronger = configured(5);
+
+        assertTrue(stronger.matches("secret", cheap));
+        assertTrue(stronger.upgradeEncoding(cheap));
+    }
+
+    @Test
+    void saturatedPoolRejectsInsteadOfQueueingWithoutBound() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingEncoder(started, release);
+        BoundedPasswordEncoder encoder = bounded(blocking, 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueued(1);
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void callerGivesUpAfterTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = bounded(new BlockingEncoder(started, release), 1, 4, Duration.ofMillis(50));
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("b", "b"));
+        // The first caller times out on its own; releasing the hash earlier would let a slow caller thread succeed
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    /**
+     * Logins per second per core at the default cost. Not part of the regular build; run with
+     * {@code mvn test -pl auth-service -Dtest=BoundedPasswordEncoderTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkLoginsPerSecondPerCore() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        BoundedPasswordEncoder encoder = bounded(new BCryptPasswordEncoder(10), cores, 1024, Duration.ofMinutes(1));
+        String hash = encoder.encode("correct horse battery staple");
+        int logins = cores * 20;
+
+        ExecutorService callers = Executors.newFixedThreadPool(cores * 2);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> encoder.matches("correct horse battery staple", hash), callers));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("bcrypt(10): {} logins on {} cores in {} s = {} logins/s/core",
+                    logins, cores, String.format("%.2f", seconds), String.format("%.1f", logins / seconds / cores));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private PasswordEncoder configured(int bcryptStrength) {
+        BoundedPasswordEncoder encoder = new SecurityConfig(null, null, null)
+                .passwordEncoder("bcrypt", bcryptStrength, 2, 16, Duration.ofSeconds(5), meterRegistry);
+        toClose.add(encoder);
+        return encoder;
+    }
+
+    private BoundedPasswordEncoder bounded(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, threads, queueCapacity, timeout, meterRegistry);
+        toClose.add(encoder);
+        return encoder;
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "task was never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return rawPassword.toString().equals(encodedPassword);
+        }
+
+        private void block() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ibra.authservice.security;
+
+import com.ibra.authservice.entity.User;
+import com.ibra.authservice.enums.UserRole;
+import com.ibra.authservice.repository.UserRepository;
+import com.ibra.authservice.service.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new SecurityConfig(null, null, null)
+                .passwordEncoder("bcrypt", 4, 2, 16, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        CustomUserDetailService userDetailService = new CustomUserDetailService(userRepository,
+                new UserCache(userRepository, 100, Duration.ofMinutes(5)));
+        // Wired the same way Spring Security wires the UserDetailsService and UserDetailsPasswordService beans
+        authenticationProvider = new DaoAuthenticationProvider(userDetailService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void login_WithOutdatedHash_StoresRehashedPassword() {
+        User user = user(new BCryptPasswordEncoder(4).encode("password123"));
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+
+        Authentication authentication = authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("john@example.com", "password123"));
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("john@example.com"), rehashed.capture());
+        assertTrue(rehashed.getValue().startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("password123", rehashed.getValue()));
+        assertEquals(rehashed.getValue(), ((User) authentication.getPrincipal()).getPassword());
+    }
+
+    @Test
+    void login_WithCurrentHash_LeavesPasswordAlone() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user(passwordEncoder.encode("password123"))));
+
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("john@example.com", "password123"));
+
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+
+    @Test
+    void login_WithWrongPassword_DoesNotRehash() {
+        when(userRepository.findByEmail("john@example.com"))
+                .thenReturn(Optional.of(user(new BCryptPasswordEncoder(4).encode("password123"))));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("john@example.com", "wrong")));
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+
+    private static User user(String passwordHash) {
+        User user = new User("John", "Doe", "john@example.com", passwordHash, UserRole.CUSTOMER);
+        user.setId(1L);
+        return user;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ibra.authservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.authservice.entity.SigningKey;
+import com.ibra.authservice.repository.SigningKeyRepository;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtKeyManagerTest {
+
+    private static final String KEY_ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final long DAY_MS = 86_400_000;
+
+    @Mock
+    private SigningKeyRepository signingKeyRepository;
+
+    private final SigningKeyCipher cipher = new SigningKeyCipher(KEY_ENCRYPTION_KEY);
+    private JwtKeyManager keyManager;
+
+    @BeforeEach
+    void setUp() {
+        keyManager = new JwtKeyManager(signingKeyRepository, cipher, new ObjectMapper(), 7 * DAY_MS, 600_000, 900_000);
+    }
+
+    @Test
+    void rotateIfDue_StoresPrivateKeyEncrypted() throws GeneralSecurityException {
+        SigningKey[] saved = new SigningKey[1];
+        when(signingKeyRepository.save(any())).thenAnswer(invocation -> saved[0] = invocation.getArgument(0));
+        when(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(any()))
+                .thenReturn(List.of())
+                .thenAnswer(invocation -> List.of(saved[0]));
+
+        keyManager.rotateIfDue();
+
+        SigningKey stored = saved[0];
+        assertTrue(stored.getPrivateKey().startsWith(SigningKeyCipher.PREFIX));
+        assertEquals(1L, stored.getGeneration());
+        assertArrayEquals(keyManager.currentSigningKey().privateKey().getEncoded(),
+                cipher.decrypt(stored.getKeyId(), stored.getPrivateKey()));
+    }
+
+    @Test
+    void rotateIfDue_UsesKeyOfInstanceThatCreatedTheGenerationFirst() {
+        SigningKey winner = key("key-1", 1L, cipher.encrypt("key-1", Jwts.SIG.ES256.keyPair().build().getPrivate().getEncoded()));
+        when(signingKeyRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate generation"));
+        when(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(winner));
+
+        keyManager.rotateIfDue();
+
+        assertEquals("key-1", keyManager.currentSigningKey().keyId());
+    }
+
+    @Test
+    void rotateIfDue_EncryptsKeysStoredInPlaintext() {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        SigningKey legacy = key("legacy", null, Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        when(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(any())).thenReturn(List.of(legacy));
+
+        keyManager.rotateIfDue();
+
+        ArgumentCaptor<SigningKey> saved = ArgumentCaptor.forClass(SigningKey.class);
+        verify(signingKeyRepository).save(saved.capture());
+        assertTrue(saved.getValue().getPrivateKey().startsWith(SigningKeyCipher.PREFIX));
+        assertArrayEquals(keyPair.getPrivate().getEncoded(), keyManager.currentSigningKey().privateKey().getEncoded());
+    }
+
+    @Test
+    void decrypt_RejectsOtherRowOrOtherKeyEncryptionKey() {
+        String encrypted = cipher.encrypt("key-1", new byte[]{1, 2, 3});
+
+        assertThrows(GeneralSecurityException.class, () -> cipher.decrypt("key-2", encrypted));
+        byte[] otherKey = new byte[32];
+        Arrays.fill(otherKey, (byte) 1);
+        SigningKeyCipher otherCipher = new SigningKeyCipher(Base64.getEncoder().encodeToString(otherKey));
+        assertThrows(GeneralSecurityException.class, () -> otherCipher.decrypt("key-1", encrypted));
+    }
+
+    private static SigningKey key(String keyId, Long generation, String privateKey) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        LocalDateTime now = LocalDateTime.now();
+        return new SigningKey(keyId, Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()), privateKey,
+                generation, now, now, now.plusDays(7));
+    }
+}
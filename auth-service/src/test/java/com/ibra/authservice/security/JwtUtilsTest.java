@@ -7,14 +7,18 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.ibra.authservice.entity.User;
 import com.ibra.authservice.enums.UserRole;
+import com.ibra.dto.TokenRevokedEvent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.Base64;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,18 +30,15 @@ class JwtUtilsTest {
     private JwtUtils jwtUtils;
     private User testUser;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    @Autowired
+    private JwtKeyManager jwtKeyManager;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
     @BeforeEach
     void setUp() {
-        jwtUtils = new JwtUtils();
-        // Set private fields using reflection for testing
-        setField(jwtUtils, "jwtSecret", jwtSecret);
-        setField(jwtUtils, "jwtExpirationMs", jwtExpiration);
+        jwtUtils = new JwtUtils(jwtKeyManager, jwtExpiration);
 
         testUser = new User();
         testUser.setId(1L);
@@ -80,6 +81,8 @@ class JwtUtilsTest {
         assertEquals("Doe", claims.get("lastName"));
         assertEquals("CUSTOMER", claims.get("role"));
         assertEquals("john@example.com", claims.get("email"));
+        assertEquals(claims.getIssuedAt().getTime() / 1000,
+                claims.get(TokenRevokedEvent.ISSUED_AT_MILLIS_CLAIM, Long.class) / 1000);
     }
 
     @Test
@@ -119,15 +122,23 @@ class JwtUtilsTest {
         assertTrue(expiration.after(new Date()));
     }
 
-    // Helper method to set private fields using reflection
-    private void setField(Object target, String fieldName, Object value) {
-        try {
-            var field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(target, value);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to set field: " + fieldName, e);
-        }
+    @Test
+    void generateToken_SignsWithCurrentKeyId() {
+        String token = jwtUtils.generateToken(testUser);
+
+        String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + jwtKeyManager.currentSigningKey().keyId() + "\""));
+        assertTrue(jwtKeyManager.getJwksJson().contains(jwtKeyManager.currentSigningKey().keyId()));
     }
 
+    @Test
+    void extractAllClaims_TamperedToken_ThrowsException() {
+        String token = jwtUtils.generateToken(testUser);
+        String[] parts = token.split("\\.");
+        String otherPayload = jwtUtils.generateToken(new User("Jane", "Roe", "jane@example.com", "password", UserRole.ADMIN)).split("\\.")[1];
+
+        assertThrows(JwtException.class, () -> jwtUtils.extractAllClaims(parts[0] + "." + otherPayload + "." + parts[2]));
+    }
 }
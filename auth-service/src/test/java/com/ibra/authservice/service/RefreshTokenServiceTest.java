@@ -0,0 +1,162 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.entity.RefreshToken;
+import com.ibra.authservice.entity.User;
+import com.ibra.authservice.enums.UserRole;
+import com.ibra.authservice.repository.RefreshTokenRepository;
+import com.ibra.authservice.repository.UserRepository;
+import com.ibra.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, tokenRevocationService,
+                Duration.ofDays(14), 2);
+        user = new User("John", "Doe", "john@example.com", "{bcrypt}hash", UserRole.CUSTOMER);
+        user.setId(1L);
+    }
+
+    @Test
+    void issue_StoresOnlyTheHashOfANewFamily() {
+        String rawToken = refreshTokenService.issue(user);
+
+        RefreshToken stored = captureSaved();
+        assertArrayEquals(RefreshTokenService.hash(rawToken), stored.getTokenHash());
+        assertEquals(32, stored.getTokenHash().length);
+        assertEquals(1L, stored.getUserId());
+        assertNotNull(stored.getFamilyId());
+        assertNull(stored.getUsedAt());
+        assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now().plusDays(13)));
+        assertNotEquals(rawToken, refreshTokenService.issue(user));
+    }
+
+    @Test
+    void rotate_ValidToken_IssuesSuccessorInSameFamily() {
+        RefreshToken current = stored("token-1", LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.markUsed(eq(10L), any())).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("token-1");
+
+        assertSame(user, rotation.user());
+        assertNotEquals("token-1", rotation.refreshToken());
+        RefreshToken successor = captureSaved();
+        assertArrayEquals(RefreshTokenService.hash(rotation.refreshToken()), successor.getTokenHash());
+        assertEquals(current.getFamilyId(), successor.getFamilyId());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    void rotate_UsedToken_RevokesFamily() {
+        RefreshToken current = stored("token-1", LocalDateTime.now().plusDays(1));
+        current.setUsedAt(LocalDateTime.now().minusMinutes(5));
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("token-1"));
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+        verify(tokenRevocationService).revokeAllForUser(1L, "refresh-token-reuse");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_ConcurrentRefreshLosesRace_RevokesFamily() {
+        stored("token-1", LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.markUsed(eq(10L), any())).thenReturn(0);
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("token-1"));
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+    }
+
+    @Test
+    void rotate_ExpiredToken_ThrowsUnauthorized() {
+        stored("token-1", LocalDateTime.now().minusSeconds(1));
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("token-1"));
+
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void rotate_UnknownToken_ThrowsUnauthorized() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("nope"));
+    }
+
+    @Test
+    void rotate_DisabledUser_RevokesFamily() {
+        stored("token-1", LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.markUsed(eq(10L), any())).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("token-1"));
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void revoke_DeletesFamilyOfKnownToken() {
+        stored("token-1", LocalDateTime.now().plusDays(1));
+
+        refreshTokenService.revoke("token-1");
+        refreshTokenService.revoke("unknown");
+
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId("family-1");
+    }
+
+    @Test
+    void purgeExpired_DeletesInBatchesUntilShortBatch() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(2, 2, 1);
+
+        assertEquals(5, refreshTokenService.purgeExpired());
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(), eq(2));
+    }
+
+    private RefreshToken stored(String rawToken, LocalDateTime expiresAt) {
+        RefreshToken refreshToken = new RefreshToken(RefreshTokenService.hash(rawToken), "family-1", 1L, expiresAt);
+        refreshToken.setId(10L);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(rawToken))).thenReturn(Optional.of(refreshToken));
+        return refreshToken;
+    }
+
+    private RefreshToken captureSaved() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues().get(0);
+    }
+}
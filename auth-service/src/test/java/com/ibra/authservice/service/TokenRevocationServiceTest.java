@@ -0,0 +1,82 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.rabbitmq.TokenRevocationPublisher;
+import com.ibra.dto.TokenRevokedEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long JWT_EXPIRATION_MS = 900_000;
+
+    @Mock
+    private TokenRevocationPublisher tokenRevocationPublisher;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(tokenRevocationPublisher, JWT_EXPIRATION_MS);
+    }
+
+    @Test
+    void revokeToken_PublishesJtiUntilTokenExpiry() {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = Jwts.claims().id("jti-1").add("id", 7L).expiration(expiration).build();
+
+        tokenRevocationService.revokeToken(claims, "logout");
+
+        TokenRevokedEvent event = published();
+        assertEquals("jti-1", event.getJti());
+        assertEquals(7L, event.getUserId());
+        assertNull(event.getNotBefore());
+        // exp claims have whole seconds
+        assertEquals(expiration.getTime() / 1000, event.getExpiresAt().getEpochSecond());
+        assertEquals("logout", event.getReason());
+    }
+
+    @Test
+    void revokeToken_WithoutJti_RevokesAllTokensOfUser() {
+        Claims claims = Jwts.claims().add("id", 7L).expiration(new Date(System.currentTimeMillis() + 60_000)).build();
+
+        tokenRevocationService.revokeToken(claims, "logout");
+
+        TokenRevokedEvent event = published();
+        assertNull(event.getJti());
+        assertEquals(7L, event.getUserId());
+        assertNotNull(event.getNotBefore());
+    }
+
+    @Test
+    void revokeAllForUser_CoversTokensIssuedUpToNowAndOutlivesThem() {
+        Instant before = Instant.now();
+
+        tokenRevocationService.revokeAllForUser(7L, "role-change");
+
+        TokenRevokedEvent event = published();
+        assertNull(event.getJti());
+        assertTrue(event.getNotBefore().toEpochMilli() > before.toEpochMilli());
+        // Not rounded up to the next second, which would also revoke tokens issued right after
+        assertTrue(event.getNotBefore().toEpochMilli() <= Instant.now().toEpochMilli() + 1);
+        assertEquals(event.getNotBefore().plusMillis(JWT_EXPIRATION_MS), event.getExpiresAt());
+    }
+
+    private TokenRevokedEvent published() {
+        ArgumentCaptor<TokenRevokedEvent> captor = ArgumentCaptor.forClass(TokenRevokedEvent.class);
+        verify(tokenRevocationPublisher).publish(captor.capture());
+        return captor.getValue();
+    }
+}
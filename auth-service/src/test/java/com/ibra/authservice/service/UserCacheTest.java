@@ -0,0 +1,148 @@
+package com.ibra.authservice.service;
+
+import com.ibra.authservice.dto.UserProfileDTO;
+import com.ibra.authservice.entity.User;
+import com.ibra.authservice.enums.UserRole;
+import com.ibra.authservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void findByEmail_RepeatedLookups_QueryOnce() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user("john@example.com")));
+
+        User first = userCache.findByEmail("john@example.com").orElseThrow();
+        User second = userCache.findByEmail("  John@Example.COM ").orElseThrow();
+
+        assertEquals("john@example.com", second.getEmail());
+        assertEquals("{bcrypt}hash", second.getPassword());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByEmail(anyString());
+    }
+
+    @Test
+    void findByEmail_ReturnedUserChanges_DoNotLeakIntoCache() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user("john@example.com")));
+
+        userCache.findByEmail("john@example.com").orElseThrow().setPassword("tampered");
+
+        assertEquals("{bcrypt}hash", userCache.findByEmail("john@example.com").orElseThrow().getPassword());
+    }
+
+    @Test
+    void findByEmail_LegacyMixedCaseEmail_FallsBackToExactMatch() {
+        when(userRepository.findByEmail("legacy@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("Legacy@Example.com")).thenReturn(Optional.of(user("Legacy@Example.com")));
+
+        assertTrue(userCache.findByEmail("Legacy@Example.com").isPresent());
+    }
+
+    @Test
+    void findByEmail_UnknownUser_IsNotCached() {
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userCache.findByEmail("ghost@example.com").isEmpty());
+        assertTrue(userCache.findByEmail("ghost@example.com").isEmpty());
+
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user("john@example.com")));
+        userCache.findByEmail("john@example.com");
+
+        userCache.evict("JOHN@example.com");
+        userCache.findByEmail("john@example.com");
+
+        verify(userRepository, times(2)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void findByEmail_ExpiredEntry_IsReloaded() {
+        userCache = new UserCache(userRepository, 2, Duration.ZERO);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user("john@example.com")));
+
+        userCache.findByEmail("john@example.com");
+        sleepPastTtl();
+        userCache.findByEmail("john@example.com");
+
+        verify(userRepository, times(2)).findByEmail("john@example.com");
+    }
+
+    @Test
+    void findByEmail_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+        for (String email : new String[]{"a@example.com", "b@example.com", "c@example.com"}) {
+            when(userRepository.findByEmail(email)).thenReturn(Optional.of(user(email)));
+        }
+
+        userCache.findByEmail("a@example.com");
+        userCache.findByEmail("b@example.com");
+        userCache.findByEmail("a@example.com");
+        userCache.findByEmail("c@example.com");
+        userCache.findByEmail("a@example.com");
+        userCache.findByEmail("b@example.com");
+
+        verify(userRepository, times(1)).findByEmail("a@example.com");
+        verify(userRepository, times(2)).findByEmail("b@example.com");
+    }
+
+    @Test
+    void findProfileByEmail_CachedUser_SkipsDatabase() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user("john@example.com")));
+        userCache.findByEmail("john@example.com");
+
+        UserProfileDTO profile = userCache.findProfileByEmail("john@example.com").orElseThrow();
+
+        assertEquals(1L, profile.getId());
+        assertEquals("John", profile.getFirstName());
+        assertEquals(UserRole.CUSTOMER, profile.getRole());
+        verify(userRepository, never()).findProfileByEmail(anyString());
+    }
+
+    @Test
+    void findProfileByEmail_NotCached_UsesProjection() {
+        UserProfileDTO projected = new UserProfileDTO(1L, "John", "Doe", "john@example.com", UserRole.CUSTOMER, null);
+        when(userRepository.findProfileByEmail("john@example.com")).thenReturn(Optional.of(projected));
+
+        assertSame(projected, userCache.findProfileByEmail("John@example.com").orElseThrow());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    private static User user(String email) {
+        User user = new User("John", "Doe", email, "{bcrypt}hash", UserRole.CUSTOMER);
+        user.setId(1L);
+        return user;
+    }
+
+    private static void sleepPastTtl() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.ibra.notificationservice;
 
+import com.ibra.config.FeignClientTuningConfig;
+import com.ibra.config.VirtualThreadsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @EnableFeignClients
 @EnableDiscoveryClient
 @SpringBootApplication
+// Not scanning com.ibra like the other services, so the shared configs it uses are imported explicitly
+@Import({VirtualThreadsConfig.class, FeignClientTuningConfig.class})
 public class NotificationServiceApplication {
 
 	public static void main(String[] args) {
@@ -4,7 +4,8 @@ package com.ibra.orderservice.controller;
 import com.ibra.dto.ApiResponse;
 import com.ibra.orderservice.dto.*;
 import com.ibra.orderservice.service.OrderService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUser;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,14 +35,11 @@ public class OrderController {
     @PreAuthorize("hasAuthority('CUSTOMER')")
     public ResponseEntity<ApiResponse<OrderDTO>> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
 
         logger.info("Creating order for restaurant: {}", request.getRestaurantId());
 
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-        String customerEmail = httpRequest.getHeader("X-User-Email");
-
-        OrderDTO orderDTO = orderService.createOrder(request, customerId, customerEmail);
+        OrderDTO orderDTO = orderService.createOrder(request, user.userId(), user.email());
 
         ApiResponse<OrderDTO> response = ApiResponse.<OrderDTO>builder()
                 .success(true)
@@ -60,16 +58,14 @@ public class OrderController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            HttpServletRequest httpRequest) {
-
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
+            @CurrentUser AuthenticatedUser user) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<OrderDTO> orders = orderService.getOrdersByCustomer(customerId, pageable);
+        Page<OrderDTO> orders = orderService.getOrdersByCustomer(user.userId(), pageable);
 
         ApiResponse<Page<OrderDTO>> response = ApiResponse.<Page<OrderDTO>>builder()
                 .success(true)
@@ -84,12 +80,9 @@ public class OrderController {
     @PreAuthorize("hasAuthority('CUSTOMER') or hasAuthority('RESTAURANT_OWNER') or hasAuthority('ADMIN')")
     public ResponseEntity<ApiResponse<OrderDTO>> getOrderById(
             @PathVariable Long orderId,
-            HttpServletRequest httpRequest) {
-
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-        String userRole = httpRequest.getHeader("X-User-Role");
+            @CurrentUser AuthenticatedUser user) {
 
-        OrderDTO orderDTO = orderService.getOrderById(orderId, customerId, userRole);
+        OrderDTO orderDTO = orderService.getOrderById(orderId, user.userId(), user.role());
 
         ApiResponse<OrderDTO> response = ApiResponse.<OrderDTO>builder()
                 .success(true)
@@ -104,11 +97,9 @@ public class OrderController {
     @PreAuthorize("hasAuthority('CUSTOMER')")
     public ResponseEntity<ApiResponse<OrderDTO>> cancelOrder(
             @PathVariable Long orderId,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
 
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-
-        OrderDTO orderDTO = orderService.cancelOrder(orderId, customerId);
+        OrderDTO orderDTO = orderService.cancelOrder(orderId, user.userId());
 
         ApiResponse<OrderDTO> response = ApiResponse.<OrderDTO>builder()
                 .success(true)
@@ -124,12 +115,9 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderDTO>> updateOrderStatus(
             @PathVariable Long orderId,
             @Valid @RequestBody UpdateOrderStatusRequest request,
-            HttpServletRequest httpRequest) {
-
-        Long userId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-        String userRole = httpRequest.getHeader("X-User-Role");
+            @CurrentUser AuthenticatedUser user) {
 
-        OrderDTO orderDTO = orderService.updateOrderStatus(orderId, request.getStatus(), userId, userRole);
+        OrderDTO orderDTO = orderService.updateOrderStatus(orderId, request.getStatus(), user.userId(), user.role());
 
         ApiResponse<OrderDTO> response = ApiResponse.<OrderDTO>builder()
                 .success(true)
@@ -149,17 +137,14 @@ public class OrderController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) String status,
-            HttpServletRequest httpRequest) {
-
-        Long userId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-        String userRole = httpRequest.getHeader("X-User-Role");
+            @CurrentUser AuthenticatedUser user) {
 
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<OrderDTO> orders = orderService.getOrdersByRestaurant(restaurantId, status, pageable, userId, userRole);
+        Page<OrderDTO> orders = orderService.getOrdersByRestaurant(restaurantId, status, pageable, user.userId(), user.role());
 
         ApiResponse<Page<OrderDTO>> response = ApiResponse.<Page<OrderDTO>>builder()
                 .success(true)
@@ -173,11 +158,9 @@ public class OrderController {
     @GetMapping("/stats/customer")
     @PreAuthorize("hasAuthority('CUSTOMER')")
     public ResponseEntity<ApiResponse<OrderStatsDTO>> getCustomerOrderStats(
-            HttpServletRequest httpRequest) {
-
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
+            @CurrentUser AuthenticatedUser user) {
 
-        OrderStatsDTO stats = orderService.getCustomerOrderStats(customerId);
+        OrderStatsDTO stats = orderService.getCustomerOrderStats(user.userId());
 
         ApiResponse<OrderStatsDTO> response = ApiResponse.<OrderStatsDTO>builder()
                 .success(true)
@@ -192,12 +175,9 @@ public class OrderController {
     @PreAuthorize("hasAuthority('RESTAURANT_OWNER') or hasAuthority('ADMIN')")
     public ResponseEntity<ApiResponse<OrderStatsDTO>> getRestaurantOrderStats(
             @PathVariable Long restaurantId,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
 
-        Long userId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
-        String userRole = httpRequest.getHeader("X-User-Role");
-
-        OrderStatsDTO stats = orderService.getRestaurantOrderStats(restaurantId, userId, userRole);
+        OrderStatsDTO stats = orderService.getRestaurantOrderStats(restaurantId, user.userId(), user.role());
 
         ApiResponse<OrderStatsDTO> response = ApiResponse.<OrderStatsDTO>builder()
                 .success(true)
@@ -213,11 +193,9 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderDTO>> rateOrder(
             @PathVariable Long orderId,
             @Valid @RequestBody RateOrderRequest request,
-            HttpServletRequest httpRequest) {
-
-        Long customerId = Long.valueOf(httpRequest.getHeader("X-User-Id"));
+            @CurrentUser AuthenticatedUser user) {
 
-        OrderDTO orderDTO = orderService.rateOrder(orderId, customerId, request.getRating(), request.getReview());
+        OrderDTO orderDTO = orderService.rateOrder(orderId, user.userId(), request.getRating(), request.getReview());
 
         ApiResponse<OrderDTO> response = ApiResponse.<OrderDTO>builder()
                 .success(true)
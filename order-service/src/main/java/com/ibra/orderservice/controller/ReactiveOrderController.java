@@ -0,0 +1,104 @@
+package com.ibra.orderservice.controller;
+
+import com.ibra.dto.ApiResponse;
+import com.ibra.orderservice.dto.OrderDTO;
+import com.ibra.orderservice.dto.OrderStatsDTO;
+import com.ibra.orderservice.service.ReactiveOrderQueryService;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUser;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only variant of {@link OrderController} for high fan-in polling. Responses are the same, but the handler
+ * returns as soon as the queries are issued and the request thread goes back to Tomcat; the response is written
+ * when R2DBC and WebClient complete.
+ */
+@RestController
+@RequestMapping("/api/v2/orders")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderQueryService orderQueryService;
+
+    public ReactiveOrderController(ReactiveOrderQueryService orderQueryService) {
+        this.orderQueryService = orderQueryService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('CUSTOMER')")
+    public Mono<ResponseEntity<ApiResponse<Page<OrderDTO>>>> getCustomerOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @CurrentUser AuthenticatedUser user) {
+
+        return orderQueryService.getOrdersByCustomer(user.userId(), pageable(page, size, sortBy, sortDir))
+                .map(orders -> ok("Orders retrieved successfully", orders));
+    }
+
+    @GetMapping("/{orderId}")
+    @PreAuthorize("hasAuthority('CUSTOMER') or hasAuthority('RESTAURANT_OWNER') or hasAuthority('ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<OrderDTO>>> getOrderById(
+            @PathVariable Long orderId,
+            @CurrentUser AuthenticatedUser user) {
+
+        return orderQueryService.getOrderById(orderId, user.userId(), user.role())
+                .map(order -> ok("Order retrieved successfully", order));
+    }
+
+    @GetMapping("/restaurant/{restaurantId}")
+    @PreAuthorize("hasAuthority('RESTAURANT_OWNER') or hasAuthority('ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<Page<OrderDTO>>>> getRestaurantOrders(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String status,
+            @CurrentUser AuthenticatedUser user) {
+
+        return orderQueryService.getOrdersByRestaurant(restaurantId, status, pageable(page, size, sortBy, sortDir), user.userId(), user.role())
+                .map(orders -> ok("Restaurant orders retrieved successfully", orders));
+    }
+
+    @GetMapping("/stats/customer")
+    @PreAuthorize("hasAuthority('CUSTOMER')")
+    public Mono<ResponseEntity<ApiResponse<OrderStatsDTO>>> getCustomerOrderStats(
+            @CurrentUser AuthenticatedUser user) {
+
+        return orderQueryService.getCustomerOrderStats(user.userId())
+                .map(stats -> ok("Order statistics retrieved successfully", stats));
+    }
+
+    @GetMapping("/stats/restaurant/{restaurantId}")
+    @PreAuthorize("hasAuthority('RESTAURANT_OWNER') or hasAuthority('ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<OrderStatsDTO>>> getRestaurantOrderStats(
+            @PathVariable Long restaurantId,
+            @CurrentUser AuthenticatedUser user) {
+
+        return orderQueryService.getRestaurantOrderStats(restaurantId, user.userId(), user.role())
+                .map(stats -> ok("Restaurant order statistics retrieved successfully", stats));
+    }
+
+    private static Pageable pageable(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+        return PageRequest.of(page, size, sort);
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> ok(String message, T data) {
+        return ResponseEntity.ok(ApiResponse.<T>builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .build());
+    }
+}
@@ -34,6 +34,10 @@ public class CreateOrderRequest {
     @NotEmpty(message = "Order items cannot be empty")
     @Valid
     private List<OrderItemRequest> orderItems;
+
+    // Menu version the customer's cart was built from; when given, the order is refused if the menu has changed since
+    @Positive(message = "Menu version must be a positive number")
+    private Long menuVersion;
 }
 
 
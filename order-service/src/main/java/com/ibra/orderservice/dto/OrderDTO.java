@@ -33,5 +33,6 @@ public class OrderDTO {
     private List<OrderItemDTO> orderItems;
     private Integer rating;
     private String review;
+    private Long menuVersion;
 
 }
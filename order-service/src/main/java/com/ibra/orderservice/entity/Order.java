@@ -58,6 +58,10 @@ public class Order {
     @Column(name = "review", length = 1000)
     private String review;
 
+    // Version of the restaurant's menu the order was priced against
+    @Column(name = "menu_version")
+    private Long menuVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
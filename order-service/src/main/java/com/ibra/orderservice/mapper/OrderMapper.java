@@ -34,6 +34,7 @@ public class OrderMapper {
         dto.setUpdatedAt(order.getUpdatedAt());
         dto.setRating(order.getRating());
         dto.setReview(order.getReview());
+        dto.setMenuVersion(order.getMenuVersion());
 
         if (order.getOrderItems() != null) {
             dto.setOrderItems(order.getOrderItems().stream()
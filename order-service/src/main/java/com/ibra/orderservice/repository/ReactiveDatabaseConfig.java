@@ -0,0 +1,48 @@
+package com.ibra.orderservice.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pool for {@link ReactiveOrderRepository}.
+ * <p>
+ * The pool is kept out of the context on purpose: Spring Boot skips the JDBC DataSource, and JPA with it, once
+ * an R2DBC {@code ConnectionFactory} bean exists. Boot's own R2DBC auto-configuration is excluded for the same
+ * reason, so the settings live under {@code orders.v2.r2dbc} rather than {@code spring.r2dbc}.
+ */
+@Configuration
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveDatabaseConfig(@Value("${orders.v2.r2dbc.url}") String url,
+                                  @Value("${orders.v2.r2dbc.username:}") String username,
+                                  @Value("${orders.v2.r2dbc.password:}") String password,
+                                  @Value("${orders.v2.r2dbc.max-pool-size:10}") int maxPoolSize) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .maxSize(maxPoolSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,212 @@
+package com.ibra.orderservice.repository;
+
+import com.ibra.orderservice.dto.OrderDTO;
+import com.ibra.orderservice.dto.OrderItemDTO;
+import com.ibra.orderservice.dto.OrderStatsDTO;
+import com.ibra.orderservice.enums.OrderStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only queries over the orders tables through R2DBC, for the non-blocking /api/v2/orders endpoints.
+ * Writes stay with the JPA {@link OrderRepository}; both read the same schema.
+ */
+@Repository
+public class ReactiveOrderRepository {
+
+    private static final String ORDER_COLUMNS = "id, customer_id, restaurant_id, restaurant_name, customer_email, status, "
+            + "total_amount, delivery_address, delivery_phone, special_instructions, estimated_delivery_time, rating, "
+            + "review, menu_version, created_at, updated_at";
+
+    private static final String STATS_COLUMNS = "count(*) AS total_orders, "
+            + "count(*) FILTER (WHERE status = 'DELIVERED') AS completed_orders, "
+            + "count(*) FILTER (WHERE status = 'CANCELLED') AS cancelled_orders, "
+            + "coalesce(sum(total_amount) FILTER (WHERE status = 'DELIVERED'), 0) AS total_spent, "
+            + "avg(rating) AS average_rating";
+
+    // Order properties clients may sort by, and their columns; anything else would be spliced into SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "totalAmount", "total_amount",
+            "status", "status",
+            "rating", "rating",
+            "estimatedDeliveryTime", "estimated_delivery_time");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<OrderDTO> findById(Long orderId) {
+        return databaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = :id")
+                .bind("id", orderId)
+                .map(ReactiveOrderRepository::toOrder)
+                .one()
+                .flatMap(order -> withItems(List.of(order)).map(orders -> orders.get(0)));
+    }
+
+    public Mono<List<OrderDTO>> findByCustomerId(Long customerId, Pageable pageable) {
+        return databaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE customer_id = :customerId"
+                        + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset")
+                .bind("customerId", customerId)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveOrderRepository::toOrder)
+                .all()
+                .collectList()
+                .flatMap(this::withItems);
+    }
+
+    public Mono<Long> countByCustomerId(Long customerId) {
+        return databaseClient.sql("SELECT count(*) FROM orders WHERE customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<List<OrderDTO>> findByRestaurantId(Long restaurantId, OrderStatus status, Pageable pageable) {
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE restaurant_id = :restaurantId"
+                        + (status != null ? " AND status = :status" : "")
+                        + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset")
+                .bind("restaurantId", restaurantId)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        if (status != null) {
+            query = query.bind("status", status.name());
+        }
+        return query.map(ReactiveOrderRepository::toOrder)
+                .all()
+                .collectList()
+                .flatMap(this::withItems);
+    }
+
+    public Mono<Long> countByRestaurantId(Long restaurantId, OrderStatus status) {
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql("SELECT count(*) FROM orders WHERE restaurant_id = :restaurantId"
+                        + (status != null ? " AND status = :status" : ""))
+                .bind("restaurantId", restaurantId);
+        if (status != null) {
+            query = query.bind("status", status.name());
+        }
+        return query.map(row -> row.get(0, Long.class)).one();
+    }
+
+    // Aggregated in the database rather than by loading every order of the customer
+    public Mono<OrderStatsDTO> customerStats(Long customerId) {
+        return databaseClient.sql("SELECT " + STATS_COLUMNS + ", "
+                        + "(SELECT restaurant_name FROM orders WHERE customer_id = :customerId "
+                        + "GROUP BY restaurant_name ORDER BY count(*) DESC, restaurant_name LIMIT 1) AS favorite_restaurant "
+                        + "FROM orders WHERE customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map(row -> {
+                    OrderStatsDTO stats = toStats(row);
+                    stats.setFavoriteRestaurant(row.get("favorite_restaurant", String.class));
+                    return stats;
+                })
+                .one();
+    }
+
+    public Mono<OrderStatsDTO> restaurantStats(Long restaurantId) {
+        return databaseClient.sql("SELECT " + STATS_COLUMNS + " FROM orders WHERE restaurant_id = :restaurantId")
+                .bind("restaurantId", restaurantId)
+                .map(ReactiveOrderRepository::toStats)
+                .one();
+    }
+
+    // Loads the items of a whole page in one query instead of one per order
+    private Mono<List<OrderDTO>> withItems(List<OrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return Mono.just(orders);
+        }
+        Long[] orderIds = orders.stream().map(OrderDTO::getId).toArray(Long[]::new);
+        Map<Long, OrderDTO> byId = orders.stream().collect(Collectors.toMap(OrderDTO::getId, Function.identity()));
+        orders.forEach(order -> order.setOrderItems(new ArrayList<>()));
+        return databaseClient.sql("SELECT id, order_id, menu_item_id, menu_item_name, quantity, unit_price, special_instructions "
+                        + "FROM order_items WHERE order_id = ANY(:orderIds) ORDER BY id")
+                .bind("orderIds", orderIds)
+                .map(row -> Map.entry(row.get("order_id", Long.class), toItem(row)))
+                .all()
+                .doOnNext(item -> byId.get(item.getKey()).getOrderItems().add(item.getValue()))
+                .then(Mono.just(orders));
+    }
+
+    static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY created_at DESC, id DESC";
+        }
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Orders cannot be sorted by: " + order.getProperty());
+            }
+            columns.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        // Stable pages when the requested column has ties
+        columns.add("id" + (sort.iterator().next().isAscending() ? " ASC" : " DESC"));
+        return " ORDER BY " + String.join(", ", columns);
+    }
+
+    private static OrderDTO toOrder(Readable row) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setCustomerId(row.get("customer_id", Long.class));
+        dto.setRestaurantId(row.get("restaurant_id", Long.class));
+        dto.setRestaurantName(row.get("restaurant_name", String.class));
+        dto.setCustomerEmail(row.get("customer_email", String.class));
+        dto.setStatus(OrderStatus.valueOf(row.get("status", String.class)));
+        dto.setTotalAmount(row.get("total_amount", BigDecimal.class));
+        dto.setDeliveryAddress(row.get("delivery_address", String.class));
+        dto.setDeliveryPhone(row.get("delivery_phone", String.class));
+        dto.setSpecialInstructions(row.get("special_instructions", String.class));
+        dto.setEstimatedDeliveryTime(row.get("estimated_delivery_time", LocalDateTime.class));
+        dto.setRating(row.get("rating", Integer.class));
+        dto.setReview(row.get("review", String.class));
+        dto.setMenuVersion(row.get("menu_version", Long.class));
+        dto.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return dto;
+    }
+
+    private static OrderItemDTO toItem(Readable row) {
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setMenuItemId(row.get("menu_item_id", Long.class));
+        dto.setItemName(row.get("menu_item_name", String.class));
+        dto.setQuantity(row.get("quantity", Integer.class));
+        dto.setUnitPrice(row.get("unit_price", BigDecimal.class));
+        dto.setTotalPrice(dto.getUnitPrice().multiply(BigDecimal.valueOf(dto.getQuantity())));
+        dto.setSpecialInstructions(row.get("special_instructions", String.class));
+        return dto;
+    }
+
+    private static OrderStatsDTO toStats(Readable row) {
+        long total = row.get("total_orders", Long.class);
+        long completed = row.get("completed_orders", Long.class);
+        long cancelled = row.get("cancelled_orders", Long.class);
+        BigDecimal averageRating = row.get("average_rating", BigDecimal.class);
+
+        OrderStatsDTO stats = new OrderStatsDTO();
+        stats.setTotalOrders(total);
+        stats.setCompletedOrders(completed);
+        stats.setCancelledOrders(cancelled);
+        stats.setPendingOrders(total - completed - cancelled);
+        stats.setTotalSpent(row.get("total_spent", BigDecimal.class));
+        stats.setAverageRating(averageRating != null ? averageRating.doubleValue() : null);
+        return stats;
+    }
+}
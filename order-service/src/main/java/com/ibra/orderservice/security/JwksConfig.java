@@ -0,0 +1,20 @@
+package com.ibra.orderservice.security;
+
+import com.ibra.orderservice.service.external.AuthKeysClient;
+import com.ibra.security.jwt.JwksKeyLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JwksConfig {
+
+    // Lets the shared HeaderBasedAuthFilter verify bearer tokens locally against the auth-service keys
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwksKeyLocator jwksKeyLocator(AuthKeysClient authKeysClient,
+                                         @Value("${jwt.jwks.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        return new JwksKeyLocator(authKeysClient::getJwks, Duration.ofMillis(refreshIntervalMs), Duration.ofSeconds(5), null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ibra.orderservice.service;
+
+import com.ibra.dto.ApiResponse;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.exception.BusinessException;
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.orderservice.service.external.RestaurantServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restaurant menus to price orders against, fetched from restaurant-service one whole version at a time.
+ * <p>
+ * A menu version never changes, so fetched versions are kept by (restaurant, version) in a bounded LRU map. Which
+ * version is current is re-checked at most every {@code app.menu.current-version-ttl}, which bounds how long a price
+ * change can take to reach new orders. A cart that names a newer version than the one known here forces that check
+ * early, so customers are never refused for having seen a change before this instance did.
+ */
+@Component
+public class MenuSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotCache.class);
+
+    private final RestaurantServiceClient restaurantServiceClient;
+    private final long currentVersionTtlMillis;
+    private final Map<Long, CurrentVersion> currentVersions = new ConcurrentHashMap<>();
+    private final Map<VersionKey, MenuSnapshotDTO> snapshots;
+
+    public MenuSnapshotCache(RestaurantServiceClient restaurantServiceClient,
+                             @Value("${app.menu.current-version-ttl:30s}") Duration currentVersionTtl,
+                             @Value("${app.menu.snapshot-cache-size:500}") int maxSnapshots) {
+        this.restaurantServiceClient = restaurantServiceClient;
+        this.currentVersionTtlMillis = currentVersionTtl.toMillis();
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<VersionKey, MenuSnapshotDTO> eldest) {
+                return size() > maxSnapshots;
+            }
+        });
+    }
+
+    /**
+     * The current menu of a restaurant. When {@code expectedVersion} is given it must be the current version,
+     * otherwise the menu has changed since the cart was built and a {@link BusinessException} is thrown.
+     */
+    public MenuSnapshotDTO current(Long restaurantId, Long expectedVersion) {
+        MenuSnapshotDTO snapshot = cachedCurrent(restaurantId);
+        if (snapshot == null || (expectedVersion != null && expectedVersion > snapshot.getVersion())) {
+            snapshot = fetchCurrent(restaurantId);
+        }
+        if (expectedVersion != null && expectedVersion != snapshot.getVersion()) {
+            throw new BusinessException("The menu of restaurant " + restaurantId + " has changed since version "
+                    + expectedVersion + " (now version " + snapshot.getVersion() + "). Please review your cart.");
+        }
+        return snapshot;
+    }
+
+    private MenuSnapshotDTO cachedCurrent(Long restaurantId) {
+        CurrentVersion current = currentVersions.get(restaurantId);
+        if (current == null || System.currentTimeMillis() - current.checkedAtMillis() > currentVersionTtlMillis) {
+            return null;
+        }
+        return snapshots.get(new VersionKey(restaurantId, current.version()));
+    }
+
+    private MenuSnapshotDTO fetchCurrent(Long restaurantId) {
+        ApiResponse<MenuSnapshotDTO> response = restaurantServiceClient.getMenuSnapshot(restaurantId);
+        if (response == null || !response.isSuccess() || response.getData() == null) {
+            throw new ResourceNotFoundException("Menu not found for restaurant ID: " + restaurantId);
+        }
+        MenuSnapshotDTO snapshot = response.getData();
+        // Keep an instance already held for this version, so callers share one copy
+        MenuSnapshotDTO kept = snapshots.merge(new VersionKey(restaurantId, snapshot.getVersion()), snapshot,
+                (held, fetched) -> held);
+        currentVersions.merge(restaurantId, new CurrentVersion(snapshot.getVersion(), System.currentTimeMillis()),
+                (known, fetched) -> fetched.version() >= known.version() ? fetched : known);
+        logger.debug("Fetched menu version {} for restaurant: {}", snapshot.getVersion(), restaurantId);
+        return kept;
+    }
+
+    private record CurrentVersion(long version, long checkedAtMillis) {
+    }
+
+    private record VersionKey(Long restaurantId, long version) {
+    }
+}
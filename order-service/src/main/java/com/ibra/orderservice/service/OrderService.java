@@ -3,7 +3,9 @@ package com.ibra.orderservice.service;
 
 import com.ibra.dto.ApiResponse;
 import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.dto.RestaurantPageDTO;
 import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
 import com.ibra.exception.UnauthorizedException;
@@ -28,9 +30,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +44,9 @@ public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    // Largest page restaurant-service serves
+    private static final int OWNER_RESTAURANTS_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
 
     private final OrderItemRepository orderItemRepository;
@@ -49,12 +57,16 @@ public class OrderService {
 
     private final OrderEventPublisher orderEventPublisher;
 
-    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, OrderMapper orderMapper, RestaurantServiceClient restaurantServiceClient, OrderEventPublisher orderEventPublisher) {
+    private final MenuSnapshotCache menuSnapshotCache;
+
+    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, OrderMapper orderMapper, RestaurantServiceClient restaurantServiceClient, OrderEventPublisher orderEventPublisher,
+                        MenuSnapshotCache menuSnapshotCache) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.orderMapper = orderMapper;
         this.restaurantServiceClient = restaurantServiceClient;
         this.orderEventPublisher = orderEventPublisher;
+        this.menuSnapshotCache = menuSnapshotCache;
     }
 
 
@@ -70,31 +82,21 @@ public class OrderService {
         }
         RestaurantDTO restaurant = restaurantResponse.getData();
 
-        System.out.println("menuItem request id: " + request.getOrderItems().getFirst().getMenuItemId());
-        ApiResponse<MenuItemDTO> menuItemResponse = restaurantServiceClient.getMenuItemById(request.getOrderItems().getFirst().getMenuItemId());
-        if (menuItemResponse != null && menuItemResponse.isSuccess() && menuItemResponse.getData() != null) {
-            System.out.println("menu item after fetching from restaurant service: " + menuItemResponse.getData().getName());
-        }
-        System.out.println("restaurant returns with dto; " + restaurant);
-
-        System.out.println(restaurant.getId() + " " + request.getRestaurantId());
+        // Price the whole cart against one menu version, so validation and the order items see the same prices
+        MenuSnapshotDTO menu = menuSnapshotCache.current(request.getRestaurantId(), request.getMenuVersion());
+        Map<Long, MenuItemDTO> menuItems = menu.getItems().stream()
+                .collect(Collectors.toMap(MenuItemDTO::getId, Function.identity()));
 
         // Validate menu items and calculate total
         BigDecimal totalAmount = BigDecimal.ZERO;
         for (OrderItemRequest itemRequest : request.getOrderItems()) {
-            ApiResponse<MenuItemDTO> response = restaurantServiceClient.getMenuItemById(itemRequest.getMenuItemId());
-            if (response == null || !response.isSuccess() || response.getData() == null) {
-                throw new BusinessException("Invalid menu item: " + itemRequest.getMenuItemId());
-            }
-            MenuItemDTO menuItem = response.getData();
-
-            if (!menuItem.getRestaurantId().equals(request.getRestaurantId())) {
+            MenuItemDTO menuItem = menuItems.get(itemRequest.getMenuItemId());
+            if (menuItem == null) {
                 throw new BusinessException("Invalid menu item: " + itemRequest.getMenuItemId());
             }
             totalAmount = totalAmount.add(menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
         }
 
-        // Rest of your code remains the same...
         // Create order
         Order order = new Order(
                 customerId,
@@ -102,21 +104,20 @@ public class OrderService {
                 restaurant.getName(),
                 customerEmail,
                 totalAmount,
-                request.getDeliveryAddress(),//        order.setRestaurantEmail(restaurant.getEmail());
-
+                request.getDeliveryAddress(),
                 request.getDeliveryPhone()
         );
 
         order.setSpecialInstructions(request.getSpecialInstructions());
         order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(45));
+        order.setMenuVersion(menu.getVersion());
 
         Order savedOrder = orderRepository.save(order);
 
         // Create order items
         List<OrderItem> orderItems = request.getOrderItems().stream()
                 .map(itemRequest -> {
-                    ApiResponse<MenuItemDTO> response = restaurantServiceClient.getMenuItemById(itemRequest.getMenuItemId());
-                    MenuItemDTO menuItem = response.getData(); // This should now work
+                    MenuItemDTO menuItem = menuItems.get(itemRequest.getMenuItemId());
                     OrderItem orderItem = new OrderItem(
                             savedOrder,
                             itemRequest.getMenuItemId(),
@@ -161,7 +162,7 @@ public class OrderService {
             throw new UnauthorizedException("You are not authorized to view this order");
         } else if ("RESTAURANT_OWNER".equals(userRole)) {
             // Verify restaurant ownership
-            if (!order.getRestaurantId().equals(getRestaurantIdForOwner(userId))) {
+            if (!getRestaurantIdsForOwner(userId).contains(order.getRestaurantId())) {
                 throw new UnauthorizedException("You are not authorized to view this order");
             }
         }
@@ -208,7 +209,7 @@ public class OrderService {
         // Authorization check for restaurant owner
         if ("RESTAURANT_OWNER".equals(userRole)) {
             // Verify restaurant ownership
-            if (!order.getRestaurantId().equals(getRestaurantIdForOwner(userId))) {
+            if (!getRestaurantIdsForOwner(userId).contains(order.getRestaurantId())) {
                 throw new UnauthorizedException("You are not authorized to update this order");
             }
         }
@@ -244,7 +245,7 @@ public class OrderService {
 
         // Authorization check for restaurant owner
         if ("RESTAURANT_OWNER".equals(userRole)) {
-            if (!restaurantId.equals(getRestaurantIdForOwner(userId))) {
+            if (!getRestaurantIdsForOwner(userId).contains(restaurantId)) {
                 throw new UnauthorizedException("You are not authorized to view orders for this restaurant");
             }
         }
@@ -315,7 +316,7 @@ public class OrderService {
 
         // Authorization check for restaurant owner
         if ("RESTAURANT_OWNER".equals(userRole)) {
-            if (!restaurantId.equals(getRestaurantIdForOwner(userId))) {
+            if (!getRestaurantIdsForOwner(userId).contains(restaurantId)) {
                 throw new UnauthorizedException("You are not authorized to view statistics for this restaurant");
             }
         }
@@ -382,6 +383,10 @@ public class OrderService {
 
     // Fallback method for circuit breaker
     public OrderDTO fallbackCreateOrder(CreateOrderRequest request, Long customerId, String customerEmail, Exception ex) {
+        // Rejections of the order itself, such as an item missing from the menu, are not outages
+        if (ex instanceof BusinessException || ex instanceof ResourceNotFoundException) {
+            throw (RuntimeException) ex;
+        }
         logger.error("Fallback method called for createOrder due to: {}", ex.getMessage());
         throw new BusinessException("Restaurant service is currently unavailable. Please try again later.");
     }
@@ -411,17 +416,25 @@ public class OrderService {
         }
     }
 
-    private Long getRestaurantIdForOwner(Long userId) {
-        // This should call restaurant service to get restaurant ID for the owner
+    // Ids of every restaurant the owner has, empty when restaurant-service cannot say
+    private Set<Long> getRestaurantIdsForOwner(Long userId) {
         try {
-            ApiResponse<RestaurantDTO> response = restaurantServiceClient.getRestaurantByOwnerId(userId);
-            if (response != null && response.isSuccess() && response.getData() != null) {
-                return response.getData().getId();
-            }
-            return null;
+            Set<Long> restaurantIds = new HashSet<>();
+            String cursor = null;
+            do {
+                ApiResponse<RestaurantPageDTO> response = restaurantServiceClient.getRestaurantsByOwnerId(
+                        userId, OWNER_RESTAURANTS_PAGE_SIZE, cursor);
+                if (response == null || !response.isSuccess() || response.getData() == null) {
+                    return Set.of();
+                }
+                RestaurantPageDTO page = response.getData();
+                page.getContent().forEach(restaurant -> restaurantIds.add(restaurant.getId()));
+                cursor = page.isHasNext() ? page.getNextCursor() : null;
+            } while (cursor != null);
+            return restaurantIds;
         } catch (Exception e) {
-            logger.error("Error fetching restaurant for owner: {}", userId, e);
-            return null;
+            logger.error("Error fetching restaurants for owner: {}", userId, e);
+            return Set.of();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.ibra.orderservice.service;
+
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.orderservice.dto.OrderDTO;
+import com.ibra.orderservice.dto.OrderStatsDTO;
+import com.ibra.orderservice.enums.OrderStatus;
+import com.ibra.orderservice.repository.ReactiveOrderRepository;
+import com.ibra.orderservice.service.external.ReactiveRestaurantClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * The order reads of {@link OrderService}, with the same authorization rules, on R2DBC and WebClient so that
+ * a few threads can serve many polling dashboards.
+ * <p>
+ * Methods are called on the request thread and return cold publishers; restaurant ownership lookups are
+ * assembled up front because they forward the caller's headers.
+ */
+@Service
+public class ReactiveOrderQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderQueryService.class);
+
+    private final ReactiveOrderRepository orderRepository;
+
+    private final ReactiveRestaurantClient restaurantClient;
+
+    public ReactiveOrderQueryService(ReactiveOrderRepository orderRepository, ReactiveRestaurantClient restaurantClient) {
+        this.orderRepository = orderRepository;
+        this.restaurantClient = restaurantClient;
+    }
+
+    public Mono<Page<OrderDTO>> getOrdersByCustomer(Long customerId, Pageable pageable) {
+        logger.info("Fetching orders for customer: {}", customerId);
+
+        return Mono.zip(orderRepository.findByCustomerId(customerId, pageable), orderRepository.countByCustomerId(customerId))
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    public Mono<OrderDTO> getOrderById(Long orderId, Long userId, String userRole) {
+        logger.info("Fetching order: {} for user: {} with role: {}", orderId, userId, userRole);
+
+        Mono<Set<Long>> ownedRestaurants = restaurantsOwnedBy(userId, userRole);
+        return orderRepository.findById(orderId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with ID: " + orderId)))
+                .flatMap(order -> {
+                    if ("CUSTOMER".equals(userRole) && !order.getCustomerId().equals(userId)) {
+                        return Mono.error(new UnauthorizedException("You are not authorized to view this order"));
+                    }
+                    return requireOwnership(ownedRestaurants, order.getRestaurantId(), userRole,
+                            "You are not authorized to view this order").thenReturn(order);
+                });
+    }
+
+    public Mono<Page<OrderDTO>> getOrdersByRestaurant(Long restaurantId, String status, Pageable pageable, Long userId, String userRole) {
+        logger.info("Fetching orders for restaurant: {} with status: {}", restaurantId, status);
+
+        OrderStatus orderStatus = status != null && !status.isEmpty() ? OrderStatus.valueOf(status.toUpperCase()) : null;
+        return requireOwnership(restaurantsOwnedBy(userId, userRole), restaurantId, userRole,
+                "You are not authorized to view orders for this restaurant")
+                .then(Mono.zip(orderRepository.findByRestaurantId(restaurantId, orderStatus, pageable),
+                        orderRepository.countByRestaurantId(restaurantId, orderStatus)))
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    public Mono<OrderStatsDTO> getCustomerOrderStats(Long customerId) {
+        logger.info("Fetching order statistics for customer: {}", customerId);
+
+        return orderRepository.customerStats(customerId);
+    }
+
+    public Mono<OrderStatsDTO> getRestaurantOrderStats(Long restaurantId, Long userId, String userRole) {
+        logger.info("Fetching order statistics for restaurant: {}", restaurantId);
+
+        return requireOwnership(restaurantsOwnedBy(userId, userRole), restaurantId, userRole,
+                "You are not authorized to view statistics for this restaurant")
+                .then(orderRepository.restaurantStats(restaurantId));
+    }
+
+    private Mono<Set<Long>> restaurantsOwnedBy(Long userId, String userRole) {
+        return "RESTAURANT_OWNER".equals(userRole) ? restaurantClient.getRestaurantIdsForOwner(userId) : Mono.empty();
+    }
+
+    // Restaurant owners only see their own restaurants; an unknown owner is treated as owning none
+    private static Mono<Void> requireOwnership(Mono<Set<Long>> ownedRestaurants, Long restaurantId, String userRole, String message) {
+        if (!"RESTAURANT_OWNER".equals(userRole)) {
+            return Mono.empty();
+        }
+        return ownedRestaurants
+                .filter(restaurantIds -> restaurantIds.contains(restaurantId))
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedException(message)))
+                .then();
+    }
+}
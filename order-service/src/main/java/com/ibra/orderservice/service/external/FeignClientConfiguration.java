@@ -1,5 +1,6 @@
 package com.ibra.orderservice.service.external;
 
+import com.ibra.security.identity.IdentitySigner;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,10 +14,12 @@ import java.util.Enumeration;
 @Configuration
 public class FeignClientConfiguration {
 
-    private static final String[] HEADERS_TO_PROPAGATE = {
+    static final String[] HEADERS_TO_PROPAGATE = {
             "X-User-Id",
             "X-User-Email",
             "X-User-Role",
+            // Signed by the gateway and accepted as is by the called service while it is fresh
+            IdentitySigner.HEADER,
             "Authorization"
     };
 
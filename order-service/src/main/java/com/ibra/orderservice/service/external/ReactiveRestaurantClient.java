@@ -0,0 +1,105 @@
+package com.ibra.orderservice.service.external;
+
+import com.ibra.dto.ApiResponse;
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.dto.RestaurantPageDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of the {@link RestaurantServiceClient} lookups the order reads need.
+ */
+@Component
+public class ReactiveRestaurantClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRestaurantClient.class);
+
+    private static final ParameterizedTypeReference<ApiResponse<RestaurantPageDTO>> RESTAURANT_PAGE_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final int OWNER_RESTAURANTS_PAGE_SIZE = 100;
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveRestaurantClient(WebClient.Builder webClientBuilder,
+                                    ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                    @Value("${orders.v2.restaurant-timeout:2s}") Duration timeout) {
+        this(webClientBuilder
+                .baseUrl("http://restaurant-service")
+                .filter(loadBalancer)
+                .build(), timeout);
+    }
+
+    ReactiveRestaurantClient(WebClient webClient, Duration timeout) {
+        this.webClient = webClient;
+        this.timeout = timeout;
+    }
+
+    /**
+     * The ids of every restaurant the user owns, read page by page; empty when there are none or restaurant-service
+     * cannot say. Must be called on the request thread: the caller's identity headers are captured here, not on
+     * subscription.
+     */
+    public Mono<Set<Long>> getRestaurantIdsForOwner(Long ownerId) {
+        HttpHeaders headers = currentRequestHeaders();
+        return ownerRestaurantsPage(ownerId, null, headers)
+                .expand(page -> page.isHasNext() && page.getNextCursor() != null
+                        ? ownerRestaurantsPage(ownerId, page.getNextCursor(), headers)
+                        : Mono.empty())
+                .flatMapIterable(page -> page.getContent() != null ? page.getContent() : List.<RestaurantDTO>of())
+                .map(RestaurantDTO::getId)
+                .collect(Collectors.toSet())
+                .onErrorResume(e -> {
+                    logger.error("Error fetching restaurants for owner: {}", ownerId, e);
+                    return Mono.just(Set.of());
+                });
+    }
+
+    private Mono<RestaurantPageDTO> ownerRestaurantsPage(Long ownerId, String cursor, HttpHeaders headers) {
+        return webClient.get()
+                .uri(uri -> uri.path("/api/restaurants/owner/{ownerId}")
+                        .queryParam("size", OWNER_RESTAURANTS_PAGE_SIZE)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build(ownerId))
+                .headers(h -> h.addAll(headers))
+                .retrieve()
+                .bodyToMono(RESTAURANT_PAGE_RESPONSE)
+                .timeout(timeout)
+                .filter(response -> response.isSuccess() && response.getData() != null)
+                .map(ApiResponse::getData)
+                // A missing page would silently drop the restaurants on it and the ones after
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No restaurant page for owner " + ownerId)));
+    }
+
+    // The same headers FeignClientConfiguration forwards
+    private static HttpHeaders currentRequestHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            for (String name : FeignClientConfiguration.HEADERS_TO_PROPAGATE) {
+                String value = request.getHeader(name);
+                if (value != null) {
+                    headers.add(name, value);
+                }
+            }
+        }
+        return headers;
+    }
+}
@@ -2,11 +2,14 @@ package com.ibra.orderservice.service.external;
 
 import com.ibra.dto.ApiResponse;
 import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.dto.RestaurantPageDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -20,11 +23,16 @@ public interface RestaurantServiceClient {
     ApiResponse<MenuItemDTO> getMenuItemById(@PathVariable("id") Long id);
 
     @GetMapping("/api/restaurants/owner/{ownerId}")
-    ApiResponse<RestaurantDTO> getRestaurantByOwnerId(@PathVariable("ownerId") Long ownerId);
+    ApiResponse<RestaurantPageDTO> getRestaurantsByOwnerId(@PathVariable("ownerId") Long ownerId,
+                                                           @RequestParam("size") int size,
+                                                           @RequestParam(value = "cursor", required = false) String cursor);
 
     @GetMapping("/api/menu-items/restaurants/{restaurantId}")
     ApiResponse<List<MenuItemDTO>> getMenuItemsByRestaurant(@PathVariable("restaurantId") Long restaurantId);
 
+    @GetMapping("/api/menu-items/restaurants/{restaurantId}/snapshot")
+    ApiResponse<MenuSnapshotDTO> getMenuSnapshot(@PathVariable("restaurantId") Long restaurantId);
+
     @GetMapping("/api/menu-items/restaurants/{restaurantId}/category/{category}")
     ApiResponse<List<MenuItemDTO>> getMenuItemsByCategory(
             @PathVariable("restaurantId") Long restaurantId,
@@ -0,0 +1,151 @@
+package com.ibra.config;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeignClientIsolationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    @Test
+    void invoke_RejectsCallsBeyondTheMethodsBulkhead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        RestaurantApi api = client((request, options) -> {
+            if (request.url().contains("/restaurants/")) {
+                started.countDown();
+                await(release);
+            }
+            return respond(request, 200, "ok");
+        });
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> api.getRestaurant(1L));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> api.getRestaurant(2L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> api.getRestaurant(3L));
+        // Other remote operations have bulkheads of their own
+        assertEquals("ok", api.getMenu());
+        assertEquals(1.0, meterRegistry.get("feign.client.bulkhead.saturation").tag("method", "get-restaurant").gauge().value());
+
+        release.countDown();
+        assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+        assertEquals("ok", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("feign.client.bulkhead.rejected").tag("method", "get-restaurant").counter().count());
+        assertEquals(0.0, meterRegistry.get("feign.client.bulkhead.saturation").tag("method", "get-restaurant").gauge().value());
+        assertTrue(bulkheadRegistry.find("restaurant-service-get-restaurant").isPresent());
+    }
+
+    @Test
+    void invoke_AnswersWithLastCachedResponseWhileDependencyIsDown() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.serve-stale", "true");
+        AtomicReference<String> body = new AtomicReference<>("Pizza Place");
+        AtomicInteger status = new AtomicInteger(200);
+        RestaurantApi api = client((request, options) -> {
+            if (status.get() == 0) {
+                throw new IOException("Connection refused");
+            }
+            return respond(request, status.get(), body.get());
+        });
+
+        assertEquals("Pizza Place", api.getRestaurant(1L));
+        body.set("Pizza Palace");
+
+        status.set(0);
+        assertEquals("Pizza Place", api.getRestaurant(1L));
+        status.set(503);
+        assertEquals("Pizza Place", api.getRestaurant(1L));
+        assertThrows(RetryableException.class, () -> {
+            status.set(0);
+            api.getRestaurant(2L);
+        });
+        assertEquals(2, meterRegistry.get("feign.client.stale.served").counter().count());
+
+        status.set(200);
+        assertEquals("Pizza Palace", api.getRestaurant(1L));
+    }
+
+    @Test
+    void invoke_PassesOnAnswersAndUnmarkedMethods() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.serve-stale", "true");
+        AtomicInteger status = new AtomicInteger(200);
+        RestaurantApi api = client((request, options) -> {
+            if (status.get() == 0) {
+                throw new IOException("Connection refused");
+            }
+            return respond(request, status.get(), "ok");
+        });
+        api.getRestaurant(1L);
+        api.getMenu();
+
+        // A 404 is restaurant-service's answer, not an outage
+        status.set(404);
+        assertThrows(FeignException.NotFound.class, () -> api.getRestaurant(1L));
+        status.set(0);
+        assertThrows(RetryableException.class, api::getMenu);
+    }
+
+    private RestaurantApi client(Client stub) {
+        return Feign.builder()
+                .client(stub)
+                .retryer(Retryer.NEVER_RETRY)
+                .addCapability(new FeignClientIsolation(bulkheadRegistry, meterRegistry, environment, 100))
+                .target(new Target.HardCodedTarget<>(RestaurantApi.class, "restaurant-service", "http://localhost"));
+    }
+
+    private static Response respond(Request request, int status, String body) {
+        return Response.builder()
+                .status(status)
+                .reason("stub")
+                .request(request)
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface RestaurantApi {
+
+        @RequestLine("GET /restaurants/{id}")
+        String getRestaurant(@Param("id") Long id);
+
+        @RequestLine("GET /menu")
+        String getMenu();
+    }
+}
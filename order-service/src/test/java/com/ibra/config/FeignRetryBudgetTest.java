@@ -0,0 +1,111 @@
+package com.ibra.config;
+
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeignRetryBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void continueOrPropagate_RetriesFailedGetOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client(new FeignRetryBudget(meterRegistry, 2, Duration.ofMillis(1), Duration.ofSeconds(2), 0.1),
+                (request, options) -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IOException("Connection reset");
+                    }
+                    return ok(request);
+                });
+
+        assertEquals("ok", api.getRestaurant(1L));
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("feign.client.retries").tag("client", "restaurant-service").counter().count());
+    }
+
+    @Test
+    void continueOrPropagate_NeverRetriesNonIdempotentCalls() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client(new FeignRetryBudget(meterRegistry, 3, Duration.ofMillis(1), Duration.ofSeconds(2), 0.1),
+                (request, options) -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("Read timed out");
+                });
+
+        assertThrows(RetryableException.class, () -> api.createOrder("{}"));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void continueOrPropagate_KeepsRetriesWithinBudget() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client(new FeignRetryBudget(meterRegistry, 3, Duration.ofMillis(1), Duration.ofSeconds(2), 0.1),
+                (request, options) -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("Connection refused");
+                });
+
+        int calls = 100;
+        for (int i = 0; i < calls; i++) {
+            assertThrows(RetryableException.class, () -> api.getRestaurant(1L));
+        }
+
+        // Ten retries of burst allowance plus one for every ten calls, instead of two for every call
+        int retries = attempts.get() - calls;
+        assertTrue(retries <= 10 + calls * 0.1, retries + " retries for " + calls + " calls");
+        assertEquals(retries, meterRegistry.get("feign.client.retries").counter().count());
+        assertTrue(meterRegistry.get("feign.client.retries.denied").counter().count() > 0);
+    }
+
+    @Test
+    void continueOrPropagate_StopsRetryingAfterMaxElapsed() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client(new FeignRetryBudget(meterRegistry, 5, Duration.ofMillis(50), Duration.ofMillis(120), 1.0),
+                (request, options) -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("Read timed out");
+                });
+
+        assertThrows(RetryableException.class, () -> api.getRestaurant(1L));
+        assertTrue(attempts.get() < 5, attempts.get() + " attempts");
+    }
+
+    private static RestaurantApi client(FeignRetryBudget retryBudget, Client stub) {
+        return Feign.builder()
+                .client(stub)
+                .addCapability(retryBudget)
+                .target(new Target.HardCodedTarget<>(RestaurantApi.class, "restaurant-service", "http://localhost"));
+    }
+
+    private static Response ok(Request request) {
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .body("ok", StandardCharsets.UTF_8)
+                .build();
+    }
+
+    interface RestaurantApi {
+
+        @RequestLine("GET /restaurants/{id}")
+        String getRestaurant(@Param("id") Long id);
+
+        @RequestLine("POST /orders")
+        String createOrder(String body);
+    }
+}
@@ -0,0 +1,266 @@
+package com.ibra.config;
+
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TunedFeignClientTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TunedFeignClientTest.class);
+
+    private static final String CLIENT = "restaurant-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private FeignClientTuning tuning;
+
+    @AfterEach
+    void tearDown() {
+        if (tuning != null) {
+            tuning.close();
+        }
+    }
+
+    @Test
+    void execute_AppliesPerMethodTimeoutsOverClientDefaults() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-menu.read-timeout", "3s")
+                .withProperty("app.feign.methods.restaurant-service.get-menu.connect-timeout", "500ms");
+        List<Request.Options> options = new CopyOnWriteArrayList<>();
+        RestaurantApi api = client((request, requestOptions) -> {
+            options.add(requestOptions);
+            return ok(request, "menu");
+        }, Duration.ofMillis(100));
+
+        api.getMenu();
+        api.getRestaurant(1L);
+
+        assertEquals(500, options.get(0).connectTimeoutMillis());
+        assertEquals(3000, options.get(0).readTimeoutMillis());
+        assertEquals(new Request.Options().connectTimeoutMillis(), options.get(1).connectTimeoutMillis());
+        assertEquals(new Request.Options().readTimeoutMillis(), options.get(1).readTimeoutMillis());
+    }
+
+    @Test
+    void execute_HedgesSlowGetAndReturnsFirstAnswer() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client((request, options) -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(2000);
+                return ok(request, "slow");
+            }
+            return ok(request, "fast");
+        }, Duration.ofMillis(20));
+
+        long start = System.nanoTime();
+        assertEquals("fast", api.getRestaurant(1L));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "did not wait for the slow attempt");
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("feign.client.hedges").tag("method", "get-restaurant").counter().count());
+        assertEquals(1, meterRegistry.get("feign.client.hedges.won").tag("method", "get-restaurant").counter().count());
+    }
+
+    @Test
+    void execute_FallsBackToHedgeWhenFirstAttemptFails() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client((request, options) -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(100);
+                throw new IOException("Connection reset");
+            }
+            sleep(200);
+            return ok(request, "restaurant");
+        }, Duration.ofMillis(20));
+
+        assertEquals("restaurant", api.getRestaurant(1L));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void execute_DoesNotHedgeFastOrUnmarkedCalls() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client((request, options) -> {
+            attempts.incrementAndGet();
+            if (request.url().endsWith("/menu")) {
+                sleep(100);
+            }
+            return ok(request, "ok");
+        }, Duration.ofMillis(20));
+
+        api.getRestaurant(1L);
+        api.getMenu();
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void execute_NeverHedgesNonIdempotentMethods() {
+        environment.withProperty("app.feign.methods.restaurant-service.create-order.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client((request, options) -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return ok(request, "created");
+        }, Duration.ofMillis(20));
+
+        assertEquals("created", api.createOrder("{}"));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_KeepsHedgesWithinBudget() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        RestaurantApi api = client((request, options) -> {
+            attempts.incrementAndGet();
+            sleep(20);
+            return ok(request, "ok");
+        }, Duration.ofMillis(5));
+
+        int calls = 60;
+        for (int i = 0; i < calls; i++) {
+            api.getRestaurant((long) i);
+        }
+
+        // Ten hedges of burst allowance plus one for every ten calls
+        double hedges = meterRegistry.get("feign.client.hedges").counter().count();
+        assertTrue(hedges > 0);
+        assertTrue(hedges <= 10 + calls * 0.1, "sent " + hedges + " hedges for " + calls + " calls");
+        assertEquals(calls + (int) hedges, attempts.get());
+    }
+
+    @Test
+    void execute_HedgesAfterRecentP95OnceEnoughCallsWereSeen() {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", "true");
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger slowAttempt = new AtomicInteger(-1);
+        RestaurantApi api = client((request, options) -> {
+            if (attempts.incrementAndGet() == slowAttempt.get()) {
+                sleep(2000);
+            }
+            return ok(request, "ok");
+        }, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 30; i++) {
+            api.getRestaurant((long) i);
+        }
+        slowAttempt.set(attempts.get() + 1);
+
+        // The learned p95 is a few milliseconds, far below the 5s initial delay
+        long start = System.nanoTime();
+        api.getRestaurant(99L);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "hedge used the initial delay");
+        assertEquals(1, meterRegistry.get("feign.client.hedges").counter().count());
+    }
+
+    /**
+     * Tail latency of a dependency where one attempt in fifty stalls, with and without hedging. Not part of the
+     * regular build; run with
+     * {@code mvn test -pl order-service -am -Dtest=TunedFeignClientTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTailLatency() {
+        long[] plain = latencies(false);
+        long[] hedged = latencies(true);
+        long hedges = Math.round(meterRegistry.get("feign.client.hedges").counter().count());
+        logger.info("1 in 50 attempts stalls 300 ms: p50 {} -> {} ms, p99 {} -> {} ms, {} hedges for {} calls",
+                percentile(plain, 0.50), percentile(hedged, 0.50), percentile(plain, 0.99), percentile(hedged, 0.99),
+                hedges, hedged.length);
+        // The stalled attempts set the unhedged p99; a hedge answers those long before the stall ends
+        assertTrue(percentile(hedged, 0.99) < percentile(plain, 0.99),
+                "p99 " + percentile(plain, 0.99) + " ms unhedged, " + percentile(hedged, 0.99) + " ms hedged");
+    }
+
+    private long[] latencies(boolean hedge) {
+        environment.withProperty("app.feign.methods.restaurant-service.get-restaurant.hedge", String.valueOf(hedge));
+        if (tuning != null) {
+            tuning.close();
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        RestaurantApi api = client((request, options) -> {
+            boolean stall;
+            synchronized (random) {
+                stall = random.nextInt(50) == 0;
+            }
+            sleep(stall ? 300 : 5);
+            return ok(request, "ok");
+        }, Duration.ofMillis(20));
+
+        long[] latencies = new long[400];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            api.getRestaurant((long) i);
+            latencies[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * percentile)];
+    }
+
+    private RestaurantApi client(Client stub, Duration initialHedgeDelay) {
+        tuning = new FeignClientTuning(environment, meterRegistry, 0.1, initialHedgeDelay, Duration.ofMillis(5));
+        return Feign.builder()
+                .client(stub)
+                .addCapability(tuning)
+                .target(new Target.HardCodedTarget<>(RestaurantApi.class, CLIENT, "http://localhost"));
+    }
+
+    private static Response ok(Request request, String body) {
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface RestaurantApi {
+
+        @RequestLine("GET /restaurants/{id}")
+        String getRestaurant(@Param("id") Long id);
+
+        @RequestLine("GET /menu")
+        String getMenu();
+
+        @RequestLine("POST /orders")
+        String createOrder(String body);
+    }
+}
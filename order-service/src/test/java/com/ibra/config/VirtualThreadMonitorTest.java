@@ -0,0 +1,148 @@
+package com.ibra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadMonitorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadMonitorTest.class);
+
+    private static final int HANDLER_BLOCKED_MS = 200;
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadMonitor monitor = new VirtualThreadMonitor(meterRegistry, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void start_RecordsVirtualThreadsBlockedInsideSynchronized() throws Exception {
+        monitor.start();
+        Object lock = new Object();
+
+        Thread pinnedThread = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        });
+        pinnedThread.join();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0) {
+            assertTrue(System.nanoTime() < deadline, "pinning was never reported");
+            Thread.sleep(50);
+        }
+        assertTrue(meterRegistry.get("jvm.threads.virtual.carrier.parallelism").gauge().value() >= 1);
+    }
+
+    @Test
+    void start_IgnoresVirtualThreadsThatUnmountWhileBlocked() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> sleep(50)).join();
+        Thread.sleep(1500);
+
+        assertEquals(0, meterRegistry.get("jvm.threads.virtual.pinned").timer().count());
+    }
+
+    /**
+     * Requests per second through Tomcat's default 200-thread pool and through virtual threads, for handlers
+     * that spend their time blocked as ours do on Feign, JDBC and SMTP. Not part of the regular build; run with
+     * {@code mvn test -pl order-service -am -Dtest=VirtualThreadMonitorTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkBlockingHandlerThroughput() throws Exception {
+        double platform = requestsPerSecond(false);
+        double virtual = requestsPerSecond(true);
+        logger.info("Blocking handler ({} ms), {} concurrent clients: platform threads {} req/s, virtual threads {} req/s (x{})",
+                HANDLER_BLOCKED_MS, CLIENTS, Math.round(platform), Math.round(virtual), String.format("%.1f", virtual / platform));
+        // More clients than Tomcat's 200 threads, all blocked: virtual threads must serve the excess concurrently
+        assertTrue(virtual > platform, "virtual threads " + Math.round(virtual) + " req/s, platform " + Math.round(platform) + " req/s");
+    }
+
+    private static double requestsPerSecond(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            // What Spring Boot does for spring.threads.virtual.enabled=true
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        WebServer server = factory.getWebServer(context -> context.addServlet("blocking", new BlockingServlet()).addMapping("/"));
+        server.start();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try (HttpClient client = HttpClient.newBuilder().executor(clients).build()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/")).build();
+            // Warm up connections and JIT
+            runClients(client, request, 200, 5);
+            long start = System.nanoTime();
+            runClients(client, request, CLIENTS, REQUESTS_PER_CLIENT);
+            return CLIENTS * REQUESTS_PER_CLIENT / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static void runClients(HttpClient client, HttpRequest request, int clients, int requestsPerClient) throws Exception {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(callers.submit(() -> {
+                    for (int j = 0; j < requestsPerClient; j++) {
+                        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class BlockingServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            sleep(HANDLER_BLOCKED_MS);
+            response.getWriter().write("ok");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ibra.orderservice.controller;
+
+import com.ibra.exception.GlobalExceptionHandler;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.orderservice.dto.OrderDTO;
+import com.ibra.orderservice.dto.OrderStatsDTO;
+import com.ibra.orderservice.service.OrderService;
+import com.ibra.orderservice.service.ReactiveOrderQueryService;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUserArgumentResolver;
+import com.ibra.security.identity.GrantedAuthorities;
+import com.ibra.security.identity.IdentityAuthentication;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.ServletRegistration;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReactiveOrderControllerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderControllerTest.class);
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final int DATABASE_LATENCY_MS = 50;
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 10;
+
+    private final ReactiveOrderQueryService orderQueryService = mock(ReactiveOrderQueryService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReactiveOrderController(orderQueryService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(
+                new AuthenticatedUser(7L, "owner@example.com", "RESTAURANT_OWNER", GrantedAuthorities.of("RESTAURANT_OWNER"))));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getOrderById_WritesResponseWhenQueryCompletes() throws Exception {
+        OrderDTO order = new OrderDTO();
+        order.setId(3L);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        when(orderQueryService.getOrderById(3L, 7L, "RESTAURANT_OWNER"))
+                .thenReturn(Mono.delay(Duration.ofMillis(20)).thenReturn(order));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/orders/3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(3))
+                .andExpect(jsonPath("$.data.totalAmount").value(12.50));
+    }
+
+    @Test
+    void getRestaurantOrderStats_MapsErrorsLikeServletPath() throws Exception {
+        when(orderQueryService.getRestaurantOrderStats(10L, 7L, "RESTAURANT_OWNER"))
+                .thenReturn(Mono.error(new UnauthorizedException("You are not authorized to view statistics for this restaurant")));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/orders/stats/restaurant/10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("You are not authorized to view statistics for this restaurant"));
+    }
+
+    /**
+     * Dashboard polling of /stats/customer through {@link OrderController} and through this controller, on a
+     * Tomcat with only a handful of request threads and the same simulated database latency on both sides. Not
+     * part of the regular build; run with
+     * {@code mvn test -pl order-service -am -Dtest=ReactiveOrderControllerTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkPollingThroughput() throws Exception {
+        OrderStatsDTO stats = new OrderStatsDTO(12L, 10L, 1L, new BigDecimal("240.00"), 1L, 4.5, "Pizza Place");
+
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.getCustomerOrderStats(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(DATABASE_LATENCY_MS);
+            return stats;
+        });
+        when(orderQueryService.getCustomerOrderStats(anyLong()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(DATABASE_LATENCY_MS)).thenReturn(stats));
+
+        double servlet = requestsPerSecond(new OrderController(orderService), "/api/orders/stats/customer");
+        double reactive = requestsPerSecond(new ReactiveOrderController(orderQueryService), "/api/v2/orders/stats/customer");
+        logger.info("Stats polling, {} Tomcat threads, {} ms queries, {} clients: servlet {} req/s, reactive {} req/s (x{})",
+                TOMCAT_THREADS, DATABASE_LATENCY_MS, CLIENTS, Math.round(servlet), Math.round(reactive),
+                String.format("%.1f", reactive / servlet));
+        // The servlet path holds a Tomcat thread per query; the reactive one frees it while the query runs
+        assertTrue(reactive > servlet, "reactive " + Math.round(reactive) + " req/s, servlet " + Math.round(servlet) + " req/s");
+    }
+
+    private static double requestsPerSecond(Object controller, String path) throws Exception {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.register(BenchmarkWebConfig.class);
+        context.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("controller", controller));
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addConnectorCustomizers(connector ->
+                ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(TOMCAT_THREADS));
+        WebServer server = factory.getWebServer(servletContext -> {
+            FilterRegistration.Dynamic identity = servletContext.addFilter("identity", identityFilter());
+            identity.setAsyncSupported(true);
+            identity.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), false, "/*");
+            ServletRegistration.Dynamic dispatcher = servletContext.addServlet("dispatcher", new DispatcherServlet(context));
+            dispatcher.setAsyncSupported(true);
+            dispatcher.setLoadOnStartup(1);
+            dispatcher.addMapping("/");
+        });
+        server.start();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try (HttpClient client = HttpClient.newBuilder().executor(clients).build()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+            // Warm up connections and JIT
+            runClients(client, request, CLIENTS, 2);
+            long start = System.nanoTime();
+            runClients(client, request, CLIENTS, REQUESTS_PER_CLIENT);
+            return CLIENTS * REQUESTS_PER_CLIENT / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+            context.close();
+        }
+    }
+
+    private static void runClients(HttpClient client, HttpRequest request, int clients, int requestsPerClient) throws Exception {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(callers.submit(() -> {
+                    for (int j = 0; j < requestsPerClient; j++) {
+                        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    // Stands in for the security filter chain, which is not what is measured
+    private static Filter identityFilter() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "jane@example.com", "CUSTOMER", GrantedAuthorities.of("CUSTOMER"));
+        return (request, response, chain) -> {
+            SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(user));
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class BenchmarkWebConfig implements WebMvcConfigurer {
+
+        @Override
+        public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+            resolvers.add(new CurrentUserArgumentResolver());
+        }
+    }
+}
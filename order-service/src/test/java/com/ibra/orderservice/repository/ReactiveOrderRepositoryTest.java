@@ -0,0 +1,23 @@
+package com.ibra.orderservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveOrderRepositoryTest {
+
+    @Test
+    void orderBy_MapsPropertiesToColumnsWithStableTieBreak() {
+        assertEquals(" ORDER BY created_at DESC, id DESC", ReactiveOrderRepository.orderBy(Sort.unsorted()));
+        assertEquals(" ORDER BY total_amount ASC, id ASC", ReactiveOrderRepository.orderBy(Sort.by("totalAmount").ascending()));
+        assertEquals(" ORDER BY estimated_delivery_time DESC, id DESC",
+                ReactiveOrderRepository.orderBy(Sort.by("estimatedDeliveryTime").descending()));
+    }
+
+    @Test
+    void orderBy_RejectsPropertiesOutsideWhitelist() {
+        assertThrows(IllegalArgumentException.class, () -> ReactiveOrderRepository.orderBy(Sort.by("customerEmail")));
+        assertThrows(IllegalArgumentException.class, () -> ReactiveOrderRepository.orderBy(Sort.by("id; DROP TABLE orders")));
+    }
+}
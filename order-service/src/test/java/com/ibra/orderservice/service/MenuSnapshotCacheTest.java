@@ -0,0 +1,92 @@
+package com.ibra.orderservice.service;
+
+import com.ibra.dto.ApiResponse;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.exception.BusinessException;
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.orderservice.service.external.RestaurantServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSnapshotCacheTest {
+
+    @Mock
+    private RestaurantServiceClient restaurantServiceClient;
+
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        menuSnapshotCache = new MenuSnapshotCache(restaurantServiceClient, Duration.ofMinutes(1), 10);
+    }
+
+    @Test
+    void current_FetchesOnceAndServesFromCache() {
+        when(restaurantServiceClient.getMenuSnapshot(1L)).thenReturn(response(snapshot(1L, 4)));
+
+        MenuSnapshotDTO first = menuSnapshotCache.current(1L, null);
+        MenuSnapshotDTO second = menuSnapshotCache.current(1L, 4L);
+
+        assertSame(first, second);
+        assertEquals(4, second.getVersion());
+        verify(restaurantServiceClient, times(1)).getMenuSnapshot(1L);
+    }
+
+    @Test
+    void current_NewerExpectedVersionRefreshesCache() {
+        when(restaurantServiceClient.getMenuSnapshot(1L))
+                .thenReturn(response(snapshot(1L, 4)))
+                .thenReturn(response(snapshot(1L, 5)));
+        menuSnapshotCache.current(1L, null);
+
+        MenuSnapshotDTO refreshed = menuSnapshotCache.current(1L, 5L);
+
+        assertEquals(5, refreshed.getVersion());
+        verify(restaurantServiceClient, times(2)).getMenuSnapshot(1L);
+    }
+
+    @Test
+    void current_OlderExpectedVersionIsRejected() {
+        when(restaurantServiceClient.getMenuSnapshot(1L)).thenReturn(response(snapshot(1L, 4)));
+
+        assertThrows(BusinessException.class, () -> menuSnapshotCache.current(1L, 3L));
+    }
+
+    @Test
+    void current_ExpiredVersionIsCheckedAgain() {
+        menuSnapshotCache = new MenuSnapshotCache(restaurantServiceClient, Duration.ZERO.minusMillis(1), 10);
+        when(restaurantServiceClient.getMenuSnapshot(1L)).thenReturn(response(snapshot(1L, 4)));
+
+        menuSnapshotCache.current(1L, null);
+        menuSnapshotCache.current(1L, null);
+
+        verify(restaurantServiceClient, times(2)).getMenuSnapshot(1L);
+    }
+
+    @Test
+    void current_MissingMenuThrowsResourceNotFound() {
+        when(restaurantServiceClient.getMenuSnapshot(1L)).thenReturn(
+                ApiResponse.<MenuSnapshotDTO>builder().success(false).message("Not found").build());
+
+        assertThrows(ResourceNotFoundException.class, () -> menuSnapshotCache.current(1L, null));
+    }
+
+    private static MenuSnapshotDTO snapshot(Long restaurantId, long version) {
+        return new MenuSnapshotDTO(restaurantId, version, LocalDateTime.now(), List.of());
+    }
+
+    private static ApiResponse<MenuSnapshotDTO> response(MenuSnapshotDTO snapshot) {
+        return ApiResponse.<MenuSnapshotDTO>builder().success(true).message("Success").data(snapshot).build();
+    }
+}
@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.ibra.dto.ApiResponse;
 import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.dto.RestaurantPageDTO;
 import com.ibra.enums.MenuItemCategory;
 import com.ibra.enums.MenuItemStatus;
 import com.ibra.enums.RestaurantStatus;
@@ -63,6 +65,9 @@ class OrderServiceTest {
     @Mock
     private OrderEventPublisher orderEventPublisher;
 
+    @Mock
+    private MenuSnapshotCache menuSnapshotCache;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -74,6 +79,7 @@ class OrderServiceTest {
     private OrderItem orderItem;
     private OrderItemDTO orderItemDTO;
     private ApiResponse<RestaurantDTO> restaurantResponse;
+    private ApiResponse<RestaurantPageDTO> ownerRestaurantsResponse;
     private ApiResponse<MenuItemDTO> menuItemResponse;
 
     @BeforeEach
@@ -193,6 +199,12 @@ class OrderServiceTest {
                 .data(restaurantDTO)
                 .build();
 
+        ownerRestaurantsResponse = ApiResponse.<RestaurantPageDTO>builder()
+                .success(true)
+                .message("Success")
+                .data(new RestaurantPageDTO(List.of(restaurantDTO), null, 100, false, null))
+                .build();
+
         menuItemResponse = ApiResponse.<MenuItemDTO>builder()
                 .success(true)
                 .message("Success")
@@ -219,38 +231,47 @@ class OrderServiceTest {
     void createOrder_InvalidMenuItem() {
         // Arrange
         when(restaurantServiceClient.getRestaurantById(1L)).thenReturn(restaurantResponse);
-        ApiResponse<MenuItemDTO> failedMenuItemResponse = ApiResponse.<MenuItemDTO>builder()
-                .success(false)
-                .message("Menu item not found")
-                .data(null)
-                .build();
-        when(restaurantServiceClient.getMenuItemById(1L)).thenReturn(failedMenuItemResponse);
+        when(menuSnapshotCache.current(1L, null)).thenReturn(new MenuSnapshotDTO(1L, 3L, LocalDateTime.now(), List.of()));
 
         // Act & Assert
         assertThrows(BusinessException.class, () ->
                 orderService.createOrder(createOrderRequest, 1L, "customer@test.com"));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
-    void createOrder_MenuItemFromDifferentRestaurant() {
+    void createOrder_MenuChangedSinceCartWasBuilt() {
         // Arrange
-        MenuItemDTO wrongRestaurantMenuItem = new MenuItemDTO();
-        wrongRestaurantMenuItem.setId(1L);
-        wrongRestaurantMenuItem.setRestaurantId(2L); // Different restaurant
-        wrongRestaurantMenuItem.setPrice(new BigDecimal("15.99"));
-
-        ApiResponse<MenuItemDTO> wrongRestaurantResponse = ApiResponse.<MenuItemDTO>builder()
-                .success(true)
-                .message("Success")
-                .data(wrongRestaurantMenuItem)
-                .build();
-
+        createOrderRequest.setMenuVersion(2L);
         when(restaurantServiceClient.getRestaurantById(1L)).thenReturn(restaurantResponse);
-        when(restaurantServiceClient.getMenuItemById(1L)).thenReturn(wrongRestaurantResponse);
+        when(menuSnapshotCache.current(1L, 2L)).thenThrow(new BusinessException("The menu has changed"));
 
         // Act & Assert
         assertThrows(BusinessException.class, () ->
                 orderService.createOrder(createOrderRequest, 1L, "customer@test.com"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_PricesCartFromOneMenuVersion() {
+        // Arrange
+        createOrderRequest.setMenuVersion(3L);
+        when(restaurantServiceClient.getRestaurantById(1L)).thenReturn(restaurantResponse);
+        when(menuSnapshotCache.current(1L, 3L)).thenReturn(new MenuSnapshotDTO(1L, 3L, LocalDateTime.now(), List.of(menuItemDTO)));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
+
+        // Act
+        orderService.createOrder(createOrderRequest, 1L, "customer@test.com");
+
+        // Assert
+        verify(orderRepository).save(argThat(saved -> saved.getMenuVersion() == 3L
+                && saved.getTotalAmount().compareTo(menuItemDTO.getPrice().multiply(BigDecimal.valueOf(2))) == 0));
+        verify(orderItemRepository).saveAll(argThat(items -> {
+            OrderItem item = items.iterator().next();
+            return item.getUnitPrice().equals(menuItemDTO.getPrice()) && item.getMenuItemName().equals(menuItemDTO.getName());
+        }));
+        verify(restaurantServiceClient, never()).getMenuItemById(any());
     }
 
     @Test
@@ -352,7 +373,7 @@ class OrderServiceTest {
         when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
 
         // Mock restaurant service for restaurant owner verification
-        when(restaurantServiceClient.getRestaurantByOwnerId(1L)).thenReturn(restaurantResponse);
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, null)).thenReturn(ownerRestaurantsResponse);
 
         // Act
         OrderDTO result = orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED, 1L, "RESTAURANT_OWNER");
@@ -384,7 +405,7 @@ class OrderServiceTest {
         when(orderMapper.toDTO(any(Order.class))).thenReturn(orderDTO);
 
         // Mock restaurant service for restaurant owner verification
-        when(restaurantServiceClient.getRestaurantByOwnerId(1L)).thenReturn(restaurantResponse);
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, null)).thenReturn(ownerRestaurantsResponse);
 
         // Act
         Page<OrderDTO> result = orderService.getOrdersByRestaurant(1L, "PENDING", pageable, 1L, "RESTAURANT_OWNER");
@@ -417,7 +438,7 @@ class OrderServiceTest {
         when(orderRepository.findByRestaurantId(1L)).thenReturn(orders);
 
         // Mock restaurant service for restaurant owner verification
-        when(restaurantServiceClient.getRestaurantByOwnerId(1L)).thenReturn(restaurantResponse);
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, null)).thenReturn(ownerRestaurantsResponse);
 
         // Act
         OrderStatsDTO result = orderService.getRestaurantOrderStats(1L, 1L, "RESTAURANT_OWNER");
@@ -428,6 +449,41 @@ class OrderServiceTest {
         verify(orderRepository).findByRestaurantId(1L);
     }
 
+    @Test
+    void getRestaurantOrderStats_OwnerWithRestaurantOnLaterPage() {
+        // Arrange
+        RestaurantDTO otherRestaurant = new RestaurantDTO();
+        otherRestaurant.setId(2L);
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, null)).thenReturn(ApiResponse.<RestaurantPageDTO>builder()
+                .success(true)
+                .data(new RestaurantPageDTO(List.of(otherRestaurant), null, 100, true, "2"))
+                .build());
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, "2")).thenReturn(ownerRestaurantsResponse);
+        when(orderRepository.findByRestaurantId(1L)).thenReturn(List.of(order));
+
+        // Act
+        OrderStatsDTO result = orderService.getRestaurantOrderStats(1L, 1L, "RESTAURANT_OWNER");
+
+        // Assert
+        assertEquals(1L, result.getTotalOrders());
+    }
+
+    @Test
+    void getRestaurantOrderStats_NotOwner() {
+        // Arrange
+        RestaurantDTO otherRestaurant = new RestaurantDTO();
+        otherRestaurant.setId(2L);
+        when(restaurantServiceClient.getRestaurantsByOwnerId(1L, 100, null)).thenReturn(ApiResponse.<RestaurantPageDTO>builder()
+                .success(true)
+                .data(new RestaurantPageDTO(List.of(otherRestaurant), null, 100, false, null))
+                .build());
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> orderService.getRestaurantOrderStats(1L, 1L, "RESTAURANT_OWNER"));
+        verify(orderRepository, never()).findByRestaurantId(any());
+    }
+
     @Test
     void rateOrder_Success() {
         // Arrange
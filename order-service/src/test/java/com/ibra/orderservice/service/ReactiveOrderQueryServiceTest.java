@@ -0,0 +1,118 @@
+package com.ibra.orderservice.service;
+
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.orderservice.dto.OrderDTO;
+import com.ibra.orderservice.dto.OrderStatsDTO;
+import com.ibra.orderservice.enums.OrderStatus;
+import com.ibra.orderservice.repository.ReactiveOrderRepository;
+import com.ibra.orderservice.service.external.ReactiveRestaurantClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderQueryServiceTest {
+
+    @Mock
+    private ReactiveOrderRepository orderRepository;
+
+    @Mock
+    private ReactiveRestaurantClient restaurantClient;
+
+    @InjectMocks
+    private ReactiveOrderQueryService orderQueryService;
+
+    private final Pageable pageable = PageRequest.of(1, 2);
+
+    @Test
+    void getOrdersByCustomer_ReturnsPageWithTotal() {
+        when(orderRepository.findByCustomerId(1L, pageable)).thenReturn(Mono.just(List.of(order(3L, 1L, 10L), order(4L, 1L, 10L))));
+        when(orderRepository.countByCustomerId(1L)).thenReturn(Mono.just(5L));
+
+        Page<OrderDTO> page = orderQueryService.getOrdersByCustomer(1L, pageable).block();
+
+        assertEquals(List.of(3L, 4L), page.getContent().stream().map(OrderDTO::getId).toList());
+        assertEquals(5L, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    void getOrderById_NotFound() {
+        when(orderRepository.findById(9L)).thenReturn(Mono.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderQueryService.getOrderById(9L, 1L, "CUSTOMER").block());
+    }
+
+    @Test
+    void getOrderById_RejectsOtherCustomersOrder() {
+        when(orderRepository.findById(3L)).thenReturn(Mono.just(order(3L, 2L, 10L)));
+
+        assertThrows(UnauthorizedException.class, () -> orderQueryService.getOrderById(3L, 1L, "CUSTOMER").block());
+        verifyNoInteractions(restaurantClient);
+    }
+
+    @Test
+    void getOrderById_ChecksRestaurantOwnership() {
+        when(orderRepository.findById(3L)).thenReturn(Mono.just(order(3L, 2L, 10L)));
+        // The order's restaurant need not be the owner's first one
+        when(restaurantClient.getRestaurantIdsForOwner(7L)).thenReturn(Mono.just(Set.of(12L, 10L)));
+        when(restaurantClient.getRestaurantIdsForOwner(8L)).thenReturn(Mono.just(Set.of(11L)));
+        when(restaurantClient.getRestaurantIdsForOwner(9L)).thenReturn(Mono.just(Set.of()));
+
+        assertEquals(3L, orderQueryService.getOrderById(3L, 7L, "RESTAURANT_OWNER").block().getId());
+        assertThrows(UnauthorizedException.class, () -> orderQueryService.getOrderById(3L, 8L, "RESTAURANT_OWNER").block());
+        assertThrows(UnauthorizedException.class, () -> orderQueryService.getOrderById(3L, 9L, "RESTAURANT_OWNER").block());
+        assertEquals(3L, orderQueryService.getOrderById(3L, 1L, "ADMIN").block().getId());
+    }
+
+    @Test
+    void getOrdersByRestaurant_FiltersByStatusForAdmin() {
+        when(orderRepository.findByRestaurantId(10L, OrderStatus.DELIVERED, pageable)).thenReturn(Mono.just(List.of(order(3L, 1L, 10L))));
+        when(orderRepository.countByRestaurantId(10L, OrderStatus.DELIVERED)).thenReturn(Mono.just(3L));
+
+        Page<OrderDTO> page = orderQueryService.getOrdersByRestaurant(10L, "delivered", pageable, 1L, "ADMIN").block();
+
+        assertEquals(3L, page.getTotalElements());
+        verifyNoInteractions(restaurantClient);
+    }
+
+    @Test
+    void getRestaurantOrderStats_RejectsOwnerOfAnotherRestaurantBeforeQuerying() {
+        when(restaurantClient.getRestaurantIdsForOwner(7L)).thenReturn(Mono.just(Set.of(11L)));
+        when(orderRepository.restaurantStats(10L)).thenReturn(Mono.fromCallable(() -> fail("stats queried for an unauthorized owner")));
+
+        assertThrows(UnauthorizedException.class, () -> orderQueryService.getRestaurantOrderStats(10L, 7L, "RESTAURANT_OWNER").block());
+    }
+
+    @Test
+    void getRestaurantOrderStats_ReturnsStatsForOwner() {
+        OrderStatsDTO stats = new OrderStatsDTO();
+        stats.setTotalOrders(4L);
+        when(restaurantClient.getRestaurantIdsForOwner(7L)).thenReturn(Mono.just(Set.of(10L)));
+        when(orderRepository.restaurantStats(10L)).thenReturn(Mono.just(stats));
+
+        assertSame(stats, orderQueryService.getRestaurantOrderStats(10L, 7L, "RESTAURANT_OWNER").block());
+    }
+
+    private static OrderDTO order(Long id, Long customerId, Long restaurantId) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setRestaurantId(restaurantId);
+        order.setStatus(OrderStatus.DELIVERED);
+        return order;
+    }
+}
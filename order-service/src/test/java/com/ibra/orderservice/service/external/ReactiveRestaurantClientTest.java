@@ -0,0 +1,115 @@
+package com.ibra.orderservice.service.external;
+
+import com.ibra.security.identity.IdentitySigner;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ReactiveRestaurantClient} against a local stub answering with restaurant-service's response bodies.
+ */
+class ReactiveRestaurantClientTest {
+
+    // GET /api/restaurants/owner/7?size=100, as restaurant-service writes it
+    private static final String FIRST_PAGE = """
+            {"success":true,"message":"Restaurants fetched successfully for owner","data":{
+              "content":[{"id":10,"name":"Pizza Place","description":"Wood-fired pizza","address":"1 Main St",
+                "phoneNumber":"555-0100","email":"pizza@example.com","ownerId":7,"ownerName":"Jane Doe",
+                "ownerEmail":"jane@example.com","imageUrl":null,"status":"ACTIVE","createdAt":"2026-01-05T10:15:30",
+                "updatedAt":"2026-01-05T10:15:30","menuItems":null,"cuisine":"Italian","rate":4.5,
+                "latitude":40.7128,"longitude":-74.006}],
+              "page":null,"size":100,"hasNext":true,"nextCursor":"10"}}
+            """;
+
+    private static final String SECOND_PAGE = """
+            {"success":true,"message":"Restaurants fetched successfully for owner","data":{
+              "content":[{"id":12,"name":"Noodle Bar","description":"Hand-pulled noodles","address":"2 Main St",
+                "phoneNumber":"555-0101","email":"noodles@example.com","ownerId":7,"ownerName":"Jane Doe",
+                "ownerEmail":"jane@example.com","imageUrl":null,"status":"ACTIVE","createdAt":"2026-02-01T08:00:00",
+                "updatedAt":"2026-02-01T08:00:00","menuItems":null,"cuisine":"Chinese","rate":null,
+                "latitude":null,"longitude":null}],
+              "page":null,"size":100,"hasNext":false,"nextCursor":null}}
+            """;
+
+    private final Map<String, String> pages = new ConcurrentHashMap<>();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final List<String> identities = new CopyOnWriteArrayList<>();
+
+    private HttpServer restaurantService;
+    private ReactiveRestaurantClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        restaurantService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        restaurantService.createContext("/api/restaurants/owner/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            String identity = exchange.getRequestHeaders().getFirst(IdentitySigner.HEADER);
+            if (identity != null) {
+                identities.add(identity);
+            }
+            String page = pages.get(exchange.getRequestURI().getPath() + "?" + query);
+            byte[] body = (page != null ? page : "{\"success\":false,\"message\":\"Restaurant not found\",\"data\":null}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(page != null ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        restaurantService.start();
+
+        client = new ReactiveRestaurantClient(WebClient.builder()
+                .baseUrl("http://localhost:" + restaurantService.getAddress().getPort())
+                .build(), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        restaurantService.stop(0);
+    }
+
+    @Test
+    void getRestaurantIdsForOwner_ReadsEveryPageWithTheCallersIdentity() {
+        pages.put("/api/restaurants/owner/7?size=100", FIRST_PAGE);
+        pages.put("/api/restaurants/owner/7?size=100&cursor=10", SECOND_PAGE);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentitySigner.HEADER, "7;0;RESTAURANT_OWNER;jane@example.com.signature");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Set<Long> restaurantIds = client.getRestaurantIdsForOwner(7L).block();
+
+        assertEquals(Set.of(10L, 12L), restaurantIds);
+        assertEquals(List.of("size=100", "size=100&cursor=10"), queries);
+        assertEquals(List.of("7;0;RESTAURANT_OWNER;jane@example.com.signature",
+                "7;0;RESTAURANT_OWNER;jane@example.com.signature"), identities);
+    }
+
+    @Test
+    void getRestaurantIdsForOwner_OwnsNothingWhenRestaurantServiceCannotSay() {
+        pages.put("/api/restaurants/owner/7?size=100", FIRST_PAGE);
+
+        // The second page fails, so the first one alone must not be taken as the full answer
+        assertEquals(Set.of(), client.getRestaurantIdsForOwner(7L).block());
+        assertEquals(Set.of(), client.getRestaurantIdsForOwner(8L).block());
+    }
+}
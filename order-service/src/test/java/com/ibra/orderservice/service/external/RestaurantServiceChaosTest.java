@@ -0,0 +1,164 @@
+package com.ibra.orderservice.service.external;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.config.FeignClientIsolation;
+import com.ibra.config.FeignClientTuning;
+import com.ibra.config.FeignRetryBudget;
+import com.ibra.dto.RestaurantDTO;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RestaurantServiceClient} with the shared Feign tuning, bulkheads and retry budget in front of a local
+ * restaurant-service stub that can be made to hang, as it does when its database is overloaded.
+ */
+class RestaurantServiceChaosTest {
+
+    private static final int BULKHEAD = 4;
+    private static final int REQUEST_THREADS = 32;
+    private static final int STALL_MS = 3000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AtomicReference<String> restaurantName = new AtomicReference<>("Pizza Place");
+    private final AtomicInteger stallMillis = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer restaurantService;
+    private FeignClientTuning tuning;
+    private RestaurantServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        restaurantService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        restaurantService.setExecutor(Executors.newCachedThreadPool());
+        restaurantService.createContext("/api/restaurants/", exchange -> {
+            try {
+                Thread.sleep(stallMillis.get());
+                byte[] body = ("{\"success\":true,\"data\":{\"id\":1,\"name\":\"" + restaurantName.get() + "\"}}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException | IOException e) {
+                // The caller gave up
+            } finally {
+                exchange.close();
+            }
+        });
+        restaurantService.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.feign.methods.restaurant-service.get-restaurant-by-id.read-timeout", "200ms")
+                .withProperty("app.feign.methods.restaurant-service.get-restaurant-by-id.serve-stale", "true");
+        tuning = new FeignClientTuning(environment, meterRegistry, 0.1, Duration.ofMillis(100), Duration.ofMillis(5));
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(BULKHEAD)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        client = Feign.builder()
+                .client(countingCalls(new Client.Default(null, null)))
+                .contract(new SpringMvcContract())
+                .decoder((response, type) -> objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                .addCapability(tuning)
+                .addCapability(new FeignRetryBudget(meterRegistry, 2, Duration.ofMillis(10), Duration.ofSeconds(1), 0.1))
+                .addCapability(new FeignClientIsolation(bulkheads, meterRegistry, environment, 100))
+                .target(new Target.HardCodedTarget<>(RestaurantServiceClient.class, "restaurant-service",
+                        "http://localhost:" + restaurantService.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantService.stop(0);
+        tuning.close();
+    }
+
+    @Test
+    void stalledRestaurantService_HoldsFewThreadsAndAnswersFromLastKnownRestaurant() throws Exception {
+        assertEquals("Pizza Place", client.getRestaurantById(1L).getData().getName());
+
+        stallMillis.set(STALL_MS);
+        long start = System.nanoTime();
+        List<RestaurantDTO> answers = callConcurrently(REQUEST_THREADS, () -> client.getRestaurantById(1L).getData());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Nobody waited for the stalled service, and nobody was refused
+        assertTrue(elapsedMillis < STALL_MS / 2, "callers were blocked for " + elapsedMillis + " ms");
+        assertTrue(answers.stream().allMatch(restaurant -> "Pizza Place".equals(restaurant.getName())));
+        assertEquals(REQUEST_THREADS, meterRegistry.get("feign.client.stale.served").counter().count());
+        // The bulkhead bounds how many request threads wait on restaurant-service, retries included
+        assertTrue(maxInFlight.get() <= BULKHEAD, maxInFlight.get() + " threads were waiting on restaurant-service");
+        double rejected = meterRegistry.get("feign.client.bulkhead.rejected").tag("method", "get-restaurant-by-id").counter().count();
+        assertTrue(rejected >= REQUEST_THREADS / 2, rejected + " calls rejected by the bulkhead");
+
+        // A restaurant never seen before has nothing to fall back on
+        assertThrows(RuntimeException.class, () -> client.getRestaurantById(2L));
+
+        // Live answers resume with the service
+        stallMillis.set(0);
+        restaurantName.set("Pizza Palace");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!"Pizza Palace".equals(client.getRestaurantById(1L).getData().getName())) {
+            assertTrue(System.nanoTime() < deadline, "never recovered");
+            Thread.sleep(50);
+        }
+    }
+
+    private Client countingCalls(Client delegate) {
+        return (request, options) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                return delegate.execute(request, options);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private static <T> List<T> callConcurrently(int callers, Callable<T> call) throws Exception {
+        // Platform threads, like Tomcat's request threads
+        try (ExecutorService threads = Executors.newFixedThreadPool(callers)) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(threads.submit(call));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
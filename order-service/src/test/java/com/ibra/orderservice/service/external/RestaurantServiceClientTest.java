@@ -3,6 +3,7 @@ package com.ibra.orderservice.service.external;
 import com.ibra.dto.ApiResponse;
 import com.ibra.dto.MenuItemDTO;
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.dto.RestaurantPageDTO;
 import com.ibra.enums.MenuItemCategory;
 import com.ibra.enums.MenuItemStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -127,24 +128,25 @@ class RestaurantServiceClientTest {
     }
 
     @Test
-    void testGetRestaurantByOwnerId_Success() {
+    void testGetRestaurantsByOwnerId_Success() {
         // Arrange
         Long ownerId = 100L;
-        ApiResponse<RestaurantDTO> expectedResponse = new ApiResponse<>(
-                true, "Restaurant found for owner", sampleRestaurant);
+        RestaurantPageDTO page = new RestaurantPageDTO(List.of(sampleRestaurant), null, 100, false, null);
+        ApiResponse<RestaurantPageDTO> expectedResponse = new ApiResponse<>(
+                true, "Restaurants fetched successfully for owner", page);
 
-        when(restaurantServiceClient.getRestaurantByOwnerId(ownerId))
+        when(restaurantServiceClient.getRestaurantsByOwnerId(ownerId, 100, null))
                 .thenReturn(expectedResponse);
 
         // Act
-        ApiResponse<RestaurantDTO> result = restaurantServiceClient.getRestaurantByOwnerId(ownerId);
+        ApiResponse<RestaurantPageDTO> result = restaurantServiceClient.getRestaurantsByOwnerId(ownerId, 100, null);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isSuccess());
-        assertEquals("Restaurant found for owner", result.getMessage());
-        assertEquals(sampleRestaurant, result.getData());
-        verify(restaurantServiceClient).getRestaurantByOwnerId(ownerId);
+        assertEquals("Restaurants fetched successfully for owner", result.getMessage());
+        assertEquals(List.of(sampleRestaurant), result.getData().getContent());
+        verify(restaurantServiceClient).getRestaurantsByOwnerId(ownerId, 100, null);
     }
 
     @Test
@@ -247,7 +249,7 @@ class RestaurantServiceClientTest {
         assertDoesNotThrow(() -> {
             restaurantServiceClient.getRestaurantById(null);
             restaurantServiceClient.getMenuItemById(null);
-            restaurantServiceClient.getRestaurantByOwnerId(null);
+            restaurantServiceClient.getRestaurantsByOwnerId(null, 100, null);
             restaurantServiceClient.getMenuItemsByRestaurant(null);
             restaurantServiceClient.getMenuItemsByCategory(null, null);
         });
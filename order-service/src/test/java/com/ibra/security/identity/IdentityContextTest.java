@@ -0,0 +1,183 @@
+package com.ibra.security.identity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.security.filter.HeaderBasedAuthFilter;
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdentityContextTest {
+
+    private static final String SECRET = "internal-secret-shared-with-the-services";
+    private static final String KEY_ID = "key-1";
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void grantedAuthorities_InternsListPerRoleValue() {
+        List<GrantedAuthority> first = GrantedAuthorities.of("ADMIN, RESTAURANT_OWNER");
+        List<GrantedAuthority> second = GrantedAuthorities.of("ADMIN, RESTAURANT_OWNER");
+
+        assertSame(first, second);
+        assertEquals(List.of("ADMIN", "RESTAURANT_OWNER"), first.stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(GrantedAuthorities.of(" , ").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(first.get(0)));
+    }
+
+    @Test
+    void filter_PopulatesContextWithParsedIdentity() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", "42");
+        request.addHeader("X-User-Email", "jane@example.com");
+        request.addHeader("X-User-Role", "CUSTOMER");
+
+        runFilter(request);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(42L, user.userId());
+        assertEquals("jane@example.com", user.email());
+        assertEquals("CUSTOMER", user.role());
+        assertTrue(user.hasAuthority("CUSTOMER"));
+        assertSame(GrantedAuthorities.of("CUSTOMER"), authentication.getAuthorities());
+        assertEquals("42", authentication.getName());
+    }
+
+    @Test
+    void filter_IgnoresInvalidUserId() throws Exception {
+        for (String userId : List.of("abc", "0", "-5", "99999999999999999999")) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("X-User-Id", userId);
+            request.addHeader("X-User-Role", "CUSTOMER");
+
+            runFilter(request);
+
+            assertNull(SecurityContextHolder.getContext().getAuthentication(), userId);
+        }
+    }
+
+    @Test
+    void resolver_ReturnsPrincipalOfCurrentRequest() throws Exception {
+        AuthenticatedUser user = new AuthenticatedUser(7L, null, "ADMIN", GrantedAuthorities.of("ADMIN"));
+        SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(user));
+        MethodParameter parameter = parameter();
+
+        assertTrue(resolver.supportsParameter(parameter));
+        assertSame(user, resolver.resolveArgument(parameter, null, null, null));
+    }
+
+    @Test
+    void resolver_RejectsRequestWithoutIdentity() throws Exception {
+        assertThrows(SecurityException.class, () -> resolver.resolveArgument(parameter(), null, null, null));
+    }
+
+    @Test
+    void filter_WithSecretTrustsOnlySignedIdentity() throws Exception {
+        MockHttpServletRequest unsigned = new MockHttpServletRequest();
+        unsigned.addHeader("X-User-Id", "42");
+        unsigned.addHeader("X-User-Role", "ADMIN");
+        runFilter(unsigned, SECRET);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        MockHttpServletRequest signed = new MockHttpServletRequest();
+        signed.addHeader("X-User-Id", "1");
+        signed.addHeader("X-User-Role", "ADMIN");
+        signed.addHeader(IdentitySigner.HEADER, new IdentitySigner(SECRET, Duration.ofSeconds(60)).sign(42L, null, "CUSTOMER"));
+        runFilter(signed, SECRET);
+
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(42L, user.userId());
+        assertEquals("CUSTOMER", user.role());
+    }
+
+    @Test
+    void filter_WithSecretPrefersSignedIdentityOverBearerToken() throws Exception {
+        KeyPair signingKey = Jwts.SIG.ES256.keyPair().build();
+        String token = "Bearer " + Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .claim("id", 7L)
+                .claim("role", "ADMIN")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(signingKey.getPrivate())
+                .compact();
+        try (JwksKeyLocator keyLocator = keyLocator(signingKey)) {
+            MockHttpServletRequest signed = new MockHttpServletRequest();
+            signed.addHeader("Authorization", token);
+            signed.addHeader(IdentitySigner.HEADER, new IdentitySigner(SECRET, Duration.ofSeconds(60)).sign(42L, null, "CUSTOMER"));
+            runFilter(signed, SECRET, keyLocator);
+            assertEquals(42L, ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).userId());
+            SecurityContextHolder.clearContext();
+
+            // A bad signed identity is not made up for by the token
+            MockHttpServletRequest forged = new MockHttpServletRequest();
+            forged.addHeader("Authorization", token);
+            forged.addHeader(IdentitySigner.HEADER, "7;0;ADMIN;.forged");
+            runFilter(forged, SECRET, keyLocator);
+            assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+            // Callers that skip the gateway send only the token
+            MockHttpServletRequest direct = new MockHttpServletRequest();
+            direct.addHeader("Authorization", token);
+            runFilter(direct, SECRET, keyLocator);
+            assertEquals(7L, ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).userId());
+        }
+    }
+
+    private static void runFilter(MockHttpServletRequest request) throws Exception {
+        runFilter(request, "");
+    }
+
+    private static void runFilter(MockHttpServletRequest request, String internalSecret) throws Exception {
+        runFilter(request, internalSecret, null);
+    }
+
+    private static void runFilter(MockHttpServletRequest request, String internalSecret, JwksKeyLocator locator) throws Exception {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JwksKeyLocator> keyLocator = mock(ObjectProvider.class);
+        when(keyLocator.getIfAvailable()).thenReturn(locator);
+        new HeaderBasedAuthFilter(keyLocator, internalSecret, Duration.ofSeconds(60))
+                .doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static JwksKeyLocator keyLocator(KeyPair signingKey) throws Exception {
+        String jwks = new ObjectMapper().writeValueAsString(Map.of("keys", List.of(
+                Jwks.builder().key((ECPublicKey) signingKey.getPublic()).id(KEY_ID).build())));
+        JwksKeyLocator keyLocator = new JwksKeyLocator(() -> jwks, Duration.ofMinutes(1), Duration.ofMinutes(1), null);
+        assertTrue(keyLocator.refresh());
+        return keyLocator;
+    }
+
+    private static MethodParameter parameter() throws NoSuchMethodException {
+        return new MethodParameter(IdentityContextTest.class.getDeclaredMethod("handler", AuthenticatedUser.class), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static void handler(@CurrentUser AuthenticatedUser user) {
+    }
+}
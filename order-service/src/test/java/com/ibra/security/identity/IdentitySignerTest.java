@@ -0,0 +1,94 @@
+package com.ibra.security.identity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentitySignerTest {
+
+    private static final String SECRET = "internal-secret-shared-with-the-services";
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000L);
+    private final IdentitySigner signer = new IdentitySigner(SECRET, Duration.ofSeconds(60), now::get);
+
+    @Test
+    void verify_ReturnsSignedIdentity() {
+        AuthenticatedUser user = signer.verify(signer.sign(42L, "jane;doe@example.com", "ADMIN,RESTAURANT_OWNER"));
+
+        assertEquals(42L, user.userId());
+        assertEquals("jane;doe@example.com", user.email());
+        assertEquals("ADMIN,RESTAURANT_OWNER", user.role());
+        assertSame(GrantedAuthorities.of("ADMIN,RESTAURANT_OWNER"), user.authorities());
+        assertNull(signer.verify(signer.sign(42L, null, "CUSTOMER")).email());
+    }
+
+    @Test
+    void verify_RejectsTamperedOrForeignHeaders() {
+        String signed = signer.sign(42L, "jane@example.com", "CUSTOMER");
+        IdentitySigner other = new IdentitySigner(SECRET + "-other", Duration.ofSeconds(60), now::get);
+
+        assertNull(signer.verify(signed.replace("42;", "43;")));
+        assertNull(signer.verify(signed.replace("CUSTOMER", "ADMIN")));
+        assertNull(signer.verify(other.sign(42L, "jane@example.com", "CUSTOMER")));
+        assertNull(signer.verify(signed.substring(0, signed.lastIndexOf('.'))));
+        assertNull(signer.verify(signed + "!"));
+        assertNull(signer.verify(""));
+    }
+
+    @Test
+    void verify_RejectsHeadersOlderThanMaxAge() {
+        String signed = signer.sign(42L, "jane@example.com", "CUSTOMER");
+
+        now.addAndGet(60);
+        assertNotNull(signer.verify(signed));
+        now.addAndGet(1);
+        assertNull(signer.verify(signed));
+    }
+
+    @Test
+    void constructor_RejectsShortSecrets() {
+        assertThrows(IllegalArgumentException.class, () -> new IdentitySigner("short", Duration.ofSeconds(60)));
+        assertNull(IdentitySigner.forSecret(" ", Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void verify_IsSafeAcrossThreads() throws Exception {
+        assertSafeAcrossThreads(Executors.newFixedThreadPool(8));
+    }
+
+    @Test
+    void verify_IsSafeAcrossVirtualThreads() throws Exception {
+        assertSafeAcrossThreads(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    private void assertSafeAcrossThreads(ExecutorService executor) throws Exception {
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 1; i <= 64; i++) {
+                long userId = i;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        AuthenticatedUser user = signer.verify(signer.sign(userId, null, "CUSTOMER"));
+                        if (user == null || user.userId() != userId) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibra.resturantservice.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control sent with public catalog reads, so the gateway response cache can keep them; Spring Security would
+ * otherwise mark every response no-store.
+ */
+final class CatalogCacheControl {
+
+    static final CacheControl PUBLIC = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    private CatalogCacheControl() {
+    }
+}
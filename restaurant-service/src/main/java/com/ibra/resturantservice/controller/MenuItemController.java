@@ -3,20 +3,28 @@ package com.ibra.resturantservice.controller;
 import com.ibra.dto.ApiResponse;
 import com.ibra.resturantservice.dto.CreateMenuItemRequest;
 import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.resturantservice.dto.MenuImportResultDTO;
 import com.ibra.enums.MenuItemCategory;
 import com.ibra.enums.MenuItemStatus;
+import com.ibra.resturantservice.menuimport.MenuImportService;
 import com.ibra.resturantservice.service.MenuItemService;
+import com.ibra.resturantservice.service.MenuSnapshotService;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUser;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -25,34 +33,33 @@ public class MenuItemController {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuItemController.class);
 
+    // A published menu version never changes
+    private static final CacheControl MENU_VERSION_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final MenuItemService menuItemService;
 
-    public MenuItemController(MenuItemService menuItemService) {
-        this.menuItemService = menuItemService;
-    }
+    private final MenuImportService menuImportService;
 
-    // Helper method to extract user ID from request headers
-    private Long getUserIdFromRequest(HttpServletRequest request) {
-        String userIdHeader = request.getHeader("X-User-Id");
-        if (userIdHeader == null || userIdHeader.isEmpty()) {
-            logger.warn("X-User-Id header is missing or empty.");
-            throw new SecurityException("User ID not found in request headers.");
-        }
-        try {
-            return Long.parseLong(userIdHeader);
-        } catch (NumberFormatException e) {
-            logger.error("Invalid X-User-Id header format: {}", userIdHeader, e);
-            throw new IllegalArgumentException("Invalid user ID format in header.");
-        }
+    private final MenuSnapshotService menuSnapshotService;
+
+    public MenuItemController(MenuItemService menuItemService, MenuImportService menuImportService,
+                              MenuSnapshotService menuSnapshotService) {
+        this.menuItemService = menuItemService;
+        this.menuImportService = menuImportService;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     /**
      * Creates a new menu item for a specific restaurant.
      * Requires RESTAURANT_OWNER role.
-     * The ownerId for validation is extracted from the X-User-Id header.
+     * The ownerId for validation is the authenticated caller.
      * @param restaurantId The ID of the restaurant to add the menu item to.
      * @param request The request body containing menu item details.
-     * @param httpRequest The HttpServletRequest to extract X-User-Id from.
+     * @param user The authenticated caller.
      * @return ResponseEntity with the created MenuItemDTO.
      */
     @PostMapping("/restaurants/{restaurantId}")
@@ -60,13 +67,53 @@ public class MenuItemController {
     public ResponseEntity<ApiResponse<MenuItemDTO>> createMenuItem(
             @PathVariable Long restaurantId,
             @Valid @RequestBody CreateMenuItemRequest request,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
         logger.info("Received request to create menu item for restaurant ID: {}", restaurantId);
-        Long ownerId = getUserIdFromRequest(httpRequest);
-        MenuItemDTO createdMenuItem = menuItemService.createMenuItem(restaurantId, request, ownerId);
+        MenuItemDTO createdMenuItem = menuItemService.createMenuItem(restaurantId, request, user.userId());
         return ResponseEntity.status(HttpStatus.CREATED).body(new ApiResponse<>(true, "Menu item created successfully", createdMenuItem));
     }
 
+    /**
+     * Creates or updates many menu items of a restaurant in one request, from a JSON array of items.
+     * Requires RESTAURANT_OWNER role.
+     * Items with a SKU that already exists in the restaurant are updated; every other valid item is created.
+     * Invalid items are reported per row and do not stop the rest of the import.
+     * @param restaurantId The ID of the restaurant to import into.
+     * @param requests The menu items to import.
+     * @param user The authenticated caller.
+     * @return ResponseEntity with the outcome of every row.
+     */
+    @PostMapping(value = "/restaurants/{restaurantId}/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuImportResultDTO>> importMenuItems(
+            @PathVariable Long restaurantId,
+            @RequestBody List<CreateMenuItemRequest> requests,
+            @CurrentUser AuthenticatedUser user) {
+        logger.info("Received request to import menu items for restaurant ID: {}", restaurantId);
+        MenuImportResultDTO result = menuImportService.importMenuItems(restaurantId, requests, user.userId());
+        return ResponseEntity.ok(new ApiResponse<>(true, importMessage(result), result));
+    }
+
+    /**
+     * Same as {@link #importMenuItems} for a CSV body with a header row
+     * (name, price and category required; sku, description and image_url optional).
+     */
+    @PostMapping(value = "/restaurants/{restaurantId}/bulk", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuImportResultDTO>> importMenuItemsCsv(
+            @PathVariable Long restaurantId,
+            @RequestBody String csv,
+            @CurrentUser AuthenticatedUser user) {
+        logger.info("Received CSV request to import menu items for restaurant ID: {}", restaurantId);
+        MenuImportResultDTO result = menuImportService.importMenuItemsCsv(restaurantId, csv, user.userId());
+        return ResponseEntity.ok(new ApiResponse<>(true, importMessage(result), result));
+    }
+
+    private static String importMessage(MenuImportResultDTO result) {
+        return "Menu import finished: " + result.getCreated() + " created, " + result.getUpdated() + " updated, "
+                + result.getFailed() + " failed";
+    }
+
     /**
      * Retrieves all available menu items for a specific restaurant.
      * Publicly accessible (no authentication required).
@@ -79,7 +126,9 @@ public class MenuItemController {
             @PathVariable Long restaurantId) {
         logger.info("Received request to get menu items for restaurant ID: {}", restaurantId);
         List<MenuItemDTO> menuItems = menuItemService.getMenuItemsByRestaurant(restaurantId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Menu items fetched successfully", menuItems));
+        return ResponseEntity.ok()
+                .cacheControl(CatalogCacheControl.PUBLIC)
+                .body(new ApiResponse<>(true, "Menu items fetched successfully", menuItems));
     }
 
     /**
@@ -92,6 +141,46 @@ public class MenuItemController {
                 .body(new ApiResponse<>(false, "Service unavailable. Could not fetch menu items for restaurant " + restaurantId, List.of()));
     }
 
+    /**
+     * Retrieves the latest version of a restaurant's menu.
+     * Publicly accessible (no authentication required).
+     * The version is sent as the ETag and in the X-Menu-Version header; a matching If-None-Match gets a 304.
+     * @param restaurantId The ID of the restaurant.
+     * @return ResponseEntity with the MenuSnapshotDTO.
+     */
+    @GetMapping("/restaurants/{restaurantId}/snapshot")
+    public ResponseEntity<ApiResponse<MenuSnapshotDTO>> getMenuSnapshot(@PathVariable Long restaurantId) {
+        logger.info("Received request to get the menu snapshot for restaurant ID: {}", restaurantId);
+        MenuSnapshotDTO snapshot = menuSnapshotService.getLatest(restaurantId);
+        return menuSnapshotResponse(snapshot, CatalogCacheControl.PUBLIC);
+    }
+
+    /**
+     * Retrieves one version of a restaurant's menu, including superseded ones.
+     * Publicly accessible (no authentication required).
+     * @param restaurantId The ID of the restaurant.
+     * @param version The menu version.
+     * @return ResponseEntity with the MenuSnapshotDTO.
+     */
+    @GetMapping("/restaurants/{restaurantId}/snapshot/{version}")
+    public ResponseEntity<ApiResponse<MenuSnapshotDTO>> getMenuSnapshotVersion(
+            @PathVariable Long restaurantId,
+            @PathVariable long version) {
+        logger.info("Received request to get menu version {} for restaurant ID: {}", version, restaurantId);
+        MenuSnapshotDTO snapshot = menuSnapshotService.getVersion(restaurantId, version);
+        return menuSnapshotResponse(snapshot, MENU_VERSION_CACHE_CONTROL);
+    }
+
+    private static ResponseEntity<ApiResponse<MenuSnapshotDTO>> menuSnapshotResponse(MenuSnapshotDTO snapshot,
+                                                                                    CacheControl cacheControl) {
+        // Spring answers a GET whose If-None-Match matches this ETag with a 304
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag("\"" + snapshot.getRestaurantId() + "-" + snapshot.getVersion() + "\"")
+                .header(MENU_VERSION_HEADER, String.valueOf(snapshot.getVersion()))
+                .body(new ApiResponse<>(true, "Menu snapshot fetched successfully", snapshot));
+    }
+
     /**
      * Retrieves menu items for a specific restaurant by category.
      * Publicly accessible (no authentication required).
@@ -124,10 +213,10 @@ public class MenuItemController {
     /**
      * Updates an existing menu item.
      * Requires RESTAURANT_OWNER role.
-     * Ownership is validated in the service layer using the ownerId from the X-User-Id header.
+     * Ownership is validated in the service layer with the authenticated caller as the owner.
      * @param id The ID of the menu item to update.
      * @param request The request body containing updated menu item details.
-     * @param httpRequest The HttpServletRequest to extract X-User-Id from.
+     * @param user The authenticated caller.
      * @return ResponseEntity with the updated MenuItemDTO.
      */
     @PutMapping("/{id}")
@@ -135,20 +224,19 @@ public class MenuItemController {
     public ResponseEntity<ApiResponse<MenuItemDTO>> updateMenuItem(
             @PathVariable Long id,
             @Valid @RequestBody CreateMenuItemRequest request,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
         logger.info("Received request to update menu item ID: {}", id);
-        Long ownerId = getUserIdFromRequest(httpRequest);
-        MenuItemDTO updatedMenuItem = menuItemService.updateMenuItem(id, request, ownerId);
+        MenuItemDTO updatedMenuItem = menuItemService.updateMenuItem(id, request, user.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Menu item updated successfully", updatedMenuItem));
     }
 
     /**
      * Updates the status of a menu item.
      * Requires RESTAURANT_OWNER role.
-     * Ownership is validated in the service layer using the ownerId from the X-User-Id header.
+     * Ownership is validated in the service layer with the authenticated caller as the owner.
      * @param id The ID of the menu item to update status for.
      * @param status The new status for the menu item.
-     * @param httpRequest The HttpServletRequest to extract X-User-Id from.
+     * @param user The authenticated caller.
      * @return ResponseEntity with the updated MenuItemDTO.
      */
     @PatchMapping("/{id}/status")
@@ -156,29 +244,27 @@ public class MenuItemController {
     public ResponseEntity<ApiResponse<MenuItemDTO>> updateMenuItemStatus(
             @PathVariable Long id,
             @RequestParam MenuItemStatus status,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
         logger.info("Received request to update menu item ID: {} status to {}", id, status);
-        Long ownerId = getUserIdFromRequest(httpRequest);
-        MenuItemDTO updatedMenuItem = menuItemService.updateMenuItemStatus(id, status, ownerId);
+        MenuItemDTO updatedMenuItem = menuItemService.updateMenuItemStatus(id, status, user.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Menu item status updated successfully", updatedMenuItem));
     }
 
     /**
      * Deletes a menu item.
      * Requires RESTAURANT_OWNER role.
-     * Ownership is validated in the service layer using the ownerId from the X-User-Id header.
+     * Ownership is validated in the service layer with the authenticated caller as the owner.
      * @param id The ID of the menu item to delete.
-     * @param httpRequest The HttpServletRequest to extract X-User-Id from.
+     * @param user The authenticated caller.
      * @return ResponseEntity indicating success.
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
     public ResponseEntity<ApiResponse<Void>> deleteMenuItem(
             @PathVariable Long id,
-            HttpServletRequest httpRequest) {
+            @CurrentUser AuthenticatedUser user) {
         logger.info("Received request to delete menu item ID: {}", id);
-        Long ownerId = getUserIdFromRequest(httpRequest);
-        menuItemService.deleteMenuItem(id, ownerId);
+        menuItemService.deleteMenuItem(id, user.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Menu item deleted successfully", null));
     }
 
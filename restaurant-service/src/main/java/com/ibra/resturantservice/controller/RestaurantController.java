@@ -2,17 +2,27 @@
 package com.ibra.resturantservice.controller;
 
 import com.ibra.dto.ApiResponse;
+import com.ibra.exception.BusinessException;
 import com.ibra.resturantservice.dto.CreateRestaurantRequest;
+import com.ibra.resturantservice.dto.NearbyRestaurantsDTO;
+import com.ibra.dto.RestaurantPageDTO;
+import com.ibra.resturantservice.dto.RestaurantView;
 import com.ibra.dto.RestaurantDTO;
 import com.ibra.enums.RestaurantStatus;
+import com.ibra.resturantservice.geo.RestaurantGeoIndex;
+import com.ibra.resturantservice.service.RestaurantExportService;
 import com.ibra.resturantservice.service.RestaurantService;
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.CurrentUser;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,26 +32,47 @@ public class RestaurantController {
 
     private static final Logger logger = LoggerFactory.getLogger(RestaurantController.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+
     private final RestaurantService restaurantService;
 
-    public RestaurantController(RestaurantService restaurantService) {
+    private final RestaurantExportService restaurantExportService;
+
+    private final RestaurantGeoIndex restaurantGeoIndex;
+
+    public RestaurantController(RestaurantService restaurantService, RestaurantExportService restaurantExportService,
+                                RestaurantGeoIndex restaurantGeoIndex) {
         this.restaurantService = restaurantService;
+        this.restaurantExportService = restaurantExportService;
+        this.restaurantGeoIndex = restaurantGeoIndex;
     }
 
-    // Public endpoint - Get all active restaurants
+    // Public endpoint - Get active restaurants, one page at a time (by page number or by cursor)
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getAllRestaurants() {
-        logger.info("Fetching all active restaurants");
-        List<RestaurantDTO> restaurants = restaurantService.getAllActiveRestaurants();
-        return ResponseEntity.ok(new ApiResponse<>(true, "Restaurants fetched successfully", restaurants));
+    public ResponseEntity<ApiResponse<RestaurantPageDTO>> getAllRestaurants(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        logger.info("Fetching active restaurants, page: {}, size: {}", page, size);
+        validatePaging(page, size);
+        RestaurantPageDTO restaurants = restaurantService.getActiveRestaurants(page, size, cursor);
+        return ResponseEntity.ok()
+                .cacheControl(CatalogCacheControl.PUBLIC)
+                .body(new ApiResponse<>(true, "Restaurants fetched successfully", restaurants));
     }
 
-    // Public endpoint - Get restaurant by ID
+    // Public endpoint - Get restaurant by ID, with its menu unless a lighter view is asked for
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<RestaurantDTO>> getRestaurantById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<RestaurantDTO>> getRestaurantById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "DETAIL_WITH_MENU") RestaurantView view) {
         logger.info("Fetching restaurant with ID: {}", id);
-        RestaurantDTO restaurant = restaurantService.getRestaurantById(id);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Restaurant fetched successfully", restaurant));
+        RestaurantDTO restaurant = restaurantService.getRestaurantById(id, view);
+        return ResponseEntity.ok()
+                .cacheControl(CatalogCacheControl.PUBLIC)
+                .body(new ApiResponse<>(true, "Restaurant fetched successfully", restaurant));
     }
 
     // Public endpoint - Search restaurants by name
@@ -64,15 +95,35 @@ public class RestaurantController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Restaurants searched successfully", restaurants));
     }
 
+    // Public endpoint - Active restaurants within radius km of a point, nearest first
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<NearbyRestaurantsDTO>> getNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radius,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("Fetching restaurants within {} km of ({}, {})", radius, lat, lng);
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new BusinessException("lat must be between -90 and 90 and lng between -180 and 180");
+        }
+        if (!(radius > 0 && radius <= MAX_NEARBY_RADIUS_KM)) {
+            throw new BusinessException("radius must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM + " km");
+        }
+        validatePaging(page, size);
+        NearbyRestaurantsDTO restaurants = restaurantGeoIndex.findNearby(lat, lng, radius, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Nearby restaurants fetched successfully", restaurants));
+    }
+
     // Restaurant Owner only - Create new restaurant
     @PostMapping
     @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
     public ResponseEntity<ApiResponse<RestaurantDTO>> createRestaurant(
             @Valid @RequestBody CreateRestaurantRequest request,
-            @RequestHeader("X-User-Id") Long userId) {
+            @CurrentUser AuthenticatedUser user) {
 
-        logger.info("Creating new restaurant for owner: {}", userId);
-        RestaurantDTO restaurant = restaurantService.createRestaurant(request, userId);
+        logger.info("Creating new restaurant for owner: {}", user.userId());
+        RestaurantDTO restaurant = restaurantService.createRestaurant(request, user.userId());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiResponse<>(true, "Restaurant created successfully", restaurant));
     }
@@ -80,11 +131,15 @@ public class RestaurantController {
     // Restaurant Owner only - Get own restaurants (already correctly handles List)
     @GetMapping("/my-restaurants")
     @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
-    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getMyRestaurants(
-            @RequestHeader("X-User-Id") Long userId) {
-
-        logger.info("Fetching restaurants for owner: {}", userId);
-        List<RestaurantDTO> restaurants = restaurantService.getRestaurantsByOwner(userId);
+    public ResponseEntity<ApiResponse<RestaurantPageDTO>> getMyRestaurants(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+
+        logger.info("Fetching restaurants for owner: {}", user.userId());
+        validatePaging(page, size);
+        RestaurantPageDTO restaurants = restaurantService.getRestaurantsByOwner(user.userId(), page, size, cursor);
         return ResponseEntity.ok(new ApiResponse<>(true, "Owner restaurants fetched successfully", restaurants));
     }
 
@@ -94,11 +149,11 @@ public class RestaurantController {
     public ResponseEntity<ApiResponse<RestaurantDTO>> updateRestaurant(
             @PathVariable Long id,
             @Valid @RequestBody CreateRestaurantRequest request, // Still using CreateRestaurantRequest for update
-            @RequestHeader("X-User-Id") Long userId) {
+            @CurrentUser AuthenticatedUser user) {
 
-        logger.info("Updating restaurant with ID: {} by owner: {}", id, userId);
+        logger.info("Updating restaurant with ID: {} by owner: {}", id, user.userId());
         // Note: You might want to use a dedicated UpdateRestaurantRequest DTO here.
-        RestaurantDTO restaurant = restaurantService.updateRestaurant(id, request, userId);
+        RestaurantDTO restaurant = restaurantService.updateRestaurant(id, request, user.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Restaurant updated successfully", restaurant));
     }
 
@@ -107,10 +162,10 @@ public class RestaurantController {
     @PreAuthorize("hasAuthority('RESTAURANT_OWNER')")
     public ResponseEntity<ApiResponse<Void>> deleteRestaurant(
             @PathVariable Long id,
-            @RequestHeader("X-User-Id") Long userId) {
+            @CurrentUser AuthenticatedUser user) {
 
-        logger.info("Deleting restaurant with ID: {} by owner: {}", id, userId);
-        restaurantService.deleteRestaurant(id, userId);
+        logger.info("Deleting restaurant with ID: {} by owner: {}", id, user.userId());
+        restaurantService.deleteRestaurant(id, user.userId());
         return ResponseEntity.ok(new ApiResponse<>(true, "Restaurant deleted successfully", null));
     }
 
@@ -129,12 +184,27 @@ public class RestaurantController {
     // Admin only - Get all restaurants (including inactive)
     @GetMapping("/admin/all")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getAllRestaurantsForAdmin() {
+    public ResponseEntity<ApiResponse<RestaurantPageDTO>> getAllRestaurantsForAdmin(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         logger.info("Admin fetching all restaurants");
-        List<RestaurantDTO> restaurants = restaurantService.getAllRestaurants();
+        validatePaging(page, size);
+        RestaurantPageDTO restaurants = restaurantService.getAllRestaurants(page, size, cursor);
         return ResponseEntity.ok(new ApiResponse<>(true, "All restaurants fetched successfully", restaurants));
     }
 
+    // Admin only - Export all restaurants as NDJSON (Accept: application/x-ndjson), streamed row by row
+    @GetMapping(value = "/admin/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllRestaurantsForAdmin() {
+        logger.info("Admin exporting all restaurants");
+        StreamingResponseBody body = restaurantExportService::exportRestaurants;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // Authenticated users - Get restaurants with circuit breaker
     @GetMapping("/with-circuit-breaker")
     @PreAuthorize("isAuthenticated()")
@@ -145,17 +215,28 @@ public class RestaurantController {
     }
 
     // FIX: Public endpoint - Get restaurant(s) by owner ID
-    // This endpoint now returns a List<RestaurantDTO> from the service.
-    // If the list is empty, it means no restaurants were found for that owner ID,
-    // and the API response will reflect that with an empty data array.
+    // This endpoint returns one page of the owner's restaurants.
+    // If the page is empty, it means no restaurants were found for that owner ID,
+    // and the API response will reflect that with an empty content array.
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getRestaurantByOwnerId(@PathVariable Long ownerId) { // FIX: Changed return type to List<RestaurantDTO>
+    public ResponseEntity<ApiResponse<RestaurantPageDTO>> getRestaurantByOwnerId(
+            @PathVariable Long ownerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         logger.info("Fetching restaurants for owner ID: {}", ownerId);
-        List<RestaurantDTO> restaurants = restaurantService.getRestaurantsByOwner(ownerId);
+        validatePaging(page, size);
+        RestaurantPageDTO restaurants = restaurantService.getRestaurantsByOwner(ownerId, page, size, cursor);
         // FIX: Simplified logic. If service returns an empty list, it's still a 200 OK with empty data.
         // If you specifically want a 404 for "no restaurants found for this owner ID",
         // you would need to re-introduce the if(restaurants.isEmpty()) check and throw a ResourceNotFoundException
         // from the controller, or have the service throw it (which we just removed).
         return ResponseEntity.ok(new ApiResponse<>(true, "Restaurants fetched successfully for owner", restaurants));
     }
+
+    private static void validatePaging(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.ibra.resturantservice.controller;
+
+import com.ibra.dto.ApiResponse;
+import com.ibra.exception.BusinessException;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.search.DatabaseSearchService;
+import com.ibra.resturantservice.search.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchIndexService searchIndexService;
+    private final DatabaseSearchService databaseSearchService;
+
+    public SearchController(SearchIndexService searchIndexService, DatabaseSearchService databaseSearchService) {
+        this.searchIndexService = searchIndexService;
+        this.databaseSearchService = databaseSearchService;
+    }
+
+    // Public endpoint - Full-text and trigram search over restaurants and menu items, ranked by the database
+    @GetMapping
+    public ResponseEntity<ApiResponse<SearchResultsDTO>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        validatePaging(page, size);
+        logger.debug("Database search for '{}' (page {}, size {})", q, page, size);
+        SearchResultsDTO results = databaseSearchService.search(q, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Search completed successfully", results));
+    }
+
+    // Public endpoint - Ranked prefix/substring/fuzzy search over restaurants and menu items, served from memory
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<SearchResultsDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "ALL") SearchIndexService.Scope type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        validatePaging(page, size);
+        logger.debug("Suggest search for '{}' in {} (page {}, size {})", q, type, page, size);
+        SearchResultsDTO results = searchIndexService.search(q, type, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Search completed successfully", results));
+    }
+
+    private static void validatePaging(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.ibra.enums.MenuItemCategory;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -34,4 +35,12 @@ public class CreateMenuItemRequest {
 
     private String imageUrl;
 
+    @Size(max = 64, message = "SKU cannot exceed 64 characters")
+    @Pattern(regexp = "[A-Za-z0-9._-]+", message = "SKU may only contain letters, digits, '.', '_' and '-'")
+    private String sku;
+
+    public CreateMenuItemRequest(String name, String description, BigDecimal price, MenuItemCategory category,
+                                 String imageUrl) {
+        this(name, description, price, category, imageUrl, null);
+    }
 }
\ No newline at end of file
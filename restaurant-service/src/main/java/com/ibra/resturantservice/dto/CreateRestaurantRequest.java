@@ -1,5 +1,7 @@
 package com.ibra.resturantservice.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -36,4 +38,18 @@ public class CreateRestaurantRequest {
     private String email;
 
     private String imageUrl;
+
+    // Optional; give both or neither
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    public CreateRestaurantRequest(String name, String description, String address, String phoneNumber, String email,
+                                   String imageUrl) {
+        this(name, description, address, phoneNumber, email, imageUrl, null, null);
+    }
 }
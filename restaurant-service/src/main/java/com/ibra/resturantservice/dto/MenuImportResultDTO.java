@@ -0,0 +1,21 @@
+package com.ibra.resturantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuImportResultDTO {
+
+    private Long restaurantId;
+    private int created;
+    private int updated;
+    private int failed;
+    private List<MenuImportRowResultDTO> rows;
+}
@@ -0,0 +1,26 @@
+package com.ibra.resturantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuImportRowResultDTO {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_UPDATED = "UPDATED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    // 1-based position of the item in the request (CSV header excluded)
+    private int row;
+    private String sku;
+    private String status;
+    private Long menuItemId;
+    private List<String> errors;
+}
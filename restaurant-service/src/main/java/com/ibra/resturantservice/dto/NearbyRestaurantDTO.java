@@ -0,0 +1,17 @@
+package com.ibra.resturantservice.dto;
+
+import com.ibra.dto.RestaurantDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyRestaurantDTO {
+
+    private RestaurantDTO restaurant;
+    private double distanceKm;
+}
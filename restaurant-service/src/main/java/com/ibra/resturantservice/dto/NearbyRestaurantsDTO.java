@@ -0,0 +1,24 @@
+package com.ibra.resturantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyRestaurantsDTO {
+
+    private double latitude;
+    private double longitude;
+    private double radiusKm;
+    private int page;
+    private int size;
+    private long totalHits;
+    // Nearest first
+    private List<NearbyRestaurantDTO> restaurants;
+}
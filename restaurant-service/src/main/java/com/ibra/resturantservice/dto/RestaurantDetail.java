@@ -0,0 +1,13 @@
+package com.ibra.resturantservice.dto;
+
+import com.ibra.enums.RestaurantStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection for {@link RestaurantView#DETAIL}, selected directly by {@code RestaurantRepository}.
+ */
+public record RestaurantDetail(Long id, String name, String description, String address, String phoneNumber,
+                               String email, Long ownerId, String imageUrl, RestaurantStatus status,
+                               Double latitude, Double longitude, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,10 @@
+package com.ibra.resturantservice.dto;
+
+import com.ibra.enums.RestaurantStatus;
+
+/**
+ * Projection for {@link RestaurantView#SUMMARY}, selected directly by {@code RestaurantRepository}.
+ */
+public record RestaurantSummary(Long id, String name, String description, String address, String imageUrl,
+                                RestaurantStatus status, Double latitude, Double longitude) {
+}
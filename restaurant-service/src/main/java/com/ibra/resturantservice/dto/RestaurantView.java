@@ -0,0 +1,14 @@
+package com.ibra.resturantservice.dto;
+
+/**
+ * How much of a restaurant an endpoint returns. Each level is loaded with a fixed number of queries, independent
+ * of the number of restaurants, and never touches the lazy menu collection.
+ */
+public enum RestaurantView {
+    // Listing card fields, one query
+    SUMMARY,
+    // Every restaurant column, one query
+    DETAIL,
+    // DETAIL plus the menu, two queries
+    DETAIL_WITH_MENU
+}
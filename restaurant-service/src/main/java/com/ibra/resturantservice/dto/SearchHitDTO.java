@@ -0,0 +1,24 @@
+package com.ibra.resturantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHitDTO {
+
+    public static final String TYPE_RESTAURANT = "RESTAURANT";
+    public static final String TYPE_MENU_ITEM = "MENU_ITEM";
+
+    private String type;
+    private Long id;
+    private Long restaurantId;
+    private String name;
+    // Address for restaurants, description for menu items
+    private String detail;
+    private double score;
+}
@@ -0,0 +1,21 @@
+package com.ibra.resturantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResultsDTO {
+
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<SearchHitDTO> hits;
+}
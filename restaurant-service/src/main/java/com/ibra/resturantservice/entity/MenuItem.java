@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", uniqueConstraints =
+        @UniqueConstraint(name = "uk_menu_items_restaurant_sku", columnNames = {"restaurant_id", "sku"}))
 public class MenuItem {
 
     @Id
@@ -37,6 +38,10 @@ public class MenuItem {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // Optional owner-supplied identifier, unique per restaurant; bulk imports upsert by it
+    @Column(length = 64)
+    private String sku;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private MenuItemStatus status = MenuItemStatus.AVAILABLE;
@@ -92,6 +97,9 @@ public class MenuItem {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+
     public MenuItemStatus getStatus() { return status; }
     public void setStatus(MenuItemStatus status) { this.status = status; }
 
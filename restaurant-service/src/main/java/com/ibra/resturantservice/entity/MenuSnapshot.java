@@ -0,0 +1,51 @@
+package com.ibra.resturantservice.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "menu_snapshots", uniqueConstraints =
+        @UniqueConstraint(name = "uk_menu_snapshots_restaurant_version", columnNames = {"restaurant_id", "version"}))
+public class MenuSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Available items of the menu at this version, as a JSON array of MenuItemDTO
+    @Column(nullable = false, columnDefinition = "text")
+    private String items;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public MenuSnapshot() {}
+
+    public MenuSnapshot(Long restaurantId, long version, String items, LocalDateTime createdAt) {
+        this.restaurantId = restaurantId;
+        this.version = version;
+        this.items = items;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getRestaurantId() { return restaurantId; }
+
+    public long getVersion() { return version; }
+
+    public String getItems() { return items; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
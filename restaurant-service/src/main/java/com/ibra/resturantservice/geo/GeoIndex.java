@@ -0,0 +1,194 @@
+package com.ibra.resturantservice.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grid index of points on the globe, keyed by entity id.
+ * <p>
+ * Points are bucketed into cells of a fixed size in degrees. A radius query only visits the cells overlapping the
+ * bounding box of the circle, then filters those points by great-circle distance, so its cost depends on how many
+ * points are nearby rather than on the total. Cells wrap around the antimeridian; near the poles the box widens to
+ * every longitude. Reads share a read lock; updates take the write lock.
+ */
+final class GeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private final double cellDegrees;
+    private final int longitudeCells;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, Long> cellKeysById = new HashMap<>();
+
+    GeoIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Indexes {@code id} at the given location, replacing any previous location.
+     */
+    void put(long id, double latitude, double longitude) {
+        long key = cellKey(latitudeCell(latitude), longitudeCell(longitude));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            cells.computeIfAbsent(key, k -> new Cell()).add(id, latitude, longitude);
+            cellKeysById.put(id, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return cellKeysById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries within {@code radiusKm} of the given point, nearest first.
+     */
+    List<Hit> within(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90, latitude + latitudeSpan);
+        // Longitude degrees shrink towards the poles, so size the box for the latitude furthest from the equator
+        double widestCos = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double longitudeSpan = widestCos <= 0 ? 180 : latitudeSpan / widestCos;
+
+        int firstLatitudeCell = latitudeCell(minLatitude);
+        int lastLatitudeCell = latitudeCell(maxLatitude);
+        int firstLongitudeCell;
+        int longitudeCellCount;
+        if (longitudeSpan >= 180) {
+            firstLongitudeCell = 0;
+            longitudeCellCount = longitudeCells;
+        } else {
+            firstLongitudeCell = (int) Math.floor((longitude - longitudeSpan + 180) / cellDegrees);
+            longitudeCellCount = Math.min(longitudeCells,
+                    (int) Math.floor((longitude + longitudeSpan + 180) / cellDegrees) - firstLongitudeCell + 1);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int latitudeCell = firstLatitudeCell; latitudeCell <= lastLatitudeCell; latitudeCell++) {
+                for (int i = 0; i < longitudeCellCount; i++) {
+                    Cell cell = cells.get(cellKey(latitudeCell, Math.floorMod(firstLongitudeCell + i, longitudeCells)));
+                    if (cell != null) {
+                        cell.collect(latitude, longitude, radiusKm, hits);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Hit.NEAREST_FIRST);
+        return hits;
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removeLocked(long id) {
+        Long key = cellKeysById.remove(id);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(id) && cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private int latitudeCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells);
+    }
+
+    private long cellKey(int latitudeCell, int longitudeCell) {
+        return (long) latitudeCell * longitudeCells + longitudeCell;
+    }
+
+    record Hit(long id, double distanceKm) {
+
+        static final Comparator<Hit> NEAREST_FIRST = Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id);
+    }
+
+    /**
+     * Points of one cell as parallel arrays; removal swaps the last point into the hole.
+     */
+    private static final class Cell {
+
+        private long[] ids = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private int size;
+
+        void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void collect(double latitude, double longitude, double radiusKm, List<Hit> hits) {
+            for (int i = 0; i < size; i++) {
+                double distance = distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(ids[i], distance));
+                }
+            }
+        }
+    }
+}
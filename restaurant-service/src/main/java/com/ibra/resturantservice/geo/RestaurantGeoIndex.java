@@ -0,0 +1,151 @@
+package com.ibra.resturantservice.geo;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.resturantservice.dto.NearbyRestaurantDTO;
+import com.ibra.resturantservice.dto.NearbyRestaurantsDTO;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.RestaurantCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "Near me" lookup over the locations of active restaurants, backed by an in-memory {@link GeoIndex}.
+ * <p>
+ * The index is built in the background once the application is ready and then updated restaurant by restaurant
+ * from {@code restaurant.changed} events. A full rebuild runs when the index is older than {@code app.geo.max-age},
+ * which bounds staleness if events were missed. Restaurant details come from the {@link RestaurantCatalog}, so a
+ * search does not touch the database.
+ */
+@Service
+public class RestaurantGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantCatalog restaurantCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final double cellDegrees;
+    private final long maxAgeMillis;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+    // Held across database reads, so a lock rather than a monitor that would pin a virtual thread's carrier
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile GeoIndex index;
+    private volatile long builtAtMillis;
+
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository,
+                              RestaurantCatalog restaurantCatalog,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.geo.cell-size-degrees:0.05}") double cellDegrees,
+                              @Value("${app.geo.max-age:30m}") Duration maxAge) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantCatalog = restaurantCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cellDegrees = cellDegrees;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.index = new GeoIndex(cellDegrees);
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "geo-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if (rebuildInProgress.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to build the geo index, keeping the previous one", e);
+                } finally {
+                    rebuildInProgress.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Active restaurants within {@code radiusKm} of the given point, nearest first, one page at a time.
+     */
+    public NearbyRestaurantsDTO findNearby(double latitude, double longitude, double radiusKm, int page, int size) {
+        if (System.currentTimeMillis() - builtAtMillis > maxAgeMillis) {
+            requestRebuild();
+        }
+
+        List<GeoIndex.Hit> hits = index.within(latitude, longitude, radiusKm);
+        // The catalog may briefly lag the index after a change; such restaurants are skipped before paging,
+        // so pages stay full and the total counts only what can be returned
+        List<NearbyRestaurantDTO> restaurants = new ArrayList<>(hits.size());
+        for (GeoIndex.Hit hit : hits) {
+            RestaurantDTO restaurant = restaurantCatalog.getActiveRestaurant(hit.id());
+            if (restaurant != null) {
+                restaurants.add(new NearbyRestaurantDTO(restaurant, hit.distanceKm()));
+            }
+        }
+        int from = (int) Math.min(restaurants.size(), (long) page * size);
+        int to = Math.min(restaurants.size(), from + size);
+        return new NearbyRestaurantsDTO(latitude, longitude, radiusKm, page, size, restaurants.size(),
+                List.copyOf(restaurants.subList(from, to)));
+    }
+
+    /**
+     * Re-reads the restaurant named by a change event and updates the index accordingly.
+     */
+    public void apply(RestaurantChangedEvent event) {
+        Long restaurantId = event.getRestaurantId();
+        // Menu item changes do not move restaurants
+        if (restaurantId == null || event.getMenuItemId() != null) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            GeoIndex current = index;
+            transactionTemplate.executeWithoutResult(status ->
+                    restaurantRepository.findActiveLocationRowById(restaurantId).ifPresentOrElse(
+                            row -> current.put(row.id(), row.latitude(), row.longitude()),
+                            () -> current.remove(restaurantId)));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        updateLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            GeoIndex rebuilt = new GeoIndex(cellDegrees);
+            transactionTemplate.executeWithoutResult(status -> restaurantRepository.findActiveLocationRows()
+                    .forEach(row -> rebuilt.put(row.id(), row.latitude(), row.longitude())));
+            index = rebuilt;
+            builtAtMillis = start;
+            logger.info("Built geo index with {} restaurants in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+}
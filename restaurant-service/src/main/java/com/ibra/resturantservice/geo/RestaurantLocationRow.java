@@ -0,0 +1,7 @@
+package com.ibra.resturantservice.geo;
+
+/**
+ * Location of an active restaurant, as loaded into the {@link RestaurantGeoIndex}.
+ */
+public record RestaurantLocationRow(Long id, Double latitude, Double longitude) {
+}
@@ -20,6 +20,7 @@ public class MenuItemMapper {
         dto.setRestaurantId(menuItem.getRestaurant().getId());
         dto.setCategory(menuItem.getCategory());
         dto.setImageUrl(menuItem.getImageUrl());
+        dto.setSku(menuItem.getSku());
         dto.setStatus(menuItem.getStatus());
         dto.setCreatedAt(menuItem.getCreatedAt());
         dto.setUpdatedAt(menuItem.getUpdatedAt());
@@ -44,6 +45,7 @@ public class MenuItemMapper {
         menuItem.setPrice(dto.getPrice());
         menuItem.setCategory(dto.getCategory());
         menuItem.setImageUrl(dto.getImageUrl());
+        menuItem.setSku(dto.getSku());
         menuItem.setStatus(dto.getStatus());
         menuItem.setCreatedAt(dto.getCreatedAt());
         menuItem.setUpdatedAt(dto.getUpdatedAt());
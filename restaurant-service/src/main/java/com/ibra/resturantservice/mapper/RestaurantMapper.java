@@ -2,10 +2,15 @@ package com.ibra.resturantservice.mapper;
 
 
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.resturantservice.dto.RestaurantDetail;
+import com.ibra.resturantservice.dto.RestaurantSummary;
+import com.ibra.resturantservice.entity.MenuItem;
 import com.ibra.resturantservice.entity.Restaurant;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -29,11 +34,13 @@ public class RestaurantMapper {
         dto.setOwnerId(restaurant.getOwnerId());
         dto.setImageUrl(restaurant.getImageUrl());
         dto.setStatus(restaurant.getStatus());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
         dto.setCreatedAt(restaurant.getCreatedAt());
         dto.setUpdatedAt(restaurant.getUpdatedAt());
 
-        // Map menu items if they are loaded (avoid lazy loading issues)
-        if (restaurant.getMenuItems() != null) {
+        // Map menu items only if they are already loaded; touching a lazy collection costs a query per restaurant
+        if (restaurant.getMenuItems() != null && Hibernate.isInitialized(restaurant.getMenuItems())) {
             dto.setMenuItems(restaurant.getMenuItems().stream()
                     .map(menuItemMapper::toDTO)
                     .collect(Collectors.toList()));
@@ -42,6 +49,45 @@ public class RestaurantMapper {
         return dto;
     }
 
+    public RestaurantDTO toDTO(RestaurantSummary summary) {
+        RestaurantDTO dto = new RestaurantDTO();
+        dto.setId(summary.id());
+        dto.setName(summary.name());
+        dto.setDescription(summary.description());
+        dto.setAddress(summary.address());
+        dto.setImageUrl(summary.imageUrl());
+        dto.setStatus(summary.status());
+        dto.setLatitude(summary.latitude());
+        dto.setLongitude(summary.longitude());
+        return dto;
+    }
+
+    public RestaurantDTO toDTO(RestaurantDetail detail) {
+        RestaurantDTO dto = new RestaurantDTO();
+        dto.setId(detail.id());
+        dto.setName(detail.name());
+        dto.setDescription(detail.description());
+        dto.setAddress(detail.address());
+        dto.setPhoneNumber(detail.phoneNumber());
+        dto.setEmail(detail.email());
+        dto.setOwnerId(detail.ownerId());
+        dto.setImageUrl(detail.imageUrl());
+        dto.setStatus(detail.status());
+        dto.setLatitude(detail.latitude());
+        dto.setLongitude(detail.longitude());
+        dto.setCreatedAt(detail.createdAt());
+        dto.setUpdatedAt(detail.updatedAt());
+        return dto;
+    }
+
+    public RestaurantDTO toDTO(RestaurantDetail detail, List<MenuItem> menuItems) {
+        RestaurantDTO dto = toDTO(detail);
+        dto.setMenuItems(menuItems.stream()
+                .map(menuItemMapper::toDTO)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
     public Restaurant toEntity(RestaurantDTO dto) {
         if (dto == null) {
             return null;
@@ -57,6 +103,8 @@ public class RestaurantMapper {
         restaurant.setOwnerId(dto.getOwnerId());
         restaurant.setImageUrl(dto.getImageUrl());
         restaurant.setStatus(dto.getStatus());
+        restaurant.setLatitude(dto.getLatitude());
+        restaurant.setLongitude(dto.getLongitude());
         restaurant.setCreatedAt(dto.getCreatedAt());
         restaurant.setUpdatedAt(dto.getUpdatedAt());
 
@@ -0,0 +1,19 @@
+package com.ibra.resturantservice.menuimport;
+
+import com.ibra.resturantservice.dto.CreateMenuItemRequest;
+
+/**
+ * One item of a bulk import: the parsed request, or why the input could not be parsed into one.
+ */
+record MenuImportRow(int row, CreateMenuItemRequest request, String parseError) {
+
+    static MenuImportRow parsed(int row, CreateMenuItemRequest request) {
+        return new MenuImportRow(row, request, null);
+    }
+
+    static MenuImportRow unparsable(int row, String sku, String parseError) {
+        CreateMenuItemRequest request = new CreateMenuItemRequest();
+        request.setSku(sku);
+        return new MenuImportRow(row, request, parseError);
+    }
+}
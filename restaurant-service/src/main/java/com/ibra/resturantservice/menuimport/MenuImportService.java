@@ -0,0 +1,206 @@
+package com.ibra.resturantservice.menuimport;
+
+import com.ibra.exception.BusinessException;
+import com.ibra.resturantservice.dto.CreateMenuItemRequest;
+import com.ibra.resturantservice.dto.MenuImportResultDTO;
+import com.ibra.resturantservice.dto.MenuImportRowResultDTO;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.service.MenuSnapshotService;
+import com.ibra.resturantservice.service.RestaurantCatalog;
+import com.ibra.resturantservice.service.RestaurantService;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates and updates many menu items of one restaurant in a single request.
+ * <p>
+ * Ownership is checked once for the whole import. Every item is validated on its own, and items that fail are
+ * reported back without stopping the others. Valid items are written with batched JDBC upserts keyed by
+ * (restaurant, SKU), so re-importing a menu updates the items that carry a SKU instead of duplicating them; items
+ * without a SKU are always created. Updates keep the item's current status. The restaurant's read models are
+ * refreshed, and one menu version published, after the import rather than per item.
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportService.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO menu_items " +
+            "(restaurant_id, sku, name, description, price, category, image_url, status, created_at, updated_at) " +
+            "VALUES (:restaurantId, :sku, :name, :description, :price, :category, :imageUrl, 'AVAILABLE', :now, :now) " +
+            "ON CONFLICT (restaurant_id, sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, " +
+            "price = EXCLUDED.price, category = EXCLUDED.category, image_url = EXCLUDED.image_url, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final RestaurantService restaurantService;
+    private final MenuItemRepository menuItemRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final RestaurantEventPublisher restaurantEventPublisher;
+    private final RestaurantCatalog restaurantCatalog;
+    private final MenuSnapshotService menuSnapshotService;
+    private final int maxRows;
+    private final int batchSize;
+
+    public MenuImportService(RestaurantService restaurantService,
+                             MenuItemRepository menuItemRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             Validator validator,
+                             RestaurantEventPublisher restaurantEventPublisher,
+                             RestaurantCatalog restaurantCatalog,
+                             MenuSnapshotService menuSnapshotService,
+                             @Value("${app.menu-import.max-rows:5000}") int maxRows,
+                             @Value("${app.menu-import.batch-size:500}") int batchSize) {
+        this.restaurantService = restaurantService;
+        this.menuItemRepository = menuItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.restaurantEventPublisher = restaurantEventPublisher;
+        this.restaurantCatalog = restaurantCatalog;
+        this.menuSnapshotService = menuSnapshotService;
+        this.maxRows = maxRows;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public MenuImportResultDTO importMenuItems(Long restaurantId, List<CreateMenuItemRequest> requests, Long ownerId) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("An import must contain at least one menu item");
+        }
+        if (requests.size() > maxRows) {
+            throw new BusinessException("An import can contain at most " + maxRows + " menu items");
+        }
+        List<MenuImportRow> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateMenuItemRequest request = requests.get(i);
+            rows.add(request == null
+                    ? MenuImportRow.unparsable(i + 1, null, "Menu item is empty")
+                    : MenuImportRow.parsed(i + 1, request));
+        }
+        return importRows(restaurantId, rows, ownerId);
+    }
+
+    @Transactional
+    public MenuImportResultDTO importMenuItemsCsv(Long restaurantId, String csv, Long ownerId) {
+        List<MenuImportRow> rows = MenuItemCsvReader.read(new StringReader(csv == null ? "" : csv), maxRows);
+        if (rows.isEmpty()) {
+            throw new BusinessException("An import must contain at least one menu item");
+        }
+        return importRows(restaurantId, rows, ownerId);
+    }
+
+    private MenuImportResultDTO importRows(Long restaurantId, List<MenuImportRow> rows, Long ownerId) {
+        long start = System.currentTimeMillis();
+        logger.info("Importing {} menu items for restaurant: {} by owner: {}", rows.size(), restaurantId, ownerId);
+        restaurantService.validateRestaurantOwnership(restaurantId, ownerId);
+
+        MenuImportRowResultDTO[] results = new MenuImportRowResultDTO[rows.size()];
+        List<MenuImportRow> valid = new ArrayList<>(rows.size());
+        Map<String, Integer> rowsBySku = new HashMap<>();
+        for (MenuImportRow row : rows) {
+            List<String> errors = validate(row, rowsBySku);
+            if (errors.isEmpty()) {
+                valid.add(row);
+            } else {
+                results[row.row() - 1] = new MenuImportRowResultDTO(row.row(), row.request().getSku(),
+                        MenuImportRowResultDTO.STATUS_FAILED, null, errors);
+            }
+        }
+
+        int created = 0;
+        int updated = 0;
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<MenuImportRow> batch = valid.subList(from, Math.min(valid.size(), from + batchSize));
+            Set<String> existingSkus = existingSkus(restaurantId, batch);
+            List<Long> ids = upsert(restaurantId, batch);
+            for (int i = 0; i < batch.size(); i++) {
+                MenuImportRow row = batch.get(i);
+                String sku = row.request().getSku();
+                boolean isUpdate = sku != null && existingSkus.contains(sku);
+                if (isUpdate) {
+                    updated++;
+                } else {
+                    created++;
+                }
+                results[row.row() - 1] = new MenuImportRowResultDTO(row.row(), sku,
+                        isUpdate ? MenuImportRowResultDTO.STATUS_UPDATED : MenuImportRowResultDTO.STATUS_CREATED,
+                        ids.get(i), List.of());
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            menuSnapshotService.publish(restaurantId);
+            restaurantEventPublisher.publishRestaurantChanged(restaurantId, null, "MENU_IMPORTED");
+            restaurantCatalog.invalidate();
+        }
+        int failed = rows.size() - valid.size();
+        logger.info("Imported menu for restaurant: {} in {} ms: {} created, {} updated, {} failed",
+                restaurantId, System.currentTimeMillis() - start, created, updated, failed);
+        return new MenuImportResultDTO(restaurantId, created, updated, failed, List.of(results));
+    }
+
+    private List<String> validate(MenuImportRow row, Map<String, Integer> rowsBySku) {
+        if (row.parseError() != null) {
+            return List.of(row.parseError());
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<CreateMenuItemRequest> violation : validator.validate(row.request())) {
+            errors.add(violation.getMessage());
+        }
+        errors.sort(null);
+        String sku = row.request().getSku();
+        if (sku != null) {
+            Integer firstRow = rowsBySku.putIfAbsent(sku, row.row());
+            if (firstRow != null) {
+                errors.add("SKU " + sku + " already appears in row " + firstRow);
+            }
+        }
+        return errors;
+    }
+
+    private Set<String> existingSkus(Long restaurantId, List<MenuImportRow> batch) {
+        List<String> skus = batch.stream().map(row -> row.request().getSku()).filter(sku -> sku != null).toList();
+        return skus.isEmpty() ? Set.of() : new HashSet<>(menuItemRepository.findExistingSkus(restaurantId, skus));
+    }
+
+    private List<Long> upsert(Long restaurantId, List<MenuImportRow> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] parameters = new SqlParameterSource[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            CreateMenuItemRequest request = batch.get(i).request();
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("restaurantId", restaurantId)
+                    .addValue("sku", request.getSku())
+                    .addValue("name", request.getName())
+                    .addValue("description", request.getDescription())
+                    .addValue("price", request.getPrice())
+                    .addValue("category", request.getCategory().name())
+                    .addValue("imageUrl", request.getImageUrl())
+                    .addValue("now", now);
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, parameters, keyHolder, new String[]{"id"});
+        return keyHolder.getKeyList().stream().map(keys -> ((Number) keys.get("id")).longValue()).toList();
+    }
+}
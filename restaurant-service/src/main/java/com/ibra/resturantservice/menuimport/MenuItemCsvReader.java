@@ -0,0 +1,170 @@
+package com.ibra.resturantservice.menuimport;
+
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.exception.BusinessException;
+import com.ibra.resturantservice.dto.CreateMenuItemRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads menu items from RFC 4180 CSV with a header row.
+ * <p>
+ * Columns are matched by header name, case-insensitively and in any order: {@code name}, {@code price} and
+ * {@code category} are required, {@code sku}, {@code description} and {@code image_url} are optional, and unknown
+ * columns are ignored. A record whose price or category cannot be read becomes an unparsable row rather than failing
+ * the whole file; only a malformed header or an unterminated quote does that.
+ */
+final class MenuItemCsvReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "category");
+
+    private final Reader reader;
+    private int next = -2;
+
+    private MenuItemCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    static List<MenuImportRow> read(Reader reader, int maxRows) {
+        try {
+            return new MenuItemCsvReader(reader).readRows(maxRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<MenuImportRow> readRows(int maxRows) throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BusinessException("CSV must start with a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("imageurl", "image_url"), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new BusinessException("CSV header is missing the '" + column + "' column");
+            }
+        }
+
+        List<MenuImportRow> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (rows.size() == maxRows) {
+                throw new BusinessException("An import can contain at most " + maxRows + " menu items");
+            }
+            rows.add(toRow(rows.size() + 1, record, columns));
+        }
+        return rows;
+    }
+
+    private static MenuImportRow toRow(int row, List<String> record, Map<String, Integer> columns) {
+        String sku = emptyToNull(field(record, columns, "sku"));
+        String price = field(record, columns, "price");
+        String category = field(record, columns, "category");
+
+        CreateMenuItemRequest request = new CreateMenuItemRequest();
+        request.setSku(sku);
+        request.setName(emptyToNull(field(record, columns, "name")));
+        request.setDescription(emptyToNull(field(record, columns, "description")));
+        request.setImageUrl(emptyToNull(field(record, columns, "image_url")));
+        if (price != null && !price.isBlank()) {
+            try {
+                request.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                return MenuImportRow.unparsable(row, sku, "Price is not a number: " + price);
+            }
+        }
+        if (category != null && !category.isBlank()) {
+            try {
+                request.setCategory(MenuItemCategory.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return MenuImportRow.unparsable(row, sku, "Unknown category: " + category);
+            }
+        }
+        return MenuImportRow.parsed(row, request);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Next record, or {@code null} at end of input. Quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new BusinessException("CSV ends inside a quoted field");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (next != -2) {
+            int c = next;
+            next = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        next = c;
+    }
+}
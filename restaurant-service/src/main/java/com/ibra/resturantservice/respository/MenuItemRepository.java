@@ -1,6 +1,7 @@
 package com.ibra.resturantservice.respository;
 
 import com.ibra.resturantservice.entity.MenuItem;
+import com.ibra.resturantservice.search.MenuItemSearchRow;
 import com.ibra.enums.MenuItemCategory;
 import com.ibra.enums.MenuItemStatus;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,11 +41,25 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.category = :category AND m.status = 'AVAILABLE'")
     List<MenuItem> findAvailableItemsByRestaurantAndCategory(@Param("restaurantId") Long restaurantId, @Param("category") MenuItemCategory category);
 
-    // Search menu items by name within a restaurant
-    @EntityGraph(attributePaths = "restaurant") // Added for consistency
-    @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND LOWER(m.name) LIKE LOWER(CONCAT('%', :name, '%')) AND m.status = 'AVAILABLE'")
+    // Search menu items by name within a restaurant, served by the name trigram index, closest names first.
+    // Native queries cannot take an entity graph; the mapper only reads the restaurant id, which the proxy holds
+    @Query(value = "SELECT m.* FROM menu_items m WHERE m.restaurant_id = :restaurantId AND m.status = 'AVAILABLE' " +
+            "AND m.name ILIKE CONCAT('%', :name, '%') ORDER BY similarity(m.name, :name) DESC, m.id", nativeQuery = true)
     List<MenuItem> searchByNameInRestaurant(@Param("restaurantId") Long restaurantId, @Param("name") String name);
 
+    // Searchable columns of available items of active restaurants, for the in-memory search index
+    @Query("SELECT new com.ibra.resturantservice.search.MenuItemSearchRow(m.id, r.id, m.name, m.description) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE m.status = 'AVAILABLE' AND r.status = 'ACTIVE'")
+    List<MenuItemSearchRow> findAvailableSearchRows();
+
+    @Query("SELECT new com.ibra.resturantservice.search.MenuItemSearchRow(m.id, r.id, m.name, m.description) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE m.id = :id AND m.status = 'AVAILABLE' AND r.status = 'ACTIVE'")
+    Optional<MenuItemSearchRow> findAvailableSearchRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.ibra.resturantservice.search.MenuItemSearchRow(m.id, r.id, m.name, m.description) " +
+            "FROM MenuItem m JOIN m.restaurant r WHERE r.id = :restaurantId AND m.status = 'AVAILABLE' AND r.status = 'ACTIVE'")
+    List<MenuItemSearchRow> findAvailableSearchRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
     // Find menu item by ID and restaurant ID (for ownership validation)
     @EntityGraph(attributePaths = "restaurant") // Added for consistency
     Optional<MenuItem> findByIdAndRestaurantId(Long id, Long restaurantId);
@@ -54,6 +70,12 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT m FROM MenuItem m WHERE m.id = :itemId AND m.restaurant.ownerId = :ownerId")
     Optional<MenuItem> findByIdAndRestaurantOwnerId(@Param("itemId") Long itemId, @Param("ownerId") Long ownerId);
 
+    boolean existsByRestaurantIdAndSku(Long restaurantId, String sku);
+
+    // Which of the given SKUs already exist in a restaurant, so a bulk import can tell creates from updates
+    @Query("SELECT m.sku FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.sku IN :skus")
+    List<String> findExistingSkus(@Param("restaurantId") Long restaurantId, @Param("skus") Collection<String> skus);
+
     // Count menu items by restaurant
     long countByRestaurantId(Long restaurantId);
 
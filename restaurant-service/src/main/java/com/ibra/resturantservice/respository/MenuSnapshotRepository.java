@@ -0,0 +1,20 @@
+package com.ibra.resturantservice.respository;
+
+import com.ibra.resturantservice.entity.MenuSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MenuSnapshotRepository extends JpaRepository<MenuSnapshot, Long> {
+
+    Optional<MenuSnapshot> findFirstByRestaurantIdOrderByVersionDesc(Long restaurantId);
+
+    Optional<MenuSnapshot> findByRestaurantIdAndVersion(Long restaurantId, long version);
+
+    @Query("SELECT COALESCE(MAX(s.version), 0) FROM MenuSnapshot s WHERE s.restaurantId = :restaurantId")
+    long findLatestVersion(@Param("restaurantId") Long restaurantId);
+}
@@ -1,15 +1,25 @@
 package com.ibra.resturantservice.respository;
 
 
+import com.ibra.resturantservice.dto.RestaurantDetail;
+import com.ibra.resturantservice.dto.RestaurantSummary;
 import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.geo.RestaurantLocationRow;
+import com.ibra.resturantservice.search.RestaurantSearchRow;
+import com.ibra.resturantservice.search.SearchHitView;
 import com.ibra.enums.RestaurantStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
@@ -20,21 +30,85 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     // Find restaurants by status
     List<Restaurant> findByStatus(RestaurantStatus status);
 
+    // Projections for the restaurant views; one query each and the menu collection is never touched
+    @Query("SELECT new com.ibra.resturantservice.dto.RestaurantSummary(r.id, r.name, r.description, r.address, r.imageUrl, r.status, r.latitude, r.longitude) " +
+            "FROM Restaurant r WHERE r.status = :status ORDER BY r.id")
+    List<RestaurantSummary> findSummariesByStatus(@Param("status") RestaurantStatus status);
+
+    // Keyset pages: restaurants after the given id, in id order; the pageable only supplies offset and size
+    @Query("SELECT new com.ibra.resturantservice.dto.RestaurantDetail(r.id, r.name, r.description, r.address, r.phoneNumber, " +
+            "r.email, r.ownerId, r.imageUrl, r.status, r.latitude, r.longitude, r.createdAt, r.updatedAt) FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<RestaurantDetail> findDetailsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.ibra.resturantservice.dto.RestaurantDetail(r.id, r.name, r.description, r.address, r.phoneNumber, " +
+            "r.email, r.ownerId, r.imageUrl, r.status, r.latitude, r.longitude, r.createdAt, r.updatedAt) FROM Restaurant r " +
+            "WHERE r.ownerId = :ownerId AND r.id > :afterId ORDER BY r.id")
+    List<RestaurantDetail> findDetailsByOwnerIdAfter(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Every restaurant in id order for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Restaurant r ORDER BY r.id")
+    Stream<Restaurant> streamAll();
+
+    @Query("SELECT new com.ibra.resturantservice.dto.RestaurantDetail(r.id, r.name, r.description, r.address, r.phoneNumber, " +
+            "r.email, r.ownerId, r.imageUrl, r.status, r.latitude, r.longitude, r.createdAt, r.updatedAt) FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantDetail> findDetailById(@Param("id") Long id);
+
     // Find active restaurants
     @Query("SELECT r FROM Restaurant r WHERE r.status = 'ACTIVE'")
     List<Restaurant> findActiveRestaurants();
 
-    // Search restaurants by name (case-insensitive)
-    @Query("SELECT r FROM Restaurant r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :name, '%')) AND r.status = 'ACTIVE'")
+    // Search restaurants by name (case-insensitive), served by the name trigram index, closest names first
+    @Query(value = "SELECT r.* FROM restaurants r WHERE r.status = 'ACTIVE' AND r.name ILIKE CONCAT('%', :name, '%') " +
+            "ORDER BY similarity(r.name, :name) DESC, r.id", nativeQuery = true)
     List<Restaurant> searchByName(@Param("name") String name);
 
-    // Search restaurants by address (case-insensitive)
-    @Query("SELECT r FROM Restaurant r WHERE LOWER(r.address) LIKE LOWER(CONCAT('%', :address, '%')) AND r.status = 'ACTIVE'")
+    // Search restaurants by address (case-insensitive), served by the address trigram index, closest addresses first
+    @Query(value = "SELECT r.* FROM restaurants r WHERE r.status = 'ACTIVE' AND r.address ILIKE CONCAT('%', :address, '%') " +
+            "ORDER BY similarity(r.address, :address) DESC, r.id", nativeQuery = true)
     List<Restaurant> searchByAddress(@Param("address") String address);
 
+    // Ranked full-text and trigram search over active restaurants and their available menu items in one query.
+    // Rows match on any search_vector word or on a similar or containing name; see db/search-schema.sql
+    @Query(value = "WITH tsq AS (SELECT websearch_to_tsquery('english', :query) AS query) " +
+            "SELECT hits.*, count(*) OVER () AS total FROM (" +
+            " SELECT 'RESTAURANT' AS type, r.id AS id, r.id AS \"restaurantId\", r.name AS name, r.address AS detail," +
+            "  CAST(ts_rank(r.search_vector, tsq.query) + similarity(r.name, :query) AS double precision) AS score" +
+            " FROM restaurants r, tsq" +
+            " WHERE r.status = 'ACTIVE'" +
+            "  AND (r.search_vector @@ tsq.query OR r.name % :query OR r.name ILIKE CONCAT('%', :query, '%'))" +
+            " UNION ALL" +
+            " SELECT 'MENU_ITEM', m.id, m.restaurant_id, m.name, m.description," +
+            "  CAST(ts_rank(m.search_vector, tsq.query) + similarity(m.name, :query) AS double precision)" +
+            " FROM menu_items m JOIN restaurants r ON r.id = m.restaurant_id, tsq" +
+            " WHERE m.status = 'AVAILABLE' AND r.status = 'ACTIVE'" +
+            "  AND (m.search_vector @@ tsq.query OR m.name % :query OR m.name ILIKE CONCAT('%', :query, '%'))" +
+            ") hits ORDER BY hits.score DESC, hits.type DESC, hits.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<SearchHitView> searchAll(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+
+    // Searchable columns of active restaurants, for the in-memory search index
+    @Query("SELECT new com.ibra.resturantservice.search.RestaurantSearchRow(r.id, r.name, r.address) FROM Restaurant r WHERE r.status = 'ACTIVE'")
+    List<RestaurantSearchRow> findActiveSearchRows();
+
+    @Query("SELECT new com.ibra.resturantservice.search.RestaurantSearchRow(r.id, r.name, r.address) FROM Restaurant r WHERE r.id = :id AND r.status = 'ACTIVE'")
+    Optional<RestaurantSearchRow> findActiveSearchRowById(@Param("id") Long id);
+
+    // Located active restaurants, for the in-memory geo index
+    @Query("SELECT new com.ibra.resturantservice.geo.RestaurantLocationRow(r.id, r.latitude, r.longitude) FROM Restaurant r " +
+            "WHERE r.status = 'ACTIVE' AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<RestaurantLocationRow> findActiveLocationRows();
+
+    @Query("SELECT new com.ibra.resturantservice.geo.RestaurantLocationRow(r.id, r.latitude, r.longitude) FROM Restaurant r " +
+            "WHERE r.id = :id AND r.status = 'ACTIVE' AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    Optional<RestaurantLocationRow> findActiveLocationRowById(@Param("id") Long id);
+
     // Find restaurant by owner ID and restaurant ID (for ownership validation)
     Optional<Restaurant> findByIdAndOwnerId(Long id, Long ownerId);
 
+    // Row lock that serializes menu version bumps of one restaurant until the transaction ends
+    @Query(value = "SELECT id FROM restaurants WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
     // Check if restaurant exists by email
     boolean existsByEmail(String email);
 
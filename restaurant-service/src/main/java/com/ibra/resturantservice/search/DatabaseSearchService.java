@@ -0,0 +1,42 @@
+package com.ibra.resturantservice.search;
+
+import com.ibra.resturantservice.dto.SearchHitDTO;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Ranked search over active restaurants and available menu items done by PostgreSQL, using the full-text and
+ * {@code pg_trgm} indexes from {@link SearchSchemaInitializer}. Unlike {@link SearchIndexService} it needs no
+ * memory and is never stale, at the cost of a database round trip per search.
+ */
+@Service
+public class DatabaseSearchService {
+
+    private final RestaurantRepository restaurantRepository;
+
+    public DatabaseSearchService(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Searches restaurants and menu items together and returns one page of hits, best first.
+     */
+    @Transactional(readOnly = true)
+    public SearchResultsDTO search(String query, int page, int size) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return new SearchResultsDTO(query, page, size, 0, List.of());
+        }
+        List<SearchHitView> rows = restaurantRepository.searchAll(trimmed, size, page * size);
+        List<SearchHitDTO> hits = rows.stream()
+                .map(row -> new SearchHitDTO(row.getType(), row.getId(), row.getRestaurantId(), row.getName(),
+                        row.getDetail(), row.getScore()))
+                .toList();
+        long totalHits = rows.isEmpty() ? 0 : rows.get(0).getTotal();
+        return new SearchResultsDTO(query, page, size, totalHits, hits);
+    }
+}
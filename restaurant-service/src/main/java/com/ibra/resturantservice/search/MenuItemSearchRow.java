@@ -0,0 +1,7 @@
+package com.ibra.resturantservice.search;
+
+/**
+ * The searchable columns of an available menu item of an active restaurant.
+ */
+public record MenuItemSearchRow(Long id, Long restaurantId, String name, String description) {
+}
@@ -0,0 +1,7 @@
+package com.ibra.resturantservice.search;
+
+/**
+ * The searchable columns of an active restaurant, loaded without the entity or its menu.
+ */
+public record RestaurantSearchRow(Long id, String name, String address) {
+}
@@ -0,0 +1,22 @@
+package com.ibra.resturantservice.search;
+
+/**
+ * One row of the database-side global search, see {@code RestaurantRepository#searchAll}.
+ */
+public interface SearchHitView {
+
+    String getType();
+
+    Long getId();
+
+    Long getRestaurantId();
+
+    String getName();
+
+    String getDetail();
+
+    Double getScore();
+
+    // Number of hits over all pages, repeated on every row
+    Long getTotal();
+}
@@ -0,0 +1,259 @@
+package com.ibra.resturantservice.search;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import com.ibra.resturantservice.dto.SearchHitDTO;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranked prefix, substring and fuzzy search over active restaurants (name, address) and their available menu
+ * items (name, description), backed by in-memory {@link TrigramIndex}es instead of leading-wildcard LIKE scans.
+ * <p>
+ * The index is built in the background once the application is ready and then kept current entity by entity from
+ * {@code restaurant.changed} events. A full rebuild runs when the index is older than {@code app.search.max-age},
+ * which bounds staleness if events were missed. Mutations are serialized on {@code updateLock}, a lock rather than
+ * a monitor so a virtual thread waiting on the database inside it does not pin its carrier; searches only take the
+ * per-index read locks.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    // Weight of each field relative to a name match
+    private static final double ADDRESS_WEIGHT = 0.7;
+    private static final double DESCRIPTION_WEIGHT = 0.6;
+
+    public enum Scope {
+        ALL, RESTAURANT, MENU_ITEM
+    }
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double minSimilarity;
+    private final int maxCandidates;
+    private final long maxAgeMillis;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile Indexes indexes = new Indexes(0);
+
+    public SearchIndexService(RestaurantRepository restaurantRepository,
+                              MenuItemRepository menuItemRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.search.min-similarity:0.3}") double minSimilarity,
+                              @Value("${app.search.max-candidates:1000}") int maxCandidates,
+                              @Value("${app.search.max-age:30m}") Duration maxAge) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.minSimilarity = minSimilarity;
+        this.maxCandidates = maxCandidates;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if (rebuildInProgress.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to build the search index, keeping the previous one", e);
+                } finally {
+                    rebuildInProgress.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Searches restaurants and/or menu items and returns one page of hits, best first.
+     */
+    public SearchResultsDTO search(String query, Scope scope, int page, int size) {
+        Indexes current = indexes;
+        if (System.currentTimeMillis() - current.builtAtMillis() > maxAgeMillis) {
+            requestRebuild();
+        }
+
+        List<SearchHitDTO> hits = new ArrayList<>();
+        if (scope != Scope.MENU_ITEM) {
+            Map<Long, Double> scores = new HashMap<>();
+            collect(scores, current.restaurantNames().search(query, minSimilarity, maxCandidates), 1.0);
+            collect(scores, current.restaurantAddresses().search(query, minSimilarity, maxCandidates), ADDRESS_WEIGHT);
+            scores.forEach((id, score) -> {
+                RestaurantSearchRow row = current.restaurants().get(id);
+                if (row != null) {
+                    hits.add(new SearchHitDTO(SearchHitDTO.TYPE_RESTAURANT, row.id(), row.id(), row.name(), row.address(), score));
+                }
+            });
+        }
+        if (scope != Scope.RESTAURANT) {
+            Map<Long, Double> scores = new HashMap<>();
+            collect(scores, current.menuItemNames().search(query, minSimilarity, maxCandidates), 1.0);
+            collect(scores, current.menuItemDescriptions().search(query, minSimilarity, maxCandidates), DESCRIPTION_WEIGHT);
+            scores.forEach((id, score) -> {
+                MenuItemSearchRow row = current.menuItems().get(id);
+                if (row != null) {
+                    hits.add(new SearchHitDTO(SearchHitDTO.TYPE_MENU_ITEM, row.id(), row.restaurantId(), row.name(), row.description(), score));
+                }
+            });
+        }
+
+        hits.sort(Comparator.comparingDouble(SearchHitDTO::getScore).reversed()
+                .thenComparing(SearchHitDTO::getType)
+                .thenComparing(SearchHitDTO::getId));
+        int from = Math.min(hits.size(), page * size);
+        int to = Math.min(hits.size(), from + size);
+        return new SearchResultsDTO(query, page, size, hits.size(), List.copyOf(hits.subList(from, to)));
+    }
+
+    /**
+     * Re-reads the entities named by a change event and updates the index accordingly.
+     */
+    public void apply(RestaurantChangedEvent event) {
+        updateLock.lock();
+        try {
+            Indexes current = indexes;
+            transactionTemplate.executeWithoutResult(status -> {
+                if (event.getMenuItemId() != null) {
+                    menuItemRepository.findAvailableSearchRowById(event.getMenuItemId())
+                            .ifPresentOrElse(current::putMenuItem, () -> current.removeMenuItem(event.getMenuItemId()));
+                } else if (event.getRestaurantId() != null) {
+                    // Restaurant status decides whether its menu is searchable, so reindex both
+                    Long restaurantId = event.getRestaurantId();
+                    restaurantRepository.findActiveSearchRowById(restaurantId)
+                            .ifPresentOrElse(current::putRestaurant, () -> current.removeRestaurant(restaurantId));
+                    current.removeMenuItemsOf(restaurantId);
+                    menuItemRepository.findAvailableSearchRowsByRestaurantId(restaurantId).forEach(current::putMenuItem);
+                }
+            });
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        updateLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            Indexes rebuilt = new Indexes(start);
+            transactionTemplate.executeWithoutResult(status -> {
+                restaurantRepository.findActiveSearchRows().forEach(rebuilt::putRestaurant);
+                menuItemRepository.findAvailableSearchRows().forEach(rebuilt::putMenuItem);
+            });
+            indexes = rebuilt;
+            logger.info("Built search index with {} restaurants and {} menu items in {} ms",
+                    rebuilt.restaurants().size(), rebuilt.menuItems().size(), System.currentTimeMillis() - start);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static void collect(Map<Long, Double> scores, List<TrigramIndex.Match> matches, double weight) {
+        for (TrigramIndex.Match match : matches) {
+            scores.merge(match.id(), match.score() * weight, Math::max);
+        }
+    }
+
+    /**
+     * One generation of the index. Only mutated under {@code updateLock}.
+     */
+    private record Indexes(long builtAtMillis,
+                           TrigramIndex restaurantNames, TrigramIndex restaurantAddresses,
+                           TrigramIndex menuItemNames, TrigramIndex menuItemDescriptions,
+                           Map<Long, RestaurantSearchRow> restaurants, Map<Long, MenuItemSearchRow> menuItems,
+                           Map<Long, Set<Long>> menuItemIdsByRestaurant) {
+
+        Indexes(long builtAtMillis) {
+            this(builtAtMillis, new TrigramIndex(), new TrigramIndex(), new TrigramIndex(), new TrigramIndex(),
+                    new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new HashMap<>());
+        }
+
+        void putRestaurant(RestaurantSearchRow row) {
+            restaurantNames.put(row.id(), row.name());
+            restaurantAddresses.put(row.id(), row.address());
+            restaurants.put(row.id(), row);
+        }
+
+        void removeRestaurant(Long restaurantId) {
+            restaurantNames.remove(restaurantId);
+            restaurantAddresses.remove(restaurantId);
+            restaurants.remove(restaurantId);
+        }
+
+        void putMenuItem(MenuItemSearchRow row) {
+            MenuItemSearchRow previous = menuItems.put(row.id(), row);
+            if (previous != null && !previous.restaurantId().equals(row.restaurantId())) {
+                unlink(previous);
+            }
+            menuItemNames.put(row.id(), row.name());
+            menuItemDescriptions.put(row.id(), row.description());
+            menuItemIdsByRestaurant.computeIfAbsent(row.restaurantId(), id -> new HashSet<>()).add(row.id());
+        }
+
+        void removeMenuItem(Long menuItemId) {
+            MenuItemSearchRow previous = menuItems.remove(menuItemId);
+            menuItemNames.remove(menuItemId);
+            menuItemDescriptions.remove(menuItemId);
+            if (previous != null) {
+                unlink(previous);
+            }
+        }
+
+        void removeMenuItemsOf(Long restaurantId) {
+            Set<Long> menuItemIds = menuItemIdsByRestaurant.remove(restaurantId);
+            if (menuItemIds != null) {
+                for (Long menuItemId : menuItemIds) {
+                    menuItems.remove(menuItemId);
+                    menuItemNames.remove(menuItemId);
+                    menuItemDescriptions.remove(menuItemId);
+                }
+            }
+        }
+
+        private void unlink(MenuItemSearchRow row) {
+            Set<Long> ids = menuItemIdsByRestaurant.get(row.restaurantId());
+            if (ids != null) {
+                ids.remove(row.id());
+            }
+        }
+    }
+}
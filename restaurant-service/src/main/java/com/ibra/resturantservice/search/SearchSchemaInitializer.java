@@ -0,0 +1,52 @@
+package com.ibra.resturantservice.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Adds the {@code tsvector} columns and the full-text and {@code pg_trgm} GIN indexes used by the database-side
+ * search queries. The tables themselves are managed by Hibernate, so this runs once the application context is up,
+ * and the script is idempotent so it can run on every start.
+ */
+@Component
+public class SearchSchemaInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchSchemaInitializer.class);
+
+    private static final String SCRIPT = "db/search-schema.sql";
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SearchSchemaInitializer(DataSource dataSource,
+                                   @Value("${app.search.database-indexes.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws MetaDataAccessException {
+        if (!enabled) {
+            return;
+        }
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            logger.warn("Skipping search indexes, {} is not PostgreSQL; database search will not work", product);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).execute(dataSource);
+        logger.info("Applied search schema in {} ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,311 @@
+package com.ibra.resturantservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted trigram index over one text field, keyed by entity id.
+ * <p>
+ * Text is lower-cased, stripped of accents and punctuation, and every word is padded as {@code "  word "} before
+ * being cut into trigrams, so word starts produce their own trigrams and short prefixes can be matched. The last
+ * query word is left open at the end, which makes a partially typed word match as a prefix.
+ * <p>
+ * Matches are ranked: exact match, then prefix of the whole text, then prefix of a word, then substring, then
+ * fuzzy matches by trigram (Jaccard) similarity. Reads share a read lock; updates take the write lock.
+ */
+final class TrigramIndex {
+
+    // Lowest score of a match that contains the query literally; fuzzy matches score below it
+    private static final double LITERAL_MATCH_SCORE = 1.0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+
+    // Per-ordinal entry data; ordinals of removed entries are reused
+    private long[] ids = new long[256];
+    private String[] texts = new String[256];
+    private int[] trigramCounts = new int[256];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+
+    /**
+     * Indexes {@code text} for {@code id}, replacing any previous text. Blank text removes the entry.
+     */
+    void put(long id, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            int ordinal = allocateOrdinal();
+            Set<String> trigrams = trigrams(normalized, false);
+            ids[ordinal] = id;
+            texts[ordinal] = normalized;
+            trigramCounts[ordinal] = trigrams.size();
+            ordinalsById.put(id, ordinal);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries matching {@code query}, best first.
+     *
+     * @param minSimilarity share of the query trigrams an entry must contain to be considered at all
+     * @param limit         maximum number of matches returned
+     */
+    List<Match> search(String query, double minSimilarity, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryTrigrams = trigrams(normalized, true);
+        int minHits = Math.max(1, (int) Math.ceil(queryTrigrams.size() * minSimilarity));
+        // One or two letters share too few trigrams for similarity to mean anything, so only literal matches count
+        boolean fuzzy = normalized.length() >= 3;
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(queryTrigrams.size());
+            int scanned = 0;
+            for (String trigram : queryTrigrams) {
+                Postings list = postings.get(trigram);
+                if (list != null) {
+                    lists.add(list);
+                    scanned += list.size;
+                }
+            }
+            // Sized to the postings scanned, so a query costs the same however large the index is
+            HitCounts hits = new HitCounts(Math.min(scanned, nextOrdinal));
+            for (Postings list : lists) {
+                for (int i = 0; i < list.size; i++) {
+                    hits.increment(list.ordinals[i]);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (int slot = 0; slot < hits.capacity(); slot++) {
+                int ordinal = hits.ordinal(slot);
+                if (ordinal >= 0 && hits.count(slot) >= minHits) {
+                    double score = score(normalized, texts[ordinal], hits.count(slot), queryTrigrams.size(), trigramCounts[ordinal]);
+                    if (fuzzy || score >= LITERAL_MATCH_SCORE) {
+                        matches.add(new Match(ids[ordinal], score, texts[ordinal].length()));
+                    }
+                }
+            }
+            matches.sort(Match.BEST_FIRST);
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double score(String query, String text, int hits, int queryTrigrams, int textTrigrams) {
+        if (text.equals(query)) {
+            return 2.0;
+        }
+        // Shorter texts win among equally good matches
+        double lengthBonus = 0.1 * query.length() / text.length();
+        if (text.startsWith(query)) {
+            return 1.5 + lengthBonus;
+        }
+        int position = text.indexOf(query);
+        if (position > 0) {
+            return (text.charAt(position - 1) == ' ' ? 1.2 : LITERAL_MATCH_SCORE) + lengthBonus;
+        }
+        double jaccard = (double) hits / (queryTrigrams + textTrigrams - hits);
+        return 0.9 * jaccard;
+    }
+
+    private void removeLocked(long id) {
+        Integer ordinal = ordinalsById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        for (String trigram : trigrams(texts[ordinal], false)) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(ordinal) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        texts[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (nextOrdinal == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+        }
+        return nextOrdinal++;
+    }
+
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trigrams of normalized text. For queries the last word is not closed, so it matches as a prefix.
+     */
+    static Set<String> trigrams(String normalized, boolean openEnded) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean last = w == words.length - 1;
+            String padded = "  " + words[w] + (openEnded && last ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    record Match(long id, double score, int length) {
+
+        static final Comparator<Match> BEST_FIRST = (a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byLength = Integer.compare(a.length, b.length);
+            return byLength != 0 ? byLength : Long.compare(a.id, b.id);
+        };
+    }
+
+    /**
+     * Hit count per ordinal for one query: an open-addressing map from ordinal to count, kept at most half full.
+     */
+    private static final class HitCounts {
+
+        // ordinal + 1, or 0 for an empty slot
+        private final int[] keys;
+        private final int[] counts;
+        private final int mask;
+
+        HitCounts(int maxOrdinals) {
+            int capacity = Integer.highestOneBit(Math.max(8, maxOrdinals * 2) - 1) << 1;
+            this.keys = new int[capacity];
+            this.counts = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void increment(int ordinal) {
+            int hash = ordinal * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != 0 && keys[slot] != ordinal + 1) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = ordinal + 1;
+            counts[slot]++;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        // The ordinal in the slot, or -1 when it is empty
+        int ordinal(int slot) {
+            return keys[slot] - 1;
+        }
+
+        int count(int slot) {
+            return counts[slot];
+        }
+    }
+
+    /**
+     * Sorted, growable set of entry ordinals.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ibra.resturantservice.security;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+@FeignClient(name = "auth-service", contextId = "authKeysClient")
+public interface AuthKeysClient {
+
+    @GetMapping("/auth/.well-known/jwks.json")
+    String getJwks();
+}
@@ -42,6 +42,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/restaurants").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/restaurants/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/restaurants/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/restaurants/nearby").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/search/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/menu-items/restaurants/{restaurantId}/snapshot/**").permitAll()
                          .anyRequest().authenticated()
                 )
                 .addFilterBefore(headerBasedAuthFilter, BasicAuthenticationFilter.class)
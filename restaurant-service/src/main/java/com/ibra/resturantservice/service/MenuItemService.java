@@ -1,5 +1,6 @@
 package com.ibra.resturantservice.service;
 
+import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
 import com.ibra.exception.UnauthorizedException;
 import com.ibra.resturantservice.dto.CreateMenuItemRequest;
@@ -11,6 +12,7 @@ import com.ibra.enums.MenuItemStatus;
 import com.ibra.resturantservice.mapper.MenuItemMapper;
 import com.ibra.resturantservice.respository.MenuItemRepository;
 import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,11 +37,22 @@ public class MenuItemService {
 
     private final RestaurantService restaurantService;
 
-    public MenuItemService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository, MenuItemMapper menuItemMapper, RestaurantService restaurantService) {
+    private final RestaurantEventPublisher restaurantEventPublisher;
+
+    private final RestaurantCatalog restaurantCatalog;
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    public MenuItemService(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository, MenuItemMapper menuItemMapper, RestaurantService restaurantService,
+                           RestaurantEventPublisher restaurantEventPublisher, RestaurantCatalog restaurantCatalog,
+                           MenuSnapshotService menuSnapshotService) {
         this.menuItemRepository = menuItemRepository;
         this.restaurantRepository = restaurantRepository;
         this.menuItemMapper = menuItemMapper;
         this.restaurantService = restaurantService;
+        this.restaurantEventPublisher = restaurantEventPublisher;
+        this.restaurantCatalog = restaurantCatalog;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     // Create menu item
@@ -52,6 +65,8 @@ public class MenuItemService {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId));
 
+        validateSkuAvailable(restaurantId, request.getSku());
+
         MenuItem menuItem = new MenuItem(
                 request.getName(),
                 request.getDescription(),
@@ -63,10 +78,14 @@ public class MenuItemService {
 
 
         menuItem.setImageUrl(request.getImageUrl());
+        menuItem.setSku(request.getSku());
         menuItem.setStatus(MenuItemStatus.AVAILABLE);
 
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
         logger.info("Menu item created successfully with ID: {}", savedMenuItem.getId());
+        menuSnapshotService.publish(restaurantId);
+        restaurantEventPublisher.publishRestaurantChanged(restaurantId, savedMenuItem.getId(), "MENU_ITEM_CREATED");
+        restaurantCatalog.invalidate();
 
         return menuItemMapper.toDTO(savedMenuItem);
     }
@@ -110,14 +129,22 @@ public class MenuItemService {
         MenuItem menuItem = menuItemRepository.findByIdAndRestaurantOwnerId(id, ownerId)
                 .orElseThrow(() -> new UnauthorizedException("You can only update menu items for your own restaurants"));
 
+        if (request.getSku() != null && !request.getSku().equals(menuItem.getSku())) {
+            validateSkuAvailable(menuItem.getRestaurant().getId(), request.getSku());
+        }
+
         menuItem.setName(request.getName());
         menuItem.setDescription(request.getDescription());
         menuItem.setPrice(request.getPrice());
         menuItem.setCategory(request.getCategory());
         menuItem.setImageUrl(request.getImageUrl());
+        menuItem.setSku(request.getSku());
 
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
         logger.info("Menu item updated successfully with ID: {}", savedMenuItem.getId());
+        menuSnapshotService.publish(menuItem.getRestaurant().getId());
+        restaurantEventPublisher.publishRestaurantChanged(menuItem.getRestaurant().getId(), id, "MENU_ITEM_UPDATED");
+        restaurantCatalog.invalidate();
 
         return menuItemMapper.toDTO(savedMenuItem);
     }
@@ -133,6 +160,9 @@ public class MenuItemService {
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
 
         logger.info("Menu item status updated successfully for ID: {}", id);
+        menuSnapshotService.publish(menuItem.getRestaurant().getId());
+        restaurantEventPublisher.publishRestaurantChanged(menuItem.getRestaurant().getId(), id, "MENU_ITEM_STATUS_UPDATED");
+        restaurantCatalog.invalidate();
         return menuItemMapper.toDTO(savedMenuItem);
     }
 
@@ -145,6 +175,9 @@ public class MenuItemService {
 
         menuItemRepository.delete(menuItem);
         logger.info("Menu item deleted successfully with ID: {}", id);
+        menuSnapshotService.publish(menuItem.getRestaurant().getId());
+        restaurantEventPublisher.publishRestaurantChanged(menuItem.getRestaurant().getId(), id, "MENU_ITEM_DELETED");
+        restaurantCatalog.invalidate();
     }
 
     // Search menu items by name within a restaurant
@@ -157,6 +190,12 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
 
+    private void validateSkuAvailable(Long restaurantId, String sku) {
+        if (sku != null && menuItemRepository.existsByRestaurantIdAndSku(restaurantId, sku)) {
+            throw new BusinessException("A menu item with SKU " + sku + " already exists in this restaurant");
+        }
+    }
+
     // Circuit breaker for menu items
     @CircuitBreaker(name = "menu-service", fallbackMethod = "fallbackGetMenuItems")
     public List<MenuItemDTO> getMenuItemsWithCircuitBreaker(Long restaurantId) {
@@ -0,0 +1,194 @@
+package com.ibra.resturantservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.enums.MenuItemStatus;
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.resturantservice.entity.MenuItem;
+import com.ibra.resturantservice.entity.MenuSnapshot;
+import com.ibra.resturantservice.mapper.MenuItemMapper;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.MenuSnapshotRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, numbered versions of each restaurant's menu.
+ * <p>
+ * Every menu write publishes the next version in the same transaction, under a row lock on the restaurant so
+ * concurrent writers get consecutive versions. Versions are stored, so the menu an order was priced against can
+ * always be looked up again. The latest version of each restaurant, and recently requested older ones, are served
+ * from memory; changes made by other instances evict the latest version through {@link #evict}.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    private static final TypeReference<List<MenuItemDTO>> MENU_ITEMS = new TypeReference<>() {};
+
+    private final MenuSnapshotRepository menuSnapshotRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemMapper menuItemMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Map<Long, MenuSnapshotDTO> latest = new ConcurrentHashMap<>();
+    private final Map<VersionKey, MenuSnapshotDTO> history;
+
+    public MenuSnapshotService(MenuSnapshotRepository menuSnapshotRepository,
+                               RestaurantRepository restaurantRepository,
+                               MenuItemRepository menuItemRepository,
+                               MenuItemMapper menuItemMapper,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.menu.snapshot-history-cache-size:1000}") int historyCacheSize) {
+        this.menuSnapshotRepository = menuSnapshotRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.menuItemMapper = menuItemMapper;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.history = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<VersionKey, MenuSnapshotDTO> eldest) {
+                return size() > historyCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Publishes the next version of a restaurant's menu from its current items. Must be called from the transaction
+     * that changed the menu; the version becomes visible here once that transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public MenuSnapshotDTO publish(Long restaurantId) {
+        lockRestaurant(restaurantId);
+        MenuSnapshotDTO snapshot = createSnapshot(restaurantId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(snapshot);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Latest version of a restaurant's menu.
+     */
+    public MenuSnapshotDTO getLatest(Long restaurantId) {
+        MenuSnapshotDTO cached = latest.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+        MenuSnapshotDTO snapshot = readTransaction.execute(status ->
+                menuSnapshotRepository.findFirstByRestaurantIdOrderByVersionDesc(restaurantId).map(this::toDTO).orElse(null));
+        if (snapshot == null) {
+            // Menus last written before versioning have no snapshot yet; publish the first one
+            snapshot = writeTransaction.execute(status -> {
+                lockRestaurant(restaurantId);
+                return menuSnapshotRepository.findFirstByRestaurantIdOrderByVersionDesc(restaurantId)
+                        .map(this::toDTO)
+                        .orElseGet(() -> createSnapshot(restaurantId));
+            });
+        }
+        remember(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * A specific, possibly superseded, version of a restaurant's menu.
+     */
+    public MenuSnapshotDTO getVersion(Long restaurantId, long version) {
+        MenuSnapshotDTO current = latest.get(restaurantId);
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        VersionKey key = new VersionKey(restaurantId, version);
+        MenuSnapshotDTO cached = history.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        MenuSnapshotDTO snapshot = readTransaction.execute(status ->
+                menuSnapshotRepository.findByRestaurantIdAndVersion(restaurantId, version).map(this::toDTO).orElse(null));
+        if (snapshot == null) {
+            throw new ResourceNotFoundException("Menu version " + version + " not found for restaurant ID: " + restaurantId);
+        }
+        history.put(key, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Drops the cached latest version of a restaurant, so the next read loads it again.
+     */
+    public void evict(Long restaurantId) {
+        latest.remove(restaurantId);
+    }
+
+    private void lockRestaurant(Long restaurantId) {
+        restaurantRepository.lockById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId));
+    }
+
+    private MenuSnapshotDTO createSnapshot(Long restaurantId) {
+        long version = menuSnapshotRepository.findLatestVersion(restaurantId) + 1;
+        List<MenuItemDTO> items = menuItemRepository.findByRestaurantIdAndStatus(restaurantId, MenuItemStatus.AVAILABLE).stream()
+                .sorted(Comparator.comparing(MenuItem::getId))
+                .map(menuItemMapper::toDTO)
+                .toList();
+        MenuSnapshot saved = menuSnapshotRepository.save(
+                new MenuSnapshot(restaurantId, version, writeItems(items), LocalDateTime.now()));
+        logger.info("Published menu version {} for restaurant: {} with {} items", version, restaurantId, items.size());
+        return new MenuSnapshotDTO(restaurantId, version, saved.getCreatedAt(), items);
+    }
+
+    private void remember(MenuSnapshotDTO snapshot) {
+        latest.merge(snapshot.getRestaurantId(), snapshot,
+                (current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate : current);
+        history.put(new VersionKey(snapshot.getRestaurantId(), snapshot.getVersion()), snapshot);
+    }
+
+    private MenuSnapshotDTO toDTO(MenuSnapshot snapshot) {
+        try {
+            List<MenuItemDTO> items = objectMapper.readValue(snapshot.getItems(), MENU_ITEMS);
+            return new MenuSnapshotDTO(snapshot.getRestaurantId(), snapshot.getVersion(), snapshot.getCreatedAt(), items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable menu snapshot " + snapshot.getId(), e);
+        }
+    }
+
+    private String writeItems(List<MenuItemDTO> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu items", e);
+        }
+    }
+
+    private record VersionKey(Long restaurantId, long version) {
+    }
+}
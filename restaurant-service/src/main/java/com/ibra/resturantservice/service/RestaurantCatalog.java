@@ -0,0 +1,216 @@
+package com.ibra.resturantservice.service;
+
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.enums.RestaurantStatus;
+import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Read model of the active restaurants, held as an immutable snapshot.
+ * <p>
+ * Reads never touch the database or take a lock: they use the current snapshot, and if it is stale they trigger a
+ * rebuild and keep serving the old one until the new one is installed. Only the very first read waits. At most one
+ * rebuild runs at a time, so a burst of reads after a change causes a single reload. The snapshot is invalidated
+ * after every committed catalog write on this instance and on every {@code restaurant.changed} event from other
+ * instances, and is reloaded at least every {@code app.catalog.max-age} as a safety net.
+ * <p>
+ * Restaurants are held at {@link com.ibra.resturantservice.dto.RestaurantView#SUMMARY} level. The returned DTOs are
+ * shared between callers and must not be modified.
+ */
+@Component
+public class RestaurantCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantCatalog.class);
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantMapper restaurantMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxAgeMillis;
+    private final ExecutorService rebuildExecutor;
+
+    // Bumped on every invalidation; a snapshot built from an older version is stale
+    private final AtomicLong changeVersion = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Snapshot>> rebuildInProgress = new AtomicReference<>();
+    private volatile Snapshot snapshot;
+
+    public RestaurantCatalog(RestaurantRepository restaurantRepository,
+                             RestaurantMapper restaurantMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.catalog.max-age:5m}") Duration maxAge) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantMapper = restaurantMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxAgeMillis = maxAge.toMillis();
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-catalog-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<RestaurantDTO> getActiveRestaurants() {
+        return current().restaurants();
+    }
+
+    /**
+     * The active restaurant with the given id, or {@code null} if there is none.
+     */
+    public RestaurantDTO getActiveRestaurant(Long id) {
+        return current().restaurantsById().get(id);
+    }
+
+    /**
+     * Active restaurants whose name contains {@code query}, ignoring case.
+     */
+    public List<RestaurantDTO> searchByName(String query) {
+        return current().search(query, Entry::name);
+    }
+
+    /**
+     * Active restaurants whose address contains {@code query}, ignoring case.
+     */
+    public List<RestaurantDTO> searchByAddress(String query) {
+        return current().search(query, Entry::address);
+    }
+
+    /**
+     * Marks the snapshot stale. Inside a transaction this happens after commit, so the rebuild sees the change.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        changeVersion.incrementAndGet();
+        // Rebuild eagerly so the next read is likely to find a fresh snapshot
+        requestRebuild();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == changeVersion.get()
+                && System.currentTimeMillis() - current.builtAtMillis() < maxAgeMillis) {
+            return current;
+        }
+
+        CompletableFuture<Snapshot> rebuild = requestRebuild();
+        if (current != null) {
+            return current;
+        }
+        try {
+            return rebuild.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    private CompletableFuture<Snapshot> requestRebuild() {
+        while (true) {
+            CompletableFuture<Snapshot> existing = rebuildInProgress.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Snapshot> rebuild = new CompletableFuture<>();
+            if (rebuildInProgress.compareAndSet(null, rebuild)) {
+                rebuildExecutor.execute(() -> rebuild(rebuild));
+                return rebuild;
+            }
+        }
+    }
+
+    private void rebuild(CompletableFuture<Snapshot> rebuild) {
+        long version = changeVersion.get();
+        try {
+            Snapshot built = transactionTemplate.execute(status -> load(version));
+            snapshot = built;
+            rebuild.complete(built);
+            logger.debug("Rebuilt restaurant catalog with {} active restaurants (version {})", built.restaurants().size(), version);
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild restaurant catalog, keeping the previous snapshot", e);
+            rebuild.completeExceptionally(e);
+        } finally {
+            rebuildInProgress.set(null);
+        }
+
+        // A change arrived while loading; the snapshot just built may already be stale
+        if (changeVersion.get() != version && !rebuild.isCompletedExceptionally()) {
+            requestRebuild();
+        }
+    }
+
+    private Snapshot load(long version) {
+        List<RestaurantDTO> restaurants = restaurantRepository.findSummariesByStatus(RestaurantStatus.ACTIVE).stream()
+                .map(restaurantMapper::toDTO)
+                .toList();
+        List<Entry> entries = new ArrayList<>(restaurants.size());
+        Map<Long, RestaurantDTO> restaurantsById = new HashMap<>(restaurants.size() * 2);
+        for (RestaurantDTO restaurant : restaurants) {
+            entries.add(new Entry(lower(restaurant.getName()), lower(restaurant.getAddress()), restaurant));
+            restaurantsById.put(restaurant.getId(), restaurant);
+        }
+        return new Snapshot(version, System.currentTimeMillis(), restaurants, List.copyOf(entries), restaurantsById);
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String name, String address, RestaurantDTO restaurant) {
+    }
+
+    private record Snapshot(long version, long builtAtMillis, List<RestaurantDTO> restaurants, List<Entry> entries,
+                            Map<Long, RestaurantDTO> restaurantsById) {
+
+        List<RestaurantDTO> search(String query, Function<Entry, String> field) {
+            if (query == null) {
+                return List.of();
+            }
+            String needle = query.toLowerCase(Locale.ROOT);
+            List<RestaurantDTO> matches = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (field.apply(entry).contains(needle)) {
+                    matches.add(entry.restaurant());
+                }
+            }
+            return matches;
+        }
+    }
+}
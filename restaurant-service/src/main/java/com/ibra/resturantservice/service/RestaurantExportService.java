@@ -0,0 +1,67 @@
+package com.ibra.resturantservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every restaurant as newline-delimited JSON, one row at a time.
+ * <p>
+ * Rows are read through a server-side cursor and detached once written, so memory use does not grow with the
+ * table. Menus are not included.
+ */
+@Service
+public class RestaurantExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantExportService.class);
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantMapper restaurantMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public RestaurantExportService(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper,
+                                   ObjectMapper objectMapper, EntityManager entityManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantMapper = restaurantMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Streams all restaurants to {@code out} and returns how many were written.
+     */
+    @Transactional(readOnly = true)
+    public long exportRestaurants(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        try (Stream<Restaurant> restaurants = restaurantRepository.streamAll()) {
+            Iterator<Restaurant> iterator = restaurants.iterator();
+            while (iterator.hasNext()) {
+                Restaurant restaurant = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(restaurantMapper.toDTO(restaurant)));
+                out.write('\n');
+                entityManager.detach(restaurant);
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        logger.info("Exported {} restaurants in {} ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+}
@@ -4,18 +4,28 @@ import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
 import com.ibra.exception.UnauthorizedException;
 import com.ibra.resturantservice.dto.CreateRestaurantRequest;
+import com.ibra.resturantservice.dto.RestaurantDetail;
+import com.ibra.dto.RestaurantPageDTO;
+import com.ibra.resturantservice.dto.RestaurantView;
 import com.ibra.dto.RestaurantDTO;
 import com.ibra.resturantservice.entity.Restaurant;
 import com.ibra.enums.RestaurantStatus;
 import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.MenuItemRepository;
 import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -30,9 +40,20 @@ public class RestaurantService {
 
     private final RestaurantMapper restaurantMapper;
 
-    public RestaurantService(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper) {
+    private final RestaurantEventPublisher restaurantEventPublisher;
+
+    private final RestaurantCatalog restaurantCatalog;
+
+    private final MenuItemRepository menuItemRepository;
+
+    public RestaurantService(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper,
+                             RestaurantEventPublisher restaurantEventPublisher, RestaurantCatalog restaurantCatalog,
+                             MenuItemRepository menuItemRepository) {
         this.restaurantRepository = restaurantRepository;
         this.restaurantMapper = restaurantMapper;
+        this.restaurantEventPublisher = restaurantEventPublisher;
+        this.restaurantCatalog = restaurantCatalog;
+        this.menuItemRepository = menuItemRepository;
     }
 
     public RestaurantDTO createRestaurant(CreateRestaurantRequest request, Long ownerId) {
@@ -46,6 +67,8 @@ public class RestaurantService {
         //     throw new BusinessException("Restaurant with this email already exists");
         // }
 
+        validateLocation(request);
+
         // Validate unique phone (assuming each physical restaurant location needs a unique phone)
         if (restaurantRepository.existsByPhoneNumber(request.getPhoneNumber())) {
             throw new BusinessException("Restaurant with this phone number already exists");
@@ -61,6 +84,8 @@ public class RestaurantService {
         );
 
         restaurant.setImageUrl(request.getImageUrl());
+        restaurant.setLatitude(request.getLatitude());
+        restaurant.setLongitude(request.getLongitude());
         restaurant.setStatus(RestaurantStatus.PENDING_APPROVAL);
         restaurant.setCreatedAt(LocalDateTime.now()); // Ensure timestamps are set
         restaurant.setUpdatedAt(LocalDateTime.now()); // Ensure timestamps are set
@@ -68,52 +93,92 @@ public class RestaurantService {
         logger.info("Before saving, restaurant entity details: Name={}, OwnerId={}", restaurant.getName(), restaurant.getOwnerId());
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
         logger.info("Restaurant created successfully with ID: {}, saved ownerId: {}", savedRestaurant.getId(), savedRestaurant.getOwnerId());
+        restaurantEventPublisher.publishRestaurantChanged(savedRestaurant.getId(), null, "RESTAURANT_CREATED");
+        restaurantCatalog.invalidate();
 
         return restaurantMapper.toDTO(savedRestaurant);
     }
 
+    // One page of all restaurants (admin), including inactive ones
     @Transactional(readOnly = true)
-    public List<RestaurantDTO> getAllRestaurants() {
-        logger.info("Admin fetching all restaurants (including inactive)");
-        List<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants.stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+    public RestaurantPageDTO getAllRestaurants(int page, int size, String cursor) {
+        logger.info("Admin fetching all restaurants (including inactive), page: {}, size: {}, cursor: {}", page, size, cursor);
+        Long afterId = decodeCursor(cursor);
+        Pageable pageable = PageRequest.of(afterId == null ? page : 0, size);
+        List<RestaurantDetail> restaurants = restaurantRepository.findDetailsAfter(afterId == null ? 0L : afterId, pageable);
+        return toPage(restaurants.stream().map(restaurantMapper::toDTO).toList(), afterId == null ? page : null, size);
     }
 
-    // Get all active restaurants (public endpoint)
-    @Transactional(readOnly = true)
+    // One page of the active restaurants (public endpoint), sliced from the in-memory catalog
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RestaurantPageDTO getActiveRestaurants(int page, int size, String cursor) {
+        List<RestaurantDTO> restaurants = restaurantCatalog.getActiveRestaurants();
+        Long afterId = decodeCursor(cursor);
+        int from;
+        if (afterId == null) {
+            from = (int) Math.min(restaurants.size(), (long) page * size);
+        } else {
+            // The catalog is in id order, so the cursor position can be found by binary search
+            int low = 0;
+            int high = restaurants.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (restaurants.get(mid).getId() <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        int to = Math.min(restaurants.size(), from + size);
+        RestaurantPageDTO result = toPage(restaurants.subList(from, to), afterId == null ? page : null, size);
+        // Unlike a database page, the catalog knows whether more restaurants follow
+        result.setHasNext(to < restaurants.size());
+        result.setNextCursor(result.isHasNext() ? result.getNextCursor() : null);
+        return result;
+    }
+
+    // Get all active restaurants (public endpoint), served from the in-memory catalog
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<RestaurantDTO> getAllActiveRestaurants() {
-        logger.info("Fetching all active restaurants");
-        List<Restaurant> restaurants = restaurantRepository.findByStatus(RestaurantStatus.ACTIVE);
-        logger.info("Found {} active restaurants.", restaurants.size());
-        return restaurants.stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        List<RestaurantDTO> restaurants = restaurantCatalog.getActiveRestaurants();
+        logger.debug("Found {} active restaurants.", restaurants.size());
+        return restaurants;
     }
 
-    // Get restaurant by ID (public endpoint)
+    // Get restaurant by ID (public endpoint), with its menu
     @Transactional(readOnly = true)
     public RestaurantDTO getRestaurantById(Long id) {
-        logger.info("Fetching restaurant by ID: {}", id);
-        return restaurantRepository.findById(id)
-                .map(restaurantMapper::toDTO)
+        return getRestaurantById(id, RestaurantView.DETAIL_WITH_MENU);
+    }
+
+    // Get restaurant by ID at the given level of detail; SUMMARY is served as DETAIL, a single row costs the same
+    @Transactional(readOnly = true)
+    public RestaurantDTO getRestaurantById(Long id, RestaurantView view) {
+        logger.info("Fetching restaurant by ID: {} ({})", id, view);
+        RestaurantDetail detail = restaurantRepository.findDetailById(id)
                 .orElseThrow(() -> {
                     logger.warn("Restaurant not found with ID: {}", id);
                     return new ResourceNotFoundException("Restaurant not found with ID: " + id);
                 });
+        if (view == RestaurantView.DETAIL_WITH_MENU) {
+            return restaurantMapper.toDTO(detail, menuItemRepository.findByRestaurantId(id));
+        }
+        return restaurantMapper.toDTO(detail);
     }
 
-    // FIX: Get restaurants owned by a specific user (now returns a List<RestaurantDTO>)
+    // FIX: Get restaurants owned by a specific user, one page at a time
     @Transactional(readOnly = true)
-    public List<RestaurantDTO> getRestaurantsByOwner(Long ownerId) {
-        logger.info("Fetching all restaurants for owner ID: {}", ownerId);
-        List<Restaurant> restaurants = restaurantRepository.findByOwnerId(ownerId);
+    public RestaurantPageDTO getRestaurantsByOwner(Long ownerId, int page, int size, String cursor) {
+        logger.info("Fetching restaurants for owner ID: {}, page: {}, size: {}, cursor: {}", ownerId, page, size, cursor);
+        Long afterId = decodeCursor(cursor);
+        Pageable pageable = PageRequest.of(afterId == null ? page : 0, size);
+        List<RestaurantDetail> restaurants = restaurantRepository.findDetailsByOwnerIdAfter(
+                ownerId, afterId == null ? 0L : afterId, pageable);
         // No longer throwing ResourceNotFoundException if empty, as returning an empty list is standard for "get all"
         logger.info("Found {} restaurants for owner ID: {}", restaurants.size(), ownerId);
-        return restaurants.stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        return toPage(restaurants.stream().map(restaurantMapper::toDTO).toList(), afterId == null ? page : null, size);
     }
 
     // Update restaurant (only by owner)
@@ -133,6 +198,8 @@ public class RestaurantService {
         //     throw new BusinessException("Restaurant with this email already exists");
         // }
 
+        validateLocation(request);
+
         // Check for phone uniqueness if changing phone
         if (!restaurant.getPhoneNumber().equals(request.getPhoneNumber()) &&
                 restaurantRepository.existsByPhoneNumber(request.getPhoneNumber())) {
@@ -146,10 +213,14 @@ public class RestaurantService {
         restaurant.setPhoneNumber(request.getPhoneNumber());
         restaurant.setEmail(request.getEmail());
         restaurant.setImageUrl(request.getImageUrl());
+        restaurant.setLatitude(request.getLatitude());
+        restaurant.setLongitude(request.getLongitude());
         restaurant.setUpdatedAt(LocalDateTime.now()); // Ensure updatedAt is set
 
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
         logger.info("Restaurant updated successfully with ID: {}", savedRestaurant.getId());
+        restaurantEventPublisher.publishRestaurantChanged(savedRestaurant.getId(), null, "RESTAURANT_UPDATED");
+        restaurantCatalog.invalidate();
 
         return restaurantMapper.toDTO(savedRestaurant);
     }
@@ -166,6 +237,8 @@ public class RestaurantService {
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
 
         logger.info("Restaurant status updated successfully for ID: {}", id);
+        restaurantEventPublisher.publishRestaurantChanged(id, null, "RESTAURANT_STATUS_UPDATED");
+        restaurantCatalog.invalidate();
         return restaurantMapper.toDTO(savedRestaurant);
     }
 
@@ -181,26 +254,22 @@ public class RestaurantService {
 
         restaurantRepository.delete(restaurant);
         logger.info("Restaurant deleted successfully with ID: {}", id);
+        restaurantEventPublisher.publishRestaurantChanged(id, null, "RESTAURANT_DELETED");
+        restaurantCatalog.invalidate();
     }
 
-    // Search restaurants by name
-    @Transactional(readOnly = true)
+    // Search active restaurants by name, served from the in-memory catalog
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<RestaurantDTO> searchRestaurantsByName(String name) {
         logger.info("Searching restaurants by name: {}", name);
-        List<Restaurant> restaurants = restaurantRepository.searchByName(name);
-        return restaurants.stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        return restaurantCatalog.searchByName(name);
     }
 
-    // Search restaurants by address
-    @Transactional(readOnly = true)
+    // Search active restaurants by address, served from the in-memory catalog
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<RestaurantDTO> searchRestaurantsByAddress(String address) {
         logger.info("Searching restaurants by address: {}", address);
-        List<Restaurant> restaurants = restaurantRepository.searchByAddress(address);
-        return restaurants.stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        return restaurantCatalog.searchByAddress(address);
     }
 
     // Validate restaurant ownership - This method is now less critical if findByIdAndOwnerId is used directly
@@ -215,6 +284,34 @@ public class RestaurantService {
         logger.info("Ownership validated for restaurant ID: {} by owner: {}", restaurantId, ownerId);
     }
 
+    private static void validateLocation(CreateRestaurantRequest request) {
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BusinessException("Latitude and longitude must be given together");
+        }
+    }
+
+    // A full page means there may be more; the client finds out with one more, possibly empty, request
+    private static RestaurantPageDTO toPage(List<RestaurantDTO> content, Integer page, int size) {
+        boolean full = !content.isEmpty() && content.size() >= size;
+        String nextCursor = full ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+        return new RestaurantPageDTO(content, page, size, full, nextCursor);
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
+
     @CircuitBreaker(name = "restaurant-service", fallbackMethod = "fallbackGetAllRestaurants")
     public List<RestaurantDTO> getRestaurantsWithCircuitBreaker() {
         return getAllActiveRestaurants();
@@ -35,6 +35,12 @@ public class RabbitMQConfig {
     @Value("${app.rabbitmq.order-routing-key-rated}")
     private String orderRoutingKeyRated;
 
+    @Value("${app.rabbitmq.restaurant-exchange-name:restaurant.exchange}")
+    private String restaurantExchangeName;
+
+    @Value("${app.rabbitmq.restaurant-routing-key-changed:restaurant.changed}")
+    private String restaurantRoutingKeyChanged;
+
 
     @Bean
     public TopicExchange orderExchange() {
@@ -43,6 +49,12 @@ public class RabbitMQConfig {
         return new TopicExchange(orderExchangeName); // Use injected value
     }
 
+    @Bean
+    public TopicExchange restaurantExchange() {
+        // Exchange this service publishes catalog change events to
+        return new TopicExchange(restaurantExchangeName);
+    }
+
     @Bean
     public Queue restaurantQueue() {
         // Declares this service's specific queue.
@@ -112,4 +124,12 @@ public class RabbitMQConfig {
         factory.setMessageConverter(jsonMessageConverter());
         return factory;
     }
-}
\ No newline at end of file
+
+    public String getRestaurantExchangeName() {
+        return restaurantExchangeName;
+    }
+
+    public String getRestaurantRoutingKeyChanged() {
+        return restaurantRoutingKeyChanged;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ibra.resturantservice.service.rabbitmq;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import com.ibra.resturantservice.geo.RestaurantGeoIndex;
+import com.ibra.resturantservice.search.SearchIndexService;
+import com.ibra.resturantservice.service.MenuSnapshotService;
+import com.ibra.resturantservice.service.RestaurantCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this instance's read models ({@link RestaurantCatalog}, the search and geo indexes and the cached menu versions)
+ * in step with catalog changes made by any restaurant-service instance. Each instance binds its own anonymous, auto-delete queue, so every
+ * instance sees every change.
+ */
+@Component
+public class RestaurantChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantChangeListener.class);
+
+    private final RestaurantCatalog restaurantCatalog;
+    private final SearchIndexService searchIndexService;
+    private final RestaurantGeoIndex restaurantGeoIndex;
+    private final MenuSnapshotService menuSnapshotService;
+
+    public RestaurantChangeListener(RestaurantCatalog restaurantCatalog, SearchIndexService searchIndexService,
+                                    RestaurantGeoIndex restaurantGeoIndex, MenuSnapshotService menuSnapshotService) {
+        this.restaurantCatalog = restaurantCatalog;
+        this.searchIndexService = searchIndexService;
+        this.restaurantGeoIndex = restaurantGeoIndex;
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "${app.rabbitmq.restaurant-exchange-name:restaurant.exchange}", type = ExchangeTypes.TOPIC),
+            key = "${app.rabbitmq.restaurant-routing-key-changed:restaurant.changed}"))
+    public void handleRestaurantChanged(RestaurantChangedEvent event) {
+        logger.debug("Applying {} for restaurant: {} to local read models", event.getEventType(), event.getRestaurantId());
+        restaurantCatalog.invalidate();
+        searchIndexService.apply(event);
+        restaurantGeoIndex.apply(event);
+        if (event.getRestaurantId() != null) {
+            menuSnapshotService.evict(event.getRestaurantId());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ibra.resturantservice.service.rabbitmq;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@Component
+public class RestaurantEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQConfig rabbitMQConfig;
+
+    public RestaurantEventPublisher(RabbitTemplate rabbitTemplate, RabbitMQConfig rabbitMQConfig) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.rabbitMQConfig = rabbitMQConfig;
+    }
+
+    /**
+     * Publishes a catalog change event. Inside a transaction the event is sent only after commit,
+     * so consumers never purge and reload before the change is visible.
+     */
+    public void publishRestaurantChanged(Long restaurantId, Long menuItemId, String eventType) {
+        RestaurantChangedEvent event = new RestaurantChangedEvent(restaurantId, menuItemId, eventType, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(RestaurantChangedEvent event) {
+        try {
+            logger.info("Publishing {} event for restaurant ID: {} to exchange: {} with routing key: {}",
+                    event.getEventType(), event.getRestaurantId(),
+                    rabbitMQConfig.getRestaurantExchangeName(), rabbitMQConfig.getRestaurantRoutingKeyChanged());
+
+            rabbitTemplate.convertAndSend(
+                    rabbitMQConfig.getRestaurantExchangeName(),
+                    rabbitMQConfig.getRestaurantRoutingKeyChanged(),
+                    event
+            );
+        } catch (Exception e) {
+            logger.error("Failed to publish {} event for restaurant ID: {}", event.getEventType(), event.getRestaurantId(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- Full-text and trigram search support for restaurants and menu items.
+-- Applied at startup by SearchSchemaInitializer after Hibernate has created the tables; every statement is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Weighted documents: name (A) ranks above address/description (B)
+ALTER TABLE restaurants ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english'::regconfig, coalesce(address, '')), 'B') ||
+        setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'C')
+    ) STORED;
+
+ALTER TABLE menu_items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_restaurants_search_vector ON restaurants USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_menu_items_search_vector ON menu_items USING GIN (search_vector);
+
+-- Serve ILIKE '%...%' substring matches and the % similarity operator
+CREATE INDEX IF NOT EXISTS idx_restaurants_name_trgm ON restaurants USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_restaurants_address_trgm ON restaurants USING GIN (address gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_menu_items_name_trgm ON menu_items USING GIN (name gin_trgm_ops);
@@ -0,0 +1,157 @@
+package com.ibra.resturantservice.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoIndexTest.class);
+
+    // A dense metro area, a city block, the tip of Africa and the Bering Strait across the antimeridian
+    private static final double[][] QUERIES = {{5.6, -0.19, 2}, {5.9, 0.1, 25}, {-33.9, 18.4, 50}, {70.0, 179.9, 50}};
+
+    @Test
+    void returnsPointsWithinRadiusNearestFirst() {
+        GeoIndex index = new GeoIndex(0.05);
+        index.put(1, 5.6037, -0.1870);  // Accra
+        index.put(2, 5.6500, -0.1870);  // ~5 km north
+        index.put(3, 5.6037, -0.1000);  // ~9.6 km east
+        index.put(4, 6.6885, -1.6244);  // Kumasi, ~200 km away
+
+        List<GeoIndex.Hit> hits = index.within(5.6037, -0.1870, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(hits));
+        assertEquals(0, hits.get(0).distanceKm(), 1e-9);
+        assertEquals(5.16, hits.get(1).distanceKm(), 0.05);
+    }
+
+    @Test
+    void putMovesAndRemoveDropsPoints() {
+        GeoIndex index = new GeoIndex(0.05);
+        index.put(1, 5.6037, -0.1870);
+        index.put(2, 5.6100, -0.1870);
+
+        index.put(1, 6.6885, -1.6244);
+        index.remove(2);
+
+        assertTrue(index.within(5.6037, -0.1870, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.within(6.6885, -1.6244, 1)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridianAndNearThePoles() {
+        GeoIndex index = new GeoIndex(0.05);
+        index.put(1, -17.0, 179.99);
+        index.put(2, -17.0, -179.99);
+        index.put(3, 89.99, 0.0);
+        index.put(4, 89.99, 180.0);
+
+        assertEquals(List.of(1L, 2L), ids(index.within(-17.0, 179.99, 5)));
+        assertEquals(List.of(3L, 4L), ids(index.within(89.99, 0.0, 5)));
+    }
+
+    @Test
+    void matchesBruteForceOnManyPoints() {
+        Points points = new Points(200_000);
+        GeoIndex index = points.index();
+
+        for (double[] query : QUERIES) {
+            assertEquals(ids(points.bruteForce(query)), ids(index.within(query[0], query[1], query[2])));
+        }
+    }
+
+    /**
+     * Build time and milliseconds per query of the index at 1M points, against scanning every point. Not part of
+     * the regular build; run with
+     * {@code mvn test -pl restaurant-service -am -Dtest=GeoIndexTest -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkWithinAgainstBruteForce() {
+        Points points = new Points(1_000_000);
+        long start = System.nanoTime();
+        GeoIndex index = points.index();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Warm up both until the JIT has compiled them, checking they agree
+        for (int round = 0; round < 3; round++) {
+            for (double[] query : QUERIES) {
+                assertEquals(ids(points.bruteForce(query)), ids(index.within(query[0], query[1], query[2])));
+            }
+        }
+        int rounds = 20;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (double[] query : QUERIES) {
+                index.within(query[0], query[1], query[2]);
+            }
+        }
+        double indexMillis = (System.nanoTime() - start) / 1e6 / (rounds * QUERIES.length);
+        start = System.nanoTime();
+        for (int round = 0; round < 3; round++) {
+            for (double[] query : QUERIES) {
+                points.bruteForce(query);
+            }
+        }
+        double bruteForceMillis = (System.nanoTime() - start) / 1e6 / (3 * QUERIES.length);
+
+        logger.info("Geo index over {} points: built in {} ms, {} ms/query; brute force {} ms/query (x{})",
+                points.count, buildMillis, String.format("%.3f", indexMillis), String.format("%.1f", bruteForceMillis),
+                String.format("%.0f", bruteForceMillis / indexMillis));
+        assertTrue(indexMillis < bruteForceMillis, "index " + indexMillis + " ms/query, brute force " + bruteForceMillis + " ms/query");
+    }
+
+    // Half the points in a dense metro area, the other half spread over the globe
+    private static final class Points {
+
+        private final int count;
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        Points(int count) {
+            Random random = new Random(42);
+            this.count = count;
+            this.latitudes = new double[count];
+            this.longitudes = new double[count];
+            for (int i = 0; i < count; i++) {
+                boolean metro = i % 2 == 0;
+                latitudes[i] = metro ? 5.6 + random.nextGaussian() * 0.2 : random.nextDouble() * 180 - 90;
+                longitudes[i] = metro ? -0.19 + random.nextGaussian() * 0.2 : random.nextDouble() * 360 - 180;
+            }
+        }
+
+        GeoIndex index() {
+            GeoIndex index = new GeoIndex(0.05);
+            for (int i = 0; i < count; i++) {
+                index.put(i, latitudes[i], longitudes[i]);
+            }
+            return index;
+        }
+
+        List<GeoIndex.Hit> bruteForce(double[] query) {
+            List<GeoIndex.Hit> hits = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                double distance = GeoIndex.distanceKm(query[0], query[1], latitudes[i], longitudes[i]);
+                if (distance <= query[2]) {
+                    hits.add(new GeoIndex.Hit(i, distance));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(GeoIndex.Hit::distanceKm).thenComparingLong(GeoIndex.Hit::id));
+            return hits;
+        }
+    }
+
+    private static List<Long> ids(List<GeoIndex.Hit> hits) {
+        return hits.stream().map(GeoIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ibra.resturantservice.geo;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.resturantservice.dto.NearbyRestaurantDTO;
+import com.ibra.resturantservice.dto.NearbyRestaurantsDTO;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.RestaurantCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RestaurantGeoIndexTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private RestaurantCatalog restaurantCatalog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(restaurantCatalog.getActiveRestaurant(anyLong())).thenAnswer(invocation -> {
+            RestaurantDTO dto = new RestaurantDTO();
+            dto.setId(invocation.getArgument(0));
+            return dto;
+        });
+        // A long max age keeps searches from scheduling a background rebuild
+        restaurantGeoIndex = new RestaurantGeoIndex(restaurantRepository, restaurantCatalog, transactionManager,
+                0.05, Duration.ofDays(365_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantGeoIndex.close();
+    }
+
+    @Test
+    void apply_IndexesLocatedRestaurantsAndPagesByDistance() {
+        when(restaurantRepository.findActiveLocationRowById(1L)).thenReturn(Optional.of(new RestaurantLocationRow(1L, 5.6037, -0.1870)));
+        when(restaurantRepository.findActiveLocationRowById(2L)).thenReturn(Optional.of(new RestaurantLocationRow(2L, 5.6500, -0.1870)));
+        when(restaurantRepository.findActiveLocationRowById(3L)).thenReturn(Optional.of(new RestaurantLocationRow(3L, 5.6037, -0.1000)));
+        for (long id = 1; id <= 3; id++) {
+            restaurantGeoIndex.apply(event(id, null));
+        }
+
+        NearbyRestaurantsDTO first = restaurantGeoIndex.findNearby(5.6037, -0.1870, 10, 0, 2);
+        NearbyRestaurantsDTO second = restaurantGeoIndex.findNearby(5.6037, -0.1870, 10, 1, 2);
+
+        assertEquals(3, first.getTotalHits());
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertEquals(List.of(3L), ids(second));
+        assertTrue(second.getRestaurants().get(0).getDistanceKm() > first.getRestaurants().get(1).getDistanceKm());
+    }
+
+    @Test
+    void apply_RemovesRestaurantsThatAreNoLongerActiveAndIgnoresMenuChanges() {
+        when(restaurantRepository.findActiveLocationRowById(1L))
+                .thenReturn(Optional.of(new RestaurantLocationRow(1L, 5.6037, -0.1870)))
+                .thenReturn(Optional.empty());
+        restaurantGeoIndex.apply(event(1L, null));
+        restaurantGeoIndex.apply(event(1L, 10L));
+        assertEquals(1, restaurantGeoIndex.findNearby(5.6037, -0.1870, 1, 0, 20).getTotalHits());
+
+        restaurantGeoIndex.apply(event(1L, null));
+
+        assertEquals(0, restaurantGeoIndex.findNearby(5.6037, -0.1870, 1, 0, 20).getTotalHits());
+        verify(restaurantRepository, times(2)).findActiveLocationRowById(1L);
+    }
+
+    @Test
+    void findNearby_SkipsRestaurantsMissingFromTheCatalogBeforePaging() {
+        for (long id = 1; id <= 4; id++) {
+            when(restaurantRepository.findActiveLocationRowById(id))
+                    .thenReturn(Optional.of(new RestaurantLocationRow(id, 5.6037 + id * 0.001, -0.1870)));
+            restaurantGeoIndex.apply(event(id, null));
+        }
+        // The catalog has not caught up with restaurant 2 yet
+        when(restaurantCatalog.getActiveRestaurant(2L)).thenReturn(null);
+
+        NearbyRestaurantsDTO first = restaurantGeoIndex.findNearby(5.6037, -0.1870, 10, 0, 2);
+        NearbyRestaurantsDTO second = restaurantGeoIndex.findNearby(5.6037, -0.1870, 10, 1, 2);
+
+        assertEquals(3, first.getTotalHits());
+        assertEquals(List.of(1L, 3L), ids(first));
+        assertEquals(List.of(4L), ids(second));
+    }
+
+    private static RestaurantChangedEvent event(Long restaurantId, Long menuItemId) {
+        return new RestaurantChangedEvent(restaurantId, menuItemId, "RESTAURANT_UPDATED", LocalDateTime.now());
+    }
+
+    private static List<Long> ids(NearbyRestaurantsDTO results) {
+        return results.getRestaurants().stream().map(NearbyRestaurantDTO::getRestaurant).map(RestaurantDTO::getId).toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ibra.resturantservice.integration;
+
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.enums.MenuItemStatus;
+import com.ibra.enums.RestaurantStatus;
+import com.ibra.resturantservice.dto.SearchHitDTO;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.entity.MenuItem;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.search.DatabaseSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+public class DatabaseSearchIT extends AbstractIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSearchIT.class);
+
+    // The case-insensitive LIKE searches the repository ran before the search indexes, over the same fields
+    private static final String LIKE_SCAN = "SELECT 'RESTAURANT' AS type, r.id, r.name FROM restaurants r " +
+            "WHERE r.status = 'ACTIVE' AND (LOWER(r.name) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "OR LOWER(r.address) LIKE LOWER(CONCAT('%', ?, '%'))) " +
+            "UNION ALL " +
+            "SELECT 'MENU_ITEM', m.id, m.name FROM menu_items m JOIN restaurants r ON r.id = m.restaurant_id " +
+            "WHERE m.status = 'AVAILABLE' AND r.status = 'ACTIVE' AND (LOWER(m.name) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "OR LOWER(m.description) LIKE LOWER(CONCAT('%', ?, '%')))";
+
+    @Autowired
+    private DatabaseSearchService databaseSearchService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Restaurant pizzaPalace;
+
+    @BeforeEach
+    void setUp() {
+        pizzaPalace = restaurantRepository.saveAndFlush(
+                new Restaurant("Pizza Palace", "Wood fired pizza", "1 Main Street", "+1111111111", "pizza@test.com", 1L));
+        Restaurant burgerBarn = restaurantRepository.saveAndFlush(
+                new Restaurant("Burger Barn", "Burgers and fries", "9 Oak Avenue", "+2222222222", "burger@test.com", 2L));
+        Restaurant closed = new Restaurant("Pizza Closed", "Gone", "2 Main Street", "+3333333333", "closed@test.com", 3L);
+        closed.setStatus(RestaurantStatus.INACTIVE);
+        restaurantRepository.saveAndFlush(closed);
+
+        menuItemRepository.saveAndFlush(new MenuItem("Margherita Pizza", "Tomato, mozzarella and basil",
+                BigDecimal.valueOf(11.50), MenuItemCategory.MAIN_COURSE, pizzaPalace));
+        menuItemRepository.saveAndFlush(new MenuItem("Cheeseburger", "Beef patty with cheddar",
+                BigDecimal.valueOf(9.99), MenuItemCategory.MAIN_COURSE, burgerBarn));
+        MenuItem unavailable = new MenuItem("Pizza Special", "Sold out", BigDecimal.TEN, MenuItemCategory.MAIN_COURSE, burgerBarn);
+        unavailable.setStatus(MenuItemStatus.OUT_OF_STOCK);
+        menuItemRepository.saveAndFlush(unavailable);
+    }
+
+    @Test
+    void search_MatchesRestaurantsAndMenuItemsTogether() {
+        SearchResultsDTO results = databaseSearchService.search("pizza", 0, 20);
+
+        assertEquals(2, results.getTotalHits());
+        assertEquals(List.of("Pizza Palace", "Margherita Pizza"), names(results));
+        assertEquals(SearchHitDTO.TYPE_RESTAURANT, results.getHits().get(0).getType());
+        assertEquals(pizzaPalace.getId(), results.getHits().get(1).getRestaurantId());
+    }
+
+    @Test
+    void search_MatchesDescriptionWordsAndMisspelledNames() {
+        assertEquals(List.of("Cheeseburger"), names(databaseSearchService.search("cheddar", 0, 20)));
+        assertEquals("Burger Barn", names(databaseSearchService.search("burger barm", 0, 20)).get(0));
+    }
+
+    @Test
+    void search_PagesThroughHits() {
+        SearchResultsDTO secondPage = databaseSearchService.search("pizza", 1, 1);
+
+        assertEquals(2, secondPage.getTotalHits());
+        assertEquals(List.of("Margherita Pizza"), names(secondPage));
+    }
+
+    @Test
+    void searchByName_UsesTrigramIndex() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM restaurants WHERE name ILIKE '%izza%'", String.class));
+
+        assertTrue(plan.contains("idx_restaurants_name_trgm"), plan);
+        assertEquals(List.of("Pizza Palace"),
+                restaurantRepository.searchByName("IZZA").stream().map(Restaurant::getName).toList());
+    }
+
+    /**
+     * Milliseconds per query of the ranked /api/search query, one page of 20, against the LIKE scan it replaced,
+     * which returned every match unranked, over 100k seeded menu items. The ranked query also matches word stems
+     * and misspellings, so broad queries can cost it more than the scan; each query is reported on its own. Not
+     * part of the regular build; run with
+     * {@code mvn test -pl restaurant-service -am -Dtest=DatabaseSearchIT -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRankedSearchAgainstLikeScan() {
+        // Rolled back with the test; keeps new index entries out of a pending list every search would have to scan
+        jdbcTemplate.execute("SET LOCAL gin_pending_list_limit = 64");
+        SearchBenchmarkData.seed(jdbcTemplate, 1_000, 100_000);
+        jdbcTemplate.execute("ANALYZE restaurants");
+        jdbcTemplate.execute("ANALYZE menu_items");
+
+        double rankedTotal = 0;
+        double likeTotal = 0;
+        for (String query : SearchBenchmarkData.QUERIES) {
+            // Warm up the plan and the database buffers
+            databaseSearchService.search(query, 0, 20);
+            jdbcTemplate.queryForList(LIKE_SCAN, query, query, query, query);
+
+            int rounds = 5;
+            long start = System.nanoTime();
+            long totalHits = 0;
+            for (int round = 0; round < rounds; round++) {
+                totalHits = databaseSearchService.search(query, 0, 20).getTotalHits();
+            }
+            double rankedMillis = (System.nanoTime() - start) / 1e6 / rounds;
+            start = System.nanoTime();
+            int likeHits = 0;
+            for (int round = 0; round < rounds; round++) {
+                likeHits = jdbcTemplate.queryForList(LIKE_SCAN, query, query, query, query).size();
+            }
+            double likeMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+            logger.info("'{}': ranked {} ms for {} hits, LIKE scan {} ms for {} hits", query,
+                    String.format("%.1f", rankedMillis), totalHits, String.format("%.1f", likeMillis), likeHits);
+            // Every query here that the scan matches, the ranked query matches too
+            if (likeHits > 0) {
+                assertTrue(totalHits > 0, "ranked search found nothing for '" + query + "'");
+            }
+            rankedTotal += rankedMillis;
+            likeTotal += likeMillis;
+        }
+        logger.info("{} queries over 100000 menu items: ranked {} ms/query, LIKE scan {} ms/query (x{})",
+                SearchBenchmarkData.QUERIES.size(), String.format("%.1f", rankedTotal / SearchBenchmarkData.QUERIES.size()),
+                String.format("%.1f", likeTotal / SearchBenchmarkData.QUERIES.size()), String.format("%.1f", likeTotal / rankedTotal));
+    }
+
+    private static List<String> names(SearchResultsDTO results) {
+        return results.getHits().stream().map(SearchHitDTO::getName).toList();
+    }
+}
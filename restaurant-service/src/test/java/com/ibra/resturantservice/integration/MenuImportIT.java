@@ -0,0 +1,66 @@
+package com.ibra.resturantservice.integration;
+
+import com.ibra.enums.MenuItemStatus;
+import com.ibra.resturantservice.dto.MenuImportResultDTO;
+import com.ibra.resturantservice.entity.MenuItem;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.menuimport.MenuImportService;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+public class MenuImportIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void importMenuItemsCsv_UpsertsBySku() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(
+                new Restaurant("Chain Pizza", "Many branches", "1 Main Street", "+1111111111", "chain@test.com", 1L));
+        Long restaurantId = restaurant.getId();
+
+        MenuImportResultDTO first = menuImportService.importMenuItemsCsv(restaurantId,
+                "sku,name,price,category\nPZ-1,Margherita,11.50,PIZZA\nPZ-2,Pepperoni,12.50,PIZZA\n,Cola,2.00,BEVERAGE\n", 1L);
+        Long margheritaId = first.getRows().get(0).getMenuItemId();
+        menuItemRepository.findById(margheritaId).orElseThrow().setStatus(MenuItemStatus.OUT_OF_STOCK);
+        menuItemRepository.flush();
+
+        MenuImportResultDTO second = menuImportService.importMenuItemsCsv(restaurantId,
+                "sku,name,price,category\nPZ-1,Margherita,12.00,PIZZA\nPZ-3,Hawaiian,13.00,PIZZA\n", 1L);
+
+        assertEquals(3, first.getCreated());
+        assertEquals(1, second.getUpdated());
+        assertEquals(1, second.getCreated());
+        assertEquals(margheritaId, second.getRows().get(0).getMenuItemId());
+
+        // The import writes through JDBC, so drop entities loaded before it
+        entityManager.clear();
+        List<MenuItem> items = menuItemRepository.findByRestaurantId(restaurantId).stream()
+                .sorted(Comparator.comparing(MenuItem::getId)).toList();
+        assertEquals(4, items.size());
+        MenuItem margherita = items.get(0);
+        assertEquals("PZ-1", margherita.getSku());
+        assertEquals(0, new BigDecimal("12.00").compareTo(margherita.getPrice()));
+        assertEquals(MenuItemStatus.OUT_OF_STOCK, margherita.getStatus());
+    }
+}
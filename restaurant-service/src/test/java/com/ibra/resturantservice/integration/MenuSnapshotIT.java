@@ -0,0 +1,50 @@
+package com.ibra.resturantservice.integration;
+
+import com.ibra.dto.MenuItemDTO;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.enums.MenuItemStatus;
+import com.ibra.resturantservice.dto.CreateMenuItemRequest;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.MenuItemService;
+import com.ibra.resturantservice.service.MenuSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MenuSnapshotIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Test
+    void menuWrites_PublishConsecutiveImmutableVersions() {
+        Long restaurantId = restaurantRepository.save(
+                new Restaurant("Versioned Pizza", "Desc", "1 Main Street", "+1555555555", "versioned@test.com", 1L)).getId();
+
+        MenuItemDTO margherita = menuItemService.createMenuItem(restaurantId, new CreateMenuItemRequest(
+                "Margherita", "Classic", BigDecimal.valueOf(11.50), MenuItemCategory.PIZZA, null), 1L);
+        menuItemService.updateMenuItem(margherita.getId(), new CreateMenuItemRequest(
+                "Margherita", "Classic", BigDecimal.valueOf(12.00), MenuItemCategory.PIZZA, null), 1L);
+        menuItemService.updateMenuItemStatus(margherita.getId(), MenuItemStatus.OUT_OF_STOCK, 1L);
+
+        MenuSnapshotDTO latest = menuSnapshotService.getLatest(restaurantId);
+        MenuSnapshotDTO first = menuSnapshotService.getVersion(restaurantId, 1);
+        MenuSnapshotDTO second = menuSnapshotService.getVersion(restaurantId, 2);
+
+        assertEquals(3, latest.getVersion());
+        assertTrue(latest.getItems().isEmpty());
+        assertEquals(0, BigDecimal.valueOf(11.50).compareTo(first.getItems().get(0).getPrice()));
+        assertEquals(0, BigDecimal.valueOf(12.00).compareTo(second.getItems().get(0).getPrice()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ibra.resturantservice.integration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Generated restaurants and menu items for the search benchmarks, inserted in bulk by PostgreSQL itself since
+ * 100k entities through JPA would take minutes. Every row is active or available, so every row is searchable.
+ */
+final class SearchBenchmarkData {
+
+    // Prefixes, whole words, multi-word and misspelled queries, as typed into a search box
+    static final List<String> QUERIES = List.of("marg", "pizza", "spicy noodles", "chiken", "burger", "tiramisu", "basil");
+
+    private static final String EMAIL_DOMAIN = "@search-benchmark.test";
+
+    private SearchBenchmarkData() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int restaurants, int menuItems) {
+        jdbcTemplate.update(
+                "INSERT INTO restaurants (name, description, address, phone_number, email, owner_id, status, created_at, updated_at) " +
+                        "SELECT (ARRAY['Pizza','Burger','Noodle','Curry','Taco','Sushi','Grill','Bistro'])[1 + i % 8] || ' ' || " +
+                        "  (ARRAY['Palace','Barn','House','Corner','Kitchen','Garden'])[1 + (i / 8) % 6] || ' ' || i, " +
+                        "  'Generated restaurant ' || i, " +
+                        "  i || ' ' || (ARRAY['Main Street','Oak Avenue','Harbour Road','Market Square'])[1 + i % 4], " +
+                        "  '+1' || lpad(i::text, 9, '0'), 'restaurant' || i || ?, i, 'ACTIVE', now(), now() " +
+                        "FROM generate_series(1, ?) AS i",
+                EMAIL_DOMAIN, restaurants);
+        jdbcTemplate.update(
+                "INSERT INTO menu_items (name, description, price, category, status, restaurant_id, created_at, updated_at) " +
+                        "SELECT (ARRAY['Classic','Spicy','Smoky','Golden','Garden','House','Crispy','Double'])[1 + i % 8] || ' ' || " +
+                        "  (ARRAY['Margherita Pizza','Pepperoni Pizza','Chicken Curry','Beef Burger','Noodles','Tiramisu'," +
+                        "   'Caesar Salad','Pad Thai','Fish Tacos','Miso Soup'])[1 + (i / 8) % 10] || ' ' || i, " +
+                        "  'Made with ' || (ARRAY['tomato','basil','garlic','chili','cheddar','lime','ginger'])[1 + i % 7] || " +
+                        "  ' and ' || (ARRAY['mozzarella','coriander','sesame','pecorino','mascarpone'])[1 + i % 5], " +
+                        "  9.99, 'MAIN_COURSE', 'AVAILABLE', r.id, now(), now() " +
+                        "FROM generate_series(1, ?) AS i " +
+                        "JOIN restaurants r ON r.email = 'restaurant' || (1 + i % ?) || ?",
+                menuItems, restaurants, EMAIL_DOMAIN);
+    }
+
+    static void clear(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM menu_items WHERE restaurant_id IN (SELECT id FROM restaurants WHERE email LIKE ?)",
+                "%" + EMAIL_DOMAIN);
+        jdbcTemplate.update("DELETE FROM restaurants WHERE email LIKE ?", "%" + EMAIL_DOMAIN);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ibra.resturantservice.integration;
+
+import com.ibra.resturantservice.search.SearchIndexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexServiceIT extends AbstractIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexServiceIT.class);
+
+    private static final int RESTAURANTS = 1_000;
+    private static final int MENU_ITEMS = 100_000;
+
+    // Predicates of the repository's LIKE searches the index replaced, over every field the index covers
+    private static final String LIKE_RESTAURANTS = "SELECT r.id, r.name, r.address FROM restaurants r " +
+            "WHERE r.status = 'ACTIVE' AND (LOWER(r.name) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "OR LOWER(r.address) LIKE LOWER(CONCAT('%', ?, '%')))";
+    private static final String LIKE_MENU_ITEMS = "SELECT m.id, m.restaurant_id, m.name, m.description FROM menu_items m " +
+            "JOIN restaurants r ON r.id = m.restaurant_id WHERE m.status = 'AVAILABLE' AND r.status = 'ACTIVE' " +
+            "AND (LOWER(m.name) LIKE LOWER(CONCAT('%', ?, '%')) OR LOWER(m.description) LIKE LOWER(CONCAT('%', ?, '%')))";
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SearchBenchmarkData.clear(jdbcTemplate);
+    }
+
+    /**
+     * Milliseconds per query of the in-memory index over 100k menu items, against the LIKE scans it replaced. The
+     * index also ranks and matches misspellings, which LIKE does not. Not part of the regular build; run with
+     * {@code mvn test -pl restaurant-service -am -Dtest=SearchIndexServiceIT -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkIndexAgainstLikeQueries() throws Exception {
+        SearchBenchmarkData.seed(jdbcTemplate, RESTAURANTS, MENU_ITEMS);
+
+        // The index built at startup predates the seed; a generation is swapped in whole, so one hit means all rows
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MINUTES.toNanos(5);
+        while (searchIndexService.search("tiramisu", SearchIndexService.Scope.MENU_ITEM, 0, 1).getTotalHits() == 0) {
+            assertTrue(System.nanoTime() < deadline, "search index was not rebuilt");
+            searchIndexService.requestRebuild();
+            Thread.sleep(50);
+        }
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Consumer<String> index = query -> searchIndexService.search(query, SearchIndexService.Scope.ALL, 0, 20);
+        Consumer<String> like = query -> {
+            jdbcTemplate.queryForList(LIKE_RESTAURANTS, query, query);
+            jdbcTemplate.queryForList(LIKE_MENU_ITEMS, query, query);
+        };
+        // Warm up the JIT and the database buffers
+        for (int round = 0; round < 3; round++) {
+            millisPerQuery(index, 1);
+            millisPerQuery(like, 1);
+        }
+        double indexMillis = millisPerQuery(index, 20);
+        double likeMillis = millisPerQuery(like, 5);
+
+        logger.info("Search over {} restaurants and {} menu items: index built in {} ms, {} ms/query; LIKE {} ms/query (x{})",
+                RESTAURANTS, MENU_ITEMS, buildMillis, String.format("%.2f", indexMillis), String.format("%.2f", likeMillis),
+                String.format("%.1f", likeMillis / indexMillis));
+        assertTrue(indexMillis < likeMillis, "index " + indexMillis + " ms/query, LIKE " + likeMillis + " ms/query");
+    }
+
+    private static double millisPerQuery(Consumer<String> search, int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            SearchBenchmarkData.QUERIES.forEach(search);
+        }
+        return (System.nanoTime() - start) / 1e6 / ((long) rounds * SearchBenchmarkData.QUERIES.size());
+    }
+}
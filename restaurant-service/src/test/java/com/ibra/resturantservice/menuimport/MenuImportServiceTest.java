@@ -0,0 +1,159 @@
+package com.ibra.resturantservice.menuimport;
+
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.exception.BusinessException;
+import com.ibra.exception.UnauthorizedException;
+import com.ibra.resturantservice.dto.CreateMenuItemRequest;
+import com.ibra.resturantservice.dto.MenuImportResultDTO;
+import com.ibra.resturantservice.dto.MenuImportRowResultDTO;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.service.MenuSnapshotService;
+import com.ibra.resturantservice.service.RestaurantCatalog;
+import com.ibra.resturantservice.service.RestaurantService;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuImportServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private RestaurantService restaurantService;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RestaurantEventPublisher restaurantEventPublisher;
+
+    @Mock
+    private RestaurantCatalog restaurantCatalog;
+
+    @Mock
+    private MenuSnapshotService menuSnapshotService;
+
+    private MenuImportService menuImportService;
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        menuImportService = new MenuImportService(restaurantService, menuItemRepository, jdbcTemplate, VALIDATOR,
+                restaurantEventPublisher, restaurantCatalog, menuSnapshotService, 10, 2);
+
+        // Hands out ids 100, 101, ... as the database would for each upserted row
+        AtomicLong nextId = new AtomicLong(100);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class), any(KeyHolder.class), any(String[].class)))
+                .thenAnswer(invocation -> {
+                    SqlParameterSource[] parameters = invocation.getArgument(1);
+                    KeyHolder keyHolder = invocation.getArgument(2);
+                    batchSizes.add(parameters.length);
+                    for (SqlParameterSource ignored : parameters) {
+                        keyHolder.getKeyList().add(Map.of("id", nextId.getAndIncrement()));
+                    }
+                    int[] counts = new int[parameters.length];
+                    Arrays.fill(counts, 1);
+                    return counts;
+                });
+    }
+
+    @Test
+    void importMenuItems_ReportsEveryRowAndWritesValidOnesInBatches() {
+        when(menuItemRepository.findExistingSkus(eq(1L), anyCollection())).thenReturn(List.of("PZ-1"));
+        List<CreateMenuItemRequest> requests = Arrays.asList(
+                item("PZ-1", "Margherita", "11.50"),
+                item("PZ-2", "Pepperoni", "12.50"),
+                item(null, "Garlic Bread", "4.00"),
+                item("PZ-3", "X", "-1"),
+                item("PZ-2", "Pepperoni Again", "13.00"),
+                null);
+
+        MenuImportResultDTO result = menuImportService.importMenuItems(1L, requests, 7L);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(3, result.getFailed());
+        List<MenuImportRowResultDTO> rows = result.getRows();
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), rows.stream().map(MenuImportRowResultDTO::getRow).toList());
+        assertEquals(List.of("UPDATED", "CREATED", "CREATED", "FAILED", "FAILED", "FAILED"),
+                rows.stream().map(MenuImportRowResultDTO::getStatus).toList());
+        assertEquals(List.of(100L, 101L, 102L), rows.subList(0, 3).stream().map(MenuImportRowResultDTO::getMenuItemId).toList());
+        assertEquals(2, rows.get(3).getErrors().size());
+        assertEquals(List.of("SKU PZ-2 already appears in row 2"), rows.get(4).getErrors());
+        assertEquals(List.of(2, 1), batchSizes);
+
+        verify(restaurantService, times(1)).validateRestaurantOwnership(1L, 7L);
+        verify(restaurantEventPublisher, times(1)).publishRestaurantChanged(1L, null, "MENU_IMPORTED");
+        verify(restaurantCatalog, times(1)).invalidate();
+        verify(menuSnapshotService, times(1)).publish(1L);
+    }
+
+    @Test
+    void importMenuItemsCsv_ParsesAndImportsRows() {
+        String csv = "sku,name,price,category\nPZ-9,Calzone,10.00,PIZZA\n,Soup,x,SOUP\n";
+
+        MenuImportResultDTO result = menuImportService.importMenuItemsCsv(1L, csv, 7L);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of("Price is not a number: x"), result.getRows().get(1).getErrors());
+    }
+
+    @Test
+    void importMenuItems_NotOwner_WritesNothing() {
+        doThrow(new UnauthorizedException("You don't own this restaurant"))
+                .when(restaurantService).validateRestaurantOwnership(1L, 8L);
+
+        assertThrows(UnauthorizedException.class, () ->
+                menuImportService.importMenuItems(1L, List.of(item("PZ-1", "Margherita", "11.50")), 8L));
+        verifyNoInteractions(jdbcTemplate, restaurantEventPublisher);
+    }
+
+    @Test
+    void importMenuItems_AllRowsInvalid_PublishesNothing() {
+        MenuImportResultDTO result = menuImportService.importMenuItems(1L, List.of(item("PZ-1", "", "1.00")), 7L);
+
+        assertEquals(1, result.getFailed());
+        verifyNoInteractions(jdbcTemplate, restaurantEventPublisher, restaurantCatalog, menuSnapshotService);
+    }
+
+    @Test
+    void importMenuItems_EmptyOrTooLarge_ThrowsBusinessException() {
+        List<CreateMenuItemRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(item("SKU-" + i, "Item " + i, "1.00"));
+        }
+
+        assertThrows(BusinessException.class, () -> menuImportService.importMenuItems(1L, List.of(), 7L));
+        assertThrows(BusinessException.class, () -> menuImportService.importMenuItems(1L, tooMany, 7L));
+        verifyNoInteractions(restaurantService);
+    }
+
+    private static CreateMenuItemRequest item(String sku, String name, String price) {
+        return new CreateMenuItemRequest(name, null, new BigDecimal(price), MenuItemCategory.PIZZA, null, sku);
+    }
+}
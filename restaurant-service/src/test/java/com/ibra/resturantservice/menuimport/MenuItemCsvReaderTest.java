@@ -0,0 +1,64 @@
+package com.ibra.resturantservice.menuimport;
+
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuItemCsvReaderTest {
+
+    @Test
+    void readsColumnsByHeaderNameIncludingQuotedFields() {
+        String csv = "Category,Name,Price,SKU,Description,Extra\r\n"
+                + "main_course,Margherita,11.50,PZ-1,\"Tomato, mozzarella and \"\"fresh\"\" basil\",x\r\n"
+                + "\r\n"
+                + "DESSERT,\"Tiramisu\",6,,\"Two\nlines\",y";
+
+        List<MenuImportRow> rows = read(csv);
+
+        assertEquals(2, rows.size());
+        MenuImportRow margherita = rows.get(0);
+        assertEquals(1, margherita.row());
+        assertNull(margherita.parseError());
+        assertEquals("PZ-1", margherita.request().getSku());
+        assertEquals(MenuItemCategory.MAIN_COURSE, margherita.request().getCategory());
+        assertEquals(new BigDecimal("11.50"), margherita.request().getPrice());
+        assertEquals("Tomato, mozzarella and \"fresh\" basil", margherita.request().getDescription());
+
+        MenuImportRow tiramisu = rows.get(1);
+        assertEquals(2, tiramisu.row());
+        assertNull(tiramisu.request().getSku());
+        assertEquals("Two\nlines", tiramisu.request().getDescription());
+    }
+
+    @Test
+    void reportsUnreadableValuesPerRow() {
+        String csv = "sku,name,price,category\nA,Soup,abc,SOUP\nB,Salad,4.00,SIDE\nC,Cake,5.00,DESSERT\n";
+
+        List<MenuImportRow> rows = read(csv);
+
+        assertEquals(3, rows.size());
+        assertEquals("Price is not a number: abc", rows.get(0).parseError());
+        assertEquals("A", rows.get(0).request().getSku());
+        assertEquals("Unknown category: SIDE", rows.get(1).parseError());
+        assertNull(rows.get(2).parseError());
+    }
+
+    @Test
+    void rejectsMissingColumnsTooManyRowsAndUnterminatedQuotes() {
+        assertThrows(BusinessException.class, () -> read("name,price\nSoup,4\n"));
+        assertThrows(BusinessException.class, () -> read(""));
+        assertThrows(BusinessException.class, () -> read("name,price,category\n\"Soup,4,SOUP\n"));
+        assertThrows(BusinessException.class, () -> MenuItemCsvReader.read(
+                new StringReader("name,price,category\nA,1,DESSERT\nB,1,DESSERT\n"), 1));
+    }
+
+    private static List<MenuImportRow> read(String csv) {
+        return MenuItemCsvReader.read(new StringReader(csv), 100);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ibra.resturantservice.search;
+
+import com.ibra.resturantservice.dto.SearchHitDTO;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseSearchServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private DatabaseSearchService databaseSearchService;
+
+    @Test
+    void search_MapsRowsAndTotal() {
+        SearchHitView restaurant = hit(SearchHitDTO.TYPE_RESTAURANT, 1L, 1L, "Pizza Palace", 0.9, 7L);
+        SearchHitView menuItem = hit(SearchHitDTO.TYPE_MENU_ITEM, 10L, 1L, "Margherita Pizza", 0.6, 7L);
+        when(restaurantRepository.searchAll("pizza", 2, 4)).thenReturn(List.of(restaurant, menuItem));
+
+        SearchResultsDTO results = databaseSearchService.search(" pizza ", 2, 2);
+
+        assertEquals(7, results.getTotalHits());
+        assertEquals(2, results.getHits().size());
+        SearchHitDTO second = results.getHits().get(1);
+        assertEquals(SearchHitDTO.TYPE_MENU_ITEM, second.getType());
+        assertEquals(10L, second.getId());
+        assertEquals(1L, second.getRestaurantId());
+        assertEquals(0.6, second.getScore());
+    }
+
+    @Test
+    void search_BlankQuery_SkipsDatabase() {
+        SearchResultsDTO results = databaseSearchService.search("  ", 0, 20);
+
+        assertEquals(0, results.getTotalHits());
+        assertTrue(results.getHits().isEmpty());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    private static SearchHitView hit(String type, Long id, Long restaurantId, String name, double score, long total) {
+        SearchHitView view = mock(SearchHitView.class);
+        when(view.getType()).thenReturn(type);
+        when(view.getId()).thenReturn(id);
+        when(view.getRestaurantId()).thenReturn(restaurantId);
+        when(view.getName()).thenReturn(name);
+        when(view.getScore()).thenReturn(score);
+        lenient().when(view.getTotal()).thenReturn(total);
+        return view;
+    }
+}
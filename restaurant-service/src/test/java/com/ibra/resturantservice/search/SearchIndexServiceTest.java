@@ -0,0 +1,111 @@
+package com.ibra.resturantservice.search;
+
+import com.ibra.dto.RestaurantChangedEvent;
+import com.ibra.resturantservice.dto.SearchHitDTO;
+import com.ibra.resturantservice.dto.SearchResultsDTO;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchIndexServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(restaurantRepository.findActiveSearchRows()).thenReturn(List.of(
+                new RestaurantSearchRow(1L, "Pizza Palace", "1 Main Street"),
+                new RestaurantSearchRow(2L, "Burger Barn", "9 Oak Avenue")));
+        when(menuItemRepository.findAvailableSearchRows()).thenReturn(List.of(
+                new MenuItemSearchRow(10L, 1L, "Margherita Pizza", "Tomato, mozzarella and basil"),
+                new MenuItemSearchRow(20L, 2L, "Cheeseburger", "Beef patty with cheddar")));
+
+        searchIndexService = new SearchIndexService(restaurantRepository, menuItemRepository, transactionManager,
+                0.3, 1000, Duration.ofMinutes(30));
+        searchIndexService.requestRebuild();
+        awaitHits("pizza", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchIndexService.close();
+    }
+
+    @Test
+    void searchesRestaurantsAndMenuItemsTogether() {
+        SearchResultsDTO results = searchIndexService.search("pizza", SearchIndexService.Scope.ALL, 0, 20);
+
+        assertEquals(2, results.getTotalHits());
+        assertEquals(SearchHitDTO.TYPE_RESTAURANT, results.getHits().get(0).getType());
+        assertEquals(10L, results.getHits().get(1).getId());
+        assertEquals(1L, results.getHits().get(1).getRestaurantId());
+    }
+
+    @Test
+    void scopeAndPaginationAreApplied() {
+        assertEquals(1, searchIndexService.search("pizza", SearchIndexService.Scope.MENU_ITEM, 0, 20).getTotalHits());
+
+        SearchResultsDTO secondPage = searchIndexService.search("pizza", SearchIndexService.Scope.ALL, 1, 1);
+        assertEquals(2, secondPage.getTotalHits());
+        assertEquals(1, secondPage.getHits().size());
+        assertEquals(SearchHitDTO.TYPE_MENU_ITEM, secondPage.getHits().get(0).getType());
+    }
+
+    @Test
+    void deactivatedRestaurantIsRemovedWithItsMenu() {
+        when(restaurantRepository.findActiveSearchRowById(1L)).thenReturn(Optional.empty());
+        when(menuItemRepository.findAvailableSearchRowsByRestaurantId(1L)).thenReturn(List.of());
+
+        searchIndexService.apply(new RestaurantChangedEvent(1L, null, "RESTAURANT_STATUS_UPDATED", LocalDateTime.now()));
+
+        assertEquals(0, searchIndexService.search("pizza", SearchIndexService.Scope.ALL, 0, 20).getTotalHits());
+        assertEquals(2, searchIndexService.search("burger", SearchIndexService.Scope.ALL, 0, 20).getTotalHits());
+    }
+
+    @Test
+    void menuItemChangeIsReindexed() {
+        when(menuItemRepository.findAvailableSearchRowById(20L))
+                .thenReturn(Optional.of(new MenuItemSearchRow(20L, 2L, "Veggie Burger", "Grilled halloumi")));
+
+        searchIndexService.apply(new RestaurantChangedEvent(2L, 20L, "MENU_ITEM_UPDATED", LocalDateTime.now()));
+
+        assertEquals(1, searchIndexService.search("halloumi", SearchIndexService.Scope.MENU_ITEM, 0, 20).getTotalHits());
+        assertEquals(0, searchIndexService.search("cheddar", SearchIndexService.Scope.MENU_ITEM, 0, 20).getTotalHits());
+    }
+
+    private void awaitHits(String query, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (searchIndexService.search(query, SearchIndexService.Scope.ALL, 0, 20).getTotalHits() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ibra.resturantservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "Pizza Palace");
+        index.put(2, "Mama's Pizzeria");
+        index.put(3, "Burger Barn");
+        index.put(4, "Crème Brûlée Café");
+    }
+
+    @Test
+    void prefixRanksAboveWordPrefixAndSubstring() {
+        index.put(5, "Spizzy Snacks");
+
+        assertEquals(List.of(1L, 2L, 5L), ids(index.search("pizz", 0.3, 10)));
+    }
+
+    @Test
+    void shortPrefixMatchesWordStarts() {
+        assertEquals(List.of(3L), ids(index.search("bu", 0.3, 10)));
+    }
+
+    @Test
+    void fuzzyMatchToleratesTypos() {
+        assertEquals(1L, index.search("piza palase", 0.3, 10).get(0).id());
+    }
+
+    @Test
+    void accentsAndPunctuationAreIgnored() {
+        assertEquals(List.of(4L), ids(index.search("creme brulee", 0.3, 10)));
+        assertEquals(List.of(2L), ids(index.search("mamas", 0.3, 10)));
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        index.put(3, "Taco Town");
+        index.remove(1);
+
+        assertTrue(index.search("burger", 0.3, 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("taco", 0.3, 10)));
+        assertEquals(List.of(2L), ids(index.search("pizz", 0.3, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void limitCapsResults() {
+        assertEquals(1, index.search("pizz", 0.3, 1).size());
+        assertTrue(index.search("   ", 0.3, 10).isEmpty());
+    }
+
+    @Test
+    void rankingHoldsWhenQueryTouchesManyEntries() {
+        for (long id = 100; id < 5_000; id++) {
+            index.put(id, "Corner Kitchen " + id);
+        }
+
+        List<TrigramIndex.Match> matches = index.search("corner kitchen 4999", 0.3, 3);
+
+        assertEquals(4999L, matches.get(0).id());
+        assertEquals(3, matches.size());
+        assertEquals(List.of(1L, 2L), ids(index.search("pizz", 0.3, 10)));
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(TrigramIndex.Match::id).toList();
+    }
+}
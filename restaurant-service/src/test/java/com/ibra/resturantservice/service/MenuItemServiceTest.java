@@ -1,5 +1,6 @@
 package com.ibra.resturantservice.service;
 
+import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
 import com.ibra.exception.UnauthorizedException;
 import com.ibra.resturantservice.dto.CreateMenuItemRequest;
@@ -11,6 +12,7 @@ import com.ibra.enums.MenuItemStatus;
 import com.ibra.resturantservice.mapper.MenuItemMapper;
 import com.ibra.resturantservice.respository.MenuItemRepository;
 import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +44,15 @@ public class MenuItemServiceTest {
     @Mock
     private RestaurantService restaurantService;
 
+    @Mock
+    private RestaurantEventPublisher restaurantEventPublisher;
+
+    @Mock
+    private RestaurantCatalog restaurantCatalog;
+
+    @Mock
+    private MenuSnapshotService menuSnapshotService;
+
     @InjectMocks
     private MenuItemService menuItemService;
 
@@ -91,7 +102,8 @@ public class MenuItemServiceTest {
                 savedMenuItem.getImageUrl(),
                 savedMenuItem.getStatus(),
                 savedMenuItem.getCreatedAt(),
-                savedMenuItem.getUpdatedAt()
+                savedMenuItem.getUpdatedAt(),
+                null
         );
     }
 
@@ -111,6 +123,7 @@ public class MenuItemServiceTest {
         assertEquals("Test Burger", result.getName());
         assertEquals(MenuItemStatus.AVAILABLE, result.getStatus());
         verify(menuItemRepository, times(1)).save(any(MenuItem.class));
+        verify(menuSnapshotService, times(1)).publish(1L);
     }
 
     @Test
@@ -124,6 +137,20 @@ public class MenuItemServiceTest {
         );
     }
 
+    @Test
+    void createMenuItem_DuplicateSku_ThrowsBusinessException() {
+        // Arrange
+        validRequest.setSku("BRG-1");
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(menuItemRepository.existsByRestaurantIdAndSku(1L, "BRG-1")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () ->
+                menuItemService.createMenuItem(1L, validRequest, 1L)
+        );
+        verify(menuItemRepository, never()).save(any(MenuItem.class));
+    }
+
     // ------------------------- READ TESTS -------------------------
     @Test
     void getMenuItemById_ValidId_ReturnsMenuItemDTO() {
@@ -223,6 +250,7 @@ public class MenuItemServiceTest {
 
         // Assert
         verify(menuItemRepository, times(1)).delete(savedMenuItem);
+        verify(restaurantEventPublisher).publishRestaurantChanged(1L, 1L, "MENU_ITEM_DELETED");
     }
 
     @Test
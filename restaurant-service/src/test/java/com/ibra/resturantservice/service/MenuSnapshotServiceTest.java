@@ -0,0 +1,141 @@
+package com.ibra.resturantservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.dto.MenuSnapshotDTO;
+import com.ibra.enums.MenuItemCategory;
+import com.ibra.enums.MenuItemStatus;
+import com.ibra.exception.ResourceNotFoundException;
+import com.ibra.resturantservice.entity.MenuItem;
+import com.ibra.resturantservice.entity.MenuSnapshot;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.mapper.MenuItemMapper;
+import com.ibra.resturantservice.respository.MenuItemRepository;
+import com.ibra.resturantservice.respository.MenuSnapshotRepository;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuSnapshotServiceTest {
+
+    @Mock
+    private MenuSnapshotRepository menuSnapshotRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MenuSnapshotService menuSnapshotService;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(menuSnapshotRepository.save(any(MenuSnapshot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        menuSnapshotService = new MenuSnapshotService(menuSnapshotRepository, restaurantRepository, menuItemRepository,
+                new MenuItemMapper(), objectMapper, transactionManager, 10);
+        restaurant = new Restaurant();
+        restaurant.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_NextVersionServedFromMemoryOnceCommitted() {
+        when(restaurantRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(menuSnapshotRepository.findLatestVersion(1L)).thenReturn(2L);
+        when(menuItemRepository.findByRestaurantIdAndStatus(1L, MenuItemStatus.AVAILABLE))
+                .thenReturn(List.of(item(12L, "Pepperoni", "12.50"), item(11L, "Margherita", "11.50")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        MenuSnapshotDTO published = menuSnapshotService.publish(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(3, published.getVersion());
+        assertEquals(List.of(11L, 12L), published.getItems().stream().map(dto -> dto.getId()).toList());
+        assertSame(published, menuSnapshotService.getLatest(1L));
+        assertSame(published, menuSnapshotService.getVersion(1L, 3));
+        verify(menuSnapshotRepository, never()).findFirstByRestaurantIdOrderByVersionDesc(any());
+    }
+
+    @Test
+    void getLatest_LoadsStoredVersionOnceUntilEvicted() {
+        MenuSnapshot stored = new MenuSnapshot(1L, 7, "[{\"id\":11,\"name\":\"Margherita\",\"price\":11.50}]", LocalDateTime.now());
+        when(menuSnapshotRepository.findFirstByRestaurantIdOrderByVersionDesc(1L)).thenReturn(Optional.of(stored));
+
+        MenuSnapshotDTO first = menuSnapshotService.getLatest(1L);
+        MenuSnapshotDTO second = menuSnapshotService.getLatest(1L);
+        menuSnapshotService.evict(1L);
+        menuSnapshotService.getLatest(1L);
+
+        assertSame(first, second);
+        assertEquals(7, first.getVersion());
+        assertEquals(0, new BigDecimal("11.50").compareTo(first.getItems().get(0).getPrice()));
+        verify(menuSnapshotRepository, times(2)).findFirstByRestaurantIdOrderByVersionDesc(1L);
+    }
+
+    @Test
+    void getLatest_PublishesFirstVersionForMenusWithoutOne() {
+        when(menuSnapshotRepository.findFirstByRestaurantIdOrderByVersionDesc(1L)).thenReturn(Optional.empty());
+        when(restaurantRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(menuSnapshotRepository.findLatestVersion(1L)).thenReturn(0L);
+        when(menuItemRepository.findByRestaurantIdAndStatus(1L, MenuItemStatus.AVAILABLE))
+                .thenReturn(List.of(item(11L, "Margherita", "11.50")));
+
+        MenuSnapshotDTO snapshot = menuSnapshotService.getLatest(1L);
+
+        assertEquals(1, snapshot.getVersion());
+        verify(menuSnapshotRepository, times(1)).save(any(MenuSnapshot.class));
+    }
+
+    @Test
+    void getVersion_UnknownVersionThrowsResourceNotFound() {
+        when(menuSnapshotRepository.findByRestaurantIdAndVersion(1L, 9)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> menuSnapshotService.getVersion(1L, 9));
+    }
+
+    @Test
+    void publish_UnknownRestaurantThrowsResourceNotFound() {
+        when(restaurantRepository.lockById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> menuSnapshotService.publish(5L));
+        verify(menuSnapshotRepository, never()).save(any(MenuSnapshot.class));
+    }
+
+    private MenuItem item(Long id, String name, String price) {
+        MenuItem item = new MenuItem(name, null, new BigDecimal(price), MenuItemCategory.PIZZA, restaurant);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ibra.resturantservice.service;
+
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.enums.RestaurantStatus;
+import com.ibra.resturantservice.dto.RestaurantSummary;
+import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RestaurantCatalogTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private RestaurantMapper restaurantMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RestaurantCatalog restaurantCatalog;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(restaurantMapper.toDTO(any(RestaurantSummary.class))).thenAnswer(invocation -> {
+            RestaurantSummary restaurant = invocation.getArgument(0);
+            RestaurantDTO dto = new RestaurantDTO();
+            dto.setName(restaurant.name());
+            dto.setAddress(restaurant.address());
+            return dto;
+        });
+        restaurantCatalog = new RestaurantCatalog(restaurantRepository, restaurantMapper, transactionManager, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantCatalog.close();
+    }
+
+    @Test
+    void repeatedReadsUseOneSnapshot() {
+        when(restaurantRepository.findSummariesByStatus(RestaurantStatus.ACTIVE)).thenReturn(List.of(restaurant("Pizza Place", "1 Main St")));
+
+        List<RestaurantDTO> first = restaurantCatalog.getActiveRestaurants();
+        List<RestaurantDTO> second = restaurantCatalog.getActiveRestaurants();
+
+        assertEquals(1, first.size());
+        assertSame(first, second);
+        verify(restaurantRepository, times(1)).findSummariesByStatus(RestaurantStatus.ACTIVE);
+    }
+
+    @Test
+    void searchMatchesSubstringsIgnoringCase() {
+        when(restaurantRepository.findSummariesByStatus(RestaurantStatus.ACTIVE)).thenReturn(List.of(
+                restaurant("Pizza Place", "1 Main St"),
+                restaurant("Burger Barn", "9 Oak Avenue")));
+
+        assertEquals(List.of("Pizza Place"), names(restaurantCatalog.searchByName("PIZZA")));
+        assertEquals(List.of("Burger Barn"), names(restaurantCatalog.searchByAddress("oak")));
+        assertTrue(restaurantCatalog.searchByName(null).isEmpty());
+    }
+
+    @Test
+    void invalidateRebuildsInTheBackgroundWhileOldSnapshotIsServed() throws InterruptedException {
+        CountDownLatch reloaded = new CountDownLatch(1);
+        when(restaurantRepository.findSummariesByStatus(RestaurantStatus.ACTIVE))
+                .thenReturn(List.of(restaurant("Pizza Place", "1 Main St")))
+                .thenAnswer(invocation -> {
+                    reloaded.countDown();
+                    return List.of(restaurant("Pizza Place", "1 Main St"), restaurant("Burger Barn", "9 Oak Avenue"));
+                });
+        assertEquals(1, restaurantCatalog.getActiveRestaurants().size());
+
+        restaurantCatalog.invalidate();
+        restaurantCatalog.getActiveRestaurants();
+
+        assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (restaurantCatalog.getActiveRestaurants().size() != 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, restaurantCatalog.getActiveRestaurants().size());
+        verify(restaurantRepository, times(2)).findSummariesByStatus(RestaurantStatus.ACTIVE);
+    }
+
+    private static RestaurantSummary restaurant(String name, String address) {
+        return new RestaurantSummary(null, name, null, address, null, RestaurantStatus.ACTIVE, null, null);
+    }
+
+    private static List<String> names(List<RestaurantDTO> restaurants) {
+        return restaurants.stream().map(RestaurantDTO::getName).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ibra.resturantservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibra.dto.RestaurantDTO;
+import com.ibra.resturantservice.entity.Restaurant;
+import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.RestaurantRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RestaurantExportServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private RestaurantMapper restaurantMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private RestaurantExportService restaurantExportService;
+
+    @BeforeEach
+    void setUp() {
+        restaurantExportService = new RestaurantExportService(restaurantRepository, restaurantMapper, new ObjectMapper(), entityManager);
+    }
+
+    @Test
+    void exportRestaurants_WritesOneJsonLinePerRestaurantAndDetachesIt() throws IOException {
+        // Arrange
+        Restaurant pizza = restaurant(1L, "Pizza Palace");
+        Restaurant burger = restaurant(2L, "Burger Barn");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(restaurantRepository.streamAll()).thenReturn(Stream.of(pizza, burger).onClose(() -> closed.set(true)));
+        when(restaurantMapper.toDTO(any(Restaurant.class))).thenAnswer(invocation -> {
+            Restaurant restaurant = invocation.getArgument(0);
+            RestaurantDTO dto = new RestaurantDTO();
+            dto.setId(restaurant.getId());
+            dto.setName(restaurant.getName());
+            return dto;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = restaurantExportService.exportRestaurants(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Pizza Palace\""));
+        assertTrue(lines[1].contains("\"name\":\"Burger Barn\""));
+        verify(entityManager).detach(pizza);
+        verify(entityManager).detach(burger);
+        assertTrue(closed.get());
+    }
+
+    private static Restaurant restaurant(Long id, String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        return restaurant;
+    }
+}
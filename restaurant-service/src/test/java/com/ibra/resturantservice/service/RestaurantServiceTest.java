@@ -4,17 +4,24 @@ import com.ibra.exception.BusinessException;
 import com.ibra.exception.ResourceNotFoundException;
 import com.ibra.exception.UnauthorizedException;
 import com.ibra.resturantservice.dto.CreateRestaurantRequest;
+import com.ibra.resturantservice.dto.RestaurantDetail;
+import com.ibra.dto.RestaurantPageDTO;
+import com.ibra.resturantservice.dto.RestaurantView;
 import com.ibra.dto.RestaurantDTO;
+import com.ibra.resturantservice.entity.MenuItem;
 import com.ibra.resturantservice.entity.Restaurant;
 import com.ibra.enums.RestaurantStatus;
 import com.ibra.resturantservice.mapper.RestaurantMapper;
+import com.ibra.resturantservice.respository.MenuItemRepository;
 import com.ibra.resturantservice.respository.RestaurantRepository;
+import com.ibra.resturantservice.service.rabbitmq.RestaurantEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -34,6 +41,15 @@ public class RestaurantServiceTest {
     @Mock
     private RestaurantMapper restaurantMapper;
 
+    @Mock
+    private RestaurantEventPublisher restaurantEventPublisher;
+
+    @Mock
+    private RestaurantCatalog restaurantCatalog;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
     @InjectMocks
     private RestaurantService restaurantService;
 
@@ -84,7 +100,9 @@ public class RestaurantServiceTest {
                 savedRestaurant.getUpdatedAt(),
                 Collections.emptyList(), // menuItems
                 null, // cuisine
-                null  // rate
+                null, // rate
+                null, // latitude
+                null  // longitude
         );
     }
 
@@ -107,6 +125,18 @@ public class RestaurantServiceTest {
         verify(restaurantRepository, times(1)).save(any(Restaurant.class));
     }
 
+    @Test
+    void createRestaurant_LatitudeWithoutLongitude_ThrowsBusinessException() {
+        // Arrange
+        validRequest.setLatitude(5.6);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () ->
+                restaurantService.createRestaurant(validRequest, 1L)
+        );
+        verify(restaurantRepository, never()).save(any(Restaurant.class));
+    }
+
     @Test
     void createRestaurant_DuplicatePhone_ThrowsBusinessException() {
         // Arrange
@@ -120,23 +150,108 @@ public class RestaurantServiceTest {
 
     // ------------------------- READ TESTS -------------------------
     @Test
-    void getRestaurantById_ValidId_ReturnsRestaurantDTO() {
+    void getRestaurantById_ValidId_ReturnsRestaurantWithMenu() {
         // Arrange
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(savedRestaurant));
-        when(restaurantMapper.toDTO(savedRestaurant)).thenReturn(restaurantDTO);
+        RestaurantDetail detail = detail();
+        List<MenuItem> menuItems = List.of(new MenuItem());
+        when(restaurantRepository.findDetailById(1L)).thenReturn(Optional.of(detail));
+        when(menuItemRepository.findByRestaurantId(1L)).thenReturn(menuItems);
+        when(restaurantMapper.toDTO(detail, menuItems)).thenReturn(restaurantDTO);
 
         // Act
         RestaurantDTO result = restaurantService.getRestaurantById(1L);
 
         // Assert
         assertEquals(restaurantDTO, result);
-        verify(restaurantRepository, times(1)).findById(1L);
+        verify(restaurantRepository, times(1)).findDetailById(1L);
+        verify(restaurantRepository, never()).findById(any());
+    }
+
+    @Test
+    void getRestaurantById_DetailView_SkipsMenuQuery() {
+        // Arrange
+        RestaurantDetail detail = detail();
+        when(restaurantRepository.findDetailById(1L)).thenReturn(Optional.of(detail));
+        when(restaurantMapper.toDTO(detail)).thenReturn(restaurantDTO);
+
+        // Act
+        RestaurantDTO result = restaurantService.getRestaurantById(1L, RestaurantView.DETAIL);
+
+        // Assert
+        assertEquals(restaurantDTO, result);
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    @Test
+    void getAllRestaurants_UsesDetailProjectionPage() {
+        // Arrange
+        RestaurantDetail detail = detail();
+        when(restaurantRepository.findDetailsAfter(0L, PageRequest.of(2, 1))).thenReturn(List.of(detail));
+        when(restaurantMapper.toDTO(detail)).thenReturn(restaurantDTO);
+
+        // Act
+        RestaurantPageDTO result = restaurantService.getAllRestaurants(2, 1, null);
+
+        // Assert
+        assertEquals(List.of(restaurantDTO), result.getContent());
+        assertEquals(2, result.getPage());
+        assertTrue(result.isHasNext());
+        assertNotNull(result.getNextCursor());
+        verify(restaurantRepository, never()).findAll();
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    @Test
+    void getRestaurantsByOwner_NextCursorResumesAfterLastId() {
+        // Arrange
+        RestaurantDetail detail = detail();
+        when(restaurantRepository.findDetailsByOwnerIdAfter(1L, 0L, PageRequest.of(0, 1))).thenReturn(List.of(detail));
+        when(restaurantRepository.findDetailsByOwnerIdAfter(1L, 1L, PageRequest.of(0, 1))).thenReturn(List.of());
+        when(restaurantMapper.toDTO(detail)).thenReturn(restaurantDTO);
+
+        // Act
+        RestaurantPageDTO first = restaurantService.getRestaurantsByOwner(1L, 0, 1, null);
+        RestaurantPageDTO second = restaurantService.getRestaurantsByOwner(1L, 5, 1, first.getNextCursor());
+
+        // Assert
+        assertEquals(1, first.getContent().size());
+        assertTrue(second.getContent().isEmpty());
+        assertNull(second.getPage());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getActiveRestaurants_PagesCatalogByNumberAndCursor() {
+        // Arrange
+        List<RestaurantDTO> catalog = List.of(activeRestaurant(3L), activeRestaurant(5L), activeRestaurant(8L));
+        when(restaurantCatalog.getActiveRestaurants()).thenReturn(catalog);
+
+        // Act
+        RestaurantPageDTO first = restaurantService.getActiveRestaurants(0, 2, null);
+        RestaurantPageDTO second = restaurantService.getActiveRestaurants(0, 2, first.getNextCursor());
+        RestaurantPageDTO beyond = restaurantService.getActiveRestaurants(7, 2, null);
+
+        // Assert
+        assertEquals(List.of(3L, 5L), ids(first));
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(8L), ids(second));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+        assertTrue(beyond.getContent().isEmpty());
+    }
+
+    @Test
+    void getActiveRestaurants_InvalidCursor_ThrowsBusinessException() {
+        when(restaurantCatalog.getActiveRestaurants()).thenReturn(List.of());
+
+        assertThrows(BusinessException.class, () -> restaurantService.getActiveRestaurants(0, 2, "not-a-cursor!"));
     }
 
     @Test
     void getRestaurantById_InvalidId_ThrowsResourceNotFoundException() {
         // Arrange
-        when(restaurantRepository.findById(999L)).thenReturn(Optional.empty());
+        when(restaurantRepository.findDetailById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () ->
@@ -145,21 +260,16 @@ public class RestaurantServiceTest {
     }
 
     @Test
-    void getAllActiveRestaurants_ReturnsActiveRestaurantsOnly() {
+    void getAllActiveRestaurants_ServedFromCatalog() {
         // Arrange
-        Restaurant activeRestaurant = new Restaurant();
-        activeRestaurant.setStatus(RestaurantStatus.ACTIVE);
-        List<Restaurant> activeRestaurants = List.of(activeRestaurant);
-
-        when(restaurantRepository.findByStatus(RestaurantStatus.ACTIVE)).thenReturn(activeRestaurants);
-        when(restaurantMapper.toDTO(any(Restaurant.class))).thenReturn(new RestaurantDTO());
+        when(restaurantCatalog.getActiveRestaurants()).thenReturn(List.of(new RestaurantDTO()));
 
         // Act
         List<RestaurantDTO> result = restaurantService.getAllActiveRestaurants();
 
         // Assert
         assertEquals(1, result.size());
-        verify(restaurantRepository, times(1)).findByStatus(RestaurantStatus.ACTIVE);
+        verifyNoInteractions(restaurantRepository);
     }
 
     // ------------------------- UPDATE TESTS -------------------------
@@ -210,6 +320,8 @@ public class RestaurantServiceTest {
 
         // Assert
         verify(restaurantRepository, times(1)).delete(savedRestaurant);
+        verify(restaurantEventPublisher).publishRestaurantChanged(1L, null, "RESTAURANT_DELETED");
+        verify(restaurantCatalog).invalidate();
     }
 
     @Test
@@ -221,6 +333,7 @@ public class RestaurantServiceTest {
         assertThrows(UnauthorizedException.class, () ->
                 restaurantService.deleteRestaurant(1L, 2L)
         );
+        verifyNoInteractions(restaurantEventPublisher, restaurantCatalog);
     }
 
     // ------------------------- STATUS UPDATE TESTS -------------------------
@@ -238,4 +351,22 @@ public class RestaurantServiceTest {
         assertEquals(restaurantDTO, result);
         verify(restaurantRepository, times(1)).save(savedRestaurant);
     }
-}
\ No newline at end of file
+
+    private RestaurantDetail detail() {
+        return new RestaurantDetail(savedRestaurant.getId(), savedRestaurant.getName(), savedRestaurant.getDescription(),
+                savedRestaurant.getAddress(), savedRestaurant.getPhoneNumber(), savedRestaurant.getEmail(),
+                savedRestaurant.getOwnerId(), savedRestaurant.getImageUrl(), savedRestaurant.getStatus(),
+                savedRestaurant.getLatitude(), savedRestaurant.getLongitude(), savedRestaurant.getCreatedAt(), savedRestaurant.getUpdatedAt());
+    }
+
+    private static RestaurantDTO activeRestaurant(Long id) {
+        RestaurantDTO dto = new RestaurantDTO();
+        dto.setId(id);
+        dto.setStatus(RestaurantStatus.ACTIVE);
+        return dto;
+    }
+
+    private static List<Long> ids(RestaurantPageDTO page) {
+        return page.getContent().stream().map(RestaurantDTO::getId).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibra.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that lets through at most {@code maxRatio} extra attempts (hedges or retries) per call, with a small
+ * burst allowance, so a struggling dependency never sees much more than its normal traffic.
+ */
+final class AttemptBudget {
+
+    private static final long TOKEN = 1000;
+    private static final long CAPACITY = 10 * TOKEN;
+
+    private final long deposit;
+    private final AtomicLong balance = new AtomicLong(CAPACITY);
+
+    AttemptBudget(double maxRatio) {
+        this.deposit = Math.round(maxRatio * TOKEN);
+    }
+
+    // Once per call
+    void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(CAPACITY, current + amount));
+    }
+
+    // Once per extra attempt; false when the budget is spent
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
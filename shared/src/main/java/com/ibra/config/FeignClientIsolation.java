@@ -0,0 +1,122 @@
+package com.ibra.config;
+
+import feign.Capability;
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every Feign method its own Resilience4j semaphore bulkhead, so a slow dependency can tie up at most
+ * {@code max-concurrent-calls} request threads per remote operation instead of all of them.
+ * <p>
+ * Bulkheads are named {@code <client>-<method>} ({@code restaurant-service-get-restaurant-by-id}) and configured
+ * under {@code resilience4j.bulkhead}. A method with {@code app.feign.methods.<client>.<method>.serve-stale=true}
+ * answers with its last successful response for the same arguments while the dependency is unavailable (bulkhead
+ * full, timeouts, 5xx) instead of throwing; it still throws when nothing was cached. Meant for catalog reads; lookups
+ * that authorization depends on, such as an owner's restaurants, must not be answered from an old copy.
+ */
+public class FeignClientIsolation implements Capability {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeignClientIsolation.class);
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final int maxStaleEntries;
+
+    public FeignClientIsolation(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry, Environment environment,
+                                int maxStaleEntries) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.maxStaleEntries = maxStaleEntries;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return (target, dispatch) -> {
+            Map<Method, InvocationHandlerFactory.MethodHandler> isolated = new LinkedHashMap<>();
+            dispatch.forEach((method, handler) ->
+                    isolated.put(method, method.isDefault() ? handler : isolate(target.name(), method, handler)));
+            return invocationHandlerFactory.create(target, isolated);
+        };
+    }
+
+    private InvocationHandlerFactory.MethodHandler isolate(String client, Method method,
+                                                           InvocationHandlerFactory.MethodHandler handler) {
+        String operation = FeignClientTuning.kebabCase(method.getName());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(client + "-" + operation);
+        Gauge.builder("feign.client.bulkhead.saturation", bulkhead, FeignClientIsolation::saturation)
+                .description("Share of the bulkhead's concurrent calls in use")
+                .tags("client", client, "method", operation)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("feign.client.bulkhead.rejected")
+                .description("Calls refused because the bulkhead was full")
+                .tags("client", client, "method", operation)
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+
+        if (!environment.getProperty("app.feign.methods." + client + "." + operation + ".serve-stale", Boolean.class, false)) {
+            return args -> bulkhead.executeCheckedSupplier(() -> handler.invoke(args));
+        }
+
+        Counter served = Counter.builder("feign.client.stale.served")
+                .description("Calls answered with the last cached response because the dependency was unavailable")
+                .tags("client", client, "method", operation)
+                .register(meterRegistry);
+        Map<List<Object>, Object> lastKnown = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                return size() > maxStaleEntries;
+            }
+        });
+        return args -> {
+            List<Object> key = args != null ? Arrays.asList(args.clone()) : List.of();
+            try {
+                Object result = bulkhead.executeCheckedSupplier(() -> handler.invoke(args));
+                if (result != null) {
+                    lastKnown.put(key, result);
+                }
+                return result;
+            } catch (Throwable e) {
+                Object stale = unavailable(e) ? lastKnown.get(key) : null;
+                if (stale == null) {
+                    throw e;
+                }
+                served.increment();
+                logger.warn("{} is unavailable ({}), answering {}{} with the last cached response",
+                        client, e.getClass().getSimpleName(), operation, key);
+                return stale;
+            }
+        };
+    }
+
+    private static double saturation(Bulkhead bulkhead) {
+        Bulkhead.Metrics metrics = bulkhead.getMetrics();
+        int max = metrics.getMaxAllowedConcurrentCalls();
+        return max == 0 ? 0 : (max - metrics.getAvailableConcurrentCalls()) / (double) max;
+    }
+
+    // Failures of the dependency itself; a 404 or 400 is an answer and is passed on
+    private static boolean unavailable(Throwable e) {
+        return e instanceof BulkheadFullException
+                || e instanceof RetryableException
+                || (e instanceof FeignException feignException && feignException.status() >= 500);
+    }
+}
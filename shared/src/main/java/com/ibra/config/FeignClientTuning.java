@@ -0,0 +1,187 @@
+package com.ibra.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Target;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-method timeouts and hedged GETs for every Feign client, applied as a Feign {@link Capability}.
+ * <p>
+ * Timeouts default to the client's {@code spring.cloud.openfeign.client.config} values and can be set per method
+ * with {@code app.feign.methods.<client>.<method>.connect-timeout} and {@code .read-timeout}, where client is the
+ * Feign client name and method the interface method in kebab case ({@code get-restaurant-by-id}), which is also the
+ * {@code method} tag of the meters here and in {@link FeignClientIsolation}. Setting
+ * {@code .hedge=true} on a GET sends a second copy of a call that has not answered within the method's recent p95,
+ * and returns whichever answer comes first. Hedges are capped at {@code app.feign.hedging.max-ratio} of the calls
+ * to each client, so a struggling dependency is not sent much extra load.
+ */
+public class FeignClientTuning implements Capability, AutoCloseable {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final double maxHedgeRatio;
+    private final Duration initialHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final Map<String, MethodPolicy> policies = new ConcurrentHashMap<>();
+    private final Map<String, AttemptBudget> hedgeBudgets = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FeignClientTuning(Environment environment, MeterRegistry meterRegistry, double maxHedgeRatio,
+                             Duration initialHedgeDelay, Duration minHedgeDelay) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.initialHedgeDelay = initialHedgeDelay;
+        this.minHedgeDelay = minHedgeDelay;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new TunedFeignClient(client, this, hedgeExecutor);
+    }
+
+    @Override
+    public void close() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    MethodPolicy policy(Request request) {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        Target<?> target = request.requestTemplate() != null ? request.requestTemplate().feignTarget() : null;
+        if (metadata == null || target == null) {
+            return policies.computeIfAbsent("", key -> new MethodPolicy("unknown", "unknown", null, null, false));
+        }
+        return policies.computeIfAbsent(metadata.configKey(), key -> createPolicy(target.name(), metadata.method().getName()));
+    }
+
+    private MethodPolicy createPolicy(String client, String method) {
+        String operation = kebabCase(method);
+        String prefix = "app.feign.methods." + client + "." + operation + ".";
+        return new MethodPolicy(client, operation,
+                duration(prefix + "connect-timeout"),
+                duration(prefix + "read-timeout"),
+                environment.getProperty(prefix + "hedge", Boolean.class, false));
+    }
+
+    // Same formats as @Value Durations ("3s", "500ms" or plain milliseconds), whatever the Environment's converters
+    private Duration duration(String key) {
+        String value = environment.getProperty(key);
+        return value != null && !value.isBlank() ? DurationStyle.detectAndParse(value) : null;
+    }
+
+    AttemptBudget hedgeBudget(String client) {
+        return hedgeBudgets.computeIfAbsent(client, name -> new AttemptBudget(maxHedgeRatio));
+    }
+
+    static String kebabCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * What applies to one Feign method, and its recent latencies.
+     */
+    final class MethodPolicy {
+
+        private static final int WINDOW = 256;
+        private static final int MIN_SAMPLES = 20;
+        private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final Duration connectTimeout;
+        private final Duration readTimeout;
+        private final boolean hedged;
+        private final String client;
+        private final Timer latency;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+
+        // Ring of the last WINDOW latencies; racy by design, the p95 only has to be roughly right
+        private final long[] samples = new long[WINDOW];
+        private final AtomicLong recorded = new AtomicLong();
+        private volatile long p95Nanos = -1;
+        private volatile long p95ComputedAt;
+
+        MethodPolicy(String client, String method, Duration connectTimeout, Duration readTimeout, boolean hedged) {
+            this.client = client;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.hedged = hedged;
+            this.latency = Timer.builder("feign.client.latency")
+                    .description("Feign calls per method, each attempt of a hedged call counted on its own")
+                    .tags("client", client, "method", method)
+                    .publishPercentiles(0.95)
+                    .register(meterRegistry);
+            this.hedges = Counter.builder("feign.client.hedges")
+                    .description("Second attempts sent because the first was slower than the method's p95")
+                    .tags("client", client, "method", method)
+                    .register(meterRegistry);
+            this.hedgeWins = Counter.builder("feign.client.hedges.won")
+                    .description("Hedged calls answered by the second attempt")
+                    .tags("client", client, "method", method)
+                    .register(meterRegistry);
+        }
+
+        boolean hedged() {
+            return hedged;
+        }
+
+        String client() {
+            return client;
+        }
+
+        Request.Options options(Request.Options defaults) {
+            if (connectTimeout == null && readTimeout == null) {
+                return defaults;
+            }
+            return new Request.Options(
+                    connectTimeout != null ? connectTimeout.toMillis() : defaults.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                    readTimeout != null ? readTimeout.toMillis() : defaults.readTimeoutMillis(), TimeUnit.MILLISECONDS,
+                    defaults.isFollowRedirects());
+        }
+
+        void record(long nanos) {
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+            samples[(int) (recorded.getAndIncrement() % WINDOW)] = nanos;
+        }
+
+        void hedgeSent() {
+            hedges.increment();
+        }
+
+        void hedgeWon() {
+            hedgeWins.increment();
+        }
+
+        // The p95 of recent calls, or the configured initial delay until there are enough of them
+        Duration hedgeDelay() {
+            long count = recorded.get();
+            if (count < MIN_SAMPLES) {
+                return initialHedgeDelay;
+            }
+            long now = System.nanoTime();
+            if (p95Nanos < 0 || now - p95ComputedAt > REFRESH_NANOS) {
+                long[] window = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+                Arrays.sort(window);
+                p95Nanos = window[(int) (window.length * 0.95)];
+                p95ComputedAt = now;
+            }
+            return Duration.ofNanos(Math.max(p95Nanos, minHedgeDelay.toNanos()));
+        }
+    }
+}
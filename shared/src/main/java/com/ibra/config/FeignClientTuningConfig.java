@@ -0,0 +1,79 @@
+package com.ibra.config;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Shared tuning for the services' Feign clients, see {@link FeignClientTuning}, {@link FeignRetryBudget} and
+ * {@link FeignClientIsolation}.
+ * <p>
+ * With {@code feign-hc5} on the classpath Spring Cloud OpenFeign sends every call through one pooled Apache
+ * HttpClient 5 (sized by {@code spring.cloud.openfeign.httpclient.*}); its pool is exported as
+ * {@code httpcomponents.httpclient.pool.*} with {@code httpclient=feign}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "feign.Capability")
+public class FeignClientTuningConfig {
+
+    @Bean
+    public FeignClientTuning feignClientTuning(Environment environment,
+                                               ObjectProvider<MeterRegistry> meterRegistry,
+                                               @Value("${app.feign.hedging.max-ratio:0.1}") double maxHedgeRatio,
+                                               @Value("${app.feign.hedging.initial-delay:100ms}") Duration initialHedgeDelay,
+                                               @Value("${app.feign.hedging.min-delay:5ms}") Duration minHedgeDelay) {
+        return new FeignClientTuning(environment, meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                maxHedgeRatio, initialHedgeDelay, minHedgeDelay);
+    }
+
+    @Bean
+    public FeignRetryBudget feignRetryBudget(ObjectProvider<MeterRegistry> meterRegistry,
+                                             @Value("${app.feign.retry.max-attempts:2}") int maxAttempts,
+                                             @Value("${app.feign.retry.backoff:50ms}") Duration backoff,
+                                             @Value("${app.feign.retry.max-elapsed:2s}") Duration maxElapsed,
+                                             @Value("${app.feign.retry.budget-ratio:0.1}") double budgetRatio) {
+        return new FeignRetryBudget(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                maxAttempts, backoff, maxElapsed, budgetRatio);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.github.resilience4j.bulkhead.BulkheadRegistry")
+    static class Bulkheads {
+
+        // Boot's resilience4j registry when there is one, so resilience4j.bulkhead.* applies and its meters are bound
+        @Bean
+        FeignClientIsolation feignClientIsolation(ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                                  ObjectProvider<MeterRegistry> meterRegistry,
+                                                  Environment environment,
+                                                  @Value("${app.feign.stale.max-entries:1000}") int maxStaleEntries) {
+            return new FeignClientIsolation(bulkheadRegistry.getIfAvailable(BulkheadRegistry::ofDefaults),
+                    meterRegistry.getIfAvailable(SimpleMeterRegistry::new), environment, maxStaleEntries);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager")
+    static class ConnectionPoolMetrics {
+
+        @Bean
+        MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+            return registry -> {
+                if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                    new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ibra.config;
+
+import feign.Capability;
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Retries for every Feign client, capped by a budget instead of a fixed count alone.
+ * <p>
+ * Only GETs are retried, and only for {@link RetryableException}s (connection failures, read timeouts, 503 with
+ * {@code Retry-After}). A call gets at most {@code app.feign.retry.max-attempts} attempts, stops retrying once it has
+ * run for {@code app.feign.retry.max-elapsed}, and each client may retry at most {@code app.feign.retry.budget-ratio}
+ * of its calls. Without the budget, retries multiply the load on a dependency exactly when it is overloaded.
+ */
+public class FeignRetryBudget implements Capability {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxElapsed;
+    private final double budgetRatio;
+
+    public FeignRetryBudget(MeterRegistry meterRegistry, int maxAttempts, Duration backoff, Duration maxElapsed,
+                            double budgetRatio) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxElapsed = maxElapsed;
+        this.budgetRatio = budgetRatio;
+    }
+
+    // Called once per Feign client, so each client gets its own budget
+    @Override
+    public Retryer enrich(Retryer retryer) {
+        if (maxAttempts <= 1) {
+            return retryer;
+        }
+        return new BudgetedRetryer(new AttemptBudget(budgetRatio), System.nanoTime());
+    }
+
+    private void count(String name, RetryableException e) {
+        String client = e.request() != null && e.request().requestTemplate() != null
+                && e.request().requestTemplate().feignTarget() != null
+                ? e.request().requestTemplate().feignTarget().name() : "unknown";
+        Counter.builder(name)
+                .tag("client", client)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Feign clones the client's retryer at the start of every call, so a clone tracks one call.
+     */
+    private final class BudgetedRetryer implements Retryer {
+
+        private final AttemptBudget budget;
+        private final long startedAt;
+        private int attempt = 1;
+
+        BudgetedRetryer(AttemptBudget budget, long startedAt) {
+            this.budget = budget;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void continueOrPropagate(RetryableException e) {
+            if (attempt >= maxAttempts || e.method() != Request.HttpMethod.GET
+                    || System.nanoTime() - startedAt + backoff.toNanos() > maxElapsed.toNanos()) {
+                throw e;
+            }
+            if (!budget.tryWithdraw()) {
+                count("feign.client.retries.denied", e);
+                throw e;
+            }
+            attempt++;
+            count("feign.client.retries", e);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+
+        @Override
+        public Retryer clone() {
+            budget.deposit();
+            return new BudgetedRetryer(budget, System.nanoTime());
+        }
+    }
+}
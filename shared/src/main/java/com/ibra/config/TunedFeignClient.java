@@ -0,0 +1,138 @@
+package com.ibra.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feign client that applies a {@link FeignClientTuning.MethodPolicy} around the load-balanced client, so a hedge
+ * may land on another instance than the attempt it backs up.
+ */
+class TunedFeignClient implements Client {
+
+    private final Client delegate;
+    private final FeignClientTuning tuning;
+    private final ExecutorService hedgeExecutor;
+
+    TunedFeignClient(Client delegate, FeignClientTuning tuning, ExecutorService hedgeExecutor) {
+        this.delegate = delegate;
+        this.tuning = tuning;
+        this.hedgeExecutor = hedgeExecutor;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        FeignClientTuning.MethodPolicy policy = tuning.policy(request);
+        Request.Options methodOptions = policy.options(options);
+        // Only GETs are safe to send twice
+        if (!policy.hedged() || request.httpMethod() != Request.HttpMethod.GET) {
+            long start = System.nanoTime();
+            Response response = delegate.execute(request, methodOptions);
+            policy.record(System.nanoTime() - start);
+            return response;
+        }
+        return executeHedged(request, methodOptions, policy);
+    }
+
+    private Response executeHedged(Request request, Request.Options options, FeignClientTuning.MethodPolicy policy) throws IOException {
+        AttemptBudget budget = tuning.hedgeBudget(policy.client());
+        budget.deposit();
+        CompletableFuture<Response> primary = attempt(request, options, policy);
+        try {
+            return primary.get(policy.hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!budget.tryWithdraw()) {
+                return await(primary);
+            }
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(TunedFeignClient::closeQuietly);
+            throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+        }
+
+        policy.hedgeSent();
+        CompletableFuture<Response> hedge = attempt(request, options, policy);
+        CompletableFuture<Response> first = new CompletableFuture<>();
+        AtomicBoolean answered = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, error) -> settle(first, answered, failures, response, error, () -> { }));
+        hedge.whenComplete((response, error) -> settle(first, answered, failures, response, error, policy::hedgeWon));
+        return await(first);
+    }
+
+    private CompletableFuture<Response> attempt(Request request, Request.Options options, FeignClientTuning.MethodPolicy policy) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                Response response = delegate.execute(request, options);
+                policy.record(System.nanoTime() - start);
+                return response;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, hedgeExecutor);
+    }
+
+    // The first answer wins and the other is closed so its connection goes back to the pool; fails only if both fail
+    private static void settle(CompletableFuture<Response> first, AtomicBoolean answered, AtomicInteger failures,
+                               Response response, Throwable error, Runnable onWin) {
+        if (error == null) {
+            if (answered.compareAndSet(false, true)) {
+                // Before completing, so the caller already sees the win counted
+                onWin.run();
+                first.complete(response);
+            } else {
+                closeQuietly(response);
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> response) throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.thenAccept(TunedFeignClient::closeQuietly);
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        }
+    }
+
+    private static IOException rethrow(Throwable error) throws IOException {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        throw new IOException(error);
+    }
+
+    private static void closeQuietly(Response response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+}
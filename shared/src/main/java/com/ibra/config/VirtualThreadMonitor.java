@@ -0,0 +1,160 @@
+package com.ibra.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reports virtual threads that pin their carrier, and the state of the carrier pool.
+ * <p>
+ * Pinning (blocking inside {@code synchronized} or a native frame) holds a carrier thread for the whole wait and
+ * can starve every other virtual thread. JFR records each pin longer than {@code pinnedThreshold}; they are timed
+ * as {@code jvm.threads.virtual.pinned}, and the first pin at each code location is logged with its stack so the
+ * offending monitor can be found. Virtual threads the scheduler could not start count as
+ * {@code jvm.threads.virtual.submit.failed}.
+ * <p>
+ * Carrier gauges read the JDK's default scheduler, which needs {@code --add-opens java.base/java.lang=ALL-UNNAMED};
+ * without it only the configured parallelism is exported.
+ */
+public class VirtualThreadMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private static final int MAX_LOGGED_SITES = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration pinnedThreshold;
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadMonitor(MeterRegistry meterRegistry, Duration pinnedThreshold) {
+        this.pinnedThreshold = pinnedThreshold;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads held their carrier while blocked")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be scheduled")
+                .register(meterRegistry);
+        registerCarrierMetrics(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        recording.enable(SUBMIT_FAILED_EVENT);
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        recording.startAsync();
+        stream = recording;
+        logger.info("Virtual threads enabled; reporting carrier pinning longer than {} ms", pinnedThreshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String site = pinningSite(frames);
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            StringBuilder trace = new StringBuilder();
+            for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+                trace.append("\n\tat ").append(frame(frames.get(i)));
+            }
+            logger.warn("Virtual thread pinned its carrier for {} ms at {}{}", event.getDuration().toMillis(), site, trace);
+        }
+    }
+
+    // The first application frame; JDK frames on top only say how the thread blocked, not where
+    private static String pinningSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frame(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frame(frames.get(0));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static void registerCarrierMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("jvm.threads.virtual.carrier.parallelism", VirtualThreadMonitor::configuredParallelism)
+                .description("Carrier threads the virtual thread scheduler aims to keep busy")
+                .register(meterRegistry);
+
+        ForkJoinPool scheduler = defaultScheduler();
+        if (scheduler == null) {
+            return;
+        }
+        Gauge.builder("jvm.threads.virtual.carrier.pool.size", scheduler, ForkJoinPool::getPoolSize)
+                .description("Carrier threads started, including those compensating for pinned ones")
+                .register(meterRegistry);
+        Gauge.builder("jvm.threads.virtual.carrier.active", scheduler, ForkJoinPool::getActiveThreadCount)
+                .description("Carrier threads running or pinned by a virtual thread")
+                .register(meterRegistry);
+        Gauge.builder("jvm.threads.virtual.carrier.queued", scheduler,
+                        pool -> pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount())
+                .description("Virtual threads ready to run and waiting for a carrier")
+                .register(meterRegistry);
+        FunctionCounter.builder("jvm.threads.virtual.carrier.steals", scheduler, ForkJoinPool::getStealCount)
+                .description("Virtual threads taken over from another carrier's queue")
+                .register(meterRegistry);
+    }
+
+    private static int configuredParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    static ForkJoinPool defaultScheduler() {
+        try {
+            Field field = Class.forName("java.lang.VirtualThread").getDeclaredField("DEFAULT_SCHEDULER");
+            field.setAccessible(true);
+            return field.get(null) instanceof ForkJoinPool pool ? pool : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.info("Carrier pool metrics unavailable, start with --add-opens java.base/java.lang=ALL-UNNAMED to export them: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+}
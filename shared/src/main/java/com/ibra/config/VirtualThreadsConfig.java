@@ -0,0 +1,67 @@
+package com.ibra.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread mode for the servlet services, switched on with {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Spring Boot itself then serves Tomcat requests, {@code @Async} and {@code @Scheduled} methods and its own
+ * listener container factory on virtual threads; Feign calls run on the calling thread, so they follow. This adds
+ * the pieces Boot does not cover: the Rabbit listener container factories the services declare themselves, the
+ * executor Resilience4j runs time-limited circuit breaker calls on, and the {@link VirtualThreadMonitor} that
+ * reports pinned carriers.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public VirtualThreadMonitor virtualThreadMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                     @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration pinnedThreshold) {
+        return new VirtualThreadMonitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), pinnedThreshold);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory")
+    static class RabbitListeners {
+
+        @Bean
+        static BeanPostProcessor virtualThreadRabbitListeners() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof AbstractRabbitListenerContainerFactory<?> factory) {
+                        factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory")
+    static class CircuitBreakers {
+
+        @Bean
+        Customizer<Resilience4JCircuitBreakerFactory> virtualThreadCircuitBreakers() {
+            return factory -> factory.configureExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+        }
+    }
+}
@@ -41,5 +41,6 @@ public class MenuItemDTO {
     private MenuItemStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private String sku;
 
 }
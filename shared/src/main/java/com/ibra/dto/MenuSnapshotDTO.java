@@ -0,0 +1,25 @@
+package com.ibra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The orderable menu of a restaurant as it was at one version. A version never changes once published; any menu
+ * write publishes the next one. Only available items are listed.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuSnapshotDTO {
+
+    private Long restaurantId;
+    private long version;
+    private LocalDateTime createdAt;
+    private List<MenuItemDTO> items;
+}
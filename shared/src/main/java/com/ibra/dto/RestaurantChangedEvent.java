@@ -0,0 +1,21 @@
+package com.ibra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by restaurant-service after a restaurant or one of its menu items changes,
+ * so that caches of the public catalog can be purged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+    private Long restaurantId;
+    private Long menuItemId;
+    private String eventType;
+    private LocalDateTime changedAt;
+}
@@ -46,6 +46,8 @@ public class RestaurantDTO {
     private List<MenuItemDTO> menuItems;
     private String cuisine;
     private Double rate;
+    private Double latitude;
+    private Double longitude;
 
 
     //TODO for test
@@ -0,0 +1,26 @@
+package com.ibra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of restaurants, ordered by id. Pass {@code nextCursor} back as {@code cursor} to get the next page;
+ * unlike page numbers, cursors do not skip or repeat restaurants when rows are added or removed in between.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestaurantPageDTO {
+
+    private List<RestaurantDTO> content;
+    // Requested page number, null when the page was requested by cursor
+    private Integer page;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
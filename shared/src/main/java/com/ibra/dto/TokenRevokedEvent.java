@@ -0,0 +1,32 @@
+package com.ibra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Published by auth-service when access tokens must stop being accepted before they expire.
+ * <p>
+ * With a {@code jti} only that token is revoked (logout). Without one, every token of {@code userId} issued
+ * before {@code notBefore} is revoked (role change, suspected theft), compared at millisecond precision against
+ * the {@value #ISSUED_AT_MILLIS_CLAIM} claim. Either way the revocation can be forgotten after {@code expiresAt},
+ * when the tokens it covers have expired anyway.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokedEvent {
+
+    /**
+     * Access token claim with the issue time in epoch milliseconds; the standard iat claim has whole seconds.
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
+    private String jti;
+    private Long userId;
+    private Instant notBefore;
+    private Instant expiresAt;
+    private String reason;
+}
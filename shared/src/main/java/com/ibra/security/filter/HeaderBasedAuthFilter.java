@@ -1,13 +1,23 @@
 package com.ibra.security.filter;
 
+import com.ibra.security.identity.AuthenticatedUser;
+import com.ibra.security.identity.GrantedAuthorities;
+import com.ibra.security.identity.IdentityAuthentication;
+import com.ibra.security.identity.IdentitySigner;
+import com.ibra.security.jwt.JwksKeyLocator;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component; // Make it a Spring Component
 import org.springframework.stereotype.Service;
@@ -15,51 +25,120 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import reactor.util.annotation.NonNull; // Keep if you use reactor annotations, otherwise remove
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class HeaderBasedAuthFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(HeaderBasedAuthFilter.class);
 
+    // Present only in services that declare a JwksKeyLocator bean
+    private final JwtParser jwtParser;
+
+    // Present only when internal.secret is set; the plain X-User-* headers are then no longer trusted
+    private final IdentitySigner identitySigner;
+
+    public HeaderBasedAuthFilter(ObjectProvider<JwksKeyLocator> keyLocator,
+                                 @Value("${internal.secret:}") String internalSecret,
+                                 @Value("${internal.identity.max-age:60s}") Duration identityMaxAge) {
+        JwksKeyLocator locator = keyLocator.getIfAvailable();
+        this.jwtParser = locator != null ? Jwts.parser().keyLocator(locator).build() : null;
+        this.identitySigner = IdentitySigner.forSecret(internalSecret, identityMaxAge);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
 
+        // The gateway's signed identity wins over the token it was derived from: the gateway has also checked the
+        // token against revoked tokens, which are not known here
+        String signedIdentity = identitySigner != null ? request.getHeader(IdentitySigner.HEADER) : null;
+        if (signedIdentity != null) {
+            authenticateFromSignedIdentity(signedIdentity);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Callers that skip the gateway are authenticated by verifying their bearer token against the auth-service
+        // keys. Revocations are not checked for these; access tokens are short-lived, which bounds that gap.
+        if (authenticateFromToken(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (identitySigner != null) {
+            logger.debug("No {} header found. Proceeding without explicit authentication for this request.", IdentitySigner.HEADER);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String userId = request.getHeader("X-User-Id");
         String userRolesHeader = request.getHeader("X-User-Role");
-        String userEmail = request.getHeader("X-User-Email"); // Assuming this header is also propagated
 
         if (userId != null && !userId.isEmpty() && userRolesHeader != null && !userRolesHeader.isEmpty()) {
-            try {
-                Long parsedUserId = Long.parseLong(userId);
-                List<SimpleGrantedAuthority> authorities = Arrays.stream(userRolesHeader.split(","))
-                        .map(String::trim)
-                        .filter(role -> !role.isEmpty())
-                        .map(SimpleGrantedAuthority::new) // Assumes roles like "ROLE_ADMIN" or "ADMIN" if your @PreAuthorize uses hasAuthority
-                        .collect(Collectors.toList());
-
-                // The principal can be any object representing the user. Here, we'll use the userId.
+            long parsedUserId = parseUserId(userId);
+            List<GrantedAuthority> authorities = GrantedAuthorities.of(userRolesHeader);
+            if (parsedUserId > 0 && !authorities.isEmpty()) {
+                // Parsed once here; controllers get it back through @CurrentUser.
                 // Credentials are null as authentication happened upstream at the Gateway.
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(parsedUserId, null, authorities);
-                // Optionally, you can add more details to the principal if needed, e.g., the email
-                // authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                AuthenticatedUser user = new AuthenticatedUser(parsedUserId, request.getHeader("X-User-Email"),
+                        userRolesHeader, authorities);
+                SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(user));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                logger.debug("Populated SecurityContext with user ID: {} and roles: {}, and email: {}", parsedUserId, userRolesHeader, userEmail);
-
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid X-User-Id header format: {}", userId);
-            } catch (Exception e) {
-                logger.error("Error processing header-based authentication: {}", e.getMessage(), e);
+                logger.debug("Populated SecurityContext with user ID: {} and roles: {}", parsedUserId, userRolesHeader);
+            } else {
+                logger.warn("Ignoring invalid X-User-Id '{}' or X-User-Role '{}' headers", userId, userRolesHeader);
             }
         } else {
             logger.debug("No X-User-Id or X-User-Roles headers found. Proceeding without explicit authentication for this request.");
         }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticateFromSignedIdentity(String signedIdentity) {
+        AuthenticatedUser user = identitySigner.verify(signedIdentity);
+        if (user == null || user.userId() <= 0 || user.authorities().isEmpty()) {
+            logger.warn("Rejected {} header with a bad signature, bad format or past its maximum age", IdentitySigner.HEADER);
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(user));
+        logger.debug("Populated SecurityContext from signed identity for user ID: {}", user.userId());
+    }
+
+    private boolean authenticateFromToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (jwtParser == null || authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+
+        try {
+            Claims claims = jwtParser.parseSignedClaims(authHeader.substring(7)).getPayload();
+            Long userId = claims.get("id", Long.class);
+            String role = claims.get("role", String.class);
+            if (userId == null || role == null) {
+                return false;
+            }
+
+            AuthenticatedUser user = new AuthenticatedUser(userId, claims.get("email", String.class), role,
+                    GrantedAuthorities.of(role));
+            SecurityContextHolder.getContext().setAuthentication(new IdentityAuthentication(user));
+
+            logger.debug("Populated SecurityContext from locally verified JWT for user ID: {}", userId);
+            return true;
+        } catch (JwtException e) {
+            // Tokens this service cannot verify (e.g. legacy tokens without a key id) fall back to the gateway headers
+            logger.debug("Local JWT verification failed, falling back to forwarded headers: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Ids are positive database keys; anything else (including overflow) yields -1
+    private static long parseUserId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package com.ibra.security.identity;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The caller of the current request, parsed once by {@link com.ibra.security.filter.HeaderBasedAuthFilter}
+ * and held as the principal of the security context.
+ * <p>
+ * Controllers receive it through a {@link CurrentUser} parameter instead of reading the {@code X-User-*} headers.
+ * {@code role} is the role value as sent by the gateway or carried in the token; {@code email} may be null when
+ * the caller did not supply one.
+ */
+public record AuthenticatedUser(long userId, String email, String role, List<GrantedAuthority> authorities) {
+
+    public boolean hasAuthority(String authority) {
+        for (GrantedAuthority granted : authorities) {
+            if (granted.getAuthority().equals(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
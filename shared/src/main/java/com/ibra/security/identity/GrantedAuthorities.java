@@ -0,0 +1,67 @@
+package com.ibra.security.identity;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authority lists for comma separated role values such as {@code "CUSTOMER"} or {@code "ADMIN, RESTAURANT_OWNER"}.
+ * <p>
+ * There are only a handful of role combinations, so each distinct value is parsed once and the resulting
+ * immutable list is shared by every request that carries it. The number of interned values is capped because the
+ * role header can come from a client; values beyond the cap are parsed on every call.
+ */
+public final class GrantedAuthorities {
+
+    static final int MAX_INTERNED = 256;
+
+    private static final ConcurrentHashMap<String, List<GrantedAuthority>> INTERNED = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    /**
+     * The authorities named by {@code roles}, ignoring blank entries. Returns an empty list for a null value.
+     */
+    public static List<GrantedAuthority> of(String roles) {
+        if (roles == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = INTERNED.get(roles);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parse(roles);
+        if (INTERNED.size() < MAX_INTERNED) {
+            List<GrantedAuthority> existing = INTERNED.putIfAbsent(roles, authorities);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authorities;
+    }
+
+    static int internedCount() {
+        return INTERNED.size();
+    }
+
+    private static List<GrantedAuthority> parse(String roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(1);
+        int start = 0;
+        while (start <= roles.length()) {
+            int end = roles.indexOf(',', start);
+            if (end < 0) {
+                end = roles.length();
+            }
+            String role = roles.substring(start, end).trim();
+            if (!role.isEmpty()) {
+                authorities.add(new SimpleGrantedAuthority(role));
+            }
+            start = end + 1;
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ibra.security.identity;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * {@link Authentication} for a caller that was authenticated upstream (by the gateway or a verified token).
+ * <p>
+ * Unlike {@code UsernamePasswordAuthenticationToken} it does not copy the authority list, so the interned list
+ * from {@link GrantedAuthorities} is handed out as is.
+ */
+public final class IdentityAuthentication implements Authentication {
+
+    private final AuthenticatedUser user;
+    private boolean authenticated = true;
+
+    public IdentityAuthentication(AuthenticatedUser user) {
+        this.user = user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.authorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return user;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("An identity authentication cannot be marked as authenticated again");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String getName() {
+        return Long.toString(user.userId());
+    }
+
+    @Override
+    public String toString() {
+        return "IdentityAuthentication[userId=" + user.userId() + ", authorities=" + user.authorities() + "]";
+    }
+}
@@ -0,0 +1,128 @@
+package com.ibra.security.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * Signs and verifies the {@value #HEADER} header, the caller identity the gateway hands to downstream services.
+ * <p>
+ * The value is {@code <userId>;<issuedAtSeconds>;<role>;<email>.<signature>}, where the signature is the
+ * base64url HMAC-SHA256 of everything before the last dot, keyed with the {@code internal.secret} shared by the
+ * gateway and the services. Verifying it costs one HMAC and a constant-time compare instead of a JWT parse, and
+ * services can forward the header unchanged on calls to each other. A header older than {@code maxAge} is refused,
+ * which bounds how long a captured one can be replayed.
+ * <p>
+ * {@link Mac} is not thread-safe and costly to initialise. One keyed instance is kept as a prototype and cloned per
+ * call, which copies the already-derived key state; a per-thread cache would miss on every virtual thread.
+ */
+public final class IdentitySigner {
+
+    public static final String HEADER = "X-User-Identity";
+
+    static final int MIN_SECRET_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char FIELD_SEPARATOR = ';';
+    private static final char SIGNATURE_SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+    private final long maxAgeSeconds;
+    private final LongSupplier epochSeconds;
+    private final Mac prototype;
+
+    public IdentitySigner(String secret, Duration maxAge) {
+        this(secret, maxAge, () -> System.currentTimeMillis() / 1000);
+    }
+
+    IdentitySigner(String secret, Duration maxAge, LongSupplier epochSeconds) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("internal.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.maxAgeSeconds = maxAge.toSeconds();
+        this.epochSeconds = epochSeconds;
+        // Fail at startup rather than on the first request if the JDK cannot do HMAC-SHA256
+        this.prototype = newMac();
+    }
+
+    /**
+     * A signer for {@code secret}, or null when no secret is configured.
+     */
+    public static IdentitySigner forSecret(String secret, Duration maxAge) {
+        return secret == null || secret.isBlank() ? null : new IdentitySigner(secret, maxAge);
+    }
+
+    public String sign(long userId, String email, String role) {
+        String payload = Long.toString(userId) + FIELD_SEPARATOR + epochSeconds.getAsLong() + FIELD_SEPARATOR
+                + role + FIELD_SEPARATOR + (email != null ? email : "");
+        byte[] signature = mac().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return payload + SIGNATURE_SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    /**
+     * The identity carried by a header value, or null when the signature does not match, the value is
+     * malformed or it is older than the maximum age.
+     */
+    public AuthenticatedUser verify(String value) {
+        int signatureStart = value.lastIndexOf(SIGNATURE_SEPARATOR);
+        if (signatureStart < 0) {
+            return null;
+        }
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(value.substring(signatureStart + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String payload = value.substring(0, signatureStart);
+        if (!MessageDigest.isEqual(mac().doFinal(payload.getBytes(StandardCharsets.UTF_8)), signature)) {
+            return null;
+        }
+
+        // Signed by us, so the layout is known; the email goes last as it is the only field that may contain ';'
+        int issuedAtStart = payload.indexOf(FIELD_SEPARATOR) + 1;
+        int roleStart = payload.indexOf(FIELD_SEPARATOR, issuedAtStart) + 1;
+        int emailStart = payload.indexOf(FIELD_SEPARATOR, roleStart) + 1;
+        if (issuedAtStart == 0 || roleStart == 0 || emailStart == 0) {
+            return null;
+        }
+        try {
+            long userId = Long.parseLong(payload, 0, issuedAtStart - 1, 10);
+            long issuedAt = Long.parseLong(payload, issuedAtStart, roleStart - 1, 10);
+            if (Math.abs(epochSeconds.getAsLong() - issuedAt) > maxAgeSeconds) {
+                return null;
+            }
+            String role = payload.substring(roleStart, emailStart - 1);
+            String email = emailStart < payload.length() ? payload.substring(emailStart) : null;
+            return new AuthenticatedUser(userId, email, role, GrantedAuthorities.of(role));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Providers whose HMAC cannot be cloned get a fresh instance each time
+            return newMac();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
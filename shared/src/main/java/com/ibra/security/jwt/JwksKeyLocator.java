@@ -0,0 +1,139 @@
+package com.ibra.security.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resolves JWT verification keys by key id from the auth-service JWKS document.
+ * <p>
+ * The key set is held in memory and refreshed in the background, so verification never waits on the network.
+ * Auth-service publishes new keys before it starts signing with them, so an unknown key id normally means a
+ * forged or stale token. It still triggers an early (rate limited) refresh in case this instance fell behind.
+ */
+public class JwksKeyLocator extends LocatorAdapter<Key> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyLocator.class);
+
+    private final Supplier<String> jwksSource;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final SecretKey legacyKey;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final AtomicLong lastRefreshAttempt = new AtomicLong();
+
+    private volatile Map<String, PublicKey> keysById = Map.of();
+
+    /**
+     * @param jwksSource         fetches the raw JWKS JSON, called only from the background refresh thread
+     * @param refreshInterval    how often the key set is reloaded
+     * @param minRefreshInterval minimum gap between refreshes triggered by unknown key ids
+     * @param legacyKey          HMAC key accepted for tokens without a key id, or {@code null} to reject them
+     */
+    public JwksKeyLocator(Supplier<String> jwksSource, Duration refreshInterval, Duration minRefreshInterval,
+                          SecretKey legacyKey) {
+        this.jwksSource = jwksSource;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.legacyKey = legacyKey;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the key set immediately and then on every refresh interval.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches and installs the current key set. Keeps the previous set if the fetch fails.
+     *
+     * @return {@code true} if a new key set was installed
+     */
+    public boolean refresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return false;
+        }
+        lastRefreshAttempt.set(System.nanoTime());
+        try {
+            keysById = parse(jwksSource.get());
+            logger.debug("Loaded {} JWT verification key(s): {}", keysById.size(), keysById.keySet());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to refresh JWKS, keeping {} known key(s): {}", keysById.size(), e.getMessage());
+            return false;
+        } finally {
+            refreshInProgress.set(false);
+        }
+    }
+
+    public boolean hasKeys() {
+        return !keysById.isEmpty();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (legacyKey != null) {
+                return legacyKey;
+            }
+            throw new UnsupportedJwtException("JWT has no key id");
+        }
+
+        PublicKey key = keysById.get(keyId);
+        if (key == null) {
+            requestRefresh();
+            throw new UnsupportedJwtException("Unknown JWT signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void requestRefresh() {
+        long sinceLast = System.nanoTime() - lastRefreshAttempt.get();
+        if (sinceLast >= minRefreshInterval.toNanos() && !refreshInProgress.get()) {
+            scheduler.execute(this::refresh);
+        }
+    }
+
+    private static Map<String, PublicKey> parse(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null) {
+                keys.put(jwk.getId(), publicJwk.toKey());
+            }
+        }
+        return Map.copyOf(keys);
+    }
+}